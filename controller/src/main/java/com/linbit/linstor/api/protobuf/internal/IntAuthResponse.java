@@ -95,6 +95,10 @@ public class IntAuthResponse implements ApiCallReactive
             );
             stltConfig = msgAuthResponse.getStltConfig();
             dynamicPropList = ProtoDeserializationUtils.parseProperties(msgAuthResponse.getPropertiesList());
+
+            // older satellites do not set this flag and therefore only receive uncompressed messages
+            peer.setCompressionEnabled(msgAuthResponse.getCompressionEnabled());
+            peer.setChunkedMessagesEnabled(msgAuthResponse.getChunkedMessagesEnabled());
         }
         else
         {
@@ -5,6 +5,7 @@ import javax.inject.Singleton;
 
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.api.ApiCall;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.protobuf.ProtobufApiCall;
 import com.linbit.linstor.core.apicallhandler.controller.internal.RscDfnInternalCallHandler;
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntPrimaryOuterClass.MsgIntPrimary;
@@ -19,7 +20,8 @@ import java.util.UUID;
  */
 @ProtobufApiCall(
     name = InternalApiConsts.API_REQUEST_PRIMARY_RSC,
-    description = "Satellite request primary for a resource"
+    description = "Satellite request primary for a resource",
+    priority = ApiCallPriority.HIGH
 )
 @Singleton
 public class RequestPrimaryResource implements ApiCall
@@ -575,7 +575,7 @@ public final class Controller
                     new CoreTimerModule(),
                     new MetaDataModule(),
                     new ControllerLinstorModule(),
-                    new LinStorModule(),
+                    new LinStorModule(cfg.getWorkerPoolMode()),
                     new CoreModule(),
                     new ControllerCoreModule(),
                     new ControllerSatelliteCommunicationModule(),
@@ -70,6 +70,7 @@ public final class ControllerNetComInitializer implements StartupInitializer
     private static final String PROPSCON_KEY_NETCOM_ENABLED = ApiConsts.KEY_NETCOM_ENABLED;
     private static final String PROPSCON_NETCOM_TYPE_PLAIN = ApiConsts.VAL_NETCOM_TYPE_PLAIN;
     private static final String PROPSCON_NETCOM_TYPE_SSL = ApiConsts.VAL_NETCOM_TYPE_SSL;
+    private static final String PROPSCON_KEY_NETCOM_WORKER_THREADS = "workerThreads";
     static final String PROPSCON_KEY_DEFAULT_DEBUG_SSL_CON_SVC = "defaultDebugSslConnector";
     static final String PROPSCON_KEY_DEFAULT_PLAIN_CON_SVC = "defaultPlainConSvc";
     static final String PROPSCON_KEY_DEFAULT_SSL_CON_SVC = "defaultSslConSvc";
@@ -540,6 +541,12 @@ public final class ControllerNetComInitializer implements StartupInitializer
 
         if (netComSvc != null)
         {
+            if (netComSvc instanceof TcpConnectorService)
+            {
+                ((TcpConnectorService) netComSvc).setWorkerThreadCount(
+                    loadWorkerThreadCount(serviceName, configProp, errorLogRef)
+                );
+            }
             netComSvc.setServiceInstanceName(serviceName);
             netComContainer.putNetComContainer(serviceName, netComSvc);
             systemServicesMap.put(serviceName, netComSvc);
@@ -605,6 +612,36 @@ public final class ControllerNetComInitializer implements StartupInitializer
         }
     }
 
+    private int loadWorkerThreadCount(ServiceName serviceName, Props configProp, ErrorReporter errorLogRef)
+    {
+        int workerThreads = TcpConnectorService.DEFAULT_WORKER_THREAD_COUNT;
+        String workerThreadsStr = loadProp(
+            configProp,
+            PROPSCON_KEY_NETCOM_WORKER_THREADS,
+            Integer.toString(workerThreads)
+        );
+        try
+        {
+            workerThreads = Integer.parseInt(workerThreadsStr);
+            if (workerThreads < 0)
+            {
+                throw new NumberFormatException();
+            }
+        }
+        catch (NumberFormatException nfExc)
+        {
+            workerThreads = TcpConnectorService.DEFAULT_WORKER_THREAD_COUNT;
+            errorLogRef.logWarning(
+                "The network communication service '%s' has an invalid number of worker threads '%s', " +
+                    "using the default of %d worker threads",
+                serviceName.displayValue,
+                workerThreadsStr,
+                workerThreads
+            );
+        }
+        return workerThreads;
+    }
+
     private String loadPropChecked(Props props, String key) throws SystemServiceStartException
     {
         String value;
@@ -11,6 +11,8 @@ import com.linbit.linstor.core.repository.ResourceDefinitionRepository;
 import com.linbit.linstor.core.repository.StorPoolDefinitionRepository;
 import com.linbit.linstor.dbdrivers.DatabaseDriver;
 import com.linbit.linstor.dbdrivers.DatabaseException;
+import com.linbit.linstor.dbdrivers.DbEngine;
+import com.linbit.linstor.dbdrivers.DbStartupSnapshot;
 import com.linbit.linstor.dbdrivers.interfaces.StorPoolDefinitionDatabaseDriver;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.propscon.Props;
@@ -26,6 +28,7 @@ import com.linbit.linstor.transaction.manager.TransactionMgrUtil;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import java.io.IOException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -45,6 +48,8 @@ public class DbDataInitializer implements StartupInitializer
     private final DatabaseDriver databaseDriver;
     private final StorPoolDefinitionDatabaseDriver storPoolDfnDbDriver;
     private final TransactionMgrGenerator transactionMgrGenerator;
+    private final DbEngine dbEngine;
+    private final DbStartupSnapshot startupSnapshot;
 
     @Inject
     public DbDataInitializer(
@@ -59,7 +64,9 @@ public class DbDataInitializer implements StartupInitializer
         @Named(CoreModule.RECONFIGURATION_LOCK) ReadWriteLock reconfigurationLockRef,
         DatabaseDriver databaseDriverRef,
         StorPoolDefinitionDatabaseDriver storPoolDfnDbDriverRef,
-        TransactionMgrGenerator transactionMgrGeneratorRef
+        TransactionMgrGenerator transactionMgrGeneratorRef,
+        DbEngine dbEngineRef,
+        DbStartupSnapshot startupSnapshotRef
     )
     {
         errorReporter = errorReporterRef;
@@ -74,6 +81,8 @@ public class DbDataInitializer implements StartupInitializer
         databaseDriver = databaseDriverRef;
         storPoolDfnDbDriver = storPoolDfnDbDriverRef;
         transactionMgrGenerator = transactionMgrGeneratorRef;
+        dbEngine = dbEngineRef;
+        startupSnapshot = startupSnapshotRef;
     }
 
     @Override
@@ -173,11 +182,63 @@ public class DbDataInitializer implements StartupInitializer
         resourceDefinitionRepository.requireAccess(initCtx, AccessType.CONTROL);
         storPoolDefinitionRepository.requireAccess(initCtx, AccessType.CONTROL);
 
-        databaseDriver.loadAll();
+        startupSnapshot.prepareLoad(dbEngine);
+        try
+        {
+            databaseDriver.loadAll();
+        }
+        finally
+        {
+            startupSnapshot.finishLoad();
+        }
 
         errorReporter.logInfo("Core objects load from database completed");
     }
 
+    /**
+     * Writes the startup snapshot, if enabled. All tasks that could modify the database were already stopped
+     * at this point.
+     */
+    @Override
+    public void shutdown()
+    {
+        if (startupSnapshot.isEnabled())
+        {
+            writeStartupSnapshot();
+        }
+    }
+
+    private void writeStartupSnapshot()
+    {
+        TransactionMgr transMgr = transactionMgrGenerator.startTransaction();
+        initScope.enter();
+        try
+        {
+            TransactionMgrUtil.seedTransactionMgr(initScope, transMgr);
+            initScope.seed(Key.get(AccessContext.class, PeerContext.class), initCtx);
+            initScope.seed(Key.get(AccessContext.class, ErrorReporterContext.class), initCtx);
+
+            startupSnapshot.write(dbEngine);
+        }
+        catch (DatabaseException | IOException exc)
+        {
+            errorReporter.reportError(exc, initCtx, null, "Writing the startup snapshot failed");
+        }
+        finally
+        {
+            try
+            {
+                transMgr.rollback();
+            }
+            catch (TransactionException exc)
+            {
+                errorReporter.reportError(exc, initCtx, null, "Rollback after writing the startup snapshot failed");
+            }
+            transMgr.returnConnection();
+            initScope.exit();
+        }
+    }
+
     private void initializeDisklessStorPoolDfn()
         throws AccessDeniedException, DatabaseException
     {
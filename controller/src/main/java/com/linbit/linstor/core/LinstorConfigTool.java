@@ -17,6 +17,7 @@ import com.linbit.linstor.dbcp.k8s.crd.DbK8sCrd;
 import com.linbit.linstor.dbcp.k8s.crd.DbK8sCrdInitializer;
 import com.linbit.linstor.dbcp.migration.AbsMigration;
 import com.linbit.linstor.dbdrivers.DatabaseDriverInfo;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.dbdrivers.SQLUtils;
 import com.linbit.linstor.dbdrivers.etcd.EtcdUtils;
 import com.linbit.linstor.logging.ErrorReporter;
@@ -25,6 +26,8 @@ import com.linbit.linstor.logging.StderrErrorReporter;
 import com.linbit.linstor.modularcrypto.ModularCryptoProvider;
 import com.linbit.linstor.transaction.ControllerETCDTransactionMgrGenerator;
 import com.linbit.linstor.transaction.ControllerK8sCrdTransactionMgrGenerator;
+import com.linbit.linstor.transaction.EtcdGroupCommitStats;
+import com.linbit.linstor.transaction.EtcdGroupCommitter;
 
 import static com.linbit.linstor.InternalApiConsts.EXIT_CODE_CMDLINE_ERROR;
 import static com.linbit.linstor.InternalApiConsts.EXIT_CODE_CONFIG_PARSE_ERROR;
@@ -447,7 +450,7 @@ public class LinstorConfigTool
             case SQL:
                 initializer = new DbConnectionPoolInitializer(
                     reporter,
-                    new DbConnectionPool(cfg, reporter),
+                    new DbConnectionPool(cfg, reporter, new SQLDatabaseStats()),
                     cfg
                 );
                 break;
@@ -460,7 +463,8 @@ public class LinstorConfigTool
                         cfg,
                         new ControllerETCDTransactionMgrGenerator(
                             this,
-                            cfg
+                            cfg,
+                            new EtcdGroupCommitter(this, cfg, new EtcdGroupCommitStats())
                         )
                     );
                     @Override
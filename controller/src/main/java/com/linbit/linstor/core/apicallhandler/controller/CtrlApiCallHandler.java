@@ -2,6 +2,7 @@ package com.linbit.linstor.core.apicallhandler.controller;
 
 import com.linbit.InvalidNameException;
 import com.linbit.linstor.InternalApiConsts;
+import com.linbit.linstor.LinstorParsingUtils;
 import com.linbit.linstor.annotation.PeerContext;
 import com.linbit.linstor.api.ApiCallRc;
 import com.linbit.linstor.api.ApiCallRcImpl;
@@ -9,6 +10,7 @@ import com.linbit.linstor.api.ApiConsts;
 import com.linbit.linstor.api.interfaces.RscLayerDataApi;
 import com.linbit.linstor.api.pojo.DrbdRscPojo;
 import com.linbit.linstor.api.pojo.RscGrpPojo;
+import com.linbit.linstor.core.apicallhandler.controller.helpers.ApiSnapshotCache;
 import com.linbit.linstor.core.apicallhandler.controller.helpers.ResourceList;
 import com.linbit.linstor.core.apicallhandler.controller.utils.ResourceDefinitionUtils;
 import com.linbit.linstor.core.apicallhandler.response.ApiAccessDeniedException;
@@ -27,6 +29,7 @@ import com.linbit.linstor.core.apis.StorPoolDefinitionApi;
 import com.linbit.linstor.core.apis.VolumeDefinitionWtihCreationPayload;
 import com.linbit.linstor.core.apis.VolumeGroupApi;
 import com.linbit.linstor.core.identifier.NodeName;
+import com.linbit.linstor.core.identifier.ResourceGroupName;
 import com.linbit.linstor.core.identifier.ResourceName;
 import com.linbit.linstor.core.objects.ResourceConnection;
 import com.linbit.linstor.core.objects.ResourceDefinition;
@@ -35,6 +38,7 @@ import com.linbit.linstor.core.repository.SystemConfRepository;
 import com.linbit.linstor.dbdrivers.DatabaseException;
 import com.linbit.linstor.dbdrivers.DbEngine;
 import com.linbit.linstor.layer.LayerPayload;
+import com.linbit.linstor.propscon.Props;
 import com.linbit.linstor.satellitestate.SatelliteResourceState;
 import com.linbit.linstor.satellitestate.SatelliteState;
 import com.linbit.linstor.security.AccessContext;
@@ -104,6 +108,9 @@ public class CtrlApiCallHandler
     private final Provider<AccessContext> peerAccCtx;
     private final SystemConfRepository systemConfRepository;
 
+    private final ApiSnapshotCache<ResourceDefinitionApi> rscDfnSnapshots;
+    private final ApiSnapshotCache<ResourceGroupApi> rscGrpSnapshots;
+
     @Inject
     CtrlApiCallHandler(
         CtrlConfApiCallHandler ctrlConfApiCallHandlerRef,
@@ -160,6 +167,10 @@ public class CtrlApiCallHandler
         systemConfRepository = systemConfRepositoryRef;
         dbEngine = dbEngineRef;
         lockGuardFactory = lockGuardFactoryRef;
+
+        // resource definition API objects contain the API object of their resource group
+        rscDfnSnapshots = new ApiSnapshotCache<>(lockGuardFactoryRef, RSC_DFN_MAP, RSC_GRP_MAP);
+        rscGrpSnapshots = new ApiSnapshotCache<>(lockGuardFactoryRef, RSC_GRP_MAP);
     }
 
     /**
@@ -338,10 +349,26 @@ public class CtrlApiCallHandler
     public ArrayList<ResourceDefinitionApi> listResourceDefinitions(
             List<String> filterRscDfnNames, List<String> propFilters)
     {
-        ArrayList<ResourceDefinitionApi> resourceDefinitionList;
-        try (LockGuard lg = lockGuardFactory.build(READ, RSC_DFN_MAP))
-        {
-            resourceDefinitionList = rscDfnApiCallHandler.listResourceDefinitions(filterRscDfnNames, propFilters);
+        final Set<ResourceName> rscDfnsFilter =
+            filterRscDfnNames.stream().map(LinstorParsingUtils::asRscName).collect(Collectors.toSet());
+
+        ArrayList<ResourceDefinitionApi> resourceDefinitionList = new ArrayList<>();
+        List<ResourceDefinitionApi> snapshot = rscDfnSnapshots.get(
+            peerAccCtx.get(),
+            () -> rscDfnApiCallHandler.listResourceDefinitions(Collections.emptyList(), Collections.emptyList())
+        );
+        for (ResourceDefinitionApi rscDfnApi : snapshot)
+        {
+            if (
+                (
+                    rscDfnsFilter.isEmpty() ||
+                    rscDfnsFilter.contains(LinstorParsingUtils.asRscName(rscDfnApi.getResourceName()))
+                ) &&
+                Props.contains(rscDfnApi.getProps(), propFilters)
+            )
+            {
+                resourceDefinitionList.add(rscDfnApi);
+            }
         }
         return resourceDefinitionList;
     }
@@ -1182,10 +1209,26 @@ public class CtrlApiCallHandler
 
     public List<ResourceGroupApi> listResourceGroups(List<String> rscGrpNames, List<String> propFilters)
     {
-        List<ResourceGroupApi> ret;
-        try (LockGuard lg = lockGuardFactory.build(READ, RSC_GRP_MAP))
-        {
-            ret = rscGrpApiCallHandler.listResourceGroups(rscGrpNames, propFilters);
+        final Set<ResourceGroupName> rscGrpsFilter =
+            rscGrpNames.stream().map(LinstorParsingUtils::asRscGrpName).collect(Collectors.toSet());
+
+        List<ResourceGroupApi> ret = new ArrayList<>();
+        List<ResourceGroupApi> snapshot = rscGrpSnapshots.get(
+            peerAccCtx.get(),
+            () -> rscGrpApiCallHandler.listResourceGroups(Collections.emptyList(), Collections.emptyList())
+        );
+        for (ResourceGroupApi rscGrpApi : snapshot)
+        {
+            if (
+                (
+                    rscGrpsFilter.isEmpty() ||
+                    rscGrpsFilter.contains(LinstorParsingUtils.asRscGrpName(rscGrpApi.getName()))
+                ) &&
+                Props.contains(rscGrpApi.getProps(), propFilters)
+            )
+            {
+                ret.add(rscGrpApi);
+            }
         }
         return ret;
     }
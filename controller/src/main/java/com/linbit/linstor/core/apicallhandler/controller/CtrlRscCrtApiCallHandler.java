@@ -22,9 +22,7 @@ import com.linbit.linstor.core.objects.StorPool;
 import com.linbit.linstor.core.objects.Volume;
 import com.linbit.linstor.event.EventStreamClosedException;
 import com.linbit.linstor.event.EventStreamTimeoutException;
-import com.linbit.locks.LockGuardFactory;
 import com.linbit.locks.LockGuardFactory.LockObj;
-import com.linbit.locks.LockGuardFactory.LockType;
 import com.linbit.utils.Pair;
 
 import static com.linbit.linstor.core.apicallhandler.controller.CtrlRscApiCallHandler.getRscDescriptionInline;
@@ -51,7 +49,7 @@ public class CtrlRscCrtApiCallHandler
     private final CtrlRscCrtApiHelper ctrlRscCrtApiHelper;
     private final ResponseConverter responseConverter;
     private final FreeCapacityFetcher freeCapacityFetcher;
-    private final LockGuardFactory lockGuardFactory;
+    private final CtrlRscDfnLockHelper rscDfnLockHelper;
     private final CtrlRscAutoHelper autoHelper;
 
     @Inject
@@ -60,7 +58,7 @@ public class CtrlRscCrtApiCallHandler
         CtrlTransactionHelper ctrlTransactionHelperRef,
         CtrlRscCrtApiHelper ctrlRscCrtApiHelperRef,
         ResponseConverter responseConverterRef,
-        LockGuardFactory lockGuardFactoryRef,
+        CtrlRscDfnLockHelper rscDfnLockHelperRef,
         FreeCapacityFetcher freeCapacityFetcherRef,
         CtrlRscAutoHelper autoHelperRef
     )
@@ -69,7 +67,7 @@ public class CtrlRscCrtApiCallHandler
         ctrlTransactionHelper = ctrlTransactionHelperRef;
         ctrlRscCrtApiHelper = ctrlRscCrtApiHelperRef;
         responseConverter = responseConverterRef;
-        lockGuardFactory = lockGuardFactoryRef;
+        rscDfnLockHelper = rscDfnLockHelperRef;
         freeCapacityFetcher = freeCapacityFetcherRef;
         autoHelper = autoHelperRef;
     }
@@ -113,10 +111,9 @@ public class CtrlRscCrtApiCallHandler
                     scopeRunner
                     .fluxInTransactionalScope(
                         "Create resource",
-                        lockGuardFactory.buildDeferred(
-                            LockType.WRITE,
-                            LockObj.NODES_MAP, LockObj.RSC_DFN_MAP, LockObj.STOR_POOL_DFN_MAP
-                        ),
+                        rscDfnLockHelper.rscDfnNodesMapLocks(rscNames.get(0))
+                            .write(LockObj.STOR_POOL_DFN_MAP)
+                            .buildDeferred(),
                         () -> createResourceInTransaction(rscApiList, context, thinFreeCapacities, diskfulByRef)
                     )
                     .transform(responses -> responseConverter.reportingExceptions(context, responses)));
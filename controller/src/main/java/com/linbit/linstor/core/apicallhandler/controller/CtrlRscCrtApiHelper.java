@@ -69,9 +69,6 @@ import com.linbit.linstor.storage.utils.LayerUtils;
 import com.linbit.linstor.tasks.ScheduleBackupService;
 import com.linbit.linstor.utils.layer.DrbdLayerUtils;
 import com.linbit.linstor.utils.layer.LayerRscUtils;
-import com.linbit.locks.LockGuardFactory;
-import com.linbit.locks.LockGuardFactory.LockObj;
-import com.linbit.locks.LockGuardFactory.LockType;
 import com.linbit.utils.AccessUtils;
 import com.linbit.utils.Pair;
 import com.linbit.utils.StringUtils;
@@ -128,7 +125,7 @@ public class CtrlRscCrtApiHelper
     private final CtrlRscActivateApiCallHandler ctrlRscActivateApiCallHandler;
     private final CtrlTransactionHelper ctrlTransactionHelper;
     private final ScopeRunner scopeRunner;
-    private final LockGuardFactory lockGuardFactory;
+    private final CtrlRscDfnLockHelper rscDfnLockHelper;
     private final Provider<CtrlRscDfnApiCallHandler> ctrlRscDfnApiCallHandler;
 
     @Inject
@@ -154,7 +151,7 @@ public class CtrlRscCrtApiHelper
         CtrlRscActivateApiCallHandler ctrlRscActivateApiCallHandlerRef,
         CtrlTransactionHelper ctrlTransactionHelperRef,
         ScopeRunner scopeRunnerRef,
-        LockGuardFactory lockGuardFactoryRef,
+        CtrlRscDfnLockHelper rscDfnLockHelperRef,
         Provider<CtrlRscDfnApiCallHandler> ctrlRscDfnApiCallHandlerRef
     )
     {
@@ -179,7 +176,7 @@ public class CtrlRscCrtApiHelper
         ctrlRscActivateApiCallHandler = ctrlRscActivateApiCallHandlerRef;
         ctrlTransactionHelper = ctrlTransactionHelperRef;
         scopeRunner = scopeRunnerRef;
-        lockGuardFactory = lockGuardFactoryRef;
+        rscDfnLockHelper = rscDfnLockHelperRef;
         ctrlRscDfnApiCallHandler = ctrlRscDfnApiCallHandlerRef;
     }
 
@@ -859,17 +856,28 @@ public class CtrlRscCrtApiHelper
 
     public Flux<ApiCallRc> setInitialized(Set<Resource> deployedResourcesRef)
     {
-        return scopeRunner
-            .fluxInTransactionalScope(
-                "Create resource",
-                lockGuardFactory.buildDeferred(
-                    LockType.WRITE,
-                    LockObj.NODES_MAP,
-                    LockObj.RSC_DFN_MAP,
-                    LockObj.STOR_POOL_DFN_MAP
-                ),
-                () -> setInitializedInTransaction(deployedResourcesRef)
-            );
+        Flux<ApiCallRc> flux;
+        if (deployedResourcesRef.isEmpty())
+        {
+            flux = Flux.empty();
+        }
+        else
+        {
+            // All resources belong to the same resource definition
+            ResourceName rscName = deployedResourcesRef.iterator().next().getResourceDefinition().getName();
+            Set<NodeName> nodeNames = new TreeSet<>();
+            for (Resource rsc : deployedResourcesRef)
+            {
+                nodeNames.add(rsc.getNode().getName());
+            }
+            flux = scopeRunner
+                .fluxInTransactionalScope(
+                    "Create resource",
+                    rscDfnLockHelper.rscDfnLocks(rscName, nodeNames).buildDeferred(),
+                    () -> setInitializedInTransaction(deployedResourcesRef)
+                );
+        }
+        return flux;
     }
 
     private Flux<ApiCallRc> setInitializedInTransaction(Set<Resource> deployedResourcesRef)
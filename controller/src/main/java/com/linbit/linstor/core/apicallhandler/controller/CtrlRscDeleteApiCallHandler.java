@@ -6,7 +6,6 @@ import com.linbit.linstor.annotation.PeerContext;
 import com.linbit.linstor.api.ApiCallRc;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiConsts;
-import com.linbit.linstor.core.CoreModule;
 import com.linbit.linstor.core.SharedResourceManager;
 import com.linbit.linstor.core.apicallhandler.ScopeRunner;
 import com.linbit.linstor.core.apicallhandler.controller.CtrlRscAutoHelper.AutoHelperContext;
@@ -32,14 +31,12 @@ import com.linbit.linstor.security.AccessDeniedException;
 import com.linbit.linstor.storage.kinds.DeviceLayerKind;
 import com.linbit.linstor.storage.utils.LayerUtils;
 import com.linbit.linstor.utils.layer.LayerVlmUtils;
-import com.linbit.locks.LockGuard;
 
 import static com.linbit.linstor.core.apicallhandler.controller.CtrlRscApiCallHandler.getRscDescription;
 import static com.linbit.linstor.core.apicallhandler.controller.CtrlRscApiCallHandler.getRscDescriptionInline;
 import static com.linbit.utils.StringUtils.firstLetterCaps;
 
 import javax.inject.Inject;
-import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
@@ -50,7 +47,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.locks.ReadWriteLock;
 
 import reactor.core.publisher.Flux;
 
@@ -63,8 +59,7 @@ public class CtrlRscDeleteApiCallHandler implements CtrlSatelliteConnectionListe
     private final CtrlApiDataLoader ctrlApiDataLoader;
     private final CtrlRscDeleteApiHelper ctrlRscDeleteApiHelper;
     private final ResponseConverter responseConverter;
-    private final ReadWriteLock nodesMapLock;
-    private final ReadWriteLock rscDfnMapLock;
+    private final CtrlRscDfnLockHelper rscDfnLockHelper;
     private final Provider<AccessContext> peerAccCtx;
     private final CtrlRscAutoHelper autoHelper;
     private final CtrlSnapshotShippingAbortHandler snapShipAbortHandler;
@@ -81,8 +76,7 @@ public class CtrlRscDeleteApiCallHandler implements CtrlSatelliteConnectionListe
         CtrlApiDataLoader ctrlApiDataLoaderRef,
         CtrlRscDeleteApiHelper ctrlRscDeleteApiHelperRef,
         ResponseConverter responseConverterRef,
-        @Named(CoreModule.NODES_MAP_LOCK) ReadWriteLock nodesMapLockRef,
-        @Named(CoreModule.RSC_DFN_MAP_LOCK) ReadWriteLock rscDfnMapLockRef,
+        CtrlRscDfnLockHelper rscDfnLockHelperRef,
         @PeerContext Provider<AccessContext> peerAccCtxRef,
         CtrlRscAutoHelper autoHelperRef,
         CtrlSnapshotShippingAbortHandler snapShipAbortHandlerRef,
@@ -98,8 +92,7 @@ public class CtrlRscDeleteApiCallHandler implements CtrlSatelliteConnectionListe
         ctrlApiDataLoader = ctrlApiDataLoaderRef;
         ctrlRscDeleteApiHelper = ctrlRscDeleteApiHelperRef;
         responseConverter = responseConverterRef;
-        nodesMapLock = nodesMapLockRef;
-        rscDfnMapLock = rscDfnMapLockRef;
+        rscDfnLockHelper = rscDfnLockHelperRef;
         peerAccCtx = peerAccCtxRef;
         autoHelper = autoHelperRef;
         snapShipAbortHandler = snapShipAbortHandlerRef;
@@ -162,7 +155,7 @@ public class CtrlRscDeleteApiCallHandler implements CtrlSatelliteConnectionListe
         return scopeRunner
             .fluxInTransactionalScope(
                 "Activating resource if necessary before deletion",
-                LockGuard.createDeferred(nodesMapLock.writeLock(), rscDfnMapLock.writeLock()),
+                rscDfnLockHelper.rscDfnLocks(rscNameStr, Collections.singleton(nodeNameStr)).buildDeferred(),
                 () -> activateRscIfLastInTransaction(nodeNameStr, rscNameStr, context)
                 // () -> prepareResourceDeleteInTransaction(nodeNameStr, rscNameStr, context)
             )
@@ -195,7 +188,7 @@ public class CtrlRscDeleteApiCallHandler implements CtrlSatelliteConnectionListe
         return activateIfLast(rsc).concatWith(
             scopeRunner.fluxInTransactionalScope(
                 "Prepare resource delete",
-                LockGuard.createDeferred(nodesMapLock.writeLock(), rscDfnMapLock.writeLock()),
+                rscDfnLockHelper.rscDfnNodesMapLocks(rscNameStr).buildDeferred(),
                 () -> prepareResourceDeleteInTransaction(nodeNameStr, rscNameStr, context)
             )
         );
@@ -301,7 +294,7 @@ public class CtrlRscDeleteApiCallHandler implements CtrlSatelliteConnectionListe
         return scopeRunner
             .fluxInTransactionalScope(
                 "Deleting resource",
-                LockGuard.createDeferred(nodesMapLock.writeLock(), rscDfnMapLock.writeLock()),
+                rscDfnLockHelper.rscDfnNodesMapLocks(rscNameStr).buildDeferred(),
                 () -> deleteResourceOnPeersInTransaction(nodeNameStr, rscNameStr, context)
             )
             .transform(responses -> responseConverter.reportingExceptions(context, responses));
@@ -820,7 +820,7 @@ public class CtrlRscDfnApiCallHandler
                 "Resume resource",
                 lockGuardFactory.create()
                     .read(LockObj.NODES_MAP)
-                    .write(LockObj.RSC_DFN_MAP)
+                    .writeObj(LockObj.RSC_DFN_MAP, rscDfn.getName())
                     .buildDeferred(),
                 () -> resumeIOInTransaction(rscDfn)
             );
@@ -1389,7 +1389,7 @@ public class CtrlRscDfnApiCallHandler
         return scopeRunner
             .fluxInTransactionalScope(
                 "Update DRBD Props",
-                lockGuardFactory.buildDeferred(WRITE, RSC_DFN_MAP),
+                lockGuardFactory.create().writeObj(LockObj.RSC_DFN_MAP, rscDfn.getName()).buildDeferred(),
                 () -> updatePropsInTransaction(
                     context,
                     rscDfn
@@ -0,0 +1,193 @@
+package com.linbit.linstor.core.apicallhandler.controller;
+
+import com.linbit.ImplementationError;
+import com.linbit.InvalidNameException;
+import com.linbit.linstor.annotation.ApiContext;
+import com.linbit.linstor.core.CoreModule;
+import com.linbit.linstor.core.identifier.NodeName;
+import com.linbit.linstor.core.identifier.ResourceName;
+import com.linbit.linstor.core.objects.Resource;
+import com.linbit.linstor.core.objects.ResourceDefinition;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.linstor.security.AccessDeniedException;
+import com.linbit.locks.LockGuardFactory;
+import com.linbit.locks.LockGuardFactory.LockGuardBuilder;
+import com.linbit.locks.LockGuardFactory.LockObj;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds the locks for operations on the resources of a single resource definition
+ *
+ * An operation that only modifies the resource definition, its resources on known nodes and the storage pools of
+ * those nodes locks the resource definition and those nodes by their names (see {@link #rscDfnLocks}), so that it
+ * does not block operations on other resource definitions and nodes.
+ *
+ * An operation that runs the {@link CtrlRscAutoHelper} locks the whole nodes map instead (see
+ * {@link #rscDfnNodesMapLocks}), because e.g. the tie breaker may place or remove a resource on any node.
+ */
+@Singleton
+public class CtrlRscDfnLockHelper
+{
+    private final AccessContext apiCtx;
+    private final CoreModule.ResourceDefinitionMap rscDfnMap;
+    private final LockGuardFactory lockGuardFactory;
+
+    @Inject
+    public CtrlRscDfnLockHelper(
+        @ApiContext AccessContext apiCtxRef,
+        CoreModule.ResourceDefinitionMap rscDfnMapRef,
+        LockGuardFactory lockGuardFactoryRef
+    )
+    {
+        apiCtx = apiCtxRef;
+        rscDfnMap = rscDfnMapRef;
+        lockGuardFactory = lockGuardFactoryRef;
+    }
+
+    /**
+     * Locks the resource definition and the specified nodes for modification
+     */
+    public LockGuardBuilder rscDfnLocks(ResourceName rscName, Collection<NodeName> nodeNames)
+    {
+        return lockGuardFactory.create()
+            .writeObj(LockObj.RSC_DFN_MAP, rscName)
+            .writeObj(LockObj.NODES_MAP, nodeNames.toArray());
+    }
+
+    /**
+     * Same as {@link #rscDfnLocks(ResourceName, Collection)}. Empty node names are ignored. If any of the names is
+     * invalid, both maps are locked instead, the operation fails anyway once it looks up the object.
+     */
+    public LockGuardBuilder rscDfnLocks(String rscNameStr, Collection<String> nodeNameStrs)
+    {
+        LockGuardBuilder builder;
+        try
+        {
+            List<NodeName> nodeNames = new ArrayList<>();
+            for (String nodeNameStr : nodeNameStrs)
+            {
+                if (nodeNameStr != null && !nodeNameStr.isEmpty())
+                {
+                    nodeNames.add(new NodeName(nodeNameStr));
+                }
+            }
+            builder = rscDfnLocks(new ResourceName(rscNameStr), nodeNames);
+        }
+        catch (InvalidNameException ignored)
+        {
+            builder = lockGuardFactory.create().write(LockObj.NODES_MAP, LockObj.RSC_DFN_MAP);
+        }
+        return builder;
+    }
+
+    /**
+     * Locks the resource definition for modification and the whole nodes map for writing
+     */
+    public LockGuardBuilder rscDfnNodesMapLocks(ResourceName rscName)
+    {
+        return lockGuardFactory.create()
+            .write(LockObj.NODES_MAP)
+            .writeObj(LockObj.RSC_DFN_MAP, rscName);
+    }
+
+    /**
+     * Same as {@link #rscDfnNodesMapLocks(ResourceName)}. If the name is invalid, both maps are locked instead.
+     */
+    public LockGuardBuilder rscDfnNodesMapLocks(String rscNameStr)
+    {
+        LockGuardBuilder builder;
+        try
+        {
+            builder = rscDfnNodesMapLocks(new ResourceName(rscNameStr));
+        }
+        catch (InvalidNameException ignored)
+        {
+            builder = lockGuardFactory.create().write(LockObj.NODES_MAP, LockObj.RSC_DFN_MAP);
+        }
+        return builder;
+    }
+
+    /**
+     * Locks the resource definition for reading, as required by {@link #getRscNodeNames(String)}
+     */
+    public LockGuardBuilder rscDfnReadLocks(String rscNameStr)
+    {
+        LockGuardBuilder builder;
+        try
+        {
+            builder = lockGuardFactory.create().readObj(LockObj.RSC_DFN_MAP, new ResourceName(rscNameStr));
+        }
+        catch (InvalidNameException ignored)
+        {
+            builder = lockGuardFactory.create().read(LockObj.RSC_DFN_MAP);
+        }
+        return builder;
+    }
+
+    /**
+     * Returns the names of the nodes the resource definition currently has resources on, in order to lock them with
+     * {@link #rscDfnLocks(String, Collection)}. Returns an empty set if the resource definition does not exist.
+     *
+     * Resources may be added to the resource definition before its locks are acquired, the operation must check
+     * with {@link #hasUnlockedNodes(ResourceDefinition, Collection)} whether all of its nodes are still locked.
+     */
+    public Set<String> getRscNodeNames(String rscNameStr)
+    {
+        Set<String> nodeNames = new TreeSet<>();
+        try
+        {
+            ResourceDefinition rscDfn = rscDfnMap.get(new ResourceName(rscNameStr));
+            if (rscDfn != null)
+            {
+                Iterator<Resource> rscIter = rscDfn.iterateResource(apiCtx);
+                while (rscIter.hasNext())
+                {
+                    nodeNames.add(rscIter.next().getNode().getName().displayValue);
+                }
+            }
+        }
+        catch (InvalidNameException ignored)
+        {
+            // the operation reports the invalid name
+        }
+        catch (AccessDeniedException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+        return nodeNames;
+    }
+
+    /**
+     * Returns true if the resource definition has resources on nodes other than the locked ones
+     */
+    public boolean hasUnlockedNodes(@Nullable ResourceDefinition rscDfn, Collection<String> lockedNodeNames)
+    {
+        boolean unlocked = false;
+        if (rscDfn != null)
+        {
+            try
+            {
+                Iterator<Resource> rscIter = rscDfn.iterateResource(apiCtx);
+                while (rscIter.hasNext() && !unlocked)
+                {
+                    unlocked = !lockedNodeNames.contains(rscIter.next().getNode().getName().displayValue);
+                }
+            }
+            catch (AccessDeniedException exc)
+            {
+                throw new ImplementationError(exc);
+            }
+        }
+        return unlocked;
+    }
+}
@@ -60,10 +60,6 @@ import com.linbit.linstor.storage.kinds.DeviceLayerKind;
 import com.linbit.linstor.storage.utils.LayerUtils;
 import com.linbit.linstor.utils.layer.LayerRscUtils;
 import com.linbit.linstor.utils.layer.LayerVlmUtils;
-import com.linbit.locks.LockGuard;
-import com.linbit.locks.LockGuardFactory;
-import com.linbit.locks.LockGuardFactory.LockObj;
-import com.linbit.locks.LockGuardFactory.LockType;
 
 import static com.linbit.linstor.core.apicallhandler.controller.CtrlRscApiCallHandler.getRscDescription;
 import static com.linbit.linstor.core.apicallhandler.controller.CtrlRscApiCallHandler.getRscDescriptionInline;
@@ -75,6 +71,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -120,7 +117,7 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
     private final ResponseConverter responseConverter;
     private final ResourceStateEvent resourceStateEvent;
     private final EventWaiter eventWaiter;
-    private final LockGuardFactory lockGuardFactory;
+    private final CtrlRscDfnLockHelper rscDfnLockHelper;
     private final Provider<AccessContext> peerAccCtx;
     private final Provider<CtrlRscAutoHelper> rscAutoHelper;
     private final ErrorReporter errorReporter;
@@ -143,7 +140,7 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         ResponseConverter responseConverterRef,
         ResourceStateEvent resourceStateEventRef,
         EventWaiter eventWaiterRef,
-        LockGuardFactory lockGuardFactoryRef,
+        CtrlRscDfnLockHelper rscDfnLockHelperRef,
         @PeerContext Provider<AccessContext> peerAccCtxRef,
         Provider<CtrlRscAutoHelper> rscAutoHelperRef,
         ErrorReporter errorReporterRef,
@@ -166,7 +163,7 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         responseConverter = responseConverterRef;
         resourceStateEvent = resourceStateEventRef;
         eventWaiter = eventWaiterRef;
-        lockGuardFactory = lockGuardFactoryRef;
+        rscDfnLockHelper = rscDfnLockHelperRef;
         peerAccCtx = peerAccCtxRef;
         rscAutoHelper = rscAutoHelperRef;
         errorReporter = errorReporterRef;
@@ -237,7 +234,8 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         return scopeRunner
             .fluxInTransactionalScope(
                 "Toggle disk",
-                createLockGuard(),
+                rscDfnLockHelper.rscDfnLocks(rscNameStr, Arrays.asList(nodeNameStr, migrateFromNodeNameStr))
+                    .buildDeferred(),
                 () -> toggleDiskInTransaction(
                     nodeNameStr,
                     rscNameStr,
@@ -643,7 +641,7 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         return scopeRunner
             .fluxInTransactionalScope(
                 "Update for disk toggle",
-                createLockGuard(),
+                rscDfnLockHelper.rscDfnLocks(rscName, Collections.singleton(nodeName)).buildDeferred(),
                 () -> updateAndAdjustDiskInTransaction(nodeName, rscName, removeDisk, context)
             );
     }
@@ -730,7 +728,7 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         return scopeRunner
             .fluxInTransactionalScope(
                 "Reset disk adding",
-                createLockGuard(),
+                rscDfnLockHelper.rscDfnLocks(rscName, Collections.singleton(nodeName)).buildDeferred(),
                 () -> resetDiskAddingInTransaction(nodeName, rscName)
             );
     }
@@ -767,7 +765,7 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         return scopeRunner
             .fluxInTransactionalScope(
                 "Finish disk toggle",
-                createLockGuard(),
+                rscDfnLockHelper.rscDfnNodesMapLocks(rscName).buildDeferred(),
                 () -> finishOperationInTransaction(nodeName, rscName, removeDisk, context)
             );
     }
@@ -909,7 +907,8 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
                 .next()
                 .thenMany(scopeRunner.fluxInTransactionalScope(
                     "Delete after migrate",
-                    lockGuardFactory.buildDeferred(LockType.WRITE, LockObj.RSC_DFN_MAP),
+                    rscDfnLockHelper.rscDfnLocks(rscName, Arrays.asList(nodeName, migrateFromNodeName))
+                        .buildDeferred(),
                     () -> startDeletionInTransaction(nodeName, rscName, migrateFromNodeName)
                 ))
                 .onErrorResume(PeerNotConnectedException.class, ignored -> Flux.empty())
@@ -1299,9 +1298,4 @@ public class CtrlRscToggleDiskApiCallHandler implements CtrlSatelliteConnectionL
         }
         return layerData;
     }
-
-    private LockGuard createLockGuard()
-    {
-        return lockGuardFactory.buildDeferred(LockType.WRITE, LockObj.NODES_MAP, LockObj.RSC_DFN_MAP);
-    }
 }
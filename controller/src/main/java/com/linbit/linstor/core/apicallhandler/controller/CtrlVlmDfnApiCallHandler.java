@@ -38,13 +38,12 @@ import com.linbit.linstor.netcom.Peer;
 import com.linbit.linstor.propscon.Props;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
-import com.linbit.locks.LockGuardFactory;
+import com.linbit.locks.LockGuard;
 import com.linbit.utils.Base64;
 
 import static com.linbit.linstor.core.apicallhandler.controller.CtrlRscDfnApiCallHandler.getRscDfnDescriptionInline;
-import static com.linbit.locks.LockGuardFactory.LockObj.RSC_DFN_MAP;
-import static com.linbit.locks.LockGuardFactory.LockType.WRITE;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -80,7 +79,7 @@ class CtrlVlmDfnApiCallHandler
     private final LengthPadding cryptoLenPad;
     private final ModularCryptoProvider cryptoProvider;
     private final ScopeRunner scopeRunner;
-    private final LockGuardFactory lockGuardFactory;
+    private final CtrlRscDfnLockHelper rscDfnLockHelper;
     private final CtrlSatelliteUpdateCaller ctrlSatelliteUpdateCaller;
 
     private final BackupInfoManager backupInfoMgr;
@@ -102,7 +101,7 @@ class CtrlVlmDfnApiCallHandler
         @PeerContext Provider<AccessContext> peerAccCtxRef,
         ModularCryptoProvider cryptoProviderRef,
         ScopeRunner scopeRunnerRef,
-        LockGuardFactory lockGuardFactoryRef,
+        CtrlRscDfnLockHelper rscDfnLockHelperRef,
         CtrlSatelliteUpdateCaller ctrlSatelliteUpdateCallerRef,
         BackupInfoManager backupInfoMgrRef
     )
@@ -122,7 +121,7 @@ class CtrlVlmDfnApiCallHandler
         cryptoProvider = cryptoProviderRef;
         cryptoLenPad = cryptoProviderRef.createLengthPadding();
         scopeRunner = scopeRunnerRef;
-        lockGuardFactory = lockGuardFactoryRef;
+        rscDfnLockHelper = rscDfnLockHelperRef;
         ctrlSatelliteUpdateCaller = ctrlSatelliteUpdateCallerRef;
         backupInfoMgr = backupInfoMgrRef;
     }
@@ -142,16 +141,70 @@ class CtrlVlmDfnApiCallHandler
             ApiConsts.MASK_VLM_DFN,
             objRefs
         );
+        return scopeRunner
+            .fluxInTransactionlessScope(
+                "Find nodes of resource definition",
+                rscDfnLockHelper.rscDfnReadLocks(rscNameStr).buildDeferred(),
+                () -> Flux.just(rscDfnLockHelper.getRscNodeNames(rscNameStr))
+            )
+            .flatMap(nodeNames -> createVolumeDefinitions(context, rscNameStr, vlmDfnWithPayloadApiList, nodeNames))
+            .transform(responses -> responseConverter.reportingExceptions(context, responses));
+    }
+
+    /**
+     * @param lockedNodeNames The nodes to lock, or <code>null</code> to lock the whole nodes map
+     */
+    private Flux<ApiCallRc> createVolumeDefinitions(
+        ResponseContext context,
+        String rscNameStr,
+        List<VolumeDefinitionWtihCreationPayload> vlmDfnWithPayloadApiList,
+        @Nullable Set<String> lockedNodeNames
+    )
+    {
+        LockGuard lockGuard;
+        if (lockedNodeNames == null)
+        {
+            lockGuard = rscDfnLockHelper.rscDfnNodesMapLocks(rscNameStr).buildDeferred();
+        }
+        else
+        {
+            lockGuard = rscDfnLockHelper.rscDfnLocks(rscNameStr, lockedNodeNames).buildDeferred();
+        }
         return scopeRunner
             .fluxInTransactionalScope(
                 "Create volume definitions",
-                lockGuardFactory.buildDeferred(WRITE, RSC_DFN_MAP),
-                () -> createVlmDfnsInTransaction(
+                lockGuard,
+                () -> createVlmDfnsIfNodesLockedInTransaction(
                     context,
                     rscNameStr,
-                    vlmDfnWithPayloadApiList
+                    vlmDfnWithPayloadApiList,
+                    lockedNodeNames
                 )
-            ).transform(responses -> responseConverter.reportingExceptions(context, responses));
+            );
+    }
+
+    private Flux<ApiCallRc> createVlmDfnsIfNodesLockedInTransaction(
+        ResponseContext context,
+        String rscNameStr,
+        List<VolumeDefinitionWtihCreationPayload> vlmDfnWithPayloadApiList,
+        @Nullable Set<String> lockedNodeNames
+    )
+    {
+        Flux<ApiCallRc> flux;
+        if (
+            lockedNodeNames != null &&
+            rscDfnLockHelper.hasUnlockedNodes(ctrlApiDataLoader.loadRscDfn(rscNameStr, false), lockedNodeNames)
+        )
+        {
+            // A resource was created after the nodes were collected. The volumes of all resources are created
+            // in one transaction, so retry with the whole nodes map locked
+            flux = createVolumeDefinitions(context, rscNameStr, vlmDfnWithPayloadApiList, null);
+        }
+        else
+        {
+            flux = createVlmDfnsInTransaction(context, rscNameStr, vlmDfnWithPayloadApiList);
+        }
+        return flux;
     }
 
     private Flux<ApiCallRc> createVlmDfnsInTransaction(
@@ -2,6 +2,7 @@ package com.linbit.linstor.core.apicallhandler.controller.autoplacer;
 
 import com.linbit.ImplementationError;
 import com.linbit.linstor.PriorityProps;
+import com.linbit.linstor.PriorityPropsCache;
 import com.linbit.linstor.annotation.PeerContext;
 import com.linbit.linstor.annotation.SystemContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
@@ -55,6 +56,7 @@ public class StorPoolFilter
     private final StorPoolDefinitionMap storPoolDfnMap;
     private final ErrorReporter errorReporter;
     private final CtrlPropsHelper ctrlPropsHelper;
+    private final PriorityPropsCache prioPropsCache;
 
     @Inject
     StorPoolFilter(
@@ -62,7 +64,8 @@ public class StorPoolFilter
         @PeerContext Provider<AccessContext> peerAccCtxRef,
         StorPoolDefinitionMap storPoolDfnMapRef,
         ErrorReporter errorReporterRef,
-        CtrlPropsHelper ctrlPropsHelperRef
+        CtrlPropsHelper ctrlPropsHelperRef,
+        PriorityPropsCache prioPropsCacheRef
     )
     {
         apiAccCtx = apiAccCtxRef;
@@ -70,6 +73,7 @@ public class StorPoolFilter
         storPoolDfnMap = storPoolDfnMapRef;
         errorReporter = errorReporterRef;
         ctrlPropsHelper = ctrlPropsHelperRef;
+        prioPropsCache = prioPropsCacheRef;
     }
 
     /**
@@ -407,7 +411,8 @@ public class StorPoolFilter
 
                 if (nodeMatches)
                 {
-                    PriorityProps prioProps = new PriorityProps(ctrlPropsHelper.getCtrlPropsForView(), nodeProps);
+                    PriorityProps prioProps = new PriorityProps(ctrlPropsHelper.getCtrlPropsForView(), nodeProps)
+                        .withCache(prioPropsCache);
                     String allowAutoPlace = prioProps.getProp(ApiConsts.KEY_AUTOPLACE_ALLOW_TARGET);
                     if (allowAutoPlace != null && allowAutoPlace.equalsIgnoreCase("false"))
                     {
@@ -0,0 +1,166 @@
+package com.linbit.linstor.core.apicallhandler.controller.helpers;
+
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.linstor.security.Identity;
+import com.linbit.linstor.security.Privilege;
+import com.linbit.linstor.security.Role;
+import com.linbit.linstor.security.SecurityLevel;
+import com.linbit.linstor.security.SecurityType;
+import com.linbit.locks.LockGuard;
+import com.linbit.locks.LockGuardFactory;
+import com.linbit.locks.LockGuardFactory.LockObj;
+import com.linbit.locks.LockGuardFactory.LockType;
+import com.linbit.locks.StripedMapLock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches immutable snapshots of API objects that are built from the objects protected by global locks
+ *
+ * A snapshot is built while holding the READ lock of all maps it depends on, and is tagged with the
+ * {@link StripedMapLock#getModificationCount() modification counts} of those locks. As long as none of those locks
+ * was released from a write mode since, i.e. no modification was committed, the snapshot is returned without
+ * acquiring any locks. Readers therefore neither block nor are blocked by writers while the snapshot is current.
+ *
+ * Since the visible objects depend on the access context, snapshots are kept per security subject.
+ *
+ * The API objects must not reference live data (e.g. the map view of a props container), because they are
+ * used after the locks were released.
+ *
+ * @param <T> Type of the API objects
+ */
+public class ApiSnapshotCache<T>
+{
+    // Upper limit of distinct access contexts; all snapshots are discarded if it is reached
+    private static final int MAX_SNAPSHOTS = 32;
+
+    private final LockGuardFactory lockGuardFactory;
+    private final LockObj[] dependencies;
+
+    private final Map<SnapshotKey, Snapshot<T>> snapshots = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCtr = new LongAdder();
+    private final LongAdder missCtr = new LongAdder();
+
+    public ApiSnapshotCache(LockGuardFactory lockGuardFactoryRef, LockObj... dependenciesRef)
+    {
+        lockGuardFactory = lockGuardFactoryRef;
+        dependencies = dependenciesRef;
+    }
+
+    /**
+     * Returns the current snapshot for the specified access context, building a new one if the objects were
+     * modified since the last snapshot was built.
+     *
+     * @param accCtx Access context that the builder uses to access the objects
+     * @param builder Builds the list of API objects; called while holding the READ locks of the dependencies
+     * @return Unmodifiable list of the API objects
+     */
+    public List<T> get(AccessContext accCtx, Supplier<List<T>> builder)
+    {
+        SnapshotKey key = new SnapshotKey(accCtx);
+        Snapshot<T> snapshot = snapshots.get(key);
+        List<T> apiList;
+        if (snapshot != null && Arrays.equals(snapshot.modCounts, getModCounts()))
+        {
+            hitCtr.increment();
+            apiList = snapshot.apiList;
+        }
+        else
+        {
+            missCtr.increment();
+            try (LockGuard lockGuard = lockGuardFactory.build(LockType.READ, dependencies))
+            {
+                // Writers are excluded while the READ locks are held, so these counts match the built list
+                long[] modCounts = getModCounts();
+                apiList = Collections.unmodifiableList(new ArrayList<>(builder.get()));
+                if (snapshots.size() >= MAX_SNAPSHOTS && !snapshots.containsKey(key))
+                {
+                    snapshots.clear();
+                }
+                snapshots.put(key, new Snapshot<>(modCounts, apiList));
+            }
+        }
+        return apiList;
+    }
+
+    public long getHitCount()
+    {
+        return hitCtr.sum();
+    }
+
+    public long getMissCount()
+    {
+        return missCtr.sum();
+    }
+
+    private long[] getModCounts()
+    {
+        long[] modCounts = new long[dependencies.length];
+        for (int idx = 0; idx < dependencies.length; ++idx)
+        {
+            modCounts[idx] = lockGuardFactory.getModificationCount(dependencies[idx]);
+        }
+        return modCounts;
+    }
+
+    private static class Snapshot<T>
+    {
+        private final long[] modCounts;
+        private final List<T> apiList;
+
+        Snapshot(long[] modCountsRef, List<T> apiListRef)
+        {
+            modCounts = modCountsRef;
+            apiList = apiListRef;
+        }
+    }
+
+    /**
+     * Everything that access checks on the objects depend on
+     */
+    private static class SnapshotKey
+    {
+        private final Identity identity;
+        private final Role role;
+        private final SecurityType domain;
+        private final List<Privilege> privileges;
+        private final SecurityLevel secLevel;
+
+        SnapshotKey(AccessContext accCtx)
+        {
+            identity = accCtx.getIdentity();
+            role = accCtx.getRole();
+            domain = accCtx.getDomain();
+            privileges = accCtx.getEffectivePrivs().getEnabledPrivileges();
+            secLevel = SecurityLevel.get();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(identity, role, domain, privileges, secLevel);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            boolean eq = obj == this;
+            if (!eq && obj instanceof SnapshotKey)
+            {
+                SnapshotKey other = (SnapshotKey) obj;
+                eq = identity.equals(other.identity) && role.equals(other.role) && domain.equals(other.domain) &&
+                    privileges.equals(other.privileges) && secLevel == other.secLevel;
+            }
+            return eq;
+        }
+    }
+}
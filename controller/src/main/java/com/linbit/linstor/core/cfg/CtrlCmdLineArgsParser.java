@@ -3,6 +3,7 @@ package com.linbit.linstor.core.cfg;
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.LinStorRuntimeException;
 import com.linbit.linstor.core.LinStor;
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
 import com.linbit.utils.Pair;
 
 import java.io.File;
@@ -43,6 +44,10 @@ class CtrlCmdLineArgsParser
         description = "The desired log level. Options: ERROR, WARN, INFO, DEBUG, TRACE")
     private String logLevelLinstor;
 
+    @CommandLine.Option(names = {"--worker-pool-mode"},
+        description = "Threads that process API calls. Options: PLATFORM, VIRTUAL (requires Java 21)")
+    private WorkerPoolMode workerPoolMode;
+
     @CommandLine.Option(
         names = {"--rest-bind"},
         description = "Bind address for the REST HTTP server. e.g. 0.0.0.0:3370"
@@ -144,6 +149,7 @@ class CtrlCmdLineArgsParser
 
         linstorCfgRef.setLogLevel(linArgParser.logLevel);
         linstorCfgRef.setLogLevelLinstor(linArgParser.logLevelLinstor);
+        linstorCfgRef.setWorkerPoolMode(linArgParser.workerPoolMode);
 
         linstorCfgRef.setDbDisableVersionCheck(linArgParser.disableDbVersionCheck);
 
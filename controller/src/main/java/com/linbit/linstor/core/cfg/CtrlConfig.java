@@ -28,17 +28,22 @@ public class CtrlConfig extends LinstorConfig
 
     private String dbInMemory;
     private boolean dbDisableVersionCheck;
+    private String dbStartupSnapshotPath;
 
     /*
      * Database.ETCD
      */
     private int etcdOperationsPerTransaction = 128;
     private String etcdPrefix;
+    private boolean etcdWatchIndex;
+    private int etcdGroupCommitWindowMicros;
 
     /*
      * Database.k8s
      */
     private int k8sRequestRetries = 3;
+    private boolean k8sWatchCache;
+    private int k8sMaxParallelWrites = 8;
 
     /*
      * Logging
@@ -225,6 +230,14 @@ public class CtrlConfig extends LinstorConfig
         }
     }
 
+    public void setDbStartupSnapshotPath(String dbStartupSnapshotPathRef)
+    {
+        if (dbStartupSnapshotPathRef != null)
+        {
+            dbStartupSnapshotPath = dbStartupSnapshotPathRef;
+        }
+    }
+
     public void setEtcdOperationsPerTransaction(Integer etcdOperationsPerTransactionRef)
     {
         if (etcdOperationsPerTransactionRef != null)
@@ -241,6 +254,22 @@ public class CtrlConfig extends LinstorConfig
         }
     }
 
+    public void setEtcdWatchIndex(Boolean etcdWatchIndexRef)
+    {
+        if (etcdWatchIndexRef != null)
+        {
+            etcdWatchIndex = etcdWatchIndexRef;
+        }
+    }
+
+    public void setEtcdGroupCommitWindowMicros(Integer etcdGroupCommitWindowMicrosRef)
+    {
+        if (etcdGroupCommitWindowMicrosRef != null)
+        {
+            etcdGroupCommitWindowMicros = etcdGroupCommitWindowMicrosRef;
+        }
+    }
+
     public void setK8sRequestRetries(final Integer k8sRequestRetriesRef)
     {
         if (k8sRequestRetriesRef != null)
@@ -249,6 +278,22 @@ public class CtrlConfig extends LinstorConfig
         }
     }
 
+    public void setK8sWatchCache(Boolean k8sWatchCacheRef)
+    {
+        if (k8sWatchCacheRef != null)
+        {
+            k8sWatchCache = k8sWatchCacheRef;
+        }
+    }
+
+    public void setK8sMaxParallelWrites(Integer k8sMaxParallelWritesRef)
+    {
+        if (k8sMaxParallelWritesRef != null)
+        {
+            k8sMaxParallelWrites = k8sMaxParallelWritesRef;
+        }
+    }
+
     public void setLogRestAccessLogPath(String logRestAccessLogPathRef)
     {
         if (logRestAccessLogPathRef != null)
@@ -454,6 +499,11 @@ public class CtrlConfig extends LinstorConfig
         return dbDisableVersionCheck;
     }
 
+    public String getDbStartupSnapshotPath()
+    {
+        return dbStartupSnapshotPath;
+    }
+
     public int getEtcdOperationsPerTransaction()
     {
         return etcdOperationsPerTransaction;
@@ -464,11 +514,31 @@ public class CtrlConfig extends LinstorConfig
         return etcdPrefix;
     }
 
+    public boolean isEtcdWatchIndexEnabled()
+    {
+        return etcdWatchIndex;
+    }
+
+    public int getEtcdGroupCommitWindowMicros()
+    {
+        return etcdGroupCommitWindowMicros;
+    }
+
     public int getK8sRequestRetries()
     {
         return k8sRequestRetries;
     }
 
+    public boolean isK8sWatchCacheEnabled()
+    {
+        return k8sWatchCache;
+    }
+
+    public int getK8sMaxParallelWrites()
+    {
+        return k8sMaxParallelWrites;
+    }
+
     public String getLogRestAccessLogPath()
     {
         return logRestAccessLogPath;
@@ -76,6 +76,7 @@ public class CtrlTomlConfig
         private String client_key_pcks8_pem;
         private String client_key_pkcs8_pem;
         private String client_key_password;
+        private String startup_snapshot;
 
         private Etcd etcd = new Etcd();
 
@@ -90,6 +91,7 @@ public class CtrlTomlConfig
             cfg.setDbClientCertificate(client_certificate);
             cfg.setDbClientKeyPkcs8Pem(client_key_pkcs8_pem != null ? client_key_pkcs8_pem : client_key_pcks8_pem);
             cfg.setDbClientKeyPassword(client_key_password);
+            cfg.setDbStartupSnapshotPath(startup_snapshot);
 
             etcd.applyTo(cfg);
             k8s.applyTo(cfg);
@@ -150,21 +152,29 @@ public class CtrlTomlConfig
     {
         private Integer ops_per_transaction;
         private String prefix;
+        private Boolean watch_index;
+        private Integer group_commit_window_us;
 
         public void applyTo(CtrlConfig cfg)
         {
             cfg.setEtcdOperationsPerTransaction(ops_per_transaction);
             cfg.setEtcdPrefix(prefix);
+            cfg.setEtcdWatchIndex(watch_index);
+            cfg.setEtcdGroupCommitWindowMicros(group_commit_window_us);
         }
     }
 
     static class K8s
     {
         private Integer request_retries;
+        private Boolean watch_cache;
+        private Integer max_parallel_writes;
 
         public void applyTo(CtrlConfig cfg)
         {
             cfg.setK8sRequestRetries(request_retries);
+            cfg.setK8sWatchCache(watch_cache);
+            cfg.setK8sMaxParallelWrites(max_parallel_writes);
         }
     }
 
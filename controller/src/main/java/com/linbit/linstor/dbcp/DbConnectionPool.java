@@ -16,6 +16,7 @@ import com.linbit.linstor.core.cfg.CtrlConfig;
 import com.linbit.linstor.dbcp.migration.LinstorMigration;
 import com.linbit.linstor.dbdrivers.DatabaseDriverInfo;
 import com.linbit.linstor.dbdrivers.DatabaseException;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.dbdrivers.SQLUtils;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.utils.StringUtils;
@@ -30,9 +31,12 @@ import static com.linbit.linstor.DatabaseInfo.POSTGRES_MIN_VERSION;
 import static com.linbit.linstor.dbdrivers.derby.DbConstants.DATABASE_SCHEMA_NAME;
 import static com.linbit.linstor.dbdrivers.derby.DbConstants.TBL_SEC_CONFIGURATION;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
@@ -81,6 +85,7 @@ public class DbConnectionPool implements ControllerSQLDatabase
 
     private final CtrlConfig linstorConfig;
     private final ErrorReporter errorLog;
+    private final SQLDatabaseStats stats;
 
     static
     {
@@ -97,13 +102,15 @@ public class DbConnectionPool implements ControllerSQLDatabase
     @Inject
     public DbConnectionPool(
         CtrlConfig linstorConfigRef,
-        ErrorReporter errorLogRef
+        ErrorReporter errorLogRef,
+        SQLDatabaseStats statsRef
     )
     {
         serviceNameInstance = SERVICE_NAME;
         threadLocalConnections = new ThreadLocal<>();
         linstorConfig = linstorConfigRef;
         errorLog = errorLogRef;
+        stats = statsRef;
     }
 
     @Override
@@ -157,7 +164,14 @@ public class DbConnectionPool implements ControllerSQLDatabase
         Connection dbConn = null;
         if (dataSource != null)
         {
-            dbConn = dataSource.getConnection();
+            long startNanos = System.nanoTime();
+            Connection pooledConn = dataSource.getConnection();
+            stats.recordBorrowWait(System.nanoTime() - startNanos);
+            dbConn = interceptPrepareStatement(
+                pooledConn,
+                stats::startStatementRequest,
+                stats::endStatementRequest
+            );
             List<Connection> connections = threadLocalConnections.get();
             if (connections == null)
             {
@@ -197,6 +211,66 @@ public class DbConnectionPool implements ControllerSQLDatabase
         }
     }
 
+    @Override
+    public SQLDatabaseStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * Returns a proxy of the given connection that runs the given actions before and after every statement is
+     * prepared. The proxy is only equal to itself.
+     */
+    private static Connection interceptPrepareStatement(
+        Connection conn,
+        @Nullable Runnable beforePrepare,
+        @Nullable Runnable afterPrepare
+    )
+    {
+        return (Connection) Proxy.newProxyInstance(
+            DbConnectionPool.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) ->
+            {
+                Object ret;
+                String methodName = method.getName();
+                if (methodName.equals("equals"))
+                {
+                    ret = proxy == args[0];
+                }
+                else
+                if (methodName.equals("hashCode"))
+                {
+                    ret = System.identityHashCode(proxy);
+                }
+                else
+                {
+                    boolean prepare = methodName.equals("prepareStatement");
+                    if (prepare && beforePrepare != null)
+                    {
+                        beforePrepare.run();
+                    }
+                    try
+                    {
+                        ret = method.invoke(conn, args);
+                    }
+                    catch (InvocationTargetException invocationExc)
+                    {
+                        throw invocationExc.getCause();
+                    }
+                    finally
+                    {
+                        if (prepare && afterPrepare != null)
+                        {
+                            afterPrepare.run();
+                        }
+                    }
+                }
+                return ret;
+            }
+        );
+    }
+
     @Override
     public void migrate(String dbType) throws InitializationException
     {
@@ -388,6 +462,7 @@ public class DbConnectionPool implements ControllerSQLDatabase
         try
         {
             dataSource.close();
+            stats.setConnectionPool(null);
             atomicStarted.set(false);
         }
         catch (Exception exc)
@@ -423,7 +498,13 @@ public class DbConnectionPool implements ControllerSQLDatabase
             {
                 props.setProperty("password", linstorConfig.getDbPassword());
             }
-            ConnectionFactory connFactory = new DriverManagerConnectionFactory(dbConnectionUrl, props);
+            ConnectionFactory driverConnFactory = new DriverManagerConnectionFactory(dbConnectionUrl, props);
+            // the statements the database prepares itself are the misses of the statement cache of the connection
+            ConnectionFactory connFactory = () -> interceptPrepareStatement(
+                driverConnFactory.createConnection(),
+                null,
+                stats::recordStatementPrepared
+            );
             PoolableConnectionFactory poolConnFactory = new PoolableConnectionFactory(connFactory, null);
 
             GenericObjectPoolConfig<PoolableConnection> poolConfig = new GenericObjectPoolConfig<>();
@@ -435,11 +516,15 @@ public class DbConnectionPool implements ControllerSQLDatabase
 
             poolConnFactory.setPool(connPool);
             poolConnFactory.setValidationQueryTimeout(dbTimeout);
+            // caches the prepared statements of every connection, so that the drivers can prepare their statements
+            // for every execution
+            poolConnFactory.setPoolStatements(dbMaxOpen > 0);
             poolConnFactory.setMaxOpenPreparedStatements(dbMaxOpen);
             poolConnFactory.setMaxConnLifetimeMillis(DEFAULT_IDLE_TIMEOUT);
             poolConnFactory.setDefaultTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
 
             dataSource = new PoolingDataSource<>(connPool);
+            stats.setConnectionPool(connPool);
         }
     }
 
@@ -13,12 +13,17 @@ import com.linbit.linstor.core.cfg.CtrlConfig;
 import com.linbit.linstor.dbcp.migration.etcd.BaseEtcdMigration;
 import com.linbit.linstor.dbcp.migration.etcd.EtcdMigration;
 import com.linbit.linstor.dbdrivers.DatabaseException;
+import com.linbit.linstor.dbdrivers.DatabaseTable;
+import com.linbit.linstor.dbdrivers.GeneratedDatabaseTables;
 import com.linbit.linstor.dbdrivers.etcd.EtcdUtils;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.transaction.ControllerETCDTransactionMgr;
 import com.linbit.linstor.transaction.ControllerETCDTransactionMgrGenerator;
+import com.linbit.linstor.transaction.EtcdKeyIndex;
 import com.linbit.linstor.transaction.EtcdTransaction;
+import com.linbit.linstor.transaction.TransactionException;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -52,6 +57,7 @@ public class DbEtcd implements ControllerETCDDatabase
 
     private int dbTimeout = ControllerDatabase.DEFAULT_TIMEOUT;
     private KvStoreClient etcdClient;
+    private volatile @Nullable EtcdKeyIndex keyIndex;
 
     static
     {
@@ -102,6 +108,13 @@ public class DbEtcd implements ControllerETCDDatabase
         return etcdClient.getKvClient();
     }
 
+    @Override
+    @Nullable
+    public EtcdKeyIndex getKeyIndex()
+    {
+        return keyIndex;
+    }
+
     @Override
     public void migrate(String dbType) throws InitializationException
     {
@@ -224,6 +237,22 @@ public class DbEtcd implements ControllerETCDDatabase
         {
             if (atomicStarted.compareAndSet(true, false))
             {
+                // the pending group commits still need the client
+                txMgrGenerator.shutdown();
+                try
+                {
+                    txMgrGenerator.awaitShutdown(dbTimeout);
+                }
+                catch (InterruptedException exc)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                EtcdKeyIndex localKeyIndex = keyIndex;
+                if (localKeyIndex != null)
+                {
+                    keyIndex = null;
+                    localKeyIndex.close();
+                }
                 etcdClient.close();
             }
         }
@@ -298,6 +327,31 @@ public class DbEtcd implements ControllerETCDDatabase
 
         etcdClient = builder.build();
         atomicStarted.set(true);
+
+        if (ctrlCfg.isEtcdWatchIndexEnabled())
+        {
+            startKeyIndex();
+        }
+    }
+
+    private void startKeyIndex()
+    {
+        List<String> tableNames = new ArrayList<>();
+        for (DatabaseTable table : GeneratedDatabaseTables.ALL_TABLES)
+        {
+            tableNames.add(table.getName());
+        }
+        EtcdKeyIndex newKeyIndex = new EtcdKeyIndex(errorReporter, EtcdUtils.linstorPrefix, tableNames);
+        try
+        {
+            newKeyIndex.start(etcdClient.getKvClient());
+            keyIndex = newKeyIndex;
+        }
+        catch (TransactionException exc)
+        {
+            newKeyIndex.close();
+            errorReporter.reportError(exc, null, null, "Failed to load the ETCD key index, reading from ETCD instead");
+        }
     }
 
     @Override
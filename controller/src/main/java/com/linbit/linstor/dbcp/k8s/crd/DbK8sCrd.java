@@ -12,8 +12,11 @@ import com.linbit.linstor.core.cfg.CtrlConfig;
 import com.linbit.linstor.dbcp.migration.k8s.crd.BaseK8sCrdMigration;
 import com.linbit.linstor.dbcp.migration.k8s.crd.K8sCrdMigration;
 import com.linbit.linstor.dbdrivers.DatabaseException;
+import com.linbit.linstor.dbdrivers.DatabaseTable;
+import com.linbit.linstor.dbdrivers.GeneratedDatabaseTables;
 import com.linbit.linstor.dbdrivers.k8s.K8sCachingClient;
 import com.linbit.linstor.dbdrivers.k8s.K8sResourceClient;
+import com.linbit.linstor.dbdrivers.k8s.crd.GenCrdCurrent;
 import com.linbit.linstor.dbdrivers.k8s.crd.LinstorCrd;
 import com.linbit.linstor.dbdrivers.k8s.crd.LinstorSpec;
 import com.linbit.linstor.dbdrivers.k8s.crd.LinstorVersionCrd;
@@ -22,16 +25,24 @@ import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.transaction.ControllerK8sCrdTransactionMgr;
 import com.linbit.linstor.transaction.ControllerK8sCrdTransactionMgrGenerator;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import com.google.inject.Provider;
 import io.fabric8.kubernetes.api.model.apiextensions.v1.CustomResourceDefinition;
@@ -48,6 +59,7 @@ public class DbK8sCrd implements ControllerK8sCrdDatabase
     private static final ServiceName SERVICE_NAME;
     private static final String SERVICE_INFO = "K8s CRD handler";
     private static final String K8S_SCHEME = "k8s";
+    private static final int MAX_PARALLEL_CACHE_LOADS = 8;
 
     private final AtomicBoolean atomicStarted = new AtomicBoolean(false);
     private final ControllerK8sCrdTransactionMgrGenerator k8sTxGenerator;
@@ -58,7 +70,9 @@ public class DbK8sCrd implements ControllerK8sCrdDatabase
 
     private KubernetesClient k8sClient;
 
-    private HashMap<Class<? extends LinstorCrd<? extends LinstorSpec>>, K8sResourceClient<?>> k8sCachingClient;
+    private final ConcurrentHashMap<Class<? extends LinstorCrd<? extends LinstorSpec>>, K8sCachingClient<?, ?, ?>>
+        k8sCachingClient = new ConcurrentHashMap<>();
+    private volatile @Nullable ExecutorService writeExecutor;
 
     static
     {
@@ -265,6 +279,13 @@ public class DbK8sCrd implements ControllerK8sCrdDatabase
         {
             if (atomicStarted.compareAndSet(true, false))
             {
+                clearCache();
+                ExecutorService localWriteExecutor = writeExecutor;
+                if (localWriteExecutor != null)
+                {
+                    writeExecutor = null;
+                    localWriteExecutor.shutdown();
+                }
                 k8sClient.close();
             }
         }
@@ -297,10 +318,67 @@ public class DbK8sCrd implements ControllerK8sCrdDatabase
 
         k8sClient = new DefaultKubernetesClient();
         k8sClient.getConfiguration().setRequestRetryBackoffLimit(ctrlCfg.getK8sRequestRetries());
-        k8sCachingClient = new HashMap<>();
+        if (ctrlCfg.getK8sMaxParallelWrites() > 1)
+        {
+            AtomicInteger threadCtr = new AtomicInteger();
+            writeExecutor = Executors.newFixedThreadPool(
+                ctrlCfg.getK8sMaxParallelWrites(),
+                task ->
+                {
+                    Thread thread = new Thread(task, "K8sCrdWrite-" + threadCtr.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        }
         atomicStarted.set(true);
     }
 
+    /**
+     * Fills the caches of all current resource types concurrently, so that loading the database does not wait for
+     * one LIST request after the other
+     */
+    public void preloadCaches()
+    {
+        long startMillis = System.currentTimeMillis();
+        Function<DatabaseTable, Class<? extends LinstorCrd<? extends LinstorSpec>>> dbTableToCrdClass =
+            GenCrdCurrent::databaseTableToCustomResourceClass;
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_CACHE_LOADS);
+        try
+        {
+            List<CompletableFuture<K8sResourceClient<?>>> loads = new ArrayList<>();
+            for (DatabaseTable table : GeneratedDatabaseTables.ALL_TABLES)
+            {
+                Class<? extends LinstorCrd<? extends LinstorSpec>> clazz = dbTableToCrdClass.apply(table);
+                if (clazz != null)
+                {
+                    loads.add(CompletableFuture.supplyAsync(() -> getCachingClient(clazz), executor));
+                }
+            }
+            for (CompletableFuture<K8sResourceClient<?>> load : loads)
+            {
+                try
+                {
+                    load.join();
+                }
+                catch (CompletionException exc)
+                {
+                    // the resources are listed again when the database is loaded, which reports the error
+                    errorReporter.logWarning("Preloading the cache failed: %s", exc.getCause().getMessage());
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        errorReporter.logInfo(
+            "Preloaded the cache of %d resource types in %d ms",
+            k8sCachingClient.size(),
+            System.currentTimeMillis() - startMillis
+        );
+    }
+
     @Override
     public void awaitShutdown(long timeoutRef) throws InterruptedException
     {
@@ -340,12 +418,33 @@ public class DbK8sCrd implements ControllerK8sCrdDatabase
     @Override
     public K8sResourceClient<?> getCachingClient(Class<? extends LinstorCrd<? extends LinstorSpec>> clazz)
     {
-        return k8sCachingClient.computeIfAbsent(clazz, c -> new K8sCachingClient<>(k8sClient.resources(c)));
+        return k8sCachingClient.computeIfAbsent(clazz, this::createCachingClient);
+    }
+
+    private K8sCachingClient<?, ?, ?> createCachingClient(Class<? extends LinstorCrd<? extends LinstorSpec>> clazz)
+    {
+        K8sCachingClient<?, ?, ?> cachingClient = new K8sCachingClient<>(k8sClient.resources(clazz));
+        if (ctrlCfg.isK8sWatchCacheEnabled())
+        {
+            cachingClient.startWatch(errorReporter, clazz.getSimpleName());
+        }
+        return cachingClient;
     }
 
     @Override
     public void clearCache()
     {
+        for (K8sCachingClient<?, ?, ?> cachingClient : k8sCachingClient.values())
+        {
+            cachingClient.close();
+        }
         k8sCachingClient.clear();
     }
+
+    @Override
+    @Nullable
+    public ExecutorService getWriteExecutor()
+    {
+        return writeExecutor;
+    }
 }
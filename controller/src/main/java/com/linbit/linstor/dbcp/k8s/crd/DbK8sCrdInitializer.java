@@ -42,6 +42,7 @@ public class DbK8sCrdInitializer implements DbInitializer
             dbK8sCrd.initializeDataSource(crdConnectionUrl);
 
             dbK8sCrd.migrate("k8s");
+            dbK8sCrd.preloadCaches();
         }
         catch (Exception exc)
         {
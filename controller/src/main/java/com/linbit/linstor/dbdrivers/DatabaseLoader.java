@@ -8,6 +8,7 @@ import com.linbit.linstor.LinStorDBRuntimeException;
 import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.annotation.SystemContext;
 import com.linbit.linstor.api.ApiConsts;
+import com.linbit.linstor.api.LinStorScope;
 import com.linbit.linstor.core.ControllerCoreModule;
 import com.linbit.linstor.core.CoreModule;
 import com.linbit.linstor.core.CoreModule.ExternalFileMap;
@@ -61,6 +62,7 @@ import com.linbit.linstor.dbdrivers.interfaces.NodeConnectionCtrlDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.NodeCtrlDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.NvmeLayerCtrlDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.OpenflexLayerCtrlDatabaseDriver;
+import com.linbit.linstor.dbdrivers.interfaces.PropsConDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.ResourceConnectionCtrlDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.ResourceCtrlDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.ResourceDefinitionCtrlDatabaseDriver;
@@ -87,6 +89,7 @@ import com.linbit.linstor.layer.LayerPayload;
 import com.linbit.linstor.layer.resource.AbsRscLayerHelper;
 import com.linbit.linstor.layer.resource.CtrlRscLayerDataFactory;
 import com.linbit.linstor.layer.snapshot.CtrlSnapLayerDataFactory;
+import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.propscon.InvalidKeyException;
 import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
@@ -95,6 +98,7 @@ import com.linbit.linstor.storage.kinds.DeviceLayerKind;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
 import com.linbit.linstor.storage.utils.ExosMappingManager;
 import com.linbit.linstor.storage.utils.LayerUtils;
+import com.linbit.linstor.transaction.manager.TransactionMgrGenerator;
 import com.linbit.utils.ExceptionThrowingFunction;
 import com.linbit.utils.Pair;
 import com.linbit.utils.Triple;
@@ -113,6 +117,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -173,6 +178,10 @@ public class DatabaseLoader implements DatabaseDriver
     private final LinstorRemoteCtrlDatabaseDriver linstorRemoteDriver;
     private final EbsRemoteCtrlDatabaseDriver ebsRemoteDriver;
     private final ScheduleCtrlDatabaseDriver scheduleDriver;
+    private final PropsConDatabaseDriver propsConDriver;
+    private final ErrorReporter errorReporter;
+    private final LinStorScope loadScope;
+    private final TransactionMgrGenerator transMgrGenerator;
     private final Provider<CtrlRscLayerDataFactory> ctrlRscLayerDataHelper;
     private final Provider<CtrlSnapLayerDataFactory> ctrlSnapLayerDataHelper;
 
@@ -225,6 +234,10 @@ public class DatabaseLoader implements DatabaseDriver
         LinstorRemoteCtrlDatabaseDriver linstorRemoteDriverRef,
         EbsRemoteCtrlDatabaseDriver ebsRemoteDriverRef,
         ScheduleCtrlDatabaseDriver scheduleDriverRef,
+        PropsConDatabaseDriver propsConDriverRef,
+        ErrorReporter errorReporterRef,
+        LinStorScope loadScopeRef,
+        TransactionMgrGenerator transMgrGeneratorRef,
         Provider<CtrlRscLayerDataFactory> ctrlRscLayerDataHelperRef,
         Provider<CtrlSnapLayerDataFactory> ctrlSnapLayerDataHelperRef,
         CoreModule.NodesMap nodesMapRef,
@@ -274,6 +287,10 @@ public class DatabaseLoader implements DatabaseDriver
         linstorRemoteDriver = linstorRemoteDriverRef;
         ebsRemoteDriver = ebsRemoteDriverRef;
         scheduleDriver = scheduleDriverRef;
+        propsConDriver = propsConDriverRef;
+        errorReporter = errorReporterRef;
+        loadScope = loadScopeRef;
+        transMgrGenerator = transMgrGeneratorRef;
         ctrlRscLayerDataHelper = ctrlRscLayerDataHelperRef;
         ctrlSnapLayerDataHelper = ctrlSnapLayerDataHelperRef;
 
@@ -297,7 +314,8 @@ public class DatabaseLoader implements DatabaseDriver
     @Override
     public void loadAll() throws DatabaseException
     {
-        try
+        long startMillis = System.currentTimeMillis();
+        try (ParallelDbLoader dbLoader = new ParallelDbLoader(errorReporter, loadScope, transMgrGenerator, dbCtx))
         {
             /*
              * After 1.12.4 we are prohibiting mixing LVM with LVM_THIN.
@@ -306,16 +324,46 @@ public class DatabaseLoader implements DatabaseDriver
              */
             storPoolResolveHelper.setEnableChecks(false);
 
-            // load the resource groups
-            Map<ResourceGroup, ResourceGroup.InitMaps> loadedRscGroupsMap =
-                Collections.unmodifiableMap(rscGrpDriver.loadAll(null));
+            /*
+             * Every loaded object creates its props container, which would otherwise query the props of its
+             * instance separately
+             */
+            propsConDriver.preloadAll();
 
+            // load the resource groups and the main objects (nodes, rscDfns, storPoolDfns, extFiles, remotes,
+            // schedules). Only the rscDfns and vlmGrps depend on the rscGroups, all other tables are independent
+            CompletableFuture<Map<ResourceGroup, ResourceGroup.InitMaps>> rscGrpFuture =
+                dbLoader.loadAsync("resource groups", () -> rscGrpDriver.loadAll(null));
             // temporary map to restore rscDfn <-> rscGroup relations
-            Map<ResourceGroupName, ResourceGroup> tmpRscGroups =
-                mapByName(loadedRscGroupsMap, ResourceGroup::getName);
+            CompletableFuture<Map<ResourceGroupName, ResourceGroup>> tmpRscGrpFuture =
+                rscGrpFuture.thenApply(loadedRscGroups -> mapByName(loadedRscGroups, ResourceGroup::getName));
+            CompletableFuture<List<VolumeGroup>> vlmGrpFuture =
+                dbLoader.loadAsyncAfter(tmpRscGrpFuture, "volume groups", vlmGrpDriver::loadAllAsList);
+            CompletableFuture<Map<ResourceDefinition, ResourceDefinition.InitMaps>> rscDfnFuture =
+                dbLoader.loadAsyncAfter(tmpRscGrpFuture, "resource definitions", rscDfnDriver::loadAll);
+            CompletableFuture<Map<Node, Node.InitMaps>> nodeFuture =
+                dbLoader.loadAsync("nodes", () -> nodeDriver.loadAll(null));
+            CompletableFuture<Map<StorPoolDefinition, StorPoolDefinition.InitMaps>> storPoolDfnFuture =
+                dbLoader.loadAsync("storage pool definitions", () -> storPoolDfnDriver.loadAll(null));
+            CompletableFuture<Map<ExternalFile, ExternalFile.InitMaps>> extFileFuture =
+                dbLoader.loadAsync("external files", () -> extFileDriver.loadAll(null));
+            CompletableFuture<Map<S3Remote, S3Remote.InitMaps>> s3RemoteFuture =
+                dbLoader.loadAsync("S3 remotes", () -> s3remoteDriver.loadAll(null));
+            CompletableFuture<Map<LinstorRemote, LinstorRemote.InitMaps>> linstorRemoteFuture =
+                dbLoader.loadAsync("LINSTOR remotes", () -> linstorRemoteDriver.loadAll(null));
+            CompletableFuture<Map<EbsRemote, EbsRemote.InitMaps>> ebsRemoteFuture =
+                dbLoader.loadAsync("EBS remotes", () -> ebsRemoteDriver.loadAll(null));
+            CompletableFuture<Map<Schedule, Schedule.InitMaps>> scheduleFuture =
+                dbLoader.loadAsync("schedules", () -> scheduleDriver.loadAll(null));
+            CompletableFuture<Map<KeyValueStore, KeyValueStore.InitMaps>> keyValueStoreFuture =
+                dbLoader.loadAsync("key value stores", () -> keyValueStoreGenericDbDriver.loadAll(null));
+
+            Map<ResourceGroup, ResourceGroup.InitMaps> loadedRscGroupsMap =
+                Collections.unmodifiableMap(ParallelDbLoader.join(rscGrpFuture));
+            Map<ResourceGroupName, ResourceGroup> tmpRscGroups = ParallelDbLoader.join(tmpRscGrpFuture);
 
             List<VolumeGroup> vlmGrpList =
-                Collections.unmodifiableList(vlmGrpDriver.loadAllAsList(tmpRscGroups));
+                Collections.unmodifiableList(ParallelDbLoader.join(vlmGrpFuture));
             for (VolumeGroup vlmGrp : vlmGrpList)
             {
                 loadedRscGroupsMap.get(vlmGrp.getResourceGroup()).getVlmGrpMap().put(
@@ -324,23 +372,22 @@ public class DatabaseLoader implements DatabaseDriver
                 );
             }
 
-            // load the main objects (nodes, rscDfns, storPoolDfns, extFiles, remotes, schedules)
             Map<Node, Node.InitMaps> loadedNodesMap =
-                Collections.unmodifiableMap(nodeDriver.loadAll(null));
+                Collections.unmodifiableMap(ParallelDbLoader.join(nodeFuture));
             Map<ResourceDefinition, ResourceDefinition.InitMaps> loadedRscDfnsMap =
-                Collections.unmodifiableMap(rscDfnDriver.loadAll(tmpRscGroups));
+                Collections.unmodifiableMap(ParallelDbLoader.join(rscDfnFuture));
             Map<StorPoolDefinition, StorPoolDefinition.InitMaps> loadedStorPoolDfnsMap =
-                Collections.unmodifiableMap(storPoolDfnDriver.loadAll(null));
+                Collections.unmodifiableMap(ParallelDbLoader.join(storPoolDfnFuture));
             Map<ExternalFile, ExternalFile.InitMaps> loadedExtFilesMap =
-                Collections.unmodifiableMap(extFileDriver.loadAll(null));
+                Collections.unmodifiableMap(ParallelDbLoader.join(extFileFuture));
             Map<S3Remote, S3Remote.InitMaps> loadedS3RemotesMap = Collections
-                .unmodifiableMap(s3remoteDriver.loadAll(null));
+                .unmodifiableMap(ParallelDbLoader.join(s3RemoteFuture));
             Map<LinstorRemote, LinstorRemote.InitMaps> loadedLinstorRemotesMap = Collections
-                .unmodifiableMap(linstorRemoteDriver.loadAll(null));
+                .unmodifiableMap(ParallelDbLoader.join(linstorRemoteFuture));
             Map<EbsRemote, EbsRemote.InitMaps> loadedEbsRemotesMap = Collections
-                .unmodifiableMap(ebsRemoteDriver.loadAll(null));
+                .unmodifiableMap(ParallelDbLoader.join(ebsRemoteFuture));
             Map<Schedule, Schedule.InitMaps> loadedSchedulesMap = Collections
-                .unmodifiableMap(scheduleDriver.loadAll(null));
+                .unmodifiableMap(ParallelDbLoader.join(scheduleFuture));
 
             // add the rscDfns into the corresponding rscGroup rscDfn-map
             for (ResourceDefinition rscDfn : loadedRscDfnsMap.keySet())
@@ -365,7 +412,10 @@ public class DatabaseLoader implements DatabaseDriver
 
 
             // loading net interfaces
-            List<NetInterface> loadedNetIfs = netIfDriver.loadAllAsList(tmpNodesMap);
+            List<NetInterface> loadedNetIfs = dbLoader.load(
+                "net interfaces",
+                () -> netIfDriver.loadAllAsList(tmpNodesMap)
+            );
             for (NetInterface netIf : loadedNetIfs)
             {
                 Node node = netIf.getNode();
@@ -379,7 +429,10 @@ public class DatabaseLoader implements DatabaseDriver
                 }
             }
 
-            List<NodeConnection> loadedNodeConns = nodeConnDriver.loadAllAsList(tmpNodesMap);
+            List<NodeConnection> loadedNodeConns = dbLoader.load(
+                "node connections",
+                () -> nodeConnDriver.loadAllAsList(tmpNodesMap)
+            );
             for (NodeConnection nodeConn : loadedNodeConns)
             {
                 Node sourceNode = nodeConn.getSourceNode(dbCtx);
@@ -391,10 +444,13 @@ public class DatabaseLoader implements DatabaseDriver
 
             // loading storage pools
             Map<StorPool, StorPool.InitMaps> loadedStorPools = Collections.unmodifiableMap(
-                storPoolDriver.loadAll(
-                    new Pair<>(
-                        tmpNodesMap,
-                        tmpStorPoolDfnMap
+                dbLoader.load(
+                    "storage pools",
+                    () -> storPoolDriver.loadAll(
+                        new Pair<>(
+                            tmpNodesMap,
+                            tmpStorPoolDfnMap
+                        )
                     )
                 )
             );
@@ -418,7 +474,9 @@ public class DatabaseLoader implements DatabaseDriver
 
             // loading resources
             Map<AbsResource<Resource>, Resource.InitMaps> loadedAbsResources =
-                Collections.unmodifiableMap(rscDriver.loadAll(new Pair<>(tmpNodesMap, tmpRscDfnMap)));
+                Collections.unmodifiableMap(
+                    dbLoader.load("resources", () -> rscDriver.loadAll(new Pair<>(tmpNodesMap, tmpRscDfnMap)))
+                );
             Map<Resource, Resource.InitMaps> loadedResources = new TreeMap<>(); // casted version of loadedAbsResources
             for (Entry<AbsResource<Resource>, Resource.InitMaps> absEntry : loadedAbsResources.entrySet())
             {
@@ -440,7 +498,10 @@ public class DatabaseLoader implements DatabaseDriver
             );
 
             // loading resource connections
-            List<ResourceConnection> loadedRscConns = rscConnDriver.loadAllAsList(tmpRscMap);
+            List<ResourceConnection> loadedRscConns = dbLoader.load(
+                "resource connections",
+                () -> rscConnDriver.loadAllAsList(tmpRscMap)
+            );
             for (ResourceConnection rscConn : loadedRscConns)
             {
                 Resource sourceResource = rscConn.getSourceResource(dbCtx);
@@ -451,7 +512,9 @@ public class DatabaseLoader implements DatabaseDriver
 
             // loading volume definitions
             Map<VolumeDefinition, VolumeDefinition.InitMaps> loadedVlmDfnMap =
-                Collections.unmodifiableMap(vlmDfnDriver.loadAll(tmpRscDfnMap));
+                Collections.unmodifiableMap(
+                    dbLoader.load("volume definitions", () -> vlmDfnDriver.loadAll(tmpRscDfnMap))
+                );
 
             for (VolumeDefinition vlmDfn : loadedVlmDfnMap.keySet())
             {
@@ -469,8 +532,11 @@ public class DatabaseLoader implements DatabaseDriver
 
             // loading volumes
             Map<Volume, Volume.InitMaps> loadedVolumes = Collections.unmodifiableMap(
-                vlmDriver.loadAll(
-                    new Pair<>(tmpRscMap, tmpVlmDfnMap)
+                dbLoader.load(
+                    "volumes",
+                    () -> vlmDriver.loadAll(
+                        new Pair<>(tmpRscMap, tmpVlmDfnMap)
+                    )
                 )
             );
 
@@ -491,7 +557,10 @@ public class DatabaseLoader implements DatabaseDriver
                 )
             );
 
-            List<VolumeConnection> loadedVlmConns = vlmConnDriver.loadAllAsList(tmpVlmMap);
+            List<VolumeConnection> loadedVlmConns = dbLoader.load(
+                "volume connections",
+                () -> vlmConnDriver.loadAllAsList(tmpVlmMap)
+            );
             for (VolumeConnection vlmConn : loadedVlmConns)
             {
                 Volume sourceVolume = vlmConn.getSourceVolume(dbCtx);
@@ -501,8 +570,9 @@ public class DatabaseLoader implements DatabaseDriver
             }
 
             // loading snapshot definitions
-            Map<SnapshotDefinition, SnapshotDefinition.InitMaps> loadedSnapshotDfns = snapshotDefinitionDriver.loadAll(
-                tmpRscDfnMap
+            Map<SnapshotDefinition, SnapshotDefinition.InitMaps> loadedSnapshotDfns = dbLoader.load(
+                "snapshot definitions",
+                () -> snapshotDefinitionDriver.loadAll(tmpRscDfnMap)
             );
             for (SnapshotDefinition snapshotDfn : loadedSnapshotDfns.keySet())
             {
@@ -520,8 +590,11 @@ public class DatabaseLoader implements DatabaseDriver
 
             // loading snapshot volume definitions
             Map<SnapshotVolumeDefinition, SnapshotVolumeDefinition.InitMaps> loadedSnapshotVolumeDefinitions =
-                snapshotVolumeDefinitionDriver.loadAll(
-                    new Pair<>(tmpSnapshotDfnMap, tmpVlmDfnMap)
+                dbLoader.load(
+                    "snapshot volume definitions",
+                    () -> snapshotVolumeDefinitionDriver.loadAll(
+                        new Pair<>(tmpSnapshotDfnMap, tmpVlmDfnMap)
+                    )
                 );
             for (SnapshotVolumeDefinition snapshotVolumeDefinition : loadedSnapshotVolumeDefinitions.keySet())
             {
@@ -539,8 +612,9 @@ public class DatabaseLoader implements DatabaseDriver
             );
 
             // loading snapshots
-            Map<AbsResource<Snapshot>, Snapshot.InitMaps> loadedAbsSnapshots = snapshotDriver.loadAll(
-                new Pair<>(tmpNodesMap, tmpSnapshotDfnMap)
+            Map<AbsResource<Snapshot>, Snapshot.InitMaps> loadedAbsSnapshots = dbLoader.load(
+                "snapshots",
+                () -> snapshotDriver.loadAll(new Pair<>(tmpNodesMap, tmpSnapshotDfnMap))
             );
             Map<Snapshot, Snapshot.InitMaps> loadedSnapshots = new TreeMap<>();
             for (Entry<AbsResource<Snapshot>, Snapshot.InitMaps> absEntry : loadedAbsSnapshots.entrySet())
@@ -564,10 +638,13 @@ public class DatabaseLoader implements DatabaseDriver
 
             // loading snapshot volumes
             List<SnapshotVolume> loadedSnapshotVolumes =
-                snapshotVolumeDriver.loadAllAsList(
-                    new Pair<>(
-                        tmpSnapshotMap,
-                        tmpSnapshotVlmDfnMap
+                dbLoader.load(
+                    "snapshot volumes",
+                    () -> snapshotVolumeDriver.loadAllAsList(
+                        new Pair<>(
+                            tmpSnapshotMap,
+                            tmpSnapshotVlmDfnMap
+                        )
                     )
                 );
             for (SnapshotVolume snapshotVolume : loadedSnapshotVolumes)
@@ -580,7 +657,7 @@ public class DatabaseLoader implements DatabaseDriver
 
             // load and put key value store map
             Map<KeyValueStore, KeyValueStore.InitMaps> loadedKeyValueStoreMap =
-                Collections.unmodifiableMap(keyValueStoreGenericDbDriver.loadAll(null));
+                Collections.unmodifiableMap(ParallelDbLoader.join(keyValueStoreFuture));
             Map<KeyValueStoreName, KeyValueStore> tmpKeyValueStoreMap =
                 mapByName(loadedKeyValueStoreMap, KeyValueStore::getName);
             keyValueStoreMap.putAll(tmpKeyValueStoreMap);
@@ -636,6 +713,8 @@ public class DatabaseLoader implements DatabaseDriver
 
             AbsRscLayerHelper.databaseLoadingFinished();
             exosMappingMgr.allocateAfterDbLoad();
+
+            errorReporter.logInfo("Loaded all database tables in %d ms", System.currentTimeMillis() - startMillis);
         }
         catch (AccessDeniedException exc)
         {
@@ -651,6 +730,7 @@ public class DatabaseLoader implements DatabaseDriver
         }
         finally
         {
+            propsConDriver.clearPreloaded();
             storPoolResolveHelper.setEnableChecks(true);
         }
     }
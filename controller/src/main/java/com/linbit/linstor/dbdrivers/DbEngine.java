@@ -25,6 +25,8 @@ import com.linbit.linstor.stateflags.StateFlagsPersistence;
 import com.linbit.utils.ExceptionThrowingFunction;
 import com.linbit.utils.Pair;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.Function;
@@ -99,6 +101,18 @@ public interface DbEngine
      */
     DatabaseType getType();
 
+    /**
+     * Returns a value that changes whenever the database is modified, regardless of which controller or tool
+     * modified it, or null if the database does not provide such a value
+     *
+     * @throws DatabaseException
+     */
+    @Nullable
+    default String getChangeMarker() throws DatabaseException
+    {
+        return null;
+    }
+
     /**
      * Returns a {@link StateFlagsPersistence} for the given DATA type.
      *
@@ -0,0 +1,611 @@
+package com.linbit.linstor.dbdrivers;
+
+import com.linbit.ImplementationError;
+import com.linbit.InvalidIpAddressException;
+import com.linbit.InvalidNameException;
+import com.linbit.ValueOutOfRangeException;
+import com.linbit.drbd.md.MdException;
+import com.linbit.linstor.LinStorDBRuntimeException;
+import com.linbit.linstor.core.cfg.CtrlConfig;
+import com.linbit.linstor.dbdrivers.AbsDatabaseDriver.RawParameters;
+import com.linbit.linstor.dbdrivers.DatabaseDriverInfo.DatabaseType;
+import com.linbit.linstor.dbdrivers.DatabaseTable.Column;
+import com.linbit.linstor.dbdrivers.DbEngine.DataLoader;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.security.AccessDeniedException;
+import com.linbit.utils.Pair;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional snapshot of the database tables that are loaded through the {@link DbEngine}, which allows a restarted
+ * controller to skip reading those tables from the database
+ *
+ * The snapshot contains the raw rows as returned by the {@link DbEngine}, the objects are restored from those rows
+ * exactly as if the rows were read from the database.
+ *
+ * The snapshot is written when the controller shuts down, after all other tasks were stopped. It contains the
+ * {@link DbEngine#getChangeMarker() change marker} of the database, which every modification of the database
+ * changes, no matter whether it was made by this controller, another controller (e.g. after a failover or by an
+ * older LINSTOR version) or a tool. A snapshot is only used if the marker of the database still matches, so it
+ * remains usable after a crash or an upgrade as long as the database was not modified since the snapshot was
+ * written. Tables whose columns differ from the snapshot are loaded from the database.
+ *
+ * Only databases that provide a change marker, i.e. ETCD, support the snapshot.
+ */
+@Singleton
+public class DbStartupSnapshot
+{
+    private static final int MAGIC = 0x4C53534E;
+    private static final int FORMAT_VERSION = 2;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BYTES = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_INTEGER = 5;
+    private static final byte TYPE_LONG = 6;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_BIG_DECIMAL = 8;
+    private static final byte TYPE_SQL_TIMESTAMP = 9;
+    private static final byte TYPE_SQL_DATE = 10;
+    private static final byte TYPE_DATE = 11;
+
+    private final ErrorReporter errorReporter;
+    private final @Nullable Path snapshotPath;
+
+    // All tables that were loaded through the DbEngine, i.e. the tables that a new snapshot has to contain
+    private final Set<DatabaseTable> loadedTables;
+
+    private volatile @Nullable Map<String, SnapshotTable> snapshotTables;
+
+    @Inject
+    public DbStartupSnapshot(ErrorReporter errorReporterRef, CtrlConfig ctrlCfgRef)
+    {
+        errorReporter = errorReporterRef;
+        String snapshotPathStr = ctrlCfgRef.getDbStartupSnapshotPath();
+        snapshotPath = snapshotPathStr == null || snapshotPathStr.isEmpty() ? null : Paths.get(snapshotPathStr);
+
+        loadedTables = ConcurrentHashMap.newKeySet();
+    }
+
+    public boolean isEnabled()
+    {
+        return snapshotPath != null;
+    }
+
+    /**
+     * Reads the snapshot file if its change marker matches the current one of the database, so that the following
+     * loads restore the objects from the snapshot instead of the database. Any problem with the snapshot file is
+     * only logged, as the tables can still be loaded from the database.
+     *
+     * Must be called before the database is modified by the current startup.
+     */
+    public void prepareLoad(DbEngine dbEngine) throws DatabaseException
+    {
+        if (snapshotPath != null)
+        {
+            String changeMarker = dbEngine.getChangeMarker();
+            if (changeMarker == null)
+            {
+                errorReporter.logInfo(
+                    "Startup snapshot not used, it is not supported for %s databases",
+                    dbEngine.getType().name()
+                );
+            }
+            else
+            {
+                try
+                {
+                    long startMillis = System.currentTimeMillis();
+                    snapshotTables = read(snapshotPath, changeMarker, dbEngine.getType());
+                    if (snapshotTables != null)
+                    {
+                        errorReporter.logInfo(
+                            "Read startup snapshot %s in %d ms",
+                            snapshotPath,
+                            System.currentTimeMillis() - startMillis
+                        );
+                    }
+                }
+                catch (NoSuchFileException noFileExc)
+                {
+                    errorReporter.logInfo("Startup snapshot %s does not exist", snapshotPath);
+                }
+                catch (IOException ioExc)
+                {
+                    errorReporter.logWarning(
+                        "Startup snapshot %s could not be read, loading all tables from the database: %s",
+                        snapshotPath,
+                        ioExc.getMessage()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Called after all objects were loaded, discards the rows of the snapshot
+     */
+    public void finishLoad()
+    {
+        snapshotTables = null;
+    }
+
+    /**
+     * Restores the objects of the given table from the snapshot
+     *
+     * @return The restored objects, or null if the table has to be loaded from the database because the snapshot
+     *     does not contain it with the same columns
+     */
+    @Nullable
+    public <DATA, INIT_MAPS, LOAD_ALL> Map<DATA, INIT_MAPS> loadAll(
+        DatabaseTable table,
+        LOAD_ALL parents,
+        DataLoader<DATA, INIT_MAPS, LOAD_ALL> dataLoader
+    )
+        throws DatabaseException, MdException
+    {
+        loadedTables.add(table);
+
+        Map<DATA, INIT_MAPS> loadedObjectsMap = null;
+        Map<String, SnapshotTable> currentSnapshotTables = snapshotTables;
+        if (currentSnapshotTables != null)
+        {
+            SnapshotTable snapshotTable = currentSnapshotTables.get(table.getName());
+            if (snapshotTable != null && snapshotTable.hasColumns(table))
+            {
+                loadedObjectsMap = new TreeMap<>();
+                for (Map<String, Object> row : snapshotTable.rows)
+                {
+                    Pair<DATA, INIT_MAPS> pair = restoreData(table, row, parents, dataLoader);
+                    // pair might be null when loading objects sharing the same table
+                    if (pair != null)
+                    {
+                        loadedObjectsMap.put(pair.objA, pair.objB);
+                    }
+                }
+            }
+        }
+        return loadedObjectsMap;
+    }
+
+    private <DATA, INIT_MAPS, LOAD_ALL> Pair<DATA, INIT_MAPS> restoreData(
+        DatabaseTable table,
+        Map<String, Object> row,
+        LOAD_ALL parents,
+        DataLoader<DATA, INIT_MAPS, LOAD_ALL> dataLoader
+    )
+        throws DatabaseException, MdException
+    {
+        Pair<DATA, INIT_MAPS> pair;
+        try
+        {
+            pair = dataLoader.loadImpl(new RawParameters(table, row), parents);
+        }
+        catch (LinStorDBRuntimeException exc)
+        {
+            throw exc;
+        }
+        catch (InvalidNameException | InvalidIpAddressException | ValueOutOfRangeException | RuntimeException exc)
+        {
+            StringBuilder pk = new StringBuilder("Primary key: ");
+            for (Column col : table.values())
+            {
+                if (col.isPk())
+                {
+                    pk.append(col.getName()).append(" = '").append(row.get(col.getName())).append("', ");
+                }
+            }
+            pk.setLength(pk.length() - 2);
+            throw new LinStorDBRuntimeException(
+                String.format(
+                    "Startup snapshot entry of table %s could not be restored.",
+                    table.getName()
+                ),
+                null,
+                null,
+                null,
+                pk.toString(),
+                exc
+            );
+        }
+        return pair;
+    }
+
+    /**
+     * Reads all tables that were loaded at startup from the database and writes them into a new snapshot file,
+     * together with the current change marker of the database. The file is replaced atomically, so that a failed
+     * write leaves the previous snapshot intact. No snapshot is written if the database does not provide a change
+     * marker, or if it was modified while the tables were read.
+     */
+    public void write(DbEngine dbEngine) throws DatabaseException, IOException
+    {
+        if (snapshotPath == null)
+        {
+            throw new ImplementationError("Writing a startup snapshot requires a configured path");
+        }
+        String changeMarker = dbEngine.getChangeMarker();
+        if (changeMarker == null)
+        {
+            errorReporter.logInfo(
+                "Startup snapshot not written, it is not supported for %s databases",
+                dbEngine.getType().name()
+            );
+        }
+        else
+        {
+            writeFile(snapshotPath, dbEngine, changeMarker);
+        }
+    }
+
+    private void writeFile(Path path, DbEngine dbEngine, String changeMarker) throws DatabaseException, IOException
+    {
+        long startMillis = System.currentTimeMillis();
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        boolean written = false;
+        try
+        {
+            try (
+                DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmpPath)))
+                )
+            )
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(changeMarker);
+                out.writeUTF(dbEngine.getType().name());
+
+                List<DatabaseTable> tables = new ArrayList<>(loadedTables);
+                out.writeInt(tables.size());
+                for (DatabaseTable table : tables)
+                {
+                    writeTable(out, dbEngine, table);
+                }
+            }
+            if (changeMarker.equals(dbEngine.getChangeMarker()))
+            {
+                Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                written = true;
+            }
+        }
+        finally
+        {
+            if (!written)
+            {
+                Files.deleteIfExists(tmpPath);
+            }
+        }
+
+        if (written)
+        {
+            errorReporter.logInfo(
+                "Wrote startup snapshot %s in %d ms",
+                path,
+                System.currentTimeMillis() - startMillis
+            );
+        }
+        else
+        {
+            errorReporter.logWarning("Startup snapshot not written, the database was modified while it was read");
+        }
+    }
+
+    private void writeTable(DataOutputStream out, DbEngine dbEngine, DatabaseTable table)
+        throws DatabaseException, IOException
+    {
+        Column[] columns = table.values();
+        List<Object[]> rows = new ArrayList<>();
+        try
+        {
+            dbEngine.<Object, Object, Object>loadAll(
+                table,
+                null,
+                (raw, ignored) ->
+                {
+                    Object[] row = new Object[columns.length];
+                    for (int idx = 0; idx < columns.length; ++idx)
+                    {
+                        row[idx] = raw.get(columns[idx]);
+                    }
+                    rows.add(row);
+                    return null;
+                }
+            );
+        }
+        catch (AccessDeniedException | InvalidNameException | InvalidIpAddressException |
+            ValueOutOfRangeException | MdException exc)
+        {
+            throw new ImplementationError("Reading the raw rows of table " + table.getName() + " failed", exc);
+        }
+
+        out.writeUTF(table.getName());
+        out.writeInt(columns.length);
+        for (Column col : columns)
+        {
+            out.writeUTF(col.getName());
+        }
+        out.writeInt(rows.size());
+        for (Object[] row : rows)
+        {
+            for (Object value : row)
+            {
+                writeValue(out, value);
+            }
+        }
+    }
+
+    @Nullable
+    private Map<String, SnapshotTable> read(Path path, String changeMarker, DatabaseType dbType)
+        throws IOException
+    {
+        Map<String, SnapshotTable> tablesByName = null;
+        try (
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path)))
+            )
+        )
+        {
+            if (in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a startup snapshot file");
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION)
+            {
+                errorReporter.logInfo("Startup snapshot not used, unsupported format version %d", formatVersion);
+            }
+            else
+            {
+                String fileChangeMarker = in.readUTF();
+                String fileDbType = in.readUTF();
+                if (!fileDbType.equals(dbType.name()))
+                {
+                    errorReporter.logInfo("Startup snapshot not used, it was written for a %s database", fileDbType);
+                }
+                else
+                if (!fileChangeMarker.equals(changeMarker))
+                {
+                    errorReporter.logInfo(
+                        "Startup snapshot not used, the database was modified since it was written"
+                    );
+                }
+                else
+                {
+                    tablesByName = new HashMap<>();
+                    int tableCount = in.readInt();
+                    for (int tableIdx = 0; tableIdx < tableCount; ++tableIdx)
+                    {
+                        String tableName = in.readUTF();
+                        tablesByName.put(tableName, readTable(in));
+                    }
+                }
+            }
+        }
+        return tablesByName;
+    }
+
+    private SnapshotTable readTable(DataInputStream in) throws IOException
+    {
+        String[] columnNames = new String[in.readInt()];
+        for (int idx = 0; idx < columnNames.length; ++idx)
+        {
+            columnNames[idx] = in.readUTF();
+        }
+        int rowCount = in.readInt();
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx)
+        {
+            Map<String, Object> row = new HashMap<>();
+            for (String columnName : columnNames)
+            {
+                row.put(columnName, readValue(in));
+            }
+            rows.add(Collections.unmodifiableMap(row));
+        }
+        return new SnapshotTable(columnNames, rows);
+    }
+
+    static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeByte(TYPE_NULL);
+        }
+        else
+        if (value instanceof String)
+        {
+            out.writeByte(TYPE_STRING);
+            // writeUTF is limited to 64k bytes
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+        else
+        if (value instanceof byte[])
+        {
+            out.writeByte(TYPE_BYTES);
+            writeBytes(out, (byte[]) value);
+        }
+        else
+        if (value instanceof Boolean)
+        {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        }
+        else
+        if (value instanceof Short)
+        {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort((Short) value);
+        }
+        else
+        if (value instanceof Integer)
+        {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        }
+        else
+        if (value instanceof Long)
+        {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        }
+        else
+        if (value instanceof Double)
+        {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        }
+        else
+        if (value instanceof BigDecimal)
+        {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            out.writeUTF(value.toString());
+        }
+        else
+        if (value instanceof java.sql.Timestamp)
+        {
+            java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+            out.writeByte(TYPE_SQL_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        }
+        else
+        if (value instanceof java.sql.Date)
+        {
+            out.writeByte(TYPE_SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        }
+        else
+        if (value.getClass() == Date.class)
+        {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((Date) value).getTime());
+        }
+        else
+        {
+            throw new IOException("Unsupported column type " + value.getClass().getName());
+        }
+    }
+
+    @Nullable
+    static Object readValue(DataInputStream in) throws IOException
+    {
+        Object value;
+        byte type = in.readByte();
+        switch (type)
+        {
+            case TYPE_NULL:
+                value = null;
+                break;
+            case TYPE_STRING:
+                value = new String(readBytes(in), StandardCharsets.UTF_8);
+                break;
+            case TYPE_BYTES:
+                value = readBytes(in);
+                break;
+            case TYPE_BOOLEAN:
+                value = in.readBoolean();
+                break;
+            case TYPE_SHORT:
+                value = in.readShort();
+                break;
+            case TYPE_INTEGER:
+                value = in.readInt();
+                break;
+            case TYPE_LONG:
+                value = in.readLong();
+                break;
+            case TYPE_DOUBLE:
+                value = in.readDouble();
+                break;
+            case TYPE_BIG_DECIMAL:
+                value = new BigDecimal(in.readUTF());
+                break;
+            case TYPE_SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                value = timestamp;
+                break;
+            case TYPE_SQL_DATE:
+                value = new java.sql.Date(in.readLong());
+                break;
+            case TYPE_DATE:
+                value = new Date(in.readLong());
+                break;
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+        return value;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException
+    {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * The rows of a table as stored in the snapshot
+     */
+    static class SnapshotTable
+    {
+        private final String[] columnNames;
+        private final List<Map<String, Object>> rows;
+
+        SnapshotTable(String[] columnNamesRef, List<Map<String, Object>> rowsRef)
+        {
+            columnNames = columnNamesRef;
+            rows = rowsRef;
+        }
+
+        /**
+         * Returns true if the snapshot has the same columns as the given table, which might have been changed by an
+         * upgrade
+         */
+        boolean hasColumns(DatabaseTable table)
+        {
+            Column[] columns = table.values();
+            boolean sameColumns = columns.length == columnNames.length;
+            for (int idx = 0; sameColumns && idx < columns.length; ++idx)
+            {
+                sameColumns = columns[idx].getName().equals(columnNames[idx]);
+            }
+            return sameColumns;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.linbit.linstor.dbdrivers;
+
+import com.linbit.ImplementationError;
+import com.linbit.linstor.annotation.ErrorReporterContext;
+import com.linbit.linstor.annotation.PeerContext;
+import com.linbit.linstor.api.LinStorScope;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.linstor.transaction.TransactionException;
+import com.linbit.linstor.transaction.manager.TransactionMgr;
+import com.linbit.linstor.transaction.manager.TransactionMgrGenerator;
+import com.linbit.linstor.transaction.manager.TransactionMgrUtil;
+import com.linbit.utils.ExceptionThrowingFunction;
+import com.linbit.utils.ExceptionThrowingSupplier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Key;
+
+/**
+ * Loads the tables of {@link DatabaseLoader#loadAll()}, running the loading of tables that do not depend on each
+ * other concurrently
+ *
+ * Every concurrent load runs in its own {@link LinStorScope} with its own transaction, which for SQL databases also
+ * means its own database connection. The transaction is committed and its connection returned as soon as the table
+ * is loaded, so that at most {@link #MAX_PARALLEL_LOADS} additional connections are used.
+ *
+ * The load time of every table is written to the log.
+ */
+class ParallelDbLoader implements AutoCloseable
+{
+    // Stays below the default size of the database connection pool, as the calling transaction holds a connection
+    static final int MAX_PARALLEL_LOADS = 4;
+
+    private static final long SHUTDOWN_TIMEOUT_MINUTES = 10;
+
+    private final ErrorReporter errorReporter;
+    private final LinStorScope loadScope;
+    private final TransactionMgrGenerator transMgrGenerator;
+    private final AccessContext dbCtx;
+    private final ForkJoinPool pool;
+
+    ParallelDbLoader(
+        ErrorReporter errorReporterRef,
+        LinStorScope loadScopeRef,
+        TransactionMgrGenerator transMgrGeneratorRef,
+        AccessContext dbCtxRef
+    )
+    {
+        errorReporter = errorReporterRef;
+        loadScope = loadScopeRef;
+        transMgrGenerator = transMgrGeneratorRef;
+        dbCtx = dbCtxRef;
+
+        pool = new ForkJoinPool(Math.min(MAX_PARALLEL_LOADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Loads a table on the calling thread, using the transaction of the caller
+     */
+    <T> T load(String tableName, ExceptionThrowingSupplier<T, DatabaseException> loader)
+        throws DatabaseException
+    {
+        long startMillis = System.currentTimeMillis();
+        T loaded = loader.supply();
+        logLoadTime(tableName, startMillis);
+        return loaded;
+    }
+
+    /**
+     * Loads a table concurrently
+     */
+    <T> CompletableFuture<T> loadAsync(String tableName, ExceptionThrowingSupplier<T, DatabaseException> loader)
+    {
+        return CompletableFuture.supplyAsync(() -> loadInOwnTransaction(tableName, loader), pool);
+    }
+
+    /**
+     * Loads a table concurrently as soon as the table it depends on is loaded
+     */
+    <T, R> CompletableFuture<R> loadAsyncAfter(
+        CompletableFuture<T> dependency,
+        String tableName,
+        ExceptionThrowingFunction<T, R, DatabaseException> loader
+    )
+    {
+        return dependency.thenApplyAsync(
+            loadedDependency -> loadInOwnTransaction(tableName, () -> loader.accept(loadedDependency)),
+            pool
+        );
+    }
+
+    /**
+     * Waits for a concurrent load and rethrows its exception, if any
+     */
+    static <T> T join(CompletableFuture<T> future) throws DatabaseException
+    {
+        T loaded;
+        try
+        {
+            loaded = future.join();
+        }
+        catch (CompletionException exc)
+        {
+            Throwable cause = exc.getCause();
+            if (cause instanceof DatabaseExceptionWrapper)
+            {
+                throw ((DatabaseExceptionWrapper) cause).getCause();
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new ImplementationError("Unexpected exception while loading the database", cause);
+        }
+        return loaded;
+    }
+
+    private <T> T loadInOwnTransaction(String tableName, ExceptionThrowingSupplier<T, DatabaseException> loader)
+    {
+        long startMillis = System.currentTimeMillis();
+        T loaded;
+        TransactionMgr transMgr = transMgrGenerator.startTransaction();
+        boolean committed = false;
+        loadScope.enter();
+        try
+        {
+            TransactionMgrUtil.seedTransactionMgr(loadScope, transMgr);
+            loadScope.seed(Key.get(AccessContext.class, PeerContext.class), dbCtx);
+            loadScope.seed(Key.get(AccessContext.class, ErrorReporterContext.class), dbCtx);
+
+            loaded = loader.supply();
+
+            transMgr.commit();
+            committed = true;
+        }
+        catch (DatabaseException dbExc)
+        {
+            throw new DatabaseExceptionWrapper(dbExc);
+        }
+        finally
+        {
+            if (!committed)
+            {
+                rollback(tableName, transMgr);
+            }
+            transMgr.returnConnection();
+            loadScope.exit();
+        }
+        logLoadTime(tableName, startMillis);
+        return loaded;
+    }
+
+    private void rollback(String tableName, TransactionMgr transMgr)
+    {
+        try
+        {
+            transMgr.rollback();
+        }
+        catch (TransactionException exc)
+        {
+            errorReporter.reportError(exc, null, null, "Rollback after loading " + tableName + " failed");
+        }
+    }
+
+    private void logLoadTime(String tableName, long startMillis)
+    {
+        errorReporter.logInfo("Loaded %s in %d ms", tableName, System.currentTimeMillis() - startMillis);
+    }
+
+    /**
+     * Waits until all concurrent loads are finished, also the ones that are not needed anymore because another
+     * load failed
+     */
+    @Override
+    public void close()
+    {
+        pool.shutdown();
+        try
+        {
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_MINUTES, TimeUnit.MINUTES))
+            {
+                errorReporter.logWarning("Concurrent database loads did not finish in time");
+            }
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class DatabaseExceptionWrapper extends RuntimeException
+    {
+        private static final long serialVersionUID = 4203713866404357437L;
+
+        DatabaseExceptionWrapper(DatabaseException cause)
+        {
+            super(cause);
+        }
+
+        @Override
+        public synchronized DatabaseException getCause()
+        {
+            return (DatabaseException) super.getCause();
+        }
+    }
+}
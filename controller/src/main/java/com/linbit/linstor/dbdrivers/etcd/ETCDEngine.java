@@ -15,6 +15,7 @@ import com.linbit.linstor.dbdrivers.DatabaseLoader;
 import com.linbit.linstor.dbdrivers.DatabaseTable;
 import com.linbit.linstor.dbdrivers.DatabaseTable.Column;
 import com.linbit.linstor.dbdrivers.DbEngine;
+import com.linbit.linstor.dbdrivers.DbStartupSnapshot;
 import com.linbit.linstor.dbdrivers.interfaces.updater.CollectionDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.updater.SingleColumnDatabaseDriver;
 import com.linbit.linstor.logging.ErrorReporter;
@@ -46,15 +47,18 @@ import com.google.inject.Provider;
 public class ETCDEngine extends BaseEtcdDriver implements DbEngine
 {
     private final ErrorReporter errorReporter;
+    private final DbStartupSnapshot startupSnapshot;
 
     @Inject
     public ETCDEngine(
         ErrorReporter errorReporterRef,
-        Provider<TransactionMgrETCD> transMgrProviderRef
+        Provider<TransactionMgrETCD> transMgrProviderRef,
+        DbStartupSnapshot startupSnapshotRef
     )
     {
         super(transMgrProviderRef);
         errorReporter = errorReporterRef;
+        startupSnapshot = startupSnapshotRef;
     }
 
     @Override
@@ -63,6 +67,16 @@ public class ETCDEngine extends BaseEtcdDriver implements DbEngine
         return DatabaseType.ETCD;
     }
 
+    /**
+     * Returns the current ETCD revision. It also changes if keys outside of the LINSTOR prefix are modified, in
+     * that case a startup snapshot is not used although it would still be valid.
+     */
+    @Override
+    public String getChangeMarker()
+    {
+        return Long.toString(transMgrProvider.get().getTransaction().getCurrentRevision(EtcdUtils.linstorPrefix));
+    }
+
     @Override
     public ApiCallRc backupDb(String backupPath) throws DatabaseException
     {
@@ -121,6 +135,21 @@ public class ETCDEngine extends BaseEtcdDriver implements DbEngine
     )
         throws DatabaseException, AccessDeniedException, InvalidNameException, InvalidIpAddressException,
         ValueOutOfRangeException, MdException
+    {
+        Map<DATA, INIT_MAPS> loadedObjectsMap = startupSnapshot.loadAll(table, parents, dataLoader);
+        if (loadedObjectsMap == null)
+        {
+            loadedObjectsMap = loadAllFromDb(table, parents, dataLoader);
+        }
+        return loadedObjectsMap;
+    }
+
+    private <DATA, INIT_MAPS, LOAD_ALL> Map<DATA, INIT_MAPS> loadAllFromDb(
+        DatabaseTable table,
+        LOAD_ALL parents,
+        DataLoader<DATA, INIT_MAPS, LOAD_ALL> dataLoader
+    )
+        throws DatabaseException, MdException
     {
         Map<DATA, INIT_MAPS> loadedObjectsMap = new TreeMap<>();
         final Column[] columns = table.values();
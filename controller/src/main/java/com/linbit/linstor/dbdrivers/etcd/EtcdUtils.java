@@ -8,7 +8,6 @@ import com.linbit.linstor.dbdrivers.DatabaseTable.Column;
 import com.linbit.linstor.transaction.EtcdTransaction;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -16,9 +15,7 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 
-import com.ibm.etcd.api.KeyValue;
 import com.ibm.etcd.api.PutRequest;
-import com.ibm.etcd.api.RangeResponse;
 import com.ibm.etcd.client.kv.KvClient;
 import io.grpc.Deadline;
 
@@ -97,17 +94,7 @@ public class EtcdUtils
 
     public static Map<String, String> getTableRow(KvClient client, String key)
     {
-        RangeResponse rspRow = EtcdTransaction.requestWithRetry(client.get(bs(key)).asPrefix());
-
-        HashMap<String, String> rowMap = new HashMap<>();
-        for (KeyValue keyValue : rspRow.getKvsList())
-        {
-            // final String recKey = keyValue.getKey().toStringUtf8();
-            // final String columnName = recKey.substring(recKey.lastIndexOf("/") + 1);
-            rowMap.put(keyValue.getKey().toStringUtf8(), keyValue.getValue().toStringUtf8());
-        }
-
-        return rowMap;
+        return EtcdTransaction.getPrefixPaged(client, key, 0);
     }
 
     public static String getFirstValue(KvClient kvClientRef, String primaryKey)
@@ -15,6 +15,7 @@ import com.linbit.linstor.dbdrivers.DatabaseException;
 import com.linbit.linstor.dbdrivers.DatabaseTable;
 import com.linbit.linstor.dbdrivers.DatabaseTable.Column;
 import com.linbit.linstor.dbdrivers.DbEngine;
+import com.linbit.linstor.dbdrivers.DbStartupSnapshot;
 import com.linbit.linstor.dbdrivers.GeneratedDatabaseTables;
 import com.linbit.linstor.dbdrivers.interfaces.updater.CollectionDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.updater.SingleColumnDatabaseDriver;
@@ -45,12 +46,18 @@ public class K8sCrdEngine implements DbEngine
     private final ObjectMapper objectMapper;
     private final ErrorReporter errorReporter;
     private final Provider<TransactionMgrK8sCrd> transMgrProvider;
+    private final DbStartupSnapshot startupSnapshot;
 
     @Inject
-    public K8sCrdEngine(ErrorReporter errorReporterRef, Provider<TransactionMgrK8sCrd> transMgrProviderRef)
+    public K8sCrdEngine(
+        ErrorReporter errorReporterRef,
+        Provider<TransactionMgrK8sCrd> transMgrProviderRef,
+        DbStartupSnapshot startupSnapshotRef
+    )
     {
         errorReporter = errorReporterRef;
         transMgrProvider = transMgrProviderRef;
+        startupSnapshot = startupSnapshotRef;
         objectMapper = new ObjectMapper();
     }
 
@@ -167,6 +174,21 @@ public class K8sCrdEngine implements DbEngine
     )
         throws DatabaseException, AccessDeniedException, InvalidNameException, InvalidIpAddressException,
         ValueOutOfRangeException, MdException
+    {
+        Map<DATA, INIT_MAPS> loadedObjectsMap = startupSnapshot.loadAll(table, parents, dataLoader);
+        if (loadedObjectsMap == null)
+        {
+            loadedObjectsMap = loadAllFromDb(table, parents, dataLoader);
+        }
+        return loadedObjectsMap;
+    }
+
+    private <DATA, INIT_MAPS, LOAD_ALL> Map<DATA, INIT_MAPS> loadAllFromDb(
+        DatabaseTable table,
+        LOAD_ALL parents,
+        DataLoader<DATA, INIT_MAPS, LOAD_ALL> dataLoader
+    )
+        throws DatabaseException, MdException
     {
         Map<DATA, INIT_MAPS> loadedObjectsMap = new TreeMap<>();
 
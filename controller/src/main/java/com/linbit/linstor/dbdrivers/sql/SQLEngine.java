@@ -16,6 +16,8 @@ import com.linbit.linstor.dbdrivers.DatabaseLoader;
 import com.linbit.linstor.dbdrivers.DatabaseTable;
 import com.linbit.linstor.dbdrivers.DatabaseTable.Column;
 import com.linbit.linstor.dbdrivers.DbEngine;
+import com.linbit.linstor.dbdrivers.DbStartupSnapshot;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.dbdrivers.interfaces.updater.CollectionDatabaseDriver;
 import com.linbit.linstor.dbdrivers.interfaces.updater.SingleColumnDatabaseDriver;
 import com.linbit.linstor.dbdrivers.sql.dump.DbDump;
@@ -37,9 +39,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -55,25 +57,32 @@ public class SQLEngine implements DbEngine
 
     private final ErrorReporter errorReporter;
     private final Provider<TransactionMgrSQL> transMgrProvider;
-    private final HashMap<DatabaseTable, String> selectStatements;
-    private final HashMap<DatabaseTable, String> insertStatements;
-    private final HashMap<DatabaseTable, String> deleteStatements;
+    // accessed concurrently while the tables are loaded in parallel
+    private final Map<DatabaseTable, String> selectStatements;
+    private final Map<DatabaseTable, String> insertStatements;
+    private final Map<DatabaseTable, String> deleteStatements;
     private final CtrlConfig ctrlCfg;
+    private final DbStartupSnapshot startupSnapshot;
+    private final SQLDatabaseStats stats;
 
     @Inject
     public SQLEngine(
         ErrorReporter errorReporterRef,
         Provider<TransactionMgrSQL> transMgrProviderRef,
-        CtrlConfig ctrlCfgRef
+        CtrlConfig ctrlCfgRef,
+        DbStartupSnapshot startupSnapshotRef,
+        SQLDatabaseStats statsRef
     )
     {
         errorReporter = errorReporterRef;
         transMgrProvider = transMgrProviderRef;
         ctrlCfg = ctrlCfgRef;
+        startupSnapshot = startupSnapshotRef;
+        stats = statsRef;
 
-        selectStatements = new HashMap<>();
-        insertStatements = new HashMap<>();
-        deleteStatements = new HashMap<>();
+        selectStatements = new ConcurrentHashMap<>();
+        insertStatements = new ConcurrentHashMap<>();
+        deleteStatements = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -121,13 +130,13 @@ public class SQLEngine implements DbEngine
     )
         throws DatabaseException
     {
-        try (PreparedStatement stmt = getConnection().prepareStatement(getInsertStatement(table)))
+        try
         {
             errorReporter.logTrace("Creating %s %s", table.getName(), dataToString.toString(data));
 
+            PreparedStatement stmt = getBatchStatement(getInsertStatement(table), table);
             setValues(setters, stmt, 1, table, ignored -> true, data);
-
-            stmt.executeUpdate();
+            stmt.addBatch();
 
             errorReporter.logTrace("%s created %s", table.getName(), dataToString.toString(data));
         }
@@ -194,13 +203,13 @@ public class SQLEngine implements DbEngine
     )
         throws DatabaseException
     {
-        try (PreparedStatement stmt = getConnection().prepareStatement(getDeleteStatement(table)))
+        try
         {
             errorReporter.logTrace("Deleting %s %s", table.getName(), dataToString.toString(data));
 
+            PreparedStatement stmt = getBatchStatement(getDeleteStatement(table), table);
             setPrimaryValues(setters, stmt, 1, table, data);
-
-            stmt.executeUpdate();
+            stmt.addBatch();
 
             errorReporter.logTrace("%s deleted %s", table.getName(), dataToString.toString(data));
         }
@@ -294,12 +303,29 @@ public class SQLEngine implements DbEngine
         DataLoader<DATA, INIT_MAPS, LOAD_ALL> dataLoaderRef
     )
         throws DatabaseException, AccessDeniedException, MdException
+    {
+        Map<DATA, INIT_MAPS> loadedObjectsMap = startupSnapshot.loadAll(table, parentsRef, dataLoaderRef);
+        if (loadedObjectsMap == null)
+        {
+            loadedObjectsMap = loadAllFromDb(table, parentsRef, dataLoaderRef);
+        }
+        return loadedObjectsMap;
+    }
+
+    private <DATA, INIT_MAPS, LOAD_ALL> Map<DATA, INIT_MAPS> loadAllFromDb(
+        DatabaseTable table,
+        LOAD_ALL parentsRef,
+        DataLoader<DATA, INIT_MAPS, LOAD_ALL> dataLoaderRef
+    )
+        throws DatabaseException, MdException
     {
         Map<DATA, INIT_MAPS> loadedObjectsMap = new TreeMap<>();
         try (PreparedStatement stmt = getConnection().prepareStatement(getSelectStatement(table)))
         {
+            long startNanos = System.nanoTime();
             try (ResultSet resultSet = stmt.executeQuery())
             {
+                recordQuery(table, System.nanoTime() - startNanos);
                 while (resultSet.next())
                 {
                     Pair<DATA, INIT_MAPS> pair = restoreData(
@@ -405,6 +431,20 @@ public class SQLEngine implements DbEngine
         return transMgrProvider.get().getConnection();
     }
 
+    /**
+     * Returns the statement of the current batch of the transaction, see
+     * {@link TransactionMgrSQL#getBatchStatement(String, DatabaseTable)}
+     */
+    PreparedStatement getBatchStatement(String sql, DatabaseTable table) throws SQLException
+    {
+        return transMgrProvider.get().getBatchStatement(sql, table);
+    }
+
+    void recordQuery(DatabaseTable table, long latencyNanos)
+    {
+        stats.recordQuery(table, latencyNanos);
+    }
+
     String generateUpdateStatement(Column colToUpdate)
     {
         StringBuilder sql = new StringBuilder();
@@ -52,7 +52,7 @@ class SQLFlagsDriver<DATA, FLAG extends Enum<FLAG> & Flags> implements StateFlag
     @Override
     public void persist(DATA data, long oldFlagBits, long newFlagBits) throws DatabaseException
     {
-        try (PreparedStatement stmt = sqlEngine.getConnection().prepareStatement(updateStatement))
+        try
         {
             String fromFlags = StringUtils.join(
                 FlagsHelper.toStringList(flagsClass, oldFlagBits),
@@ -72,10 +72,10 @@ class SQLFlagsDriver<DATA, FLAG extends Enum<FLAG> & Flags> implements StateFlag
                     toFlags,
                     inlineId
                 );
+            PreparedStatement stmt = sqlEngine.getBatchStatement(updateStatement, table);
             stmt.setLong(1, newFlagBits);
             sqlEngine.setPrimaryValues(setters, stmt, 2, table, data);
-
-            stmt.executeUpdate();
+            stmt.addBatch();
 
             errorReporter
                 .logTrace(
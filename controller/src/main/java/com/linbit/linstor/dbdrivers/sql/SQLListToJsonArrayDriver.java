@@ -77,7 +77,9 @@ class SQLListToJsonArrayDriver<DATA, LIST_TYPE> implements CollectionDatabaseDri
             stmt.setObject(1, columnSetter.accept(data));
             sqlEngine.setPrimaryValues(setters, stmt, 2, table, data);
 
+            long startNanos = System.nanoTime();
             stmt.executeUpdate();
+            sqlEngine.recordQuery(table, System.nanoTime() - startNanos);
             errorReporter.logTrace(
                 "%s's %s updated to %s %s",
                 table.getName(),
@@ -83,13 +83,10 @@ class SQLSingleColumnDriver<DATA, INPUT_TYPE, DB_TYPE> implements SingleColumnDa
                     dataToString.toString(parentRef)
                 );
             }
-            try (PreparedStatement stmt = sqlEngine.getConnection().prepareStatement(updateStatement))
-            {
-                int idx = fillSetter(stmt, 1, elementRef);
-                sqlEngine.setPrimaryValues(setters, stmt, idx, table, parentRef);
-
-                stmt.executeUpdate();
-            }
+            PreparedStatement stmt = sqlEngine.getBatchStatement(updateStatement, table);
+            int idx = fillSetter(stmt, 1, elementRef);
+            sqlEngine.setPrimaryValues(setters, stmt, idx, table, parentRef);
+            stmt.addBatch();
             if (elementRef instanceof byte[])
             {
                 errorReporter.logTrace(
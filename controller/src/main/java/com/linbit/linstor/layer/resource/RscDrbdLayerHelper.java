@@ -11,6 +11,7 @@ import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.NodeIdAlloc;
 import com.linbit.linstor.PriorityProps;
+import com.linbit.linstor.PriorityPropsCache;
 import com.linbit.linstor.annotation.ApiContext;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiConsts;
@@ -90,6 +91,7 @@ public class RscDrbdLayerHelper extends
     private final Provider<RscNvmeLayerHelper> nvmeHelperProvider;
     private final CtrlStorPoolResolveHelper storPoolResolveHelper;
     private final RemoteMap remoteMap;
+    private final PriorityPropsCache prioPropsCache;
 
     @Inject
     RscDrbdLayerHelper(
@@ -103,7 +105,8 @@ public class RscDrbdLayerHelper extends
         Provider<RscNvmeLayerHelper> nvmeHelperProviderRef,
         CtrlStorPoolResolveHelper storPoolResolveHelperRef,
         ModularCryptoProvider cryptoProviderRef,
-        RemoteMap remoteMapRef
+        RemoteMap remoteMapRef,
+        PriorityPropsCache prioPropsCacheRef
     )
     {
         super(
@@ -124,6 +127,7 @@ public class RscDrbdLayerHelper extends
         storPoolResolveHelper = storPoolResolveHelperRef;
         cryptoProvider = cryptoProviderRef;
         remoteMap = remoteMapRef;
+        prioPropsCache = prioPropsCacheRef;
     }
 
     @Override
@@ -610,7 +614,7 @@ public class RscDrbdLayerHelper extends
             rscDfn.getProps(apiCtx),
             rscGrp.getProps(apiCtx),
             rsc.getNode().getProps(apiCtx)
-        ).getProp(
+        ).withCache(prioPropsCache).getProp(
             ApiConsts.KEY_STOR_POOL_DRBD_META_NAME
         );
     }
@@ -696,7 +700,7 @@ public class RscDrbdLayerHelper extends
                     rscDfnProps,
                     rscGrpProps,
                     nodeProps
-                ).getProp(ApiConsts.KEY_STOR_POOL_DRBD_META_NAME);
+                ).withCache(prioPropsCache).getProp(ApiConsts.KEY_STOR_POOL_DRBD_META_NAME);
                 if (isExternalMetaDataPool(metaPool))
                 {
                     allVlmsUseInternalMetaData = false;
@@ -841,7 +845,7 @@ public class RscDrbdLayerHelper extends
             vlmDfn.getResourceDefinition().getProps(accCtx),
             rscGrp.getProps(accCtx),
             node.getProps(accCtx)
-        );
+        ).withCache(prioPropsCache);
     }
 
     @Override
@@ -1010,7 +1014,7 @@ public class RscDrbdLayerHelper extends
                     rscDfn.getProps(apiCtx),
                     rscDfn.getResourceGroup().getProps(apiCtx),
                     stltConf
-                ).getProp(ApiConsts.KEY_PEER_SLOTS_NEW_RESOURCE);
+                ).withCache(prioPropsCache).getProp(ApiConsts.KEY_PEER_SLOTS_NEW_RESOURCE);
                 peerSlots = peerSlotsNewResourceProp == null ?
                     InternalApiConsts.DEFAULT_PEER_SLOTS :
                     Short.valueOf(peerSlotsNewResourceProp);
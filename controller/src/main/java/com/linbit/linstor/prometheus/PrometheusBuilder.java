@@ -1,6 +1,10 @@
 package com.linbit.linstor.prometheus;
 
 import com.linbit.InvalidNameException;
+import com.linbit.ServiceName;
+import com.linbit.SystemService;
+import com.linbit.linstor.PriorityPropsCache;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.ApiCallRc;
 import com.linbit.linstor.api.ApiConsts;
 import com.linbit.linstor.api.rest.v1.Volumes;
@@ -16,11 +20,21 @@ import com.linbit.linstor.core.apis.VolumeApi;
 import com.linbit.linstor.core.identifier.NodeName;
 import com.linbit.linstor.core.identifier.ResourceName;
 import com.linbit.linstor.core.objects.Resource;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.logging.ErrorReport;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.netcom.TcpConnectorService;
+import com.linbit.linstor.netcom.ssl.SslHandshakeStats;
+import com.linbit.linstor.netcom.ssl.SslTcpConnectorService;
+import com.linbit.linstor.proto.ApiCallStats;
+import com.linbit.linstor.proto.PeerMessageScheduler;
 import com.linbit.linstor.satellitestate.SatelliteResourceState;
 import com.linbit.linstor.satellitestate.SatelliteState;
 import com.linbit.linstor.storage.kinds.DeviceProviderKind;
+import com.linbit.linstor.transaction.EtcdGroupCommitStats;
+import com.linbit.locks.LockGuardFactory.LockObj;
+import com.linbit.locks.LockStats;
+import com.linbit.utils.LatencyHistogram;
 import com.linbit.utils.Pair;
 
 import javax.annotation.Nonnull;
@@ -38,10 +52,18 @@ import java.util.stream.Collectors;
 
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.hotspot.DefaultExports;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 
 public class PrometheusBuilder
 {
     private final ErrorReporter errorReporter;
+    private final Map<ServiceName, SystemService> systemServicesMap;
+    private final PeerMessageScheduler msgScheduler;
+    private final ApiCallStats apiCallStats;
+    private final LockStats lockStats;
+    private final EtcdGroupCommitStats etcdGroupCommitStats;
+    private final SQLDatabaseStats sqlDatabaseStats;
+    private final PriorityPropsCache priorityPropsCache;
 
     private static final String VOLUME_STATE_HELP;
     private static final String NODE_STATE_HELP;
@@ -50,6 +72,9 @@ public class PrometheusBuilder
     private static final int RSC_STATE_UN_USED = 0;
     private static final int RSC_STATE_IN_USE = 1;
 
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] LATENCY_BUCKET_BOUNDS_SECONDS;
+
     private enum VolumeStates
     {
         UPTODATE("UpToDate", 1),
@@ -114,14 +139,34 @@ public class PrometheusBuilder
             sb.append(conStat.ordinal()).append("=\"").append(conStat.name()).append("\", ");
         }
         NODE_STATE_HELP = sb.toString();
+
+        LATENCY_BUCKET_BOUNDS_SECONDS = new double[LatencyHistogram.getBucketCount() - 1];
+        for (int idx = 0; idx < LATENCY_BUCKET_BOUNDS_SECONDS.length; ++idx)
+        {
+            LATENCY_BUCKET_BOUNDS_SECONDS[idx] = LatencyHistogram.getBucketBoundNanos(idx) / NANOS_PER_SECOND;
+        }
     }
 
     @Inject
     public PrometheusBuilder(
-        ErrorReporter errorReporterRef
+        ErrorReporter errorReporterRef,
+        Map<ServiceName, SystemService> systemServicesMapRef,
+        PeerMessageScheduler msgSchedulerRef,
+        ApiCallStats apiCallStatsRef,
+        LockStats lockStatsRef,
+        EtcdGroupCommitStats etcdGroupCommitStatsRef,
+        SQLDatabaseStats sqlDatabaseStatsRef,
+        PriorityPropsCache priorityPropsCacheRef
     )
     {
         errorReporter = errorReporterRef;
+        systemServicesMap = systemServicesMapRef;
+        msgScheduler = msgSchedulerRef;
+        apiCallStats = apiCallStatsRef;
+        lockStats = lockStatsRef;
+        etcdGroupCommitStats = etcdGroupCommitStatsRef;
+        sqlDatabaseStats = sqlDatabaseStatsRef;
+        priorityPropsCache = priorityPropsCacheRef;
         DefaultExports.initialize();
     }
 
@@ -234,6 +279,446 @@ public class PrometheusBuilder
         return val;
     }
 
+    private void writeNetComStats(TextFormat tf)
+    {
+        List<Pair<String, TcpConnectorService>> netComSvcs = new ArrayList<>();
+        for (Map.Entry<ServiceName, SystemService> sysSvcEntry : systemServicesMap.entrySet())
+        {
+            if (sysSvcEntry.getValue() instanceof TcpConnectorService)
+            {
+                netComSvcs.add(
+                    new Pair<>(sysSvcEntry.getKey().displayValue, (TcpConnectorService) sysSvcEntry.getValue())
+                );
+            }
+        }
+
+        if (!netComSvcs.isEmpty())
+        {
+            tf.startGauge("linstor_netcom_selector_threads");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(
+                    netComServiceExport(netComSvc.objA),
+                    netComSvc.objB.getSelectorConnectionCounts().length
+                );
+            }
+
+            tf.startGauge("linstor_netcom_selector_connections");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                int[] connCounts = netComSvc.objB.getSelectorConnectionCounts();
+                for (int idx = 0; idx < connCounts.length; ++idx)
+                {
+                    Map<String, String> labels = netComServiceExport(netComSvc.objA);
+                    labels.put("thread", Integer.toString(idx));
+                    tf.writeSample(labels, connCounts[idx]);
+                }
+            }
+
+            tf.startCounter("linstor_netcom_buffer_pool_hits_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(netComServiceExport(netComSvc.objA), netComSvc.objB.getBufferPool().getHitCount());
+            }
+
+            tf.startCounter("linstor_netcom_buffer_pool_misses_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(netComServiceExport(netComSvc.objA), netComSvc.objB.getBufferPool().getMissCount());
+            }
+
+            tf.startGauge("linstor_netcom_buffer_pool_outstanding_bytes");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(
+                    netComServiceExport(netComSvc.objA),
+                    netComSvc.objB.getBufferPool().getBytesOutstanding()
+                );
+            }
+
+            tf.startGauge("linstor_netcom_buffer_pool_pooled_bytes");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(netComServiceExport(netComSvc.objA), netComSvc.objB.getBufferPool().getBytesPooled());
+            }
+
+            tf.startCounter("linstor_netcom_write_calls_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(netComServiceExport(netComSvc.objA), netComSvc.objB.getWriteStats().getWriteCallCount());
+            }
+
+            tf.startCounter("linstor_netcom_write_bytes_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(netComServiceExport(netComSvc.objA), netComSvc.objB.getWriteStats().getWriteByteCount());
+            }
+
+            tf.startCounter("linstor_netcom_write_messages_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(
+                    netComServiceExport(netComSvc.objA),
+                    netComSvc.objB.getWriteStats().getWriteMessageCount()
+                );
+            }
+
+            tf.startCounter("linstor_netcom_compressed_messages_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(
+                    netComServiceExport(netComSvc.objA),
+                    netComSvc.objB.getWriteStats().getCompressedMessageCount()
+                );
+            }
+
+            tf.startCounter("linstor_netcom_compression_saved_bytes_total");
+            for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+            {
+                tf.writeSample(
+                    netComServiceExport(netComSvc.objA),
+                    netComSvc.objB.getWriteStats().getCompressionSavedByteCount()
+                );
+            }
+
+            writeSslHandshakeStats(tf, netComSvcs);
+        }
+    }
+
+    private void writeSslHandshakeStats(TextFormat tf, List<Pair<String, TcpConnectorService>> netComSvcs)
+    {
+        List<Pair<String, SslHandshakeStats>> sslSvcs = new ArrayList<>();
+        for (Pair<String, TcpConnectorService> netComSvc : netComSvcs)
+        {
+            if (netComSvc.objB instanceof SslTcpConnectorService)
+            {
+                sslSvcs.add(
+                    new Pair<>(netComSvc.objA, ((SslTcpConnectorService) netComSvc.objB).getHandshakeStats())
+                );
+            }
+        }
+
+        if (!sslSvcs.isEmpty())
+        {
+            tf.startCounter("linstor_netcom_tls_handshakes_total");
+            for (Pair<String, SslHandshakeStats> sslSvc : sslSvcs)
+            {
+                Map<String, String> labels = netComServiceExport(sslSvc.objA);
+                labels.put("result", "finished");
+                tf.writeSample(labels, sslSvc.objB.getFinishedHandshakeCount());
+                labels.put("result", "failed");
+                tf.writeSample(labels, sslSvc.objB.getFailedHandshakeCount());
+            }
+
+            tf.startHistogram("linstor_netcom_tls_handshake_duration_seconds");
+            for (Pair<String, SslHandshakeStats> sslSvc : sslSvcs)
+            {
+                writeLatencyHistogram(tf, netComServiceExport(sslSvc.objA), sslSvc.objB.getDuration());
+            }
+
+            tf.startCounter("linstor_netcom_tls_delegated_tasks_total");
+            for (Pair<String, SslHandshakeStats> sslSvc : sslSvcs)
+            {
+                tf.writeSample(netComServiceExport(sslSvc.objA), sslSvc.objB.getDelegatedTaskCount());
+            }
+
+            tf.startCounter("linstor_netcom_tls_delegated_tasks_rejected_total");
+            for (Pair<String, SslHandshakeStats> sslSvc : sslSvcs)
+            {
+                tf.writeSample(netComServiceExport(sslSvc.objA), sslSvc.objB.getRejectedTaskCount());
+            }
+
+            tf.startGauge("linstor_netcom_tls_delegated_tasks_running");
+            for (Pair<String, SslHandshakeStats> sslSvc : sslSvcs)
+            {
+                tf.writeSample(netComServiceExport(sslSvc.objA), sslSvc.objB.getRunningTaskCount());
+            }
+        }
+    }
+
+    private void writeMsgProcStats(TextFormat tf)
+    {
+        tf.startGauge("linstor_msgproc_in_flight_messages");
+        tf.writeSample(msgScheduler.getInFlightCount());
+
+        tf.startCounter("linstor_msgproc_dispatched_messages_total");
+        tf.writeSample(msgScheduler.getDispatchCount());
+
+        tf.startCounter("linstor_msgproc_read_throttle_total");
+        tf.writeSample(msgScheduler.getThrottleCount());
+
+        // only peers with waiting messages are listed
+        List<PeerMessageScheduler.PeerQueueStats> peerStatsList = msgScheduler.getPeerQueueStats();
+        tf.startGauge("linstor_msgproc_peer_queue_depth");
+        for (PeerMessageScheduler.PeerQueueStats peerStats : peerStatsList)
+        {
+            tf.writeSample(peerExport(peerStats.peerName), peerStats.queueDepth);
+        }
+
+        tf.startGauge("linstor_msgproc_peer_queue_wait_seconds");
+        for (PeerMessageScheduler.PeerQueueStats peerStats : peerStatsList)
+        {
+            tf.writeSample(peerExport(peerStats.peerName), peerStats.waitMillis / 1000.0);
+        }
+
+        ApiCallPriority[] lanes = ApiCallPriority.values();
+        tf.startGauge("linstor_msgproc_lane_queued_messages");
+        for (ApiCallPriority lane : lanes)
+        {
+            tf.writeSample(laneExport(lane), msgScheduler.getLaneStats(lane).getQueuedCount());
+        }
+
+        tf.startGauge("linstor_msgproc_lane_in_flight_messages");
+        for (ApiCallPriority lane : lanes)
+        {
+            tf.writeSample(laneExport(lane), msgScheduler.getLaneStats(lane).getInFlightCount());
+        }
+
+        tf.startCounter("linstor_msgproc_lane_started_messages_total");
+        for (ApiCallPriority lane : lanes)
+        {
+            tf.writeSample(laneExport(lane), msgScheduler.getLaneStats(lane).getStartedCount());
+        }
+
+        tf.startCounter("linstor_msgproc_lane_queue_wait_seconds_total");
+        for (ApiCallPriority lane : lanes)
+        {
+            tf.writeSample(laneExport(lane), msgScheduler.getLaneStats(lane).getWaitNanosSum() / 1e9);
+        }
+
+        tf.startGauge("linstor_msgproc_lane_queue_wait_max_seconds");
+        for (ApiCallPriority lane : lanes)
+        {
+            tf.writeSample(laneExport(lane), msgScheduler.getLaneStats(lane).getMaxWaitNanos() / 1e9);
+        }
+    }
+
+    private void writeApiCallStats(TextFormat tf)
+    {
+        // only API calls that were called are listed
+        List<ApiCallStats.Entry> calledList = new ArrayList<>();
+        for (ApiCallStats.Entry entry : apiCallStats.getEntries())
+        {
+            if (entry.getQueueWait().getCount() > 0)
+            {
+                calledList.add(entry);
+            }
+        }
+
+        tf.startHistogram("linstor_api_call_queue_wait_seconds");
+        for (ApiCallStats.Entry entry : calledList)
+        {
+            writeLatencyHistogram(tf, apiCallExport(entry.getApiCallName()), entry.getQueueWait());
+        }
+
+        tf.startHistogram("linstor_api_call_execution_seconds");
+        for (ApiCallStats.Entry entry : calledList)
+        {
+            writeLatencyHistogram(tf, apiCallExport(entry.getApiCallName()), entry.getExecution());
+        }
+
+        tf.startHistogram("linstor_api_call_serialization_seconds");
+        for (ApiCallStats.Entry entry : calledList)
+        {
+            writeLatencyHistogram(tf, apiCallExport(entry.getApiCallName()), entry.getSerialization());
+        }
+
+        tf.startGauge("linstor_api_call_in_flight");
+        for (ApiCallStats.Entry entry : calledList)
+        {
+            tf.writeSample(apiCallExport(entry.getApiCallName()), entry.getInFlightCount());
+        }
+
+        tf.startCounter("linstor_api_call_errors_total");
+        for (ApiCallStats.Entry entry : calledList)
+        {
+            tf.writeSample(apiCallExport(entry.getApiCallName()), entry.getErrorCount());
+        }
+    }
+
+    private void writeLockStats(TextFormat tf)
+    {
+        // only locks and modes that were acquired are listed
+        List<LockStats.Entry> usedList = lockStats.getUsedEntries();
+
+        tf.startHistogram("linstor_lock_wait_seconds");
+        for (LockStats.Entry entry : usedList)
+        {
+            writeLatencyHistogram(tf, lockExport(entry.getLockObj(), entry.getMode()), entry.getWait());
+        }
+
+        tf.startHistogram("linstor_lock_hold_seconds");
+        for (LockStats.Entry entry : usedList)
+        {
+            writeLatencyHistogram(tf, lockExport(entry.getLockObj(), entry.getMode()), entry.getHold());
+        }
+
+        List<Pair<LockStats.Holder, LockObj>> holderList = new ArrayList<>();
+        for (LockStats.Holder holder : lockStats.getHolders())
+        {
+            for (LockObj lockObj : LockObj.values())
+            {
+                if (holder.getAcquisitionCount(lockObj) > 0)
+                {
+                    holderList.add(new Pair<>(holder, lockObj));
+                }
+            }
+        }
+
+        tf.startCounter("linstor_lock_holder_acquisitions_total");
+        for (Pair<LockStats.Holder, LockObj> holder : holderList)
+        {
+            tf.writeSample(lockHolderExport(holder), holder.objA.getAcquisitionCount(holder.objB));
+        }
+
+        tf.startCounter("linstor_lock_holder_wait_seconds_total");
+        for (Pair<LockStats.Holder, LockObj> holder : holderList)
+        {
+            tf.writeSample(lockHolderExport(holder), holder.objA.getWaitNanos(holder.objB) / NANOS_PER_SECOND);
+        }
+
+        tf.startCounter("linstor_lock_holder_hold_seconds_total");
+        for (Pair<LockStats.Holder, LockObj> holder : holderList)
+        {
+            tf.writeSample(lockHolderExport(holder), holder.objA.getHoldNanos(holder.objB) / NANOS_PER_SECOND);
+        }
+    }
+
+    private void writeEtcdGroupCommitStats(TextFormat tf)
+    {
+        // only written if group commit is used
+        long[] batchSizeCounts = etcdGroupCommitStats.getBatchSizeCounts();
+        if (etcdGroupCommitStats.getBatchSizeSum() > 0)
+        {
+            tf.startHistogram("linstor_etcd_group_commit_batch_size");
+            tf.writeHistogram(
+                null,
+                EtcdGroupCommitStats.getBatchSizeBounds(),
+                batchSizeCounts,
+                etcdGroupCommitStats.getBatchSizeSum()
+            );
+
+            tf.startHistogram("linstor_etcd_group_commit_seconds");
+            writeLatencyHistogram(tf, null, etcdGroupCommitStats.getCommitLatency());
+
+            tf.startCounter("linstor_etcd_group_commit_split_batches_total");
+            tf.writeSample(etcdGroupCommitStats.getSplitBatchCount());
+        }
+    }
+
+    private void writeSQLDatabaseStats(TextFormat tf)
+    {
+        // only written if the SQL database is used
+        GenericObjectPool<?> connPool = sqlDatabaseStats.getConnectionPool();
+        if (connPool != null)
+        {
+            tf.startGauge("linstor_sql_pool_max_connections");
+            tf.writeSample(connPool.getMaxTotal());
+
+            tf.startGauge("linstor_sql_pool_active_connections");
+            tf.writeSample(connPool.getNumActive());
+
+            tf.startGauge("linstor_sql_pool_idle_connections");
+            tf.writeSample(connPool.getNumIdle());
+
+            tf.startGauge("linstor_sql_pool_waiting_threads");
+            tf.writeSample(connPool.getNumWaiters());
+
+            tf.startHistogram("linstor_sql_pool_borrow_wait_seconds");
+            writeLatencyHistogram(tf, null, sqlDatabaseStats.getBorrowWait());
+
+            tf.startCounter("linstor_sql_statement_cache_hits_total");
+            tf.writeSample(sqlDatabaseStats.getStatementCacheHitCount());
+
+            tf.startCounter("linstor_sql_statement_cache_misses_total");
+            tf.writeSample(sqlDatabaseStats.getStatementCacheMissCount());
+
+            // only tables that were queried are listed
+            tf.startHistogram("linstor_sql_query_seconds");
+            for (Map.Entry<String, LatencyHistogram> entry : sqlDatabaseStats.getQueryLatencies().entrySet())
+            {
+                writeLatencyHistogram(tf, tableExport(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    private void writePriorityPropsCacheStats(TextFormat tf)
+    {
+        tf.startCounter("linstor_priority_props_cache_hits_total");
+        tf.writeSample(priorityPropsCache.getHitCount());
+
+        tf.startCounter("linstor_priority_props_cache_misses_total");
+        tf.writeSample(priorityPropsCache.getMissCount());
+
+        tf.startGauge("linstor_priority_props_cache_entries");
+        tf.writeSample(priorityPropsCache.getEntryCount());
+    }
+
+    private static void writeLatencyHistogram(
+        TextFormat tf,
+        @Nullable Map<String, String> labels,
+        LatencyHistogram histogram
+    )
+    {
+        tf.writeHistogram(
+            labels,
+            LATENCY_BUCKET_BOUNDS_SECONDS,
+            histogram.getBucketCounts(),
+            histogram.getSumNanos() / NANOS_PER_SECOND
+        );
+    }
+
+    private static Map<String, String> tableExport(final String tableName)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("table", tableName.toLowerCase());
+        return map;
+    }
+
+    private static Map<String, String> apiCallExport(final String apiCallName)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("api", apiCallName);
+        return map;
+    }
+
+    private static Map<String, String> lockExport(final LockObj lockObj, final LockStats.Mode mode)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("lock", lockObj.name().toLowerCase());
+        map.put("mode", mode.name().toLowerCase());
+        return map;
+    }
+
+    private static Map<String, String> lockHolderExport(final Pair<LockStats.Holder, LockObj> holder)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("lock", holder.objB.name().toLowerCase());
+        map.put("holder", holder.objA.getName());
+        return map;
+    }
+
+    private static Map<String, String> laneExport(final ApiCallPriority lane)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("lane", lane.name().toLowerCase());
+        return map;
+    }
+
+    private static Map<String, String> peerExport(final String peerName)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("peer", peerName);
+        return map;
+    }
+
+    private static Map<String, String> netComServiceExport(final String serviceName)
+    {
+        final HashMap<String, String> map = new HashMap<>();
+        map.put("service", serviceName);
+        return map;
+    }
+
     public String build(
         @Nullable final List<NodeApi> nodeApiList,
         @Nullable final List<ResourceDefinitionApi> rscDfns,
@@ -357,6 +842,14 @@ public class PrometheusBuilder
             );
         }
 
+        writeNetComStats(tf);
+        writeMsgProcStats(tf);
+        writeApiCallStats(tf);
+        writeLockStats(tf);
+        writeEtcdGroupCommitStats(tf);
+        writeSQLDatabaseStats(tf);
+        writePriorityPropsCacheStats(tf);
+
         StringWriter sw = new StringWriter();
         io.prometheus.client.exporter.common.TextFormat.write004(
             sw, CollectorRegistry.defaultRegistry.metricFamilySamples()
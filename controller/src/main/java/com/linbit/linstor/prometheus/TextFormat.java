@@ -2,6 +2,7 @@ package com.linbit.linstor.prometheus;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import io.prometheus.client.Collector;
@@ -51,6 +52,15 @@ public class TextFormat
         startSection(Type.counter, sectionName, help);
     }
 
+    public void startHistogram(final String sectionName)
+    {
+        startHistogram(sectionName, "");
+    }
+    public void startHistogram(final String sectionName, final String help)
+    {
+        startSection(Type.histogram, sectionName, help);
+    }
+
     private void startSection(final Type type, final String sectionName, @Nullable final String help)
     {
         currentSection = sectionName.trim();
@@ -78,8 +88,48 @@ public class TextFormat
     }
 
     public void writeSample(@Nullable final Map<String, String> labels, double value)
+    {
+        writeSample("", labels, value);
+    }
+
+    /**
+     * Writes the samples of a histogram
+     *
+     * @param labels Labels of the histogram, not including the "le" label of the buckets
+     * @param upperBounds Upper bounds of the buckets, except the last bucket which has no upper bound
+     * @param bucketCounts Number of observations in each bucket (not cumulative), one more than upperBounds
+     * @param sum Sum of all observations
+     */
+    public void writeHistogram(
+        @Nullable final Map<String, String> labels,
+        final double[] upperBounds,
+        final long[] bucketCounts,
+        double sum
+    )
+    {
+        final Map<String, String> bucketLabels = new LinkedHashMap<>();
+        if (labels != null)
+        {
+            bucketLabels.putAll(labels);
+        }
+        long cumulativeCount = 0;
+        for (int idx = 0; idx < bucketCounts.length; ++idx)
+        {
+            cumulativeCount += bucketCounts[idx];
+            bucketLabels.put(
+                "le",
+                idx < upperBounds.length ? Collector.doubleToGoString(upperBounds[idx]) : "+Inf"
+            );
+            writeSample("_bucket", bucketLabels, cumulativeCount);
+        }
+        writeSample("_sum", labels, sum);
+        writeSample("_count", labels, cumulativeCount);
+    }
+
+    private void writeSample(final String suffix, @Nullable final Map<String, String> labels, double value)
     {
         sb.append(currentSection);
+        sb.append(suffix);
         if (labels != null && !labels.isEmpty())
         {
             sb.append('{');
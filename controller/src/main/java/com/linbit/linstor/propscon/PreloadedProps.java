@@ -0,0 +1,52 @@
+package com.linbit.linstor.propscon;
+
+import com.linbit.linstor.dbdrivers.interfaces.PropsConDatabaseDriver;
+
+import javax.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Properties of all instances that were loaded at once, see {@link PropsConDatabaseDriver#preloadAll()}
+ */
+class PreloadedProps
+{
+    private final Map<String, Map<String, String>> propsByInstance;
+    // Instances that were modified after preloading, their properties have to be loaded from the database again
+    private final Set<String> modifiedInstances = ConcurrentHashMap.newKeySet();
+    private final LongAdder hitCtr = new LongAdder();
+
+    PreloadedProps(Map<String, Map<String, String>> propsByInstanceRef)
+    {
+        propsByInstance = propsByInstanceRef;
+    }
+
+    /**
+     * Returns the preloaded properties of the given instance, or null if the instance was modified since
+     */
+    @Nullable
+    Map<String, String> get(String instanceName)
+    {
+        Map<String, String> props = null;
+        if (!modifiedInstances.contains(instanceName))
+        {
+            hitCtr.increment();
+            props = propsByInstance.getOrDefault(instanceName, Collections.emptyMap());
+        }
+        return props;
+    }
+
+    void modified(String instanceName)
+    {
+        modifiedInstances.add(instanceName);
+    }
+
+    long getHitCount()
+    {
+        return hitCtr.sum();
+    }
+}
@@ -8,10 +8,12 @@ import com.linbit.linstor.dbdrivers.interfaces.PropsConDatabaseDriver;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.transaction.manager.TransactionMgrETCD;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -23,6 +25,8 @@ public class PropsConETCDDriver extends BaseEtcdDriver implements PropsConDataba
     private final ErrorReporter errorReporter;
     private final int emptyNamespaceLength;
 
+    private volatile @Nullable PreloadedProps preloadedProps;
+
     @Inject
     public PropsConETCDDriver(
         ErrorReporter errorReporterRef,
@@ -39,7 +43,62 @@ public class PropsConETCDDriver extends BaseEtcdDriver implements PropsConDataba
     public Map<String, String> loadAll(String instanceName) throws DatabaseException
     {
         errorReporter.logTrace("Loading properties for instance %s", getId(instanceName));
-        return loadAllImpl(instanceName);
+        PreloadedProps preloaded = preloadedProps;
+        Map<String, String> propsMap = preloaded == null ? null : preloaded.get(instanceName);
+        if (propsMap == null)
+        {
+            propsMap = loadAllImpl(instanceName);
+        }
+        return propsMap;
+    }
+
+    @Override
+    public void preloadAll() throws DatabaseException
+    {
+        long startMillis = System.currentTimeMillis();
+        // a single range read over the whole props table
+        Map<String, String> etcdMap = namespace(getEtcdKey("", null)).get(true);
+
+        Map<String, Map<String, String>> propsByInstance = new HashMap<>();
+        for (Entry<String, String> entry : etcdMap.entrySet())
+        {
+            // same key format as in loadAllImpl
+            String composedKey = entry.getKey();
+            int instNameEnd = composedKey.lastIndexOf(EtcdUtils.PK_DELIMITER);
+            String instName = composedKey.substring(emptyNamespaceLength, instNameEnd);
+            propsByInstance.computeIfAbsent(instName, ignored -> new TreeMap<>())
+                .put(composedKey.substring(instNameEnd + EtcdUtils.PK_DELIMITER.length()), entry.getValue());
+        }
+        preloadedProps = new PreloadedProps(propsByInstance);
+        errorReporter.logDebug(
+            "Preloaded %d properties of %d instances in %d ms",
+            etcdMap.size(),
+            propsByInstance.size(),
+            System.currentTimeMillis() - startMillis
+        );
+    }
+
+    @Override
+    public void clearPreloaded()
+    {
+        PreloadedProps preloaded = preloadedProps;
+        preloadedProps = null;
+        if (preloaded != null)
+        {
+            errorReporter.logDebug(
+                "%d instances were loaded from the preloaded properties instead of a separate range read each",
+                preloaded.getHitCount()
+            );
+        }
+    }
+
+    private void invalidatePreloaded(String instanceName)
+    {
+        PreloadedProps preloaded = preloadedProps;
+        if (preloaded != null)
+        {
+            preloaded.modified(instanceName);
+        }
     }
 
     private Map<String, String> loadAllImpl(String instanceName) throws DatabaseException
@@ -99,6 +158,7 @@ public class PropsConETCDDriver extends BaseEtcdDriver implements PropsConDataba
     public void persist(String instanceName, String key, String value, boolean isNew) throws DatabaseException
     {
         errorReporter.logTrace("Storing property %s", getId(instanceName, key, value));
+        invalidatePreloaded(instanceName);
         /*
          * DO NOT use
          * namespace(..., instanceName).put(key, value);
@@ -116,6 +176,7 @@ public class PropsConETCDDriver extends BaseEtcdDriver implements PropsConDataba
     public void remove(String instanceName, String key) throws DatabaseException
     {
         errorReporter.logTrace("Removing property %s", getId(instanceName, key));
+        invalidatePreloaded(instanceName);
         namespace(getEtcdKey(instanceName, key))
             .delete(false);
     }
@@ -8,6 +8,7 @@ import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.transaction.K8sCrdTransaction;
 import com.linbit.linstor.transaction.manager.TransactionMgrK8sCrd;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -23,6 +24,8 @@ public class PropsConK8sCrdDriver implements PropsConDatabaseDriver
     private final ErrorReporter errorReporter;
     private final Provider<TransactionMgrK8sCrd> transMgrProvider;
 
+    private volatile @Nullable PreloadedProps preloadedProps;
+
     @Inject
     public PropsConK8sCrdDriver(
         ErrorReporter errorReporterRef,
@@ -38,24 +41,76 @@ public class PropsConK8sCrdDriver implements PropsConDatabaseDriver
     {
         errorReporter.logTrace("Loading properties for instance %s", getId(instanceName));
 
+        PreloadedProps preloaded = preloadedProps;
+        Map<String, String> propsMap = preloaded == null ? null : preloaded.get(instanceName);
+        if (propsMap == null)
+        {
+            K8sCrdTransaction tx = transMgrProvider.get().getTransaction();
+            HashMap<String, GenCrdCurrent.PropsContainersSpec> map = tx.getSpec(
+                GeneratedDatabaseTables.PROPS_CONTAINERS,
+                propEntry -> propEntry.getSpec().propsInstance.equals(instanceName)
+            );
+
+            propsMap = new TreeMap<>();
+            for (GenCrdCurrent.PropsContainersSpec entrySpec : map.values())
+            {
+                propsMap.put(entrySpec.propKey, entrySpec.propValue);
+            }
+        }
+        return propsMap;
+    }
+
+    @Override
+    public void preloadAll() throws DatabaseException
+    {
+        long startMillis = System.currentTimeMillis();
         K8sCrdTransaction tx = transMgrProvider.get().getTransaction();
-        HashMap<String, GenCrdCurrent.PropsContainersSpec> map = tx.getSpec(
-            GeneratedDatabaseTables.PROPS_CONTAINERS,
-            propEntry -> propEntry.getSpec().propsInstance.equals(instanceName)
-        );
+        // a single list request instead of listing all props entries again for every instance
+        HashMap<String, GenCrdCurrent.PropsContainersSpec> map = tx.getSpec(GeneratedDatabaseTables.PROPS_CONTAINERS);
 
-        Map<String, String> propsMap = new TreeMap<>();
+        Map<String, Map<String, String>> propsByInstance = new HashMap<>();
         for (GenCrdCurrent.PropsContainersSpec entrySpec : map.values())
         {
-            propsMap.put(entrySpec.propKey, entrySpec.propValue);
+            propsByInstance.computeIfAbsent(entrySpec.propsInstance, ignored -> new TreeMap<>())
+                .put(entrySpec.propKey, entrySpec.propValue);
+        }
+        preloadedProps = new PreloadedProps(propsByInstance);
+        errorReporter.logDebug(
+            "Preloaded %d properties of %d instances in %d ms",
+            map.size(),
+            propsByInstance.size(),
+            System.currentTimeMillis() - startMillis
+        );
+    }
+
+    @Override
+    public void clearPreloaded()
+    {
+        PreloadedProps preloaded = preloadedProps;
+        preloadedProps = null;
+        if (preloaded != null)
+        {
+            errorReporter.logDebug(
+                "%d instances were loaded from the preloaded properties instead of a separate list request each",
+                preloaded.getHitCount()
+            );
+        }
+    }
+
+    private void invalidatePreloaded(String instanceName)
+    {
+        PreloadedProps preloaded = preloadedProps;
+        if (preloaded != null)
+        {
+            preloaded.modified(instanceName);
         }
-        return propsMap;
     }
 
     @Override
     public void persist(String instanceName, String key, String value, boolean isNew) throws DatabaseException
     {
         errorReporter.logTrace("Storing property %s", getId(instanceName, key, value));
+        invalidatePreloaded(instanceName);
         K8sCrdTransaction tx = transMgrProvider.get().getTransaction();
         tx.createOrReplace(
             GeneratedDatabaseTables.PROPS_CONTAINERS,
@@ -68,6 +123,7 @@ public class PropsConK8sCrdDriver implements PropsConDatabaseDriver
     public void remove(String instanceName, String key) throws DatabaseException
     {
         errorReporter.logTrace("Removing property %s", getId(instanceName, key));
+        invalidatePreloaded(instanceName);
 
         K8sCrdTransaction tx = transMgrProvider.get().getTransaction();
         tx.delete(
@@ -89,6 +145,7 @@ public class PropsConK8sCrdDriver implements PropsConDatabaseDriver
     public void removeAll(String instanceName) throws DatabaseException
     {
         errorReporter.logTrace("Removing all properties by instance %s", getId(instanceName));
+        invalidatePreloaded(instanceName);
 
         K8sCrdTransaction tx = transMgrProvider.get().getTransaction();
 
@@ -1,11 +1,13 @@
 package com.linbit.linstor.propscon;
 
 import com.linbit.linstor.dbdrivers.DatabaseException;
+import com.linbit.linstor.dbdrivers.GeneratedDatabaseTables;
 import com.linbit.linstor.dbdrivers.derby.DbConstants;
 import com.linbit.linstor.dbdrivers.interfaces.PropsConDatabaseDriver;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.transaction.manager.TransactionMgrSQL;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -14,6 +16,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -41,6 +44,10 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
         " FROM " + TBL_PROP + "\n" +
         " WHERE " + COL_INSTANCE + " = ?";
 
+    private static final String SELECT_ALL_ENTRIES =
+        " SELECT " + COL_INSTANCE + ", " + COL_KEY + ", " + COL_VALUE + "\n" +
+        " FROM " + TBL_PROP;
+
     private static final String REMOVE_ENTRY =
         " DELETE FROM " + TBL_PROP + "\n" +
         "    WHERE " + COL_INSTANCE + " = ? \n" +
@@ -53,6 +60,8 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
     private final ErrorReporter errorReporter;
     private final Provider<TransactionMgrSQL> transMgrProvider;
 
+    private volatile @Nullable PreloadedProps preloadedProps;
+
     @Inject
     public PropsConSQLDbDriver(
         ErrorReporter errorReporterRef,
@@ -67,6 +76,7 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
     public void persist(String instanceName, String key, String value, boolean isNew) throws DatabaseException
     {
         errorReporter.logTrace("Storing property %s", getId(instanceName, key, value));
+        invalidatePreloaded(instanceName);
         try
         {
             if (isNew)
@@ -87,43 +97,31 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
 
     private void insert(String instanceName, String key, String value) throws SQLException
     {
-        try (
-            PreparedStatement stmt = getConnection().prepareStatement(INSERT_ENTRY);
-        )
-        {
-            stmt.setString(1, instanceName.toUpperCase());
-            stmt.setString(2, key);
-            stmt.setString(3, value);
-
-            stmt.executeUpdate();
-        }
+        PreparedStatement stmt = getBatchStatement(INSERT_ENTRY);
+        stmt.setString(1, instanceName.toUpperCase());
+        stmt.setString(2, key);
+        stmt.setString(3, value);
+        stmt.addBatch();
     }
 
     private void update(String instanceName, String key, String value) throws SQLException
     {
-        try (
-            PreparedStatement stmt = getConnection().prepareStatement(UPDATE_ENTRY);
-        )
-        {
-            stmt.setString(1, value);
-            stmt.setString(2, instanceName.toUpperCase());
-            stmt.setString(3, key);
-
-            stmt.executeUpdate();
-        }
+        PreparedStatement stmt = getBatchStatement(UPDATE_ENTRY);
+        stmt.setString(1, value);
+        stmt.setString(2, instanceName.toUpperCase());
+        stmt.setString(3, key);
+        stmt.addBatch();
     }
 
     @Override
     public void remove(String instanceName, String key) throws DatabaseException
     {
         errorReporter.logTrace("Removing property %s", getId(instanceName, key));
+        invalidatePreloaded(instanceName);
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(REMOVE_ENTRY))
+        try
         {
-            stmt.setString(1, instanceName.toUpperCase());
-            stmt.setString(2, key);
-
-            stmt.executeUpdate();
+            removeEntry(instanceName, key);
         }
         catch (SQLException sqlExc)
         {
@@ -136,15 +134,14 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
     @Override
     public void remove(String instanceName, Set<String> keys) throws DatabaseException
     {
-        try (PreparedStatement stmt = getConnection().prepareStatement(REMOVE_ENTRY))
+        invalidatePreloaded(instanceName);
+        try
         {
-            stmt.setString(1, instanceName.toUpperCase());
             for (String key : keys)
             {
                 errorReporter.logTrace("Removing property %s", getId(instanceName, key));
 
-                stmt.setString(2, key);
-                stmt.executeUpdate();
+                removeEntry(instanceName, key);
 
                 errorReporter.logTrace("Property removed %s", getId(instanceName, key));
             }
@@ -155,10 +152,19 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
         }
     }
 
+    private void removeEntry(String instanceName, String key) throws SQLException
+    {
+        PreparedStatement stmt = getBatchStatement(REMOVE_ENTRY);
+        stmt.setString(1, instanceName.toUpperCase());
+        stmt.setString(2, key);
+        stmt.addBatch();
+    }
+
     @Override
     public void removeAll(String instanceName) throws DatabaseException
     {
         errorReporter.logTrace("Removing all properties by instance %s", getId(instanceName));
+        invalidatePreloaded(instanceName);
 
         int rowsUpdated;
         try (
@@ -184,6 +190,22 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
     public Map<String, String> loadAll(String instanceName) throws DatabaseException
     {
         errorReporter.logTrace("Loading properties for instance %s", getId(instanceName));
+        PreloadedProps preloaded = preloadedProps;
+        Map<String, String> ret = preloaded == null ? null : preloaded.get(instanceName.toUpperCase());
+        if (ret == null)
+        {
+            ret = loadInstance(instanceName);
+        }
+        errorReporter.logTrace(
+            "Loaded all (%d) properties for instance %s",
+            ret.size(),
+            getId(instanceName)
+        );
+        return ret;
+    }
+
+    private Map<String, String> loadInstance(String instanceName) throws DatabaseException
+    {
         Map<String, String> ret = new TreeMap<>();
         Connection connection = getConnection();
         try (PreparedStatement stmt = connection.prepareStatement(SELECT_ALL_ENTRIES_BY_INSTANCE))
@@ -205,16 +227,70 @@ public class PropsConSQLDbDriver implements PropsConDatabaseDriver
         {
             throw new DatabaseException(sqlExc);
         }
-        errorReporter.logTrace(
-            "Loaded all (%d) properties for instance %s",
-            ret.size(),
-            getId(instanceName)
-        );
         return ret;
     }
 
+    @Override
+    public void preloadAll() throws DatabaseException
+    {
+        long startMillis = System.currentTimeMillis();
+        Map<String, Map<String, String>> propsByInstance = new HashMap<>();
+        int propCount = 0;
+        try (PreparedStatement stmt = getConnection().prepareStatement(SELECT_ALL_ENTRIES))
+        {
+            try (ResultSet resultSet = stmt.executeQuery())
+            {
+                while (resultSet.next())
+                {
+                    propsByInstance.computeIfAbsent(resultSet.getString(1), ignored -> new TreeMap<>())
+                        .put(resultSet.getString(2), resultSet.getString(3));
+                    ++propCount;
+                }
+            }
+        }
+        catch (SQLException sqlExc)
+        {
+            throw new DatabaseException(sqlExc);
+        }
+        preloadedProps = new PreloadedProps(propsByInstance);
+        errorReporter.logDebug(
+            "Preloaded %d properties of %d instances in %d ms",
+            propCount,
+            propsByInstance.size(),
+            System.currentTimeMillis() - startMillis
+        );
+    }
+
+    @Override
+    public void clearPreloaded()
+    {
+        PreloadedProps preloaded = preloadedProps;
+        preloadedProps = null;
+        if (preloaded != null)
+        {
+            errorReporter.logDebug(
+                "%d instances were loaded from the preloaded properties instead of a separate query each",
+                preloaded.getHitCount()
+            );
+        }
+    }
+
+    private void invalidatePreloaded(String instanceName)
+    {
+        PreloadedProps preloaded = preloadedProps;
+        if (preloaded != null)
+        {
+            preloaded.modified(instanceName.toUpperCase());
+        }
+    }
+
     private Connection getConnection()
     {
         return transMgrProvider.get().getConnection();
     }
+
+    private PreparedStatement getBatchStatement(String sql) throws SQLException
+    {
+        return transMgrProvider.get().getBatchStatement(sql, GeneratedDatabaseTables.PROPS_CONTAINERS);
+    }
 }
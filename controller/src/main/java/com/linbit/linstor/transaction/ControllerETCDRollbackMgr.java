@@ -41,6 +41,8 @@ public class ControllerETCDRollbackMgr
 
     private final Map<String, String> currentRollbackMap;
 
+    private long lastWriteRevision;
+
     public ControllerETCDRollbackMgr(ControllerETCDDatabase controllerETCDDatabaseRef, int maxOpsPerTxRef, final String prefix)
     {
         etcdDb = controllerETCDDatabaseRef;
@@ -73,16 +75,20 @@ public class ControllerETCDRollbackMgr
 
     public void cleanup()
     {
-        FluentTxnOps<?> tmpTx = etcdDb.getKvClient().batch();
-        ByteString bsKey = KeyUtils.bs(namespaceRollback);
-        tmpTx.delete(
-            DeleteRangeRequest.newBuilder()
-                .setKey(bsKey)
-                .setRangeEnd(KeyUtils.plusOne(bsKey))
-                .build()
-        );
-        flush(tmpTx, "Failed to cleanup rollback entries");
-        currentRollbackMap.clear();
+        // rollback entries are only written if the current map has entries, so there is nothing to delete otherwise
+        if (!currentRollbackMap.isEmpty())
+        {
+            FluentTxnOps<?> tmpTx = etcdDb.getKvClient().batch();
+            ByteString bsKey = KeyUtils.bs(namespaceRollback);
+            tmpTx.delete(
+                DeleteRangeRequest.newBuilder()
+                    .setKey(bsKey)
+                    .setRangeEnd(KeyUtils.plusOne(bsKey))
+                    .build()
+            );
+            flush(tmpTx, "Failed to cleanup rollback entries");
+            currentRollbackMap.clear();
+        }
     }
 
     public void rollback()
@@ -376,5 +382,15 @@ public class ControllerETCDRollbackMgr
         {
             throw new TransactionException(excMsg, null);
         }
+        lastWriteRevision = Math.max(lastWriteRevision, EtcdKeyIndex.getModifyingRevision(response));
+    }
+
+    /**
+     * Returns the revision of the last modification done by {@link #rollback()} or {@link #cleanup()}, or 0 if
+     * nothing was modified yet
+     */
+    public long getLastWriteRevision()
+    {
+        return lastWriteRevision;
     }
 }
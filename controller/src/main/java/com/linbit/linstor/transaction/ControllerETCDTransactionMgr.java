@@ -4,6 +4,8 @@ import com.linbit.linstor.ControllerETCDDatabase;
 import com.linbit.linstor.LinStorDBRuntimeException;
 import com.linbit.linstor.transaction.manager.TransactionMgrETCD;
 
+import javax.annotation.Nullable;
+
 import java.util.List;
 
 import com.ibm.etcd.api.TxnResponse;
@@ -14,13 +16,25 @@ public class ControllerETCDTransactionMgr implements TransactionMgrETCD
     private final ControllerETCDDatabase etcdDb;
     private final TransactionObjectCollection transactionObjectCollection;
     private final ControllerETCDRollbackMgr rollbackMgr;
+    private final @Nullable EtcdGroupCommitter groupCommitter;
 
     private EtcdTransaction currentTransaction;
 
     public ControllerETCDTransactionMgr(
         ControllerETCDDatabase controllerETCDDatabase, int maxOpsPerTxRef, String prefix)
+    {
+        this(controllerETCDDatabase, maxOpsPerTxRef, prefix, null);
+    }
+
+    public ControllerETCDTransactionMgr(
+        ControllerETCDDatabase controllerETCDDatabase,
+        int maxOpsPerTxRef,
+        String prefix,
+        @Nullable EtcdGroupCommitter groupCommitterRef
+    )
     {
         etcdDb = controllerETCDDatabase;
+        groupCommitter = groupCommitterRef;
         transactionObjectCollection = new TransactionObjectCollection();
         currentTransaction = createNewEtcdTx();
 
@@ -51,17 +65,30 @@ public class ControllerETCDTransactionMgr implements TransactionMgrETCD
 
         boolean allSucceeded = true;
         TxnResponse txnResponse = null;
+        long commitRevision = 0;
         for (FluentTxnOps<?> tx : txList)
         {
-            txnResponse = EtcdTransaction.requestWithRetry(tx);
+            // commits that need more than one ETCD transaction are sent on their own
+            if (groupCommitter != null && txList.size() == 1)
+            {
+                txnResponse = groupCommitter.commit(tx);
+            }
+            else
+            {
+                txnResponse = EtcdTransaction.requestWithRetry(tx);
+            }
             if (!txnResponse.getSucceeded())
             {
                 allSucceeded = false;
             }
+            commitRevision = Math.max(commitRevision, EtcdKeyIndex.getModifyingRevision(txnResponse));
         }
 
         if (allSucceeded)
         {
+            // following reads might be answered by the key index, which therefore has to contain this commit
+            awaitKeyIndex(commitRevision);
+
             transactionObjectCollection.commitAll();
 
             clearTransactionObjects();
@@ -84,6 +111,7 @@ public class ControllerETCDTransactionMgr implements TransactionMgrETCD
     public void rollback() throws TransactionException
     {
         rollbackMgr.rollback();
+        awaitKeyIndex(rollbackMgr.getLastWriteRevision());
 
         transactionObjectCollection.rollbackAll();
 
@@ -100,6 +128,16 @@ public class ControllerETCDTransactionMgr implements TransactionMgrETCD
     {
         rollbackMgr.loadRollbackEntries();
         rollbackMgr.rollback();
+        awaitKeyIndex(rollbackMgr.getLastWriteRevision());
+    }
+
+    private void awaitKeyIndex(long revision)
+    {
+        EtcdKeyIndex keyIndex = etcdDb.getKeyIndex();
+        if (keyIndex != null && revision != 0)
+        {
+            keyIndex.awaitRevision(revision);
+        }
     }
 
     @Override
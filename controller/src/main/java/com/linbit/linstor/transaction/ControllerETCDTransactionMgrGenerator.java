@@ -12,15 +12,18 @@ public class ControllerETCDTransactionMgrGenerator implements TransactionMgrGene
 {
     private final Provider<ControllerETCDDatabase> controllerDatabase;
     private final CtrlConfig ctrlCfg;
+    private final EtcdGroupCommitter groupCommitter;
 
     @Inject
     public ControllerETCDTransactionMgrGenerator(
         Provider<ControllerETCDDatabase> controllerDatabaseRef,
-        CtrlConfig ctrlCfgRef
+        CtrlConfig ctrlCfgRef,
+        EtcdGroupCommitter groupCommitterRef
     )
     {
         ctrlCfg = ctrlCfgRef;
         controllerDatabase = controllerDatabaseRef;
+        groupCommitter = groupCommitterRef;
     }
 
     @Override
@@ -29,7 +32,21 @@ public class ControllerETCDTransactionMgrGenerator implements TransactionMgrGene
         return new ControllerETCDTransactionMgr(
             controllerDatabase.get(),
             ctrlCfg.getEtcdOperationsPerTransaction(),
-            ctrlCfg.getEtcdPrefix()
+            ctrlCfg.getEtcdPrefix(),
+            groupCommitter.isEnabled() ? groupCommitter : null
         );
     }
+
+    /**
+     * Sends the pending group commits and stops the group commit thread
+     */
+    public void shutdown()
+    {
+        groupCommitter.shutdown();
+    }
+
+    public void awaitShutdown(long timeoutMillis) throws InterruptedException
+    {
+        groupCommitter.awaitShutdown(timeoutMillis);
+    }
 }
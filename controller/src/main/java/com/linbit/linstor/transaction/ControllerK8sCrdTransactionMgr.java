@@ -14,10 +14,14 @@ import com.linbit.linstor.dbdrivers.k8s.crd.RollbackCrd;
 import com.linbit.linstor.transaction.manager.TransactionMgrK8sCrd;
 
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -148,18 +152,20 @@ public class ControllerK8sCrdTransactionMgr implements TransactionMgrK8sCrd
             throw new TransactionException("Error creating rollback entry", exc);
         }
 
+        List<Runnable> writes = new ArrayList<>();
         for (Entry<DatabaseTable, HashMap<String, LinstorCrd<?>>> entry : currentTransaction.rscsToCreate.entrySet())
         {
-            create(entry.getKey(), entry.getValue());
+            create(entry.getKey(), entry.getValue(), writes);
         }
         for (Entry<DatabaseTable, HashMap<String, LinstorCrd<?>>> entry : currentTransaction.rscsToReplace.entrySet())
         {
-            replace(entry.getKey(), entry.getValue());
+            replace(entry.getKey(), entry.getValue(), writes);
         }
         for (Entry<DatabaseTable, HashMap<String, LinstorCrd<?>>> entry : currentTransaction.rscsToDelete.entrySet())
         {
-            delete(entry.getKey(), entry.getValue());
+            delete(entry.getKey(), entry.getValue(), writes);
         }
+        runWrites(writes);
 
         transactionObjectCollection.commitAll();
 
@@ -174,42 +180,100 @@ public class ControllerK8sCrdTransactionMgr implements TransactionMgrK8sCrd
     @SuppressWarnings("unchecked")
     private <CRD extends LinstorCrd<SPEC>, SPEC extends LinstorSpec> void create(
         DatabaseTable dbTableRef,
-        HashMap<String, LinstorCrd<?>> changedCrds
+        HashMap<String, LinstorCrd<?>> changedCrds,
+        List<Runnable> writes
     )
     {
         K8sResourceClient<CRD> client = currentTransaction
             .getClient(dbTableRef);
         for (LinstorCrd<?> linstorCrd : changedCrds.values())
         {
-            client.create((CRD) linstorCrd);
+            writes.add(() -> client.create((CRD) linstorCrd));
         }
     }
 
     @SuppressWarnings("unchecked")
     private <CRD extends LinstorCrd<SPEC>, SPEC extends LinstorSpec> void replace(
         DatabaseTable dbTableRef,
-        HashMap<String, LinstorCrd<?>> changedCrds
+        HashMap<String, LinstorCrd<?>> changedCrds,
+        List<Runnable> writes
     )
     {
         K8sResourceClient<CRD> client = currentTransaction
             .getClient(dbTableRef);
         for (LinstorCrd<?> linstorCrd : changedCrds.values())
         {
-            client.replace((CRD) linstorCrd);
+            writes.add(() -> client.replace((CRD) linstorCrd));
         }
     }
 
     @SuppressWarnings("unchecked")
     private <CRD extends LinstorCrd<SPEC>, SPEC extends LinstorSpec> void delete(
         DatabaseTable dbTableRef,
-        HashMap<String, LinstorCrd<?>> createdCrds
+        HashMap<String, LinstorCrd<?>> createdCrds,
+        List<Runnable> writes
     )
     {
         K8sResourceClient<CRD> client = currentTransaction
             .getClient(dbTableRef);
         for (LinstorCrd<?> linstorCrd : createdCrds.values())
         {
-            client.delete((CRD) linstorCrd);
+            writes.add(() -> client.delete((CRD) linstorCrd));
+        }
+    }
+
+    /**
+     * Sends the modifications of the transaction, concurrently if the database provides an executor for that.
+     * The K8s API has no transactions, so every modification is its own request either way. All requests are
+     * finished before an error is thrown, so that the rollback sees the final state.
+     */
+    private void runWrites(List<Runnable> writes)
+    {
+        ExecutorService writeExecutor = controllerK8sCrdDatabase.getWriteExecutor();
+        if (writeExecutor == null || writes.size() <= 1)
+        {
+            for (Runnable write : writes)
+            {
+                write.run();
+            }
+        }
+        else
+        {
+            List<Future<?>> futures = new ArrayList<>(writes.size());
+            for (Runnable write : writes)
+            {
+                futures.add(writeExecutor.submit(write));
+            }
+
+            RuntimeException firstExc = null;
+            for (Future<?> future : futures)
+            {
+                try
+                {
+                    future.get();
+                }
+                catch (ExecutionException exc)
+                {
+                    if (firstExc == null)
+                    {
+                        firstExc = exc.getCause() instanceof RuntimeException ?
+                            (RuntimeException) exc.getCause() :
+                            new TransactionException("Failed to write to K8s", exc.getCause());
+                    }
+                }
+                catch (InterruptedException exc)
+                {
+                    Thread.currentThread().interrupt();
+                    if (firstExc == null)
+                    {
+                        firstExc = new TransactionException("Interrupted while writing to K8s", exc);
+                    }
+                }
+            }
+            if (firstExc != null)
+            {
+                throw firstExc;
+            }
         }
     }
 
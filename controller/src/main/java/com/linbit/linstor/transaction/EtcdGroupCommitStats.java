@@ -0,0 +1,93 @@
+package com.linbit.linstor.transaction;
+
+import com.linbit.utils.LatencyHistogram;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Batch size and latency statistics of the {@link EtcdGroupCommitter}
+ */
+@Singleton
+public class EtcdGroupCommitStats
+{
+    // Upper bounds of the batch size buckets, the last bucket counts all larger batches
+    private static final int[] BATCH_SIZE_BOUNDS = {1, 2, 4, 8, 16, 32, 64};
+
+    // Time from the start of a commit until its response arrived, including the group commit window
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final AtomicLongArray batchSizeCounts = new AtomicLongArray(BATCH_SIZE_BOUNDS.length + 1);
+    private final AtomicLong batchSizeSum = new AtomicLong();
+    private final AtomicLong splitBatchCount = new AtomicLong();
+
+    @Inject
+    public EtcdGroupCommitStats()
+    {
+    }
+
+    void recordBatchSize(int size)
+    {
+        int idx = 0;
+        while (idx < BATCH_SIZE_BOUNDS.length && size > BATCH_SIZE_BOUNDS[idx])
+        {
+            ++idx;
+        }
+        batchSizeCounts.incrementAndGet(idx);
+        batchSizeSum.addAndGet(size);
+    }
+
+    void recordSplitBatch()
+    {
+        splitBatchCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the upper bounds of the batch size buckets, without the last bucket that has no upper bound
+     */
+    public static double[] getBatchSizeBounds()
+    {
+        double[] bounds = new double[BATCH_SIZE_BOUNDS.length];
+        for (int idx = 0; idx < bounds.length; ++idx)
+        {
+            bounds[idx] = BATCH_SIZE_BOUNDS[idx];
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the number of sent batches in each batch size bucket (not cumulative)
+     */
+    public long[] getBatchSizeCounts()
+    {
+        long[] counts = new long[batchSizeCounts.length()];
+        for (int idx = 0; idx < counts.length; ++idx)
+        {
+            counts[idx] = batchSizeCounts.get(idx);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of commits in all sent batches
+     */
+    public long getBatchSizeSum()
+    {
+        return batchSizeSum.get();
+    }
+
+    /**
+     * Returns the number of merged transactions that failed and were sent again one by one
+     */
+    public long getSplitBatchCount()
+    {
+        return splitBatchCount.get();
+    }
+
+    public LatencyHistogram getCommitLatency()
+    {
+        return commitLatency;
+    }
+}
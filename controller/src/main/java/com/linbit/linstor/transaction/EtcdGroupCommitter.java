@@ -0,0 +1,466 @@
+package com.linbit.linstor.transaction;
+
+import com.linbit.ImplementationError;
+import com.linbit.linstor.ControllerETCDDatabase;
+import com.linbit.linstor.core.cfg.CtrlConfig;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Provider;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.RequestOp;
+import com.ibm.etcd.api.TxnResponse;
+import com.ibm.etcd.client.kv.KvClient.FluentTxnOps;
+
+/**
+ * Merges the ETCD transactions of concurrent commits into a single ETCD transaction
+ *
+ * A commit waits at most for the configured window for other commits to arrive. Commits are only merged if their
+ * keys do not overlap and the merged transaction stays within the configured operations per transaction. Otherwise
+ * the current group is sent first, so that commits to the same keys are applied in the order they arrived.
+ *
+ * Merged transactions are sent one after another by a single thread. If a merged transaction fails, the
+ * transactions of the group are sent again one by one, so that every commit fails or succeeds on its own.
+ *
+ * The thread is started by the first commit and stopped by {@link #shutdown()}, which the database calls before it
+ * closes its ETCD client.
+ */
+@Singleton
+public class EtcdGroupCommitter
+{
+    private final TxSender txSender;
+    private final EtcdGroupCommitStats stats;
+    private final long windowMicros;
+    private final int maxOpsPerTx;
+
+    private final Object groupLock = new Object();
+    // guarded by groupLock
+    private @Nullable Group currentGroup;
+
+    // guarded by groupLock
+    private @Nullable ScheduledThreadPoolExecutor sender;
+    // guarded by groupLock, the sender stopped by the last shutdown
+    private @Nullable ScheduledThreadPoolExecutor stoppedSender;
+
+    @Inject
+    public EtcdGroupCommitter(
+        Provider<ControllerETCDDatabase> etcdDbProviderRef,
+        CtrlConfig ctrlCfgRef,
+        EtcdGroupCommitStats statsRef
+    )
+    {
+        this(
+            ops -> sendTx(etcdDbProviderRef.get(), ops),
+            ctrlCfgRef.getEtcdGroupCommitWindowMicros(),
+            ctrlCfgRef.getEtcdOperationsPerTransaction(),
+            statsRef
+        );
+    }
+
+    EtcdGroupCommitter(
+        TxSender txSenderRef,
+        long windowMicrosRef,
+        int maxOpsPerTxRef,
+        EtcdGroupCommitStats statsRef
+    )
+    {
+        txSender = txSenderRef;
+        windowMicros = windowMicrosRef;
+        maxOpsPerTx = maxOpsPerTxRef;
+        stats = statsRef;
+    }
+
+    public boolean isEnabled()
+    {
+        return windowMicros > 0;
+    }
+
+    /**
+     * Sends the given transaction, possibly merged with the transactions of concurrent commits, and waits for the
+     * response. The response of a merged transaction is the response of the whole group.
+     */
+    public TxnResponse commit(FluentTxnOps<?> tx)
+    {
+        return commit(tx.asRequest().getSuccessList());
+    }
+
+    TxnResponse commit(List<RequestOp> ops)
+    {
+        long startNanos = System.nanoTime();
+        Commit commit = new Commit(ops);
+        synchronized (groupLock)
+        {
+            if (currentGroup != null && !currentGroup.accepts(commit))
+            {
+                sendAsync(currentGroup);
+                currentGroup = null;
+            }
+            if (currentGroup == null)
+            {
+                Group group = new Group();
+                currentGroup = group;
+                getSender().schedule(() -> sendIfCurrent(group), windowMicros, TimeUnit.MICROSECONDS);
+            }
+            currentGroup.add(commit);
+        }
+
+        TxnResponse response;
+        try
+        {
+            response = commit.future.get();
+        }
+        catch (InterruptedException exc)
+        {
+            Thread.currentThread().interrupt();
+            throw new TransactionException("Interrupted while waiting for ETCD commit", exc);
+        }
+        catch (ExecutionException exc)
+        {
+            Throwable cause = exc.getCause();
+            if (cause instanceof TransactionException)
+            {
+                throw (TransactionException) cause;
+            }
+            throw new TransactionException("ETCD commit failed", cause);
+        }
+        finally
+        {
+            stats.getCommitLatency().record(System.nanoTime() - startNanos);
+        }
+        return response;
+    }
+
+    /**
+     * Sends the current group without waiting for the rest of its window and stops the sender thread once all
+     * groups were sent. A later commit starts a new sender thread.
+     */
+    public void shutdown()
+    {
+        synchronized (groupLock)
+        {
+            sendPending();
+            if (sender != null)
+            {
+                sender.shutdown();
+                stoppedSender = sender;
+                sender = null;
+            }
+        }
+    }
+
+    /**
+     * Waits until the sender thread stopped by {@link #shutdown()} has sent all groups
+     */
+    public void awaitShutdown(long timeoutMillis) throws InterruptedException
+    {
+        ScheduledThreadPoolExecutor localSender;
+        synchronized (groupLock)
+        {
+            localSender = stoppedSender;
+        }
+        if (localSender != null)
+        {
+            localSender.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the current group without waiting for the rest of its window
+     */
+    void sendPending()
+    {
+        synchronized (groupLock)
+        {
+            if (currentGroup != null)
+            {
+                sendAsync(currentGroup);
+                currentGroup = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of commits in the group that waits for its window to end
+     */
+    int getPendingCommitCount()
+    {
+        synchronized (groupLock)
+        {
+            return currentGroup == null ? 0 : currentGroup.commits.size();
+        }
+    }
+
+    private ScheduledExecutorService getSender()
+    {
+        // guarded by groupLock
+        if (sender == null)
+        {
+            sender = new ScheduledThreadPoolExecutor(
+                1,
+                task ->
+                {
+                    Thread thread = new Thread(task, "EtcdGroupCommit");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+            // the groups of pending delayed tasks are sent by shutdown()
+            sender.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        return sender;
+    }
+
+    private void sendIfCurrent(Group group)
+    {
+        boolean send;
+        synchronized (groupLock)
+        {
+            send = currentGroup == group;
+            if (send)
+            {
+                currentGroup = null;
+            }
+        }
+        if (send)
+        {
+            send(group);
+        }
+    }
+
+    private void sendAsync(Group group)
+    {
+        getSender().execute(() -> send(group));
+    }
+
+    private void send(Group group)
+    {
+        try
+        {
+            sendGroup(group);
+        }
+        catch (RuntimeException exc)
+        {
+            // no commit may wait forever, completing a commit again has no effect
+            for (Commit commit : group.commits)
+            {
+                commit.future.completeExceptionally(exc);
+            }
+        }
+    }
+
+    private void sendGroup(Group group)
+    {
+        stats.recordBatchSize(group.commits.size());
+        if (group.commits.size() == 1)
+        {
+            sendSingle(group.commits.get(0));
+        }
+        else
+        {
+            List<RequestOp> mergedOps = new ArrayList<>(group.opCount);
+            for (Commit commit : group.commits)
+            {
+                mergedOps.addAll(commit.ops);
+            }
+
+            TxnResponse response = null;
+            try
+            {
+                response = txSender.send(mergedOps);
+            }
+            catch (TransactionException ignored)
+            {
+                // retried below one by one, to report the error only to the commits that cause it
+            }
+
+            if (response != null && response.getSucceeded())
+            {
+                for (Commit commit : group.commits)
+                {
+                    commit.future.complete(response);
+                }
+            }
+            else
+            {
+                stats.recordSplitBatch();
+                for (Commit commit : group.commits)
+                {
+                    sendSingle(commit);
+                }
+            }
+        }
+    }
+
+    private void sendSingle(Commit commit)
+    {
+        try
+        {
+            commit.future.complete(txSender.send(commit.ops));
+        }
+        catch (RuntimeException exc)
+        {
+            commit.future.completeExceptionally(exc);
+        }
+    }
+
+    private static TxnResponse sendTx(ControllerETCDDatabase etcdDb, List<RequestOp> ops)
+    {
+        FluentTxnOps<?> tx = etcdDb.getKvClient().batch();
+        addOps(tx, ops);
+        return EtcdTransaction.requestWithRetry(tx);
+    }
+
+    private static void addOps(FluentTxnOps<?> tx, List<RequestOp> ops)
+    {
+        for (RequestOp op : ops)
+        {
+            switch (op.getRequestCase())
+            {
+                case REQUEST_DELETE_RANGE:
+                    tx.delete(op.getRequestDeleteRangeOrBuilder());
+                    break;
+                case REQUEST_PUT:
+                    tx.put(op.getRequestPutOrBuilder());
+                    break;
+                case REQUEST_RANGE:
+                    tx.get(op.getRequestRangeOrBuilder());
+                    break;
+                case REQUEST_NOT_SET:
+                case REQUEST_TXN:
+                    break;
+                default:
+                    throw new ImplementationError("Unknown ETCD Request case: " + op.getRequestCase());
+            }
+        }
+    }
+
+    /**
+     * Sends the operations as a single ETCD transaction
+     */
+    interface TxSender
+    {
+        TxnResponse send(List<RequestOp> ops);
+    }
+
+    /**
+     * Compares keys the same way ETCD does, as unsigned bytes
+     */
+    static int compareKeys(ByteString key1, ByteString key2)
+    {
+        int minSize = Math.min(key1.size(), key2.size());
+        int cmp = 0;
+        for (int idx = 0; idx < minSize && cmp == 0; ++idx)
+        {
+            cmp = Integer.compare(key1.byteAt(idx) & 0xFF, key2.byteAt(idx) & 0xFF);
+        }
+        return cmp != 0 ? cmp : Integer.compare(key1.size(), key2.size());
+    }
+
+    /**
+     * Key range [start, end) touched by an operation. A <code>null</code> end means "up to the last key".
+     */
+    static class KeyRange
+    {
+        private static final ByteString ZERO_BYTE = ByteString.copyFrom(new byte[] {0});
+
+        final ByteString start;
+        final @Nullable ByteString end;
+
+        KeyRange(ByteString startRef, ByteString rangeEndRef)
+        {
+            start = startRef;
+            if (rangeEndRef.isEmpty())
+            {
+                end = startRef.concat(ZERO_BYTE);
+            }
+            else
+            if (rangeEndRef.equals(ZERO_BYTE))
+            {
+                end = null;
+            }
+            else
+            {
+                end = rangeEndRef;
+            }
+        }
+
+        boolean overlaps(KeyRange other)
+        {
+            return (end == null || compareKeys(other.start, end) < 0) &&
+                (other.end == null || compareKeys(start, other.end) < 0);
+        }
+    }
+
+    private static class Commit
+    {
+        final List<RequestOp> ops;
+        final List<KeyRange> keyRanges;
+        final CompletableFuture<TxnResponse> future = new CompletableFuture<>();
+
+        Commit(List<RequestOp> opsRef)
+        {
+            ops = opsRef;
+            keyRanges = new ArrayList<>(ops.size());
+            for (RequestOp op : ops)
+            {
+                switch (op.getRequestCase())
+                {
+                    case REQUEST_DELETE_RANGE:
+                        keyRanges.add(
+                            new KeyRange(op.getRequestDeleteRange().getKey(), op.getRequestDeleteRange().getRangeEnd())
+                        );
+                        break;
+                    case REQUEST_PUT:
+                        keyRanges.add(new KeyRange(op.getRequestPut().getKey(), ByteString.EMPTY));
+                        break;
+                    case REQUEST_RANGE:
+                        keyRanges.add(new KeyRange(op.getRequestRange().getKey(), op.getRequestRange().getRangeEnd()));
+                        break;
+                    case REQUEST_NOT_SET:
+                    case REQUEST_TXN:
+                        break;
+                    default:
+                        throw new ImplementationError("Unknown ETCD Request case: " + op.getRequestCase());
+                }
+            }
+        }
+    }
+
+    private class Group
+    {
+        final List<Commit> commits = new ArrayList<>();
+        int opCount;
+
+        boolean accepts(Commit commit)
+        {
+            boolean accepts = opCount + commit.ops.size() <= maxOpsPerTx;
+            for (int groupIdx = 0; accepts && groupIdx < commits.size(); ++groupIdx)
+            {
+                for (KeyRange groupRange : commits.get(groupIdx).keyRanges)
+                {
+                    for (KeyRange range : commit.keyRanges)
+                    {
+                        accepts &= !groupRange.overlaps(range);
+                    }
+                }
+            }
+            return accepts;
+        }
+
+        void add(Commit commit)
+        {
+            commits.add(commit);
+            opCount += commit.ops.size();
+        }
+    }
+}
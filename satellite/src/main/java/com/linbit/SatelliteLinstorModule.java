@@ -2,11 +2,15 @@ package com.linbit;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
 import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.utils.VirtualThreads;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import java.util.concurrent.ExecutorService;
+
 public class SatelliteLinstorModule extends AbstractModule
 {
     // Name for worker pool for satellite services operations - DeviceManager, etc.
@@ -20,12 +24,39 @@ public class SatelliteLinstorModule extends AbstractModule
     @Provides
     @Singleton
     @Named(STLT_WORKER_POOL_NAME)
-    public WorkQueue initializeStltWorkerThreadPool(ErrorReporter errorLog)
+    public WorkQueue initializeStltWorkerThreadPool(ErrorReporter errorLog, WorkerPoolMode workerPoolMode)
     {
-        return WorkerPoolInitializer.createDevMgrWorkerThreadPool(
-            errorLog,
-            null,
-            "StltWorkerPool"
-        );
+        WorkQueue workQueue;
+        if (workerPoolMode == WorkerPoolMode.VIRTUAL)
+        {
+            // Device manager operations mostly wait for external commands, run each of them on its own thread
+            ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor(STLT_WORKER_POOL_NAME);
+            workQueue = task -> executor.execute(
+                () ->
+                {
+                    try
+                    {
+                        task.run();
+                    }
+                    catch (Exception exc)
+                    {
+                        errorLog.reportError(exc);
+                    }
+                    catch (ImplementationError implError)
+                    {
+                        errorLog.reportError(implError);
+                    }
+                }
+            );
+        }
+        else
+        {
+            workQueue = WorkerPoolInitializer.createDevMgrWorkerThreadPool(
+                errorLog,
+                null,
+                STLT_WORKER_POOL_NAME
+            );
+        }
+        return workQueue;
     }
 }
@@ -2,6 +2,7 @@ package com.linbit.linstor.api.protobuf;
 
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.api.ApiCall;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.core.DeviceManager;
 import com.linbit.linstor.proto.javainternal.c2s.MsgIntApplySharedStorPoolLocksOuterClass.MsgIntApplySharedStorPoolLocks;
 
@@ -13,7 +14,8 @@ import java.io.InputStream;
 
 @ProtobufApiCall(
     name = InternalApiConsts.API_APPLY_SHARED_STOR_POOL_LOCKS,
-    description = "Controller granted this satellite the requested shared StorPool locks"
+    description = "Controller granted this satellite the requested shared StorPool locks",
+    priority = ApiCallPriority.HIGH
 )
 @Singleton
 public class ApplySharedStorPoolLocks implements ApiCall
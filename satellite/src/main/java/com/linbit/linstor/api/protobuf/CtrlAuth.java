@@ -97,6 +97,13 @@ public class CtrlAuth implements ApiCall
             // all ok, send the new fullSyncId with the AUTH_ACCEPT msg
             // additionally we also send information which layers are supported by the current satellite
 
+            // a controller that supports compressed messages can also inflate the auth response,
+            // so compression can be enabled right away
+            boolean compressionEnabled = auth.getSupportsCompression();
+            controllerPeer.setCompressionEnabled(compressionEnabled);
+            boolean chunkedMessagesEnabled = auth.getSupportsChunkedMessages();
+            controllerPeer.setChunkedMessagesEnabled(chunkedMessagesEnabled);
+
             replyBytes = commonSerializer.headerlessBuilder()
                 .authSuccess(
                     updateMonitor.getNextFullSyncId(),
@@ -118,7 +125,9 @@ public class CtrlAuth implements ApiCall
                     stltConfig.getNetBindAddress(),
                     stltConfig.getNetPort(),
                     stltConfig.getNetType(),
-                    whitelistProps
+                    whitelistProps,
+                    compressionEnabled,
+                    chunkedMessagesEnabled
                 )
                 .build();
         }
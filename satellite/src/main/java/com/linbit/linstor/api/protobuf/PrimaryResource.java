@@ -2,6 +2,7 @@ package com.linbit.linstor.api.protobuf;
 
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.api.ApiCall;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.core.apicallhandler.StltApiCallHandler;
 import com.linbit.linstor.proto.javainternal.s2c.MsgIntPrimaryOuterClass.MsgIntPrimary;
 
@@ -18,7 +19,8 @@ import java.util.UUID;
  */
 @ProtobufApiCall(
     name = InternalApiConsts.API_PRIMARY_RSC,
-    description = "Controller notifies the satellite that one of his resources should become primary"
+    description = "Controller notifies the satellite that one of his resources should become primary",
+    priority = ApiCallPriority.HIGH
 )
 @Singleton
 public class PrimaryResource implements ApiCall
@@ -445,7 +445,7 @@ public final class Satellite
                     new SatelliteArgumentsModule(cfg),
                     new CoreTimerModule(),
                     new SatelliteLinstorModule(),
-                    new LinStorModule(),
+                    new LinStorModule(cfg.getWorkerPoolMode()),
                     new CoreModule(),
                     new SatelliteCoreModule(),
                     new DevMgrModule(),
@@ -1,8 +1,18 @@
 package com.linbit.linstor;
 
+import com.linbit.linstor.transaction.EtcdKeyIndex;
+
+import javax.annotation.Nullable;
+
 import com.ibm.etcd.client.kv.KvClient;
 
 public interface ControllerETCDDatabase extends ControllerDatabase
 {
     KvClient getKvClient();
+
+    /**
+     * Returns the in-memory index of the LINSTOR tables, or <code>null</code> if the index is not enabled
+     */
+    @Nullable
+    EtcdKeyIndex getKeyIndex();
 }
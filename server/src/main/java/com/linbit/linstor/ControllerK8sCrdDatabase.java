@@ -4,6 +4,10 @@ import com.linbit.linstor.dbdrivers.k8s.K8sResourceClient;
 import com.linbit.linstor.dbdrivers.k8s.crd.LinstorCrd;
 import com.linbit.linstor.dbdrivers.k8s.crd.LinstorSpec;
 
+import javax.annotation.Nullable;
+
+import java.util.concurrent.ExecutorService;
+
 import io.fabric8.kubernetes.client.KubernetesClient;
 
 public interface ControllerK8sCrdDatabase extends ControllerDatabase
@@ -13,4 +17,11 @@ public interface ControllerK8sCrdDatabase extends ControllerDatabase
     K8sResourceClient<?> getCachingClient(Class<? extends LinstorCrd<? extends LinstorSpec>> clazz);
 
     void clearCache();
+
+    /**
+     * Returns the executor that sends the modifications of a transaction concurrently, or <code>null</code> if they
+     * are sent one after another
+     */
+    @Nullable
+    ExecutorService getWriteExecutor();
 }
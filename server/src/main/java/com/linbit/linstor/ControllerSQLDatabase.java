@@ -1,5 +1,7 @@
 package com.linbit.linstor;
 
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
+
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -13,4 +15,6 @@ public interface ControllerSQLDatabase extends ControllerDatabase
 
     // Must be able to handle dbConn == null as a valid input
     void returnConnection(Connection dbConn);
+
+    SQLDatabaseStats getStats();
 }
@@ -1,5 +1,11 @@
 package com.linbit.linstor;
 
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.utils.VirtualThreads;
+
+import javax.inject.Named;
+
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
@@ -8,15 +14,64 @@ import reactor.core.scheduler.Schedulers;
 
 public class LinStorModule extends AbstractModule
 {
+    public static final String MAIN_WORKER_POOL = "MainWorkerPool";
+    public static final String PRIORITY_WORKER_POOL = "PriorityWorkerPool";
+
+    // Only short, latency-critical API calls are processed by the priority worker pool
+    private static final int PRIORITY_WORKER_POOL_SIZE = 4;
+
+    private final WorkerPoolMode requestedWorkerPoolMode;
+    private final WorkerPoolMode workerPoolMode;
+
+    public LinStorModule(WorkerPoolMode workerPoolModeRef)
+    {
+        requestedWorkerPoolMode = workerPoolModeRef;
+        // Fall back to the platform worker pool if the runtime JDK does not support virtual threads
+        workerPoolMode = workerPoolModeRef == WorkerPoolMode.VIRTUAL && !VirtualThreads.isSupported() ?
+            WorkerPoolMode.PLATFORM :
+            workerPoolModeRef;
+    }
+
     @Override
     protected void configure()
     {
+        bind(WorkerPoolMode.class).toInstance(workerPoolMode);
+    }
+
+    @Provides
+    @Singleton
+    public Scheduler mainWorkerPoolScheduler(ErrorReporter errorLog)
+    {
+        Scheduler scheduler;
+        if (workerPoolMode == WorkerPoolMode.VIRTUAL)
+        {
+            errorLog.logInfo("API calls are processed on virtual threads");
+            scheduler = Schedulers.fromExecutorService(
+                VirtualThreads.newVirtualThreadPerTaskExecutor(MAIN_WORKER_POOL),
+                MAIN_WORKER_POOL
+            );
+        }
+        else
+        {
+            if (requestedWorkerPoolMode != workerPoolMode)
+            {
+                errorLog.logWarning(
+                    "Worker pool mode %s is not supported by the Java runtime %s, using %s",
+                    requestedWorkerPoolMode,
+                    System.getProperty("java.version"),
+                    workerPoolMode
+                );
+            }
+            scheduler = Schedulers.newParallel(MAIN_WORKER_POOL);
+        }
+        return scheduler;
     }
 
     @Provides
     @Singleton
-    public Scheduler mainWorkerPoolScheduler()
+    @Named(PRIORITY_WORKER_POOL)
+    public Scheduler priorityWorkerPoolScheduler()
     {
-        return Schedulers.newParallel("MainWorkerPool");
+        return Schedulers.newParallel(PRIORITY_WORKER_POOL, PRIORITY_WORKER_POOL_SIZE);
     }
 }
@@ -10,6 +10,8 @@ import com.linbit.linstor.security.AccessContext;
 import com.linbit.linstor.security.AccessDeniedException;
 import com.linbit.utils.Pair;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -18,6 +20,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.function.Supplier;
 
 public class PriorityProps
 {
@@ -26,6 +29,14 @@ public class PriorityProps
     private final List<Pair<Props, String>> propList = new ArrayList<>();
     private final HashMap<String, String> fallbackMap = new HashMap<>();
 
+    // lookups are only cached if a cache was set, see withCache(PriorityPropsCache)
+    private @Nullable PriorityPropsCache cache;
+
+    // the props of propList, created by the first lookup after props were added
+    private @Nullable Props[] chain;
+    private int chainHash;
+    private boolean chainCacheable;
+
     public PriorityProps(
         AccessContext accCtx,
         NodeConnection nodeConnection,
@@ -66,6 +77,7 @@ public class PriorityProps
         if (prop != null)
         {
             propList.add(new Pair<>(prop, ""));
+            chain = null;
         }
         return this;
     }
@@ -75,21 +87,23 @@ public class PriorityProps
         if (props != null)
         {
             propList.add(new Pair<>(props, descr));
+            chain = null;
         }
         return this;
     }
 
+    /**
+     * Caches the lookups of this instance in the given cache, which is shared by all instances that use it
+     */
+    public PriorityProps withCache(PriorityPropsCache cacheRef)
+    {
+        cache = cacheRef;
+        return this;
+    }
+
     public String getProp(String key, String namespace) throws InvalidKeyException
     {
-        String value = null;
-        for (Pair<Props, String> pair : propList)
-        {
-            value = pair.objA.getProp(key, namespace);
-            if (value != null)
-            {
-                break;
-            }
-        }
+        String value = cached(namespace, key, () -> resolveProp(key, namespace));
         if (value == null)
         {
             final String fullKey = namespace != null ? namespace + Props.PATH_SEPARATOR + key : key;
@@ -109,6 +123,66 @@ public class PriorityProps
         return getProp(key, null);
     }
 
+    @Nullable
+    private String resolveProp(String key, String namespace) throws InvalidKeyException
+    {
+        String value = null;
+        for (Pair<Props, String> pair : propList)
+        {
+            value = pair.objA.getProp(key, namespace);
+            if (value != null)
+            {
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value that was resolved for the props of this instance and the given namespace and key, if none
+     * of the props were modified since. Otherwise the value is resolved and cached.
+     * Values from the fallback map are never cached, as they are specific to this instance.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(@Nullable String namespace, @Nullable String key, Supplier<T> resolver)
+    {
+        PriorityPropsCache localCache = cache;
+        Props[] localChain = chain;
+        if (localCache != null && localChain == null)
+        {
+            localChain = new Props[propList.size()];
+            for (int idx = 0; idx < localChain.length; ++idx)
+            {
+                localChain[idx] = propList.get(idx).objA;
+            }
+            chainHash = PriorityPropsCache.Key.hashChain(localChain);
+            chainCacheable = PriorityPropsCache.isCacheable(localChain);
+            chain = localChain;
+        }
+
+        T value;
+        if (localCache != null && chainCacheable)
+        {
+            PriorityPropsCache.Key cacheKey = new PriorityPropsCache.Key(localChain, chainHash, namespace, key);
+            PriorityPropsCache.Entry entry = localCache.get(cacheKey);
+            if (entry != null)
+            {
+                value = (T) entry.value;
+            }
+            else
+            {
+                long[] generations = PriorityPropsCache.getGenerations(localChain);
+                value = resolver.get();
+                localCache.put(cacheKey, generations, value);
+            }
+        }
+        else
+        {
+            value = resolver.get();
+        }
+        return value;
+    }
+
     private String prepStoreKey(String key)
     {
         return key
@@ -130,14 +204,29 @@ public class PriorityProps
 
     public Map<String, String> renderRelativeMap(String namespace)
     {
-        Map<String, String> ret = new HashMap<>();
-
         int nsLen = namespace == null ? 0 : namespace.length();
         if (nsLen > 0 && !namespace.equals("/"))
         {
             nsLen++; // also cut the trailing "/"
         }
+        final int finalNsLen = nsLen;
+        Map<String, String> ret = new HashMap<>(
+            cached(namespace, null, () -> Collections.unmodifiableMap(resolveRelativeMap(namespace, finalNsLen)))
+        );
+
+        for (Entry<String, String> entry : fallbackMap.entrySet())
+        {
+            if (namespace != null && entry.getKey().startsWith(namespace))
+            {
+                ret.putIfAbsent(entry.getKey().substring(nsLen), entry.getValue());
+            }
+        }
+        return ret;
+    }
 
+    private Map<String, String> resolveRelativeMap(String namespace, int nsLen)
+    {
+        Map<String, String> ret = new HashMap<>();
         for (Pair<Props, String> prop : propList)
         {
             Optional<Props> optNs = prop.objA.getNamespace(namespace);
@@ -152,13 +241,6 @@ public class PriorityProps
                 }
             }
         }
-        for (Entry<String, String> entry : fallbackMap.entrySet())
-        {
-            if (namespace != null && entry.getKey().startsWith(namespace))
-            {
-                ret.putIfAbsent(entry.getKey().substring(nsLen), entry.getValue());
-            }
-        }
         return ret;
     }
 
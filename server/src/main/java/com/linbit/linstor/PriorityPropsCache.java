@@ -0,0 +1,287 @@
+package com.linbit.linstor;
+
+import com.linbit.linstor.propscon.Props;
+import com.linbit.linstor.propscon.PropsContainer;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Values resolved by {@link PriorityProps}, shared by all instances that use the cache
+ *
+ * An entry is keyed by the props of a PriorityProps in their priority order and by the requested key or namespace.
+ * It stores the generations the props had before the value was resolved. Every modification of a
+ * {@link PropsContainer} increases its generation, so an entry is only used as long as none of its props were
+ * modified since.
+ *
+ * Only props that track their generation, i.e. PropsContainers and read only views of them, can be cached.
+ * The cached entries only hold weak references to their props, entries of props that were garbage collected,
+ * e.g. of deleted objects, are removed. If the cache exceeds its maximum number of entries, the least recently
+ * used entries are removed.
+ */
+@Singleton
+public class PriorityPropsCache
+{
+    private static final int DEFAULT_MAX_ENTRIES = 20_000;
+
+    private final int maxEntries;
+    // Guarded by itself, ordered from the least to the most recently used entry
+    private final LinkedHashMap<Key, Entry> entries;
+    private final ReferenceQueue<Props> collectedProps = new ReferenceQueue<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @Inject
+    public PriorityPropsCache()
+    {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    PriorityPropsCache(int maxEntriesRef)
+    {
+        maxEntries = maxEntriesRef;
+        entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 3140956235581487216L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns true if all of the given props track their generation
+     */
+    static boolean isCacheable(Props[] chain)
+    {
+        boolean cacheable = true;
+        for (int idx = 0; idx < chain.length && cacheable; ++idx)
+        {
+            cacheable = PropsContainer.getGeneration(chain[idx]) != PropsContainer.UNTRACKED_GENERATION;
+        }
+        return cacheable;
+    }
+
+    static long[] getGenerations(Props[] chain)
+    {
+        long[] generations = new long[chain.length];
+        for (int idx = 0; idx < chain.length; ++idx)
+        {
+            generations[idx] = PropsContainer.getGeneration(chain[idx]);
+        }
+        return generations;
+    }
+
+    /**
+     * Returns the cached entry if none of the props of the key were modified since the entry was stored
+     *
+     * @param key A key created by {@link Key#Key(Props[], int, String, String)}
+     */
+    @Nullable
+    Entry get(Key key)
+    {
+        Entry entry;
+        synchronized (entries)
+        {
+            entry = entries.get(key);
+        }
+        if (entry != null && !entry.isCurrent(key))
+        {
+            entry = null;
+        }
+        if (entry == null)
+        {
+            missCount.increment();
+        }
+        else
+        {
+            hitCount.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * @param key A key created by {@link Key#Key(Props[], int, String, String)}
+     * @param generations The generations of the props of the key before the value was resolved
+     */
+    void put(Key key, long[] generations, @Nullable Object value)
+    {
+        Key storedKey = key.weaken(collectedProps);
+        synchronized (entries)
+        {
+            removeCollected();
+            entries.put(storedKey, new Entry(generations, value));
+        }
+    }
+
+    /**
+     * Removes the entries whose props were garbage collected
+     */
+    private void removeCollected()
+    {
+        Reference<? extends Props> ref;
+        while ((ref = collectedProps.poll()) != null)
+        {
+            entries.remove(((PropsRef) ref).key);
+        }
+    }
+
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+    public int getEntryCount()
+    {
+        synchronized (entries)
+        {
+            removeCollected();
+            return entries.size();
+        }
+    }
+
+    /**
+     * The keys used for lookups hold their props, the keys of the stored entries hold {@link PropsRef}s to them
+     */
+    static class Key
+    {
+        private final Object[] chain;
+        private final @Nullable String namespace;
+        private final @Nullable String propKey;
+        private final int hash;
+
+        /**
+         * @param chainHashRef The result of {@link #hashChain(Props[])} for the given chain
+         * @param propKeyRef The key of a property, or <code>null</code> for all properties of the namespace
+         */
+        Key(Props[] chainRef, int chainHashRef, @Nullable String namespaceRef, @Nullable String propKeyRef)
+        {
+            this(chainRef, namespaceRef, propKeyRef, 31 * (31 * chainHashRef + Objects.hashCode(namespaceRef)) +
+                Objects.hashCode(propKeyRef));
+        }
+
+        private Key(Object[] chainRef, @Nullable String namespaceRef, @Nullable String propKeyRef, int hashRef)
+        {
+            chain = chainRef;
+            namespace = namespaceRef;
+            propKey = propKeyRef;
+            hash = hashRef;
+        }
+
+        static int hashChain(Props[] chain)
+        {
+            int chainHash = 1;
+            for (Props props : chain)
+            {
+                chainHash = 31 * chainHash + System.identityHashCode(props);
+            }
+            return chainHash;
+        }
+
+        /**
+         * Returns a copy of this key that does not prevent its props from being garbage collected
+         */
+        private Key weaken(ReferenceQueue<Props> queue)
+        {
+            Object[] refs = new Object[chain.length];
+            Key weakKey = new Key(refs, namespace, propKey, hash);
+            for (int idx = 0; idx < chain.length; ++idx)
+            {
+                refs[idx] = new PropsRef(getProps(idx), queue, weakKey);
+            }
+            return weakKey;
+        }
+
+        @Nullable
+        private Props getProps(int idx)
+        {
+            Object elem = chain[idx];
+            return elem instanceof PropsRef ? ((PropsRef) elem).get() : (Props) elem;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            boolean eq = obj == this;
+            if (!eq && obj instanceof Key)
+            {
+                Key other = (Key) obj;
+                eq = hash == other.hash && Objects.equals(propKey, other.propKey) &&
+                    Objects.equals(namespace, other.namespace) && chain.length == other.chain.length;
+                for (int idx = 0; eq && idx < chain.length; ++idx)
+                {
+                    // the same props objects, not props with equal content
+                    Props props = getProps(idx);
+                    eq = props != null && props == other.getProps(idx);
+                }
+            }
+            return eq;
+        }
+    }
+
+    private static class PropsRef extends WeakReference<Props>
+    {
+        // The key of the entry that is removed once the props were garbage collected
+        private final Key key;
+
+        PropsRef(@Nullable Props props, ReferenceQueue<Props> queue, Key keyRef)
+        {
+            super(props, queue);
+            key = keyRef;
+        }
+    }
+
+    static class Entry
+    {
+        private final long[] generations;
+        final @Nullable Object value;
+
+        Entry(long[] generationsRef, @Nullable Object valueRef)
+        {
+            generations = generationsRef;
+            value = valueRef;
+        }
+
+        private boolean isCurrent(Key key)
+        {
+            boolean current = true;
+            for (int idx = 0; current && idx < generations.length; ++idx)
+            {
+                current = PropsContainer.getGeneration(key.getProps(idx)) == generations[idx];
+            }
+            return current;
+        }
+    }
+}
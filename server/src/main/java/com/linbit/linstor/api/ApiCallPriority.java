@@ -0,0 +1,20 @@
+package com.linbit.linstor.api;
+
+/**
+ * Priority class of an API call, which selects the worker pool that processes received calls of the API
+ */
+public enum ApiCallPriority
+{
+    /**
+     * Processed by the main worker pool, in the order in which the messages were received from the peer
+     */
+    NORMAL,
+
+    /**
+     * Processed by the small priority worker pool, ahead of any waiting messages of normal priority.
+     * API calls of high priority are processed in order with the other high priority messages received from the
+     * same peer, but not with the peer's messages of normal priority, and must only perform short, latency-critical
+     * work.
+     */
+    HIGH
+}
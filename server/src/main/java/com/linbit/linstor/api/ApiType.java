@@ -9,4 +9,6 @@ public interface ApiType
     boolean requiresAuth(Class<?> apiCall);
 
     boolean transactional(Class<?> apiCall);
+
+    ApiCallPriority priority(Class<?> apiCall);
 }
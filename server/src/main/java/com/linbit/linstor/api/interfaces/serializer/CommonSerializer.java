@@ -60,7 +60,9 @@ public interface CommonSerializer
             String netBindAddress,
             Integer netPort,
             String netType,
-            WhitelistProps whitelistProps
+            WhitelistProps whitelistProps,
+            boolean compressionEnabled,
+            boolean chunkedMessagesEnabled
         );
 
         CommonSerializerBuilder bytes(byte[] bytes);
@@ -1,5 +1,6 @@
 package com.linbit.linstor.api.protobuf;
 
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.ApiType;
 import com.linbit.linstor.api.BaseApiCall;
 
@@ -10,6 +11,7 @@ public class ApiCallDescriptor
     private final String description;
     private final boolean reqAuth;
     private final boolean transactional;
+    private final ApiCallPriority priority;
 
     public ApiCallDescriptor(ApiType apiType, Class<? extends BaseApiCall> clazzRef)
     {
@@ -18,6 +20,7 @@ public class ApiCallDescriptor
         description = apiType.getDescription(clazzRef);
         reqAuth = apiType.requiresAuth(clazzRef);
         transactional = apiType.transactional(clazzRef);
+        priority = apiType.priority(clazzRef);
     }
 
     public Class<? extends BaseApiCall> getClazz()
@@ -44,4 +47,9 @@ public class ApiCallDescriptor
     {
         return transactional;
     }
+
+    public ApiCallPriority getPriority()
+    {
+        return priority;
+    }
 }
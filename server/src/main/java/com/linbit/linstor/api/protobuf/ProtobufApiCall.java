@@ -1,5 +1,7 @@
 package com.linbit.linstor.api.protobuf;
 
+import com.linbit.linstor.api.ApiCallPriority;
+
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
@@ -42,4 +44,11 @@ public @interface ProtobufApiCall
      * @return True if the API requires a database transaction.
      */
     boolean transactional() default true;
+
+    /**
+     * Returns the priority class of the API call, which selects the worker pool that processes received calls
+     *
+     * @return Priority class of the API call
+     */
+    ApiCallPriority priority() default ApiCallPriority.NORMAL;
 }
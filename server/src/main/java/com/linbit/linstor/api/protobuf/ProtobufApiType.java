@@ -1,5 +1,6 @@
 package com.linbit.linstor.api.protobuf;
 
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.ApiType;
 
 public class ProtobufApiType implements ApiType
@@ -27,4 +28,10 @@ public class ProtobufApiType implements ApiType
     {
         return apiCall.getAnnotation(ProtobufApiCall.class).transactional();
     }
+
+    @Override
+    public ApiCallPriority priority(Class<?> apiCall)
+    {
+        return apiCall.getAnnotation(ProtobufApiCall.class).priority();
+    }
 }
@@ -326,7 +326,9 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
         String netBindAddress,
         Integer netPort,
         String netType,
-        WhitelistProps whitelistProps
+        WhitelistProps whitelistProps,
+        boolean compressionEnabled,
+        boolean chunkedMessagesEnabled
     )
     {
         try
@@ -366,6 +368,8 @@ public class ProtoCommonSerializerBuilder implements CommonSerializer.CommonSeri
                 )
                 .setNodeUname(uname)
                 .addAllProperties(serializeDynamicProperties(whitelistProps))
+                .setCompressionEnabled(compressionEnabled)
+                .setChunkedMessagesEnabled(chunkedMessagesEnabled)
                 .build()
                 .writeDelimitedTo(baos);
         }
@@ -167,6 +167,8 @@ public class ProtoCtrlStltSerializerBuilder extends ProtoCommonSerializerBuilder
                 .setNodeUuid(nodeUuid.toString())
                 .setNodeName(nodeName)
                 .setSharedSecret(ByteString.copyFrom(sharedSecret))
+                .setSupportsCompression(true)
+                .setSupportsChunkedMessages(true)
                 .build()
                 .writeDelimitedTo(baos);
         }
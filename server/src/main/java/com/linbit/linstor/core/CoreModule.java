@@ -23,6 +23,7 @@ import com.linbit.linstor.propscon.Props;
 import com.linbit.linstor.propscon.PropsContainerFactory;
 import com.linbit.linstor.transaction.TransactionMap;
 import com.linbit.linstor.transaction.manager.TransactionMgr;
+import com.linbit.locks.StripedMapLock;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -82,11 +83,11 @@ public class CoreModule extends AbstractModule
         bind(ReadWriteLock.class).annotatedWith(Names.named(RECONFIGURATION_LOCK))
             .toInstance(new ReentrantReadWriteLock(true));
         bind(ReadWriteLock.class).annotatedWith(Names.named(NODES_MAP_LOCK))
-            .toInstance(new ReentrantReadWriteLock(true));
+            .toInstance(new StripedMapLock());
         bind(ReadWriteLock.class).annotatedWith(Names.named(RSC_DFN_MAP_LOCK))
-            .toInstance(new ReentrantReadWriteLock(true));
+            .toInstance(new StripedMapLock());
         bind(ReadWriteLock.class).annotatedWith(Names.named(STOR_POOL_DFN_MAP_LOCK))
-            .toInstance(new ReentrantReadWriteLock(true));
+            .toInstance(new StripedMapLock());
         bind(ReadWriteLock.class).annotatedWith(Names.named(FREE_SPACE_MGR_MAP_LOCK))
             .toInstance(new ReentrantReadWriteLock(true));
         bind(ReadWriteLock.class).annotatedWith(Names.named(CTRL_CONF_LOCK))
@@ -94,7 +95,7 @@ public class CoreModule extends AbstractModule
         bind(ReadWriteLock.class).annotatedWith(Names.named(KVS_MAP_LOCK))
             .toInstance(new ReentrantReadWriteLock(true));
         bind(ReadWriteLock.class).annotatedWith(Names.named(RSC_GROUP_MAP_LOCK))
-            .toInstance(new ReentrantReadWriteLock(true));
+            .toInstance(new StripedMapLock());
         bind(ReadWriteLock.class).annotatedWith(Names.named(EXT_FILE_MAP_LOCK))
             .toInstance(new ReentrantReadWriteLock(true));
         bind(ReadWriteLock.class).annotatedWith(Names.named(REMOTE_MAP_LOCK))
@@ -128,6 +128,7 @@ public class ScopeRunner
         Exception caughtExc = null;
         ImplementationError caughtImplError = null;
         apiCallScope.enter();
+        lockGuard.setHolder(apiCallName);
         lockGuard.lock();
         try
         {
@@ -13,6 +13,16 @@ public abstract class LinstorConfig
         APPEND, ROTATE_HOURLY, ROTATE_DAILY, NO_LOG;
     }
 
+    /**
+     * Threads that process API calls. VIRTUAL runs each API call on its own virtual thread, so that API calls
+     * that block do not occupy one of the few threads of the platform worker pool. Requires Java 21 or newer,
+     * otherwise the platform worker pool is used.
+     */
+    public enum WorkerPoolMode
+    {
+        PLATFORM, VIRTUAL;
+    }
+
     protected String configDir;
     protected Path configPath;
 
@@ -29,6 +39,11 @@ public abstract class LinstorConfig
     protected String logLevel;
     protected String logLevelLinstor;
 
+    /*
+     * Worker pool
+     */
+    protected WorkerPoolMode workerPoolMode;
+
     /**
      * Order or priority of config sources (top has highest priority)
      * 1) command line arguments
@@ -72,6 +87,7 @@ public abstract class LinstorConfig
         setDebugConsoleEnable(false);
         setLogDirectory("./logs");
         setLogLevel("INFO");
+        setWorkerPoolMode(WorkerPoolMode.PLATFORM);
         // logLevelLinstor stays null. if null, it will inherit value from logLevel
     }
 
@@ -130,6 +146,14 @@ public abstract class LinstorConfig
         }
     }
 
+    public void setWorkerPoolMode(WorkerPoolMode workerPoolModeRef)
+    {
+        if (workerPoolModeRef != null)
+        {
+            workerPoolMode = workerPoolModeRef;
+        }
+    }
+
     public String getConfigDir()
     {
         return configDir;
@@ -165,4 +189,9 @@ public abstract class LinstorConfig
         return logLevelLinstor;
     }
 
+    public WorkerPoolMode getWorkerPoolMode()
+    {
+        return workerPoolMode;
+    }
+
 }
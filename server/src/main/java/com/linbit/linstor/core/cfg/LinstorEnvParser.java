@@ -1,5 +1,7 @@
 package com.linbit.linstor.core.cfg;
 
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
+
 import java.util.function.Function;
 
 public class LinstorEnvParser
@@ -8,6 +10,7 @@ public class LinstorEnvParser
     public static final String LS_LOG_DIRECTORY = "LS_LOG_DIRECTORY";
     public static final String LS_LOG_LEVEL = "LS_LOG_LEVEL";
     public static final String LS_LOG_LEVEL_LINSTOR = "LS_LOG_LEVEL_LINSTOR";
+    public static final String LS_WORKER_POOL_MODE = "LS_WORKER_POOL_MODE";
 
     private LinstorEnvParser()
     {
@@ -19,6 +22,7 @@ public class LinstorEnvParser
         cfg.setLogDirectory(getEnv(LS_LOG_DIRECTORY));
         cfg.setLogLevel(getEnv(LS_LOG_LEVEL));
         cfg.setLogLevelLinstor(getEnv(LS_LOG_LEVEL_LINSTOR));
+        cfg.setWorkerPoolMode(getEnv(LS_WORKER_POOL_MODE, val -> WorkerPoolMode.valueOf(val.toUpperCase())));
     }
 
     protected static String getEnv(String env)
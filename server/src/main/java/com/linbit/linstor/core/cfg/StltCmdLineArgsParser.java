@@ -2,6 +2,7 @@ package com.linbit.linstor.core.cfg;
 
 import com.linbit.linstor.InternalApiConsts;
 import com.linbit.linstor.core.LinStor;
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
 
 import java.io.File;
 import java.util.Arrays;
@@ -36,6 +37,10 @@ class StltCmdLineArgsParser
         description = "The desired log level. Options: ERROR, WARN, INFO, DEBUG, TRACE")
     private String logLevelLinstor;
 
+    @CommandLine.Option(names = {"--worker-pool-mode"},
+        description = "Threads that process API calls. Options: PLATFORM, VIRTUAL (requires Java 21)")
+    private WorkerPoolMode workerPoolMode;
+
 
     @CommandLine.Option(names = {"-v", "--version"}, versionHelp = true, description = "Show the version number")
     private Boolean versionInfoRequested;
@@ -138,6 +143,7 @@ class StltCmdLineArgsParser
 
         stltCfg.setLogLevel(linArgParser.logLevel);
         stltCfg.setLogLevelLinstor(linArgParser.logLevelLinstor);
+        stltCfg.setWorkerPoolMode(linArgParser.workerPoolMode);
 
         if (linArgParser.extFilesWhitelist != null)
         {
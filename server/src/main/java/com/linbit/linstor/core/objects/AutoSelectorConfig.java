@@ -250,15 +250,15 @@ public class AutoSelectorConfig extends BaseTransactionObject
     {
         return new AutoSelectFilterBuilder()
             .setPlaceCount(replicaCount.get())// no "additional" placeCounts for rscGrps
-            .setNodeNameList(nodeNameList)
-            .setStorPoolNameList(Collections.unmodifiableList(storPoolNameList))
-            .setStorPoolDisklessNameList(Collections.unmodifiableList(storPoolDisklessNameList))
-            .setDoNotPlaceWithRscList(Collections.unmodifiableList(doNotPlaceWithRscList))
+            .setNodeNameList(new ArrayList<>(nodeNameList))
+            .setStorPoolNameList(Collections.unmodifiableList(new ArrayList<>(storPoolNameList)))
+            .setStorPoolDisklessNameList(Collections.unmodifiableList(new ArrayList<>(storPoolDisklessNameList)))
+            .setDoNotPlaceWithRscList(Collections.unmodifiableList(new ArrayList<>(doNotPlaceWithRscList)))
             .setDoNotPlaceWithRegex(doNotPlaceWithRscRegex.get())
-            .setReplicasOnSameList(Collections.unmodifiableList(replicasOnSameList))
-            .setReplicasOnDifferentList(Collections.unmodifiableList(replicasOnDifferentList))
-            .setLayerStackList(Collections.unmodifiableList(layerStack))
-            .setDeviceProviderKinds(Collections.unmodifiableList(allowedProviderList))
+            .setReplicasOnSameList(Collections.unmodifiableList(new ArrayList<>(replicasOnSameList)))
+            .setReplicasOnDifferentList(Collections.unmodifiableList(new ArrayList<>(replicasOnDifferentList)))
+            .setLayerStackList(Collections.unmodifiableList(new ArrayList<>(layerStack)))
+            .setDeviceProviderKinds(Collections.unmodifiableList(new ArrayList<>(allowedProviderList)))
             .setDisklessOnRemaining(disklessOnRemaining.get())
             .build();
     }
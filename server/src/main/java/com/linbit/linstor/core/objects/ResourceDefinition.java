@@ -597,7 +597,7 @@ public class ResourceDefinition extends AbsCoreObj<ResourceDefinition> implement
             getName().getDisplayName(),
             getExternalName(),
             getFlags().getFlagsBits(accCtx),
-            getProps(accCtx).map(),
+            new TreeMap<>(getProps(accCtx).map()),
             vlmDfnList,
             layerData
         );
@@ -35,6 +35,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -317,7 +318,7 @@ public class ResourceGroup extends AbsCoreObj<ResourceGroup> implements Protecte
             objId,
             name.displayValue,
             description.get(),
-            rscDfnGrpProps.map(),
+            new TreeMap<>(rscDfnGrpProps.map()),
             vlmGrpApiList,
             autoPlaceConfig.getApiData()
         );
@@ -443,7 +443,7 @@ public class VolumeDefinition extends AbsCoreObj<VolumeDefinition> implements Pr
             getVolumeNumber().value,
             getVolumeSize(accCtx),
             getFlags().getFlagsBits(accCtx),
-            getProps(accCtx).map(),
+            new TreeMap<>(getProps(accCtx).map()),
             layerData
         );
     }
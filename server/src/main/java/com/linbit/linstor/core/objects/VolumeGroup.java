@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
 
 public class VolumeGroup extends AbsCoreObj<VolumeGroup> implements ProtectedObject
@@ -177,7 +178,7 @@ public class VolumeGroup extends AbsCoreObj<VolumeGroup> implements ProtectedObj
         return new VlmGrpPojo(
             objId,
             vlmNr.value,
-            Collections.unmodifiableMap(vlmGrpProps.map()),
+            Collections.unmodifiableMap(new TreeMap<>(vlmGrpProps.map())),
             flags.getFlagsBits(accCtxRef)
         );
     }
@@ -0,0 +1,123 @@
+package com.linbit.linstor.dbdrivers;
+
+import com.linbit.utils.LatencyHistogram;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+/**
+ * Connection pool, prepared statement cache and query latency statistics of the SQL database
+ *
+ * A statement request of a pooled connection is a cache hit if the statement cache of the connection returned a
+ * statement the database prepared before, and a miss if the database had to prepare the statement.
+ */
+@Singleton
+public class SQLDatabaseStats
+{
+    private volatile @Nullable GenericObjectPool<?> connPool;
+
+    // Time from the request of a connection until the pool returned it
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+
+    private final LongAdder stmtCacheHitCount = new LongAdder();
+    private final LongAdder stmtCacheMissCount = new LongAdder();
+    // Set while the current thread requests a statement, true once the database prepared it
+    private final ThreadLocal<Boolean> stmtPrepared = new ThreadLocal<>();
+
+    // Execution time of the statements by table name, updated concurrently by all transactions
+    private final Map<String, LatencyHistogram> queryLatencies = new ConcurrentHashMap<>();
+
+    @Inject
+    public SQLDatabaseStats()
+    {
+    }
+
+    public void setConnectionPool(@Nullable GenericObjectPool<?> connPoolRef)
+    {
+        connPool = connPoolRef;
+    }
+
+    /**
+     * Returns the connection pool, or <code>null</code> if the SQL database is not used
+     */
+    @Nullable
+    public GenericObjectPool<?> getConnectionPool()
+    {
+        return connPool;
+    }
+
+    public void recordBorrowWait(long waitNanos)
+    {
+        borrowWait.record(waitNanos);
+    }
+
+    public LatencyHistogram getBorrowWait()
+    {
+        return borrowWait;
+    }
+
+    /**
+     * Must be called before a pooled connection is asked for a statement, followed by
+     * {@link #endStatementRequest()} once the statement was returned
+     */
+    public void startStatementRequest()
+    {
+        stmtPrepared.set(Boolean.FALSE);
+    }
+
+    /**
+     * Called when the database prepares a statement. Statements that are not requested from a pooled connection,
+     * e.g. by the database migrations, are not counted.
+     */
+    public void recordStatementPrepared()
+    {
+        if (stmtPrepared.get() != null)
+        {
+            stmtPrepared.set(Boolean.TRUE);
+        }
+    }
+
+    public void endStatementRequest()
+    {
+        if (stmtPrepared.get() == Boolean.TRUE)
+        {
+            stmtCacheMissCount.increment();
+        }
+        else
+        {
+            stmtCacheHitCount.increment();
+        }
+        stmtPrepared.remove();
+    }
+
+    public long getStatementCacheHitCount()
+    {
+        return stmtCacheHitCount.sum();
+    }
+
+    public long getStatementCacheMissCount()
+    {
+        return stmtCacheMissCount.sum();
+    }
+
+    public void recordQuery(DatabaseTable table, long latencyNanos)
+    {
+        queryLatencies.computeIfAbsent(table.getName(), ignored -> new LatencyHistogram()).record(latencyNanos);
+    }
+
+    /**
+     * Returns the execution time of the statements of all tables that were queried, sorted by table name
+     */
+    public Map<String, LatencyHistogram> getQueryLatencies()
+    {
+        return new TreeMap<>(queryLatencies);
+    }
+}
@@ -20,6 +20,26 @@ public interface PropsConDatabaseDriver
      */
     Map<String, String> loadAll(String instanceName) throws DatabaseException;
 
+    /**
+     * Loads the properties of all instances at once. Until {@link #clearPreloaded()} is called,
+     * {@link #loadAll(String)} returns the preloaded properties instead of querying the database for each instance.
+     * Instances that are modified in the meantime are queried again.
+     *
+     * @throws DatabaseException
+     */
+    default void preloadAll() throws DatabaseException
+    {
+        // no-op by default, every instance is loaded separately
+    }
+
+    /**
+     * Discards the properties loaded by {@link #preloadAll()}
+     */
+    default void clearPreloaded()
+    {
+        // no-op by default
+    }
+
     /**
      * Performs an insert or update for the given key/value pair
      *
@@ -1,11 +1,23 @@
 package com.linbit.linstor.dbdrivers.k8s;
 
+import com.linbit.linstor.logging.ErrorReporter;
+
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 
@@ -15,24 +27,119 @@ import io.fabric8.kubernetes.client.dsl.Resource;
  * This client assumes that for as long as it is running, it is the *only* client making changes. This is true for
  * the LINSTOR internal resources, so it is safe to use this.
  *
+ * The cache is filled with paginated LIST requests, so that large resource types do not end up in a single huge
+ * response. Optionally, a WATCH started at the resource version of the LIST keeps the cache current even if the
+ * resources are modified by someone else, see {@link #startWatch(ErrorReporter, String)}. If the API server closes
+ * the WATCH, e.g. because its resource version expired, the resources are listed again and a new WATCH is started
+ * at the resource version of the new LIST.
+ *
  * @param <T> The Kubernetes resource type.
  * @param <L> The list variant of the Kubernetes resource type.
  * @param <R> The resource operations.
  */
 public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourceList<T>, R extends Resource<T>> implements K8sResourceClient<T>
 {
+    private static final long LIST_PAGE_SIZE = 500;
+
     private final MixedOperation<T, L, R> client;
     private final ConcurrentHashMap<String, T> cache;
+    private final String listResourceVersion;
+
+    // Names deleted by this client, whose deletion was not yet reported by the watch. Older watch events for these
+    // names must not add them to the cache again, until the name is created again by this client.
+    private final Set<String> pendingDeletes = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable Watch watch;
+    // Guards starting and stopping the watch, set once close() was called
+    private final Object watchLock = new Object();
+    private boolean closed = false;
 
     public K8sCachingClient(MixedOperation<T, L, R> clientRef)
     {
         client = clientRef;
         cache = new ConcurrentHashMap<>();
+        listResourceVersion = listInto(cache);
+    }
 
-        for (T item : client.list().getItems())
+    /**
+     * Lists all resources into the given map and returns the resource version of the LIST
+     */
+    private String listInto(Map<String, T> items)
+    {
+        String continueToken = null;
+        String resourceVersion;
+        do
         {
-            cache.put(item.getMetadata().getName(), item);
+            L page = client.list(
+                new ListOptionsBuilder()
+                    .withLimit(LIST_PAGE_SIZE)
+                    .withContinue(continueToken)
+                    .build()
+            );
+            for (T item : page.getItems())
+            {
+                items.put(item.getMetadata().getName(), item);
+            }
+            // all pages are served from the resource version of the first page
+            resourceVersion = page.getMetadata().getResourceVersion();
+            continueToken = page.getMetadata().getContinue();
         }
+        while (continueToken != null && !continueToken.isEmpty());
+        return resourceVersion;
+    }
+
+    /**
+     * Lists all resources again and merges them into the cache. Entries that are missing in the new LIST were
+     * deleted, unless they were created or modified by this client after the LIST.
+     */
+    private String relist()
+    {
+        Map<String, T> listed = new HashMap<>();
+        String resourceVersion = listInto(listed);
+        for (T item : listed.values())
+        {
+            cache.compute(item.getMetadata().getName(), (key, cached) -> isNewer(item, cached) ? item : cached);
+        }
+        cache.entrySet().removeIf(
+            entry -> !listed.containsKey(entry.getKey()) &&
+                isNewer(resourceVersion, entry.getValue().getMetadata().getResourceVersion())
+        );
+        return resourceVersion;
+    }
+
+    /**
+     * Starts a WATCH that applies all modifications after the initial LIST to the cache
+     */
+    public void startWatch(ErrorReporter errorReporter, String kind)
+    {
+        synchronized (watchLock)
+        {
+            if (!closed)
+            {
+                watch = client.watch(
+                    new ListOptionsBuilder().withResourceVersion(listResourceVersion).build(),
+                    new CacheUpdater(errorReporter, kind)
+                );
+            }
+        }
+    }
+
+    /**
+     * Stops the WATCH, if any
+     */
+    public void close()
+    {
+        Watch localWatch;
+        synchronized (watchLock)
+        {
+            closed = true;
+            localWatch = watch;
+            watch = null;
+        }
+        if (localWatch != null)
+        {
+            localWatch.close();
+        }
+        pendingDeletes.clear();
     }
 
     @Override
@@ -45,7 +152,7 @@ public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourc
     public T create(T item)
     {
         T updated = client.create(item);
-        cache.put(updated.getMetadata().getName(), updated);
+        putIntoCache(updated);
         return updated;
     }
 
@@ -53,7 +160,7 @@ public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourc
     public T replace(T item)
     {
         T updated = client.replace(item);
-        cache.put(updated.getMetadata().getName(), updated);
+        putIntoCache(updated);
         return updated;
     }
 
@@ -61,6 +168,10 @@ public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourc
     public boolean delete()
     {
         boolean deleted = client.delete();
+        if (watch != null)
+        {
+            pendingDeletes.addAll(cache.keySet());
+        }
         cache.clear();
         return deleted;
     }
@@ -70,7 +181,7 @@ public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourc
     public boolean delete(T item)
     {
         boolean deleted = client.delete(item);
-        cache.remove(item.getMetadata().getName());
+        removeFromCache(item.getMetadata().getName());
         return deleted;
     }
 
@@ -78,16 +189,33 @@ public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourc
     public boolean delete(String name)
     {
         boolean deleted = client.withName(name).delete();
-        cache.remove(name);
+        removeFromCache(name);
         return deleted;
     }
 
+    private void putIntoCache(T item)
+    {
+        String name = item.getMetadata().getName();
+        // the name exists again, older watch events are filtered by the resource version from now on
+        pendingDeletes.remove(name);
+        cache.put(name, item);
+    }
+
+    private void removeFromCache(String name)
+    {
+        if (watch != null)
+        {
+            pendingDeletes.add(name);
+        }
+        cache.remove(name);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T createOrReplace(T item)
     {
         T updated = client.createOrReplace(item);
-        cache.put(updated.getMetadata().getName(), updated);
+        putIntoCache(updated);
         return updated;
     }
 
@@ -96,4 +224,96 @@ public class K8sCachingClient<T extends HasMetadata, L extends KubernetesResourc
     {
         return cache.get(name);
     }
+
+    /**
+     * Returns whether the first item is newer than the second one. Resource versions are only compared as numbers
+     * if both are numbers, which is the case for all API servers backed by etcd.
+     */
+    static boolean isNewer(HasMetadata item, @Nullable HasMetadata other)
+    {
+        return other == null ||
+            isNewer(item.getMetadata().getResourceVersion(), other.getMetadata().getResourceVersion());
+    }
+
+    static boolean isNewer(String resourceVersion, String otherResourceVersion)
+    {
+        boolean newer = true;
+        try
+        {
+            newer = Long.parseLong(resourceVersion) >= Long.parseLong(otherResourceVersion);
+        }
+        catch (NumberFormatException ignored)
+        {
+            // opaque resource versions, the watch event or LIST is the latest known state
+        }
+        return newer;
+    }
+
+    private class CacheUpdater implements Watcher<T>
+    {
+        private final ErrorReporter errorReporter;
+        private final String kind;
+
+        CacheUpdater(ErrorReporter errorReporterRef, String kindRef)
+        {
+            errorReporter = errorReporterRef;
+            kind = kindRef;
+        }
+
+        @Override
+        public void eventReceived(Action action, T item)
+        {
+            String name = item.getMetadata().getName();
+            switch (action)
+            {
+                case ADDED: // fall-through
+                case MODIFIED:
+                    if (!pendingDeletes.contains(name))
+                    {
+                        cache.compute(name, (key, cached) -> isNewer(item, cached) ? item : cached);
+                    }
+                    break;
+                case DELETED:
+                    pendingDeletes.remove(name);
+                    cache.computeIfPresent(name, (key, cached) -> isNewer(item, cached) ? null : cached);
+                    break;
+                default:
+                    // nothing to update
+                    break;
+            }
+        }
+
+        @Override
+        public void onClose(WatcherException cause)
+        {
+            errorReporter.logWarning("Watch of %s closed: %s. Restarting the watch", kind, cause.getMessage());
+            synchronized (watchLock)
+            {
+                if (!closed)
+                {
+                    watch = null;
+                    // Deletions that happen before the new LIST are not part of it, later ones are reported by
+                    // the new watch
+                    pendingDeletes.clear();
+                    try
+                    {
+                        String resourceVersion = relist();
+                        watch = client.watch(
+                            new ListOptionsBuilder().withResourceVersion(resourceVersion).build(),
+                            this
+                        );
+                    }
+                    catch (KubernetesClientException exc)
+                    {
+                        errorReporter.logWarning(
+                            "Restarting the watch of %s failed: %s. The cache is only updated by LINSTOR's own " +
+                                "modifications from now on",
+                            kind,
+                            exc.getMessage()
+                        );
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.linbit.linstor.debug;
+
+import javax.inject.Inject;
+import com.linbit.linstor.proto.ApiCallStats;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.utils.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Displays latency statistics of the API calls processed by the message processor
+ */
+public class CmdDisplayApiCallStats extends BaseDebugCmd
+{
+    private final ApiCallStats apiCallStats;
+
+    @Inject
+    public CmdDisplayApiCallStats(ApiCallStats apiCallStatsRef)
+    {
+        super(
+            new String[]
+            {
+                "DspApiCallStats"
+            },
+            "Display API call statistics",
+            "Displays the number of calls, errors and calls in process, and the average queue wait,\n" +
+            "execution and answer serialization time of each API call that was called\n" +
+            "through network communications services",
+            null,
+            null
+        );
+
+        apiCallStats = apiCallStatsRef;
+    }
+
+    @Override
+    public void execute(
+        PrintStream debugOut,
+        PrintStream debugErr,
+        AccessContext accCtx,
+        Map<String, String> parameters
+    )
+        throws Exception
+    {
+        int count = 0;
+        for (ApiCallStats.Entry entry : apiCallStats.getEntries())
+        {
+            long callCount = entry.getQueueWait().getCount();
+            if (callCount > 0)
+            {
+                if (count == 0)
+                {
+                    debugOut.printf(
+                        "%-32s %8s %6s %6s %10s %10s %10s %10s\n",
+                        "API call", "Calls", "Errors", "Active",
+                        "Wait (ms)", "Exec (ms)", "p99 (ms)", "Ser (ms)"
+                    );
+                    printSectionSeparator(debugOut);
+                }
+                LatencyHistogram execution = entry.getExecution();
+                debugOut.printf(
+                    "%-32s %8d %6d %6d %10.3f %10.3f %10.3f %10.3f\n",
+                    entry.getApiCallName(),
+                    callCount,
+                    entry.getErrorCount(),
+                    entry.getInFlightCount(),
+                    avgMillis(entry.getQueueWait()),
+                    avgMillis(execution),
+                    p99Millis(execution),
+                    avgMillis(entry.getSerialization())
+                );
+                ++count;
+            }
+        }
+        if (count == 0)
+        {
+            debugOut.println("No API calls were processed.");
+        }
+        else
+        {
+            printSectionSeparator(debugOut);
+            debugOut.println("Wait, Exec and Ser are averages, p99 is the upper bound of the execution time\n" +
+                "histogram bucket that contains the 99th percentile");
+        }
+    }
+
+    private static double p99Millis(LatencyHistogram histogram)
+    {
+        long boundNanos = histogram.getQuantileBoundNanos(0.99);
+        // the last bucket has no upper bound
+        return boundNanos == Long.MAX_VALUE ?
+            Double.POSITIVE_INFINITY :
+            boundNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double avgMillis(LatencyHistogram histogram)
+    {
+        long count = histogram.getCount();
+        return count > 0 ? histogram.getSumNanos() / (double) count / TimeUnit.MILLISECONDS.toNanos(1) : 0.0;
+    }
+}
@@ -0,0 +1,167 @@
+package com.linbit.linstor.debug;
+
+import javax.inject.Inject;
+import com.linbit.locks.LockGuardFactory.LockObj;
+import com.linbit.locks.LockStats;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.utils.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Displays the lock holders with the longest total hold time and the wait and hold times of the locks
+ */
+public class CmdDisplayLockHolders extends BaseDebugCmd
+{
+    private static final int DEFAULT_LIMIT = 20;
+
+    private static final String PRM_LIMIT = "LIMIT";
+
+    private static final Map<String, String> PARAMETER_DESCRIPTIONS = new TreeMap<>();
+
+    static
+    {
+        PARAMETER_DESCRIPTIONS.put(
+            PRM_LIMIT,
+            "Maximum number of lock holders to display (default " + DEFAULT_LIMIT + ")"
+        );
+    }
+
+    private final LockStats lockStats;
+
+    @Inject
+    public CmdDisplayLockHolders(LockStats lockStatsRef)
+    {
+        super(
+            new String[]
+            {
+                "DspLckTop"
+            },
+            "Display top lock holders",
+            "Displays the API calls that held the global locks for the longest total time,\n" +
+            "and the wait and hold times of each lock and lock mode",
+            PARAMETER_DESCRIPTIONS,
+            null
+        );
+
+        lockStats = lockStatsRef;
+    }
+
+    @Override
+    public void execute(
+        PrintStream debugOut,
+        PrintStream debugErr,
+        AccessContext accCtx,
+        Map<String, String> parameters
+    )
+        throws Exception
+    {
+        Integer limit = DEFAULT_LIMIT;
+        String prmLimit = parameters.get(PRM_LIMIT);
+        if (prmLimit != null)
+        {
+            try
+            {
+                limit = Integer.parseInt(prmLimit);
+            }
+            catch (NumberFormatException nfExc)
+            {
+                printError(
+                    debugErr,
+                    "The specified limit is not valid.",
+                    String.format("The limit '%s' is not a numeric value.", prmLimit),
+                    "Reenter the command using a valid numeric limit.",
+                    null
+                );
+                limit = null;
+            }
+        }
+        if (limit != null)
+        {
+            printLockHolders(debugOut, Math.max(limit, 0));
+        }
+    }
+
+    private void printLockHolders(PrintStream debugOut, int limit)
+    {
+        List<LockStats.Holder> holders = new ArrayList<>(lockStats.getHolders());
+        holders.sort(Comparator.comparingLong(LockStats.Holder::getTotalHoldNanos).reversed());
+        if (holders.isEmpty())
+        {
+            debugOut.println("No locks were acquired.");
+        }
+        else
+        {
+            debugOut.printf("%-32s %-20s %10s %12s %12s\n", "Holder", "Lock", "Count", "Wait (ms)", "Hold (ms)");
+            printSectionSeparator(debugOut);
+            for (LockStats.Holder holder : holders.subList(0, Math.min(limit, holders.size())))
+            {
+                for (LockObj lockObj : LockObj.values())
+                {
+                    long acquisitionCount = holder.getAcquisitionCount(lockObj);
+                    if (acquisitionCount > 0 && lockObj != LockObj.RECONFIGURATION)
+                    {
+                        debugOut.printf(
+                            "%-32s %-20s %10d %12.3f %12.3f\n",
+                            holder.getName(),
+                            lockObj.name(),
+                            acquisitionCount,
+                            toMillis(holder.getWaitNanos(lockObj)),
+                            toMillis(holder.getHoldNanos(lockObj))
+                        );
+                    }
+                }
+            }
+            printSectionSeparator(debugOut);
+            debugOut.println("Wait and Hold are the total times of all acquisitions of the lock by the holder\n");
+
+            debugOut.printf(
+                "%-20s %-12s %10s %12s %12s %12s %12s\n",
+                "Lock", "Mode", "Count", "Wait (ms)", "Wait p99", "Hold (ms)", "Hold p99"
+            );
+            printSectionSeparator(debugOut);
+            for (LockStats.Entry entry : lockStats.getUsedEntries())
+            {
+                LatencyHistogram wait = entry.getWait();
+                LatencyHistogram hold = entry.getHold();
+                debugOut.printf(
+                    "%-20s %-12s %10d %12.3f %12.3f %12.3f %12.3f\n",
+                    entry.getLockObj().name(),
+                    entry.getMode().name(),
+                    wait.getCount(),
+                    avgMillis(wait),
+                    p99Millis(wait),
+                    avgMillis(hold),
+                    p99Millis(hold)
+                );
+            }
+            printSectionSeparator(debugOut);
+            debugOut.println("Wait and Hold are averages, p99 is the upper bound of the histogram bucket\n" +
+                "that contains the 99th percentile");
+        }
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double p99Millis(LatencyHistogram histogram)
+    {
+        long boundNanos = histogram.getQuantileBoundNanos(0.99);
+        // the last bucket has no upper bound
+        return boundNanos == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : toMillis(boundNanos);
+    }
+
+    private static double avgMillis(LatencyHistogram histogram)
+    {
+        long count = histogram.getCount();
+        return count > 0 ? toMillis(histogram.getSumNanos()) / count : 0.0;
+    }
+}
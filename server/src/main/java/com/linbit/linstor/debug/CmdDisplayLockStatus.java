@@ -8,6 +8,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.linbit.linstor.core.CoreModule;
 import com.linbit.linstor.security.AccessContext;
+import com.linbit.locks.StripedMapLock;
 
 import javax.inject.Named;
 
@@ -15,6 +16,8 @@ public class CmdDisplayLockStatus extends BaseDebugCmd
 {
     public static final String RWLOCK_FORMAT_HEADER = "%-20s %-8s %-8s %-8s %s\n";
     public static final String RWLOCK_FORMAT = "%-20s %-8s %-8s %-8s %3d\n";
+    public static final String MAPLOCK_FORMAT_HEADER = "%-20s %-8s %-8s %-8s %-8s %s\n";
+    public static final String MAPLOCK_FORMAT = "%-20s %-8s %8d %8d %8d %8d\n";
 
     private final ReadWriteLock reconfigurationLock;
     private final ReadWriteLock nodesMapLock;
@@ -64,10 +67,34 @@ public class CmdDisplayLockStatus extends BaseDebugCmd
         );
         printSectionSeparator(debugOut);
         reportRwLock(debugOut, "reconfigurationLock", reconfigurationLock);
-        reportRwLock(debugOut, "nodesMapLock", nodesMapLock);
-        reportRwLock(debugOut, "rscDfnMapLock", rscDfnMapLock);
-        reportRwLock(debugOut, "storPoolDfnMapLock", storPoolDfnMapLock);
         printSectionSeparator(debugOut);
+
+        debugOut.println();
+        debugOut.println("Type StripedMapLock");
+        debugOut.printf(
+            MAPLOCK_FORMAT_HEADER,
+            "Lock", "WriteLkd", "Readers", "IntentRd", "IntentWr", "ThrQ"
+        );
+        printSectionSeparator(debugOut);
+        reportMapLock(debugOut, "nodesMapLock", nodesMapLock);
+        reportMapLock(debugOut, "rscDfnMapLock", rscDfnMapLock);
+        reportMapLock(debugOut, "storPoolDfnMapLock", storPoolDfnMapLock);
+        printSectionSeparator(debugOut);
+    }
+
+    private void reportMapLock(PrintStream output, String label, ReadWriteLock readWriteLock)
+    {
+        StripedMapLock mapLock = (StripedMapLock) readWriteLock;
+
+        output.printf(
+            MAPLOCK_FORMAT,
+            label,
+            mapLock.isWriteLocked() ? "Y" : "N",
+            mapLock.getReadHoldCount(),
+            mapLock.getIntentReadHoldCount(),
+            mapLock.getIntentWriteHoldCount(),
+            mapLock.getQueueLength()
+        );
     }
 
     private void reportRwLock(PrintStream output, String label, ReadWriteLock readWriteLock)
@@ -0,0 +1,93 @@
+package com.linbit.linstor.debug;
+
+import javax.inject.Inject;
+import com.linbit.linstor.api.ApiCallPriority;
+import com.linbit.linstor.proto.PeerMessageScheduler;
+import com.linbit.linstor.security.AccessContext;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Displays statistics of the processing of received messages
+ */
+public class CmdDisplayMsgProcStats extends BaseDebugCmd
+{
+    private final PeerMessageScheduler msgScheduler;
+
+    @Inject
+    public CmdDisplayMsgProcStats(PeerMessageScheduler msgSchedulerRef)
+    {
+        super(
+            new String[]
+            {
+                "DspMsgProcStats"
+            },
+            "Display message processing statistics",
+            "Displays the number of messages being processed, the queue latency of each priority lane\n" +
+            "and the queue depth and wait time of each peer that has messages waiting for processing",
+            null,
+            null
+        );
+
+        msgScheduler = msgSchedulerRef;
+    }
+
+    @Override
+    public void execute(
+        PrintStream debugOut,
+        PrintStream debugErr,
+        AccessContext accCtx,
+        Map<String, String> parameters
+    ) throws Exception
+    {
+        debugOut.printf(
+            "    %-24s %d / %d\n",
+            "Messages in process:", msgScheduler.getInFlightCount(), msgScheduler.getMaxInFlightCount()
+        );
+        debugOut.printf("    %-24s %d\n", "Messages dispatched:", msgScheduler.getDispatchCount());
+        debugOut.printf("    %-24s %d\n", "Read throttle events:", msgScheduler.getThrottleCount());
+
+        debugOut.printf(
+            "%-10s %8s %10s %12s %14s %14s\n",
+            "Lane", "Queued", "In process", "Started", "Avg wait (ms)", "Max wait (ms)"
+        );
+        printSectionSeparator(debugOut);
+        for (ApiCallPriority lane : ApiCallPriority.values())
+        {
+            PeerMessageScheduler.LaneStats laneStats = msgScheduler.getLaneStats(lane);
+            long startedCount = laneStats.getStartedCount();
+            long avgWaitNanos = startedCount > 0 ? laneStats.getWaitNanosSum() / startedCount : 0;
+            debugOut.printf(
+                "%-10s %8d %10d %12d %14d %14d\n",
+                lane.name(),
+                laneStats.getQueuedCount(),
+                laneStats.getInFlightCount(),
+                startedCount,
+                TimeUnit.NANOSECONDS.toMillis(avgWaitNanos),
+                TimeUnit.NANOSECONDS.toMillis(laneStats.getMaxWaitNanos())
+            );
+        }
+        printSectionSeparator(debugOut);
+
+        List<PeerMessageScheduler.PeerQueueStats> peerStatsList = msgScheduler.getPeerQueueStats();
+        if (peerStatsList.isEmpty())
+        {
+            debugOut.println("No messages are waiting for processing.");
+        }
+        else
+        {
+            debugOut.printf("%-32s %8s %10s %s\n", "Peer", "Queued", "Wait (ms)", "Throttled");
+            printSectionSeparator(debugOut);
+            for (PeerMessageScheduler.PeerQueueStats peerStats : peerStatsList)
+            {
+                debugOut.printf(
+                    "%-32s %8d %10d %s\n",
+                    peerStats.peerName, peerStats.queueDepth, peerStats.waitMillis, peerStats.throttled ? "yes" : "no"
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.linbit.linstor.debug;
+
+import javax.inject.Inject;
+import com.linbit.ServiceName;
+import com.linbit.SystemService;
+import com.linbit.linstor.netcom.MessageBufferPool;
+import com.linbit.linstor.netcom.NetComWriteStats;
+import com.linbit.linstor.netcom.TcpConnectorService;
+import com.linbit.linstor.netcom.ssl.SslHandshakeStats;
+import com.linbit.linstor.netcom.ssl.SslTcpConnectorService;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.utils.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Displays statistics of the network communication services
+ */
+public class CmdDisplayNetComStats extends BaseDebugCmd
+{
+    private final Map<ServiceName, SystemService> systemServicesMap;
+
+    @Inject
+    public CmdDisplayNetComStats(Map<ServiceName, SystemService> systemServicesMapRef)
+    {
+        super(
+            new String[]
+            {
+                "DspNetComStats"
+            },
+            "Display network communication statistics",
+            "Displays selector thread, connection, buffer pool, write and TLS handshake statistics of the " +
+            "network communication services",
+            null,
+            null
+        );
+
+        systemServicesMap = systemServicesMapRef;
+    }
+
+    @Override
+    public void execute(
+        PrintStream debugOut,
+        PrintStream debugErr,
+        AccessContext accCtx,
+        Map<String, String> parameters
+    ) throws Exception
+    {
+        int svcCtr = 0;
+        for (Map.Entry<ServiceName, SystemService> sysSvcEntry : systemServicesMap.entrySet())
+        {
+            SystemService sysSvc = sysSvcEntry.getValue();
+            if (sysSvc instanceof TcpConnectorService)
+            {
+                TcpConnectorService netComSvc = (TcpConnectorService) sysSvc;
+                ++svcCtr;
+
+                debugOut.printf("Service instance %s\n", sysSvcEntry.getKey().getDisplayName());
+                printSectionSeparator(debugOut);
+
+                int[] connCounts = netComSvc.getSelectorConnectionCounts();
+                int workerThreads = netComSvc.getWorkerThreadCount();
+                debugOut.printf(
+                    "    %-24s %s\n",
+                    "Selector mode:",
+                    workerThreads > 0 ? "sharded, " + workerThreads + " worker threads" : "single selector thread"
+                );
+                int totalConns = 0;
+                for (int idx = 0; idx < connCounts.length; ++idx)
+                {
+                    debugOut.printf("    %-24s %d\n", "Thread " + idx + " connections:", connCounts[idx]);
+                    totalConns += connCounts[idx];
+                }
+                debugOut.printf("    %-24s %d\n", "Total connections:", totalConns);
+
+                MessageBufferPool bufferPool = netComSvc.getBufferPool();
+                debugOut.printf("    %-24s %d\n", "Buffer pool hits:", bufferPool.getHitCount());
+                debugOut.printf("    %-24s %d\n", "Buffer pool misses:", bufferPool.getMissCount());
+                debugOut.printf("    %-24s %d\n", "Buffer bytes in use:", bufferPool.getBytesOutstanding());
+                debugOut.printf("    %-24s %d\n", "Buffer bytes pooled:", bufferPool.getBytesPooled());
+
+                NetComWriteStats writeStats = netComSvc.getWriteStats();
+                long writeCalls = writeStats.getWriteCallCount();
+                long writeBytes = writeStats.getWriteByteCount();
+                long writeMsgs = writeStats.getWriteMessageCount();
+                debugOut.printf("    %-24s %d\n", "Write calls:", writeCalls);
+                debugOut.printf("    %-24s %d\n", "Bytes written:", writeBytes);
+                debugOut.printf("    %-24s %d\n", "Messages written:", writeMsgs);
+                if (writeCalls > 0)
+                {
+                    debugOut.printf("    %-24s %.1f\n", "Bytes per write call:", (double) writeBytes / writeCalls);
+                    debugOut.printf("    %-24s %.2f\n", "Messages per write call:", (double) writeMsgs / writeCalls);
+                }
+                debugOut.printf("    %-24s %d\n", "Compressed messages:", writeStats.getCompressedMessageCount());
+                debugOut.printf(
+                    "    %-24s %d\n", "Compression saved bytes:", writeStats.getCompressionSavedByteCount()
+                );
+                if (netComSvc instanceof SslTcpConnectorService)
+                {
+                    printHandshakeStats(debugOut, ((SslTcpConnectorService) netComSvc).getHandshakeStats());
+                }
+                debugOut.println();
+            }
+        }
+
+        if (svcCtr == 0)
+        {
+            debugOut.println("No network communication services are registered at this time.");
+        }
+    }
+
+    private void printHandshakeStats(PrintStream debugOut, SslHandshakeStats handshakeStats)
+    {
+        debugOut.printf("    %-24s %d\n", "Finished TLS handshakes:", handshakeStats.getFinishedHandshakeCount());
+        debugOut.printf("    %-24s %d\n", "Failed TLS handshakes:", handshakeStats.getFailedHandshakeCount());
+        LatencyHistogram duration = handshakeStats.getDuration();
+        long handshakeCount = duration.getCount();
+        if (handshakeCount > 0)
+        {
+            debugOut.printf(
+                "    %-24s %.3f\n",
+                "Avg handshake time (ms):",
+                duration.getSumNanos() / (double) handshakeCount / TimeUnit.MILLISECONDS.toNanos(1)
+            );
+        }
+        debugOut.printf("    %-24s %d\n", "Handshake tasks run:", handshakeStats.getDelegatedTaskCount());
+        debugOut.printf("    %-24s %d\n", "Handshake tasks pending:", handshakeStats.getRunningTaskCount());
+        debugOut.printf("    %-24s %d\n", "Handshakes rejected:", handshakeStats.getRejectedTaskCount());
+    }
+}
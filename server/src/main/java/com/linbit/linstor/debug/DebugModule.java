@@ -19,6 +19,9 @@ public class DebugModule extends AbstractModule
         commandsBinder.addBinding().to(CmdStartService.class);
         commandsBinder.addBinding().to(CmdEndService.class);
         commandsBinder.addBinding().to(CmdDisplayConnections.class);
+        commandsBinder.addBinding().to(CmdDisplayNetComStats.class);
+        commandsBinder.addBinding().to(CmdDisplayMsgProcStats.class);
+        commandsBinder.addBinding().to(CmdDisplayApiCallStats.class);
         commandsBinder.addBinding().to(CmdCloseConnection.class);
         commandsBinder.addBinding().to(CmdDisplaySystemStatus.class);
         commandsBinder.addBinding().to(CmdDisplayApis.class);
@@ -28,6 +31,7 @@ public class DebugModule extends AbstractModule
         commandsBinder.addBinding().to(CmdDisplayResourceDfn.class);
         commandsBinder.addBinding().to(CmdDisplayResource.class);
         commandsBinder.addBinding().to(CmdDisplayLockStatus.class);
+        commandsBinder.addBinding().to(CmdDisplayLockHolders.class);
         commandsBinder.addBinding().to(CmdDisplayTraceMode.class);
         commandsBinder.addBinding().to(CmdSetTraceMode.class);
         commandsBinder.addBinding().to(CmdDisplaySecLevel.class);
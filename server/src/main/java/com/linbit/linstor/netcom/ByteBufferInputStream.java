@@ -0,0 +1,81 @@
+package com.linbit.linstor.netcom;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream reading from a ByteBuffer, e.g. from a direct buffer of the {@link MessageBufferPool}
+ *
+ * The stream reads the bytes between the buffer's position and limit at the time of construction
+ * and does not modify the state of the buffer.
+ */
+class ByteBufferInputStream extends InputStream
+{
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer bufferRef)
+    {
+        buffer = bufferRef.duplicate();
+        buffer.mark();
+    }
+
+    @Override
+    public int read()
+    {
+        int value = -1;
+        if (buffer.hasRemaining())
+        {
+            value = buffer.get() & 0xFF;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] dst, int offset, int length)
+    {
+        int readCount = -1;
+        if (length == 0)
+        {
+            readCount = 0;
+        }
+        else
+        if (buffer.hasRemaining())
+        {
+            readCount = Math.min(length, buffer.remaining());
+            buffer.get(dst, offset, readCount);
+        }
+        return readCount;
+    }
+
+    @Override
+    public long skip(long count)
+    {
+        int skipCount = (int) Math.max(0, Math.min(count, buffer.remaining()));
+        buffer.position(buffer.position() + skipCount);
+        return skipCount;
+    }
+
+    @Override
+    public int available()
+    {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit)
+    {
+        buffer.mark();
+    }
+
+    @Override
+    public synchronized void reset()
+    {
+        buffer.reset();
+    }
+}
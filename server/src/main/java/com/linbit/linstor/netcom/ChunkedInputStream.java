@@ -0,0 +1,271 @@
+package com.linbit.linstor.netcom;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * InputStream over the data of the chunks of a {@link ChunkedMessage}
+ *
+ * Chunks are added by the thread that receives them, while the stream is read by the thread that
+ * processes the message. Reading blocks until the next chunk has been received. Each chunk is released
+ * as soon as its data has been read.
+ *
+ * The stream is considered full if it buffers {@code capacity} or more chunks. The receiving peer is
+ * expected to stop reading from the connection while the stream is full. The spaceAvailableCallback is
+ * run whenever a chunk was taken from a full stream, and when the stream is closed.
+ */
+class ChunkedInputStream extends InputStream
+{
+    private final Lock lock = new ReentrantLock();
+    private final Condition chunkAdded = lock.newCondition();
+    private final Deque<Message> chunks = new ArrayDeque<>();
+
+    private final long totalSize;
+    private final int capacity;
+    private final Runnable spaceAvailableCallback;
+
+    // Protected by lock
+    private long receivedSize = 0;
+    private boolean complete = false;
+    private boolean closed = false;
+    private @Nullable IOException failure = null;
+
+    // Only accessed by the reading thread
+    private long readSize = 0;
+    private @Nullable Message currentChunk = null;
+    private @Nullable ByteBuffer currentBuffer = null;
+
+    ChunkedInputStream(long totalSizeRef, int capacityRef, Runnable spaceAvailableCallbackRef)
+    {
+        totalSize = totalSizeRef;
+        capacity = capacityRef;
+        spaceAvailableCallback = spaceAvailableCallbackRef;
+    }
+
+    /**
+     * Adds a received chunk. Chunks added after the stream was closed or failed are released immediately.
+     */
+    void addChunk(Message chunk, boolean lastChunk)
+    {
+        lock.lock();
+        try
+        {
+            if (closed || failure != null || complete)
+            {
+                chunk.release();
+            }
+            else
+            {
+                receivedSize += chunk.getDataSize();
+                if (receivedSize > totalSize || (lastChunk && receivedSize != totalSize))
+                {
+                    chunk.release();
+                    failure = new IOException(
+                        "Chunked message data size of " + totalSize + " bytes does not match the size of " +
+                        "the received chunks"
+                    );
+                }
+                else
+                {
+                    chunks.add(chunk);
+                    complete = lastChunk;
+                }
+                chunkAdded.signalAll();
+            }
+        }
+        catch (IllegalMessageStateException msgStateExc)
+        {
+            chunk.release();
+            failure = new IOException("Chunk of a chunked message has an illegal state", msgStateExc);
+            chunkAdded.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aborts the stream if not all chunks have been received, e.g. because the connection was closed
+     */
+    void fail(IOException exc)
+    {
+        lock.lock();
+        try
+        {
+            if (!complete && failure == null)
+            {
+                failure = exc;
+                chunkAdded.signalAll();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    boolean isFull()
+    {
+        lock.lock();
+        try
+        {
+            return !closed && chunks.size() >= capacity;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        int value = -1;
+        ByteBuffer buffer = nextBuffer();
+        if (buffer != null)
+        {
+            value = buffer.get() & 0xFF;
+            ++readSize;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] dst, int offset, int length) throws IOException
+    {
+        int readCount = 0;
+        if (length > 0)
+        {
+            ByteBuffer buffer = nextBuffer();
+            if (buffer != null)
+            {
+                readCount = Math.min(length, buffer.remaining());
+                buffer.get(dst, offset, readCount);
+                readSize += readCount;
+            }
+            else
+            {
+                readCount = -1;
+            }
+        }
+        return readCount;
+    }
+
+    /**
+     * Returns the number of bytes of the message's data that have not been read yet.
+     * Unlike the general contract of this method, reading that number of bytes may block until
+     * all chunks have been received.
+     */
+    @Override
+    public int available()
+    {
+        return (int) Math.min(Integer.MAX_VALUE, totalSize - readSize);
+    }
+
+    @Override
+    public void close()
+    {
+        lock.lock();
+        try
+        {
+            closed = true;
+            for (Message chunk : chunks)
+            {
+                chunk.release();
+            }
+            chunks.clear();
+            chunkAdded.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        releaseCurrentChunk();
+        spaceAvailableCallback.run();
+    }
+
+    /**
+     * Returns a buffer with remaining data, blocking until the next chunk has been received if necessary
+     *
+     * @return A buffer with remaining data, or null if the end of the data has been reached
+     */
+    private @Nullable ByteBuffer nextBuffer() throws IOException
+    {
+        while ((currentBuffer == null || !currentBuffer.hasRemaining()) && readSize < totalSize)
+        {
+            releaseCurrentChunk();
+
+            boolean wasFull;
+            lock.lock();
+            try
+            {
+                while (chunks.isEmpty() && failure == null && !closed)
+                {
+                    chunkAdded.await();
+                }
+                if (closed)
+                {
+                    throw new IOException("Chunked message stream was closed");
+                }
+                if (failure != null)
+                {
+                    throw new IOException(failure.getMessage(), failure);
+                }
+                wasFull = chunks.size() >= capacity;
+                currentChunk = chunks.poll();
+            }
+            catch (InterruptedException interruptExc)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the next chunk of a message");
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            try
+            {
+                currentBuffer = currentChunk.getDataBuffer().duplicate();
+                currentBuffer.rewind();
+            }
+            catch (IllegalMessageStateException msgStateExc)
+            {
+                throw new IOException("Chunk of a chunked message has an illegal state", msgStateExc);
+            }
+
+            if (wasFull)
+            {
+                spaceAvailableCallback.run();
+            }
+        }
+        ByteBuffer buffer = currentBuffer;
+        if (buffer == null || !buffer.hasRemaining())
+        {
+            // end of data, the last chunk is no longer needed
+            releaseCurrentChunk();
+            buffer = null;
+        }
+        return buffer;
+    }
+
+    private void releaseCurrentChunk()
+    {
+        if (currentChunk != null)
+        {
+            currentChunk.release();
+            currentChunk = null;
+            currentBuffer = null;
+        }
+    }
+}
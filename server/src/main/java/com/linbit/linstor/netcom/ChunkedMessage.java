@@ -0,0 +1,241 @@
+package com.linbit.linstor.netcom;
+
+import com.linbit.ImplementationError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inbound message whose data is received as a sequence of chunks
+ *
+ * Messages with more data than fits into a single message are sent as a sequence of chunk messages
+ * if the receiving peer has announced support for chunked messages. Each chunk carries the
+ * {@link Message#CHUNK_FLAG} and the total data size of the chunked message in its header, the last chunk
+ * additionally carries the {@link Message#LAST_CHUNK_FLAG}. The chunks of a chunked message are sent
+ * without any other messages in between.
+ *
+ * The chunked message is queued for processing as soon as its first chunk has been received, and its data
+ * is streamed to the processing thread while the remaining chunks are being received. Therefore, only a
+ * limited number of chunks is buffered, instead of the complete data of the message.
+ */
+public class ChunkedMessage implements Message
+{
+    // Maximum data size of each chunk
+    // 1 MiB == 0x100000
+    public static final int MAX_CHUNK_SIZE = 0x100000;
+
+    // Number of received chunks that are buffered before the peer stops reading from the connection
+    public static final int CHUNK_BUFFER_COUNT = 4;
+
+    // Maximum total data size of a chunked message
+    // 1 GiB == 0x40000000
+    public static final long MAX_CHUNKED_MESSAGE_SIZE = 0x40000000L;
+
+    private final ByteBuffer headerBuffer;
+    private final long totalSize;
+    private final ChunkedInputStream chunkStream;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private boolean streamTaken = false;
+
+    /**
+     * Creates the chunked message from the header of its first chunk
+     *
+     * @param firstChunk The first chunk of the message
+     * @param spaceAvailableCallback Run whenever the message's stream is no longer full, see {@link #isFull()}
+     */
+    ChunkedMessage(Message firstChunk, Runnable spaceAvailableCallback) throws IllegalMessageStateException
+    {
+        totalSize = getChunkedSize(firstChunk);
+        if (totalSize < 0 || totalSize > MAX_CHUNKED_MESSAGE_SIZE)
+        {
+            throw new IllegalMessageStateException(
+                "Chunked message has an invalid data size of " + totalSize + " bytes"
+            );
+        }
+        headerBuffer = ByteBuffer.allocate(HEADER_SIZE);
+        int typeField = firstChunk.getType();
+        if (firstChunk.isCompressed())
+        {
+            typeField |= COMPRESSED_FLAG;
+        }
+        headerBuffer.putInt(TYPE_FIELD_OFFSET, typeField);
+        headerBuffer.putInt(LENGTH_FIELD_OFFSET, getDataSize());
+        chunkStream = new ChunkedInputStream(totalSize, CHUNK_BUFFER_COUNT, spaceAvailableCallback);
+    }
+
+    public static boolean isChunk(Message msg)
+    {
+        return (msg.getHeaderBuffer().getInt(TYPE_FIELD_OFFSET) & CHUNK_FLAG) != 0;
+    }
+
+    public static boolean isLastChunk(Message msg)
+    {
+        return (msg.getHeaderBuffer().getInt(TYPE_FIELD_OFFSET) & LAST_CHUNK_FLAG) != 0;
+    }
+
+    public static long getChunkedSize(Message msg)
+    {
+        return msg.getHeaderBuffer().getLong(CHUNKED_SIZE_FIELD_OFFSET);
+    }
+
+    /**
+     * Splits the data of an outbound message into chunks and adds them to the specified collection.
+     * The chunks reference the message's data instead of copying it.
+     */
+    static void splitIntoChunks(Message msg, Collection<Message> chunks) throws IllegalMessageStateException
+    {
+        byte[] data = msg.getData();
+        boolean compressed = msg.isCompressed();
+        int offset = 0;
+        boolean lastChunk = false;
+        while (!lastChunk)
+        {
+            int chunkSize = Math.min(data.length - offset, MAX_CHUNK_SIZE);
+            lastChunk = offset + chunkSize == data.length;
+
+            MessageData chunk = new MessageData(true);
+            chunk.setData(data, offset, chunkSize);
+            chunk.setCompressed(compressed);
+            chunk.setChunk(data.length, lastChunk);
+            chunks.add(chunk);
+            offset += chunkSize;
+        }
+    }
+
+    /**
+     * Adds a received chunk to the message's data. The message takes ownership of the chunk.
+     */
+    void addChunk(Message chunk)
+    {
+        chunkStream.addChunk(chunk, isLastChunk(chunk));
+    }
+
+    /**
+     * Aborts the message if not all chunks have been received. Reading the message's data fails afterwards.
+     */
+    void fail(IOException exc)
+    {
+        chunkStream.fail(exc);
+    }
+
+    /**
+     * Indicates whether the message buffers the maximum number of chunks that have not been read yet
+     */
+    boolean isFull()
+    {
+        return chunkStream.isFull();
+    }
+
+    public long getTotalSize()
+    {
+        return totalSize;
+    }
+
+    @Override
+    public byte[] getData() throws IllegalMessageStateException
+    {
+        throw new IllegalMessageStateException(
+            "The data of a chunked message can only be read using the message's data stream"
+        );
+    }
+
+    @Override
+    public void setData(byte[] data)
+    {
+        throw new ImplementationError("Attempt to set the data of an inbound chunked message");
+    }
+
+    @Override
+    public int getType()
+    {
+        return headerBuffer.getInt(TYPE_FIELD_OFFSET) & TYPE_MASK;
+    }
+
+    @Override
+    public boolean isCompressed()
+    {
+        return (headerBuffer.getInt(TYPE_FIELD_OFFSET) & COMPRESSED_FLAG) != 0;
+    }
+
+    @Override
+    public void setCompressed(boolean compressed)
+    {
+        throw new ImplementationError("Attempt to modify the header of an inbound chunked message");
+    }
+
+    @Override
+    public ByteBuffer getHeaderBuffer()
+    {
+        return headerBuffer;
+    }
+
+    @Override
+    public ByteBuffer getDataBuffer() throws IllegalMessageStateException
+    {
+        throw new IllegalMessageStateException("A chunked message does not have a data buffer");
+    }
+
+    @Override
+    public void allocateData(int size)
+    {
+        throw new ImplementationError("Attempt to allocate the data buffer of a chunked message");
+    }
+
+    /**
+     * Returns the total data size of the message, limited to Integer.MAX_VALUE
+     */
+    @Override
+    public int getDataSize()
+    {
+        return (int) Math.min(totalSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the stream of the message's data. Since the chunks are released as soon as they were read,
+     * the stream can only be taken once.
+     */
+    @Override
+    public synchronized InputStream getDataInputStream() throws IllegalMessageStateException
+    {
+        if (streamTaken)
+        {
+            throw new IllegalMessageStateException("The data of a chunked message can only be read once");
+        }
+        streamTaken = true;
+
+        InputStream dataIn = chunkStream;
+        if (isCompressed())
+        {
+            dataIn = MessageCompression.inflatingStream(chunkStream);
+        }
+        return dataIn;
+    }
+
+    @Override
+    public void retain()
+    {
+        if (refCount.getAndIncrement() <= 0)
+        {
+            throw new ImplementationError("Attempt to retain a chunked message that was already released");
+        }
+    }
+
+    @Override
+    public void release()
+    {
+        int count = refCount.decrementAndGet();
+        if (count == 0)
+        {
+            // Releases all buffered chunks, and any chunks that are received later
+            chunkStream.close();
+        }
+        else
+        if (count < 0)
+        {
+            throw new ImplementationError("Chunked message released more often than retained");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.linbit.linstor.netcom;
 
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 /**
@@ -20,17 +21,69 @@ public interface Message
     int TYPE_FIELD_SIZE = 4;
     int TYPE_FIELD_OFFSET = 0;
 
+    // Flags in the message type field
+    // The lower 16 bits contain the message type, see MessageTypes
+    int TYPE_MASK = 0xFFFF;
+    // The message's data is compressed, see MessageCompression
+    int COMPRESSED_FLAG = 0x10000;
+    // The message is a chunk of a chunked message, see ChunkedMessage
+    int CHUNK_FLAG = 0x20000;
+    // The message is the last chunk of a chunked message
+    int LAST_CHUNK_FLAG = 0x40000;
+
     // Header field for message length: 4 bytes (32 bits)
     int LENGTH_FIELD_SIZE = 4;
     int LENGTH_FIELD_OFFSET = 4;
 
+    // Header field for the total data size of a chunked message: 8 bytes (64 bits)
+    // Only used in the header of chunks, see ChunkedMessage
+    int CHUNKED_SIZE_FIELD_SIZE = 8;
+    int CHUNKED_SIZE_FIELD_OFFSET = 8;
+
     byte[] getData() throws IllegalMessageStateException;
 
     void setData(byte[] data) throws IllegalMessageStateException;
 
+    /**
+     * Returns the message type, without the flags of the type field
+     */
     int getType() throws IllegalMessageStateException;
 
+    boolean isCompressed();
+
+    /**
+     * Marks the message's data as compressed. Must only be set on outbound messages
+     * if the receiving peer supports compressed messages.
+     */
+    void setCompressed(boolean compressed);
+
     ByteBuffer getHeaderBuffer();
 
     ByteBuffer getDataBuffer() throws IllegalMessageStateException;
+
+    /**
+     * Allocates the buffer that receives the data of an inbound message
+     */
+    void allocateData(int size) throws IllegalMessageStateException;
+
+    int getDataSize() throws IllegalMessageStateException;
+
+    /**
+     * Returns a stream for reading the message's data
+     *
+     * The stream is only valid until the message is released, see {@link #release()}
+     */
+    InputStream getDataInputStream() throws IllegalMessageStateException;
+
+    /**
+     * Adds a reference to the message's data, which must be balanced by a call of {@link #release()}
+     */
+    void retain();
+
+    /**
+     * Releases a reference to the message's data. Pooled data is returned to the pool when the
+     * last reference is released. Must be called once for each inbound message after processing
+     * of the message has finished.
+     */
+    void release();
 }
@@ -0,0 +1,205 @@
+package com.linbit.linstor.netcom;
+
+import com.linbit.ImplementationError;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct buffers for the data of inbound messages
+ *
+ * Buffers are grouped into power-of-two size classes, ranging from {@link #MIN_CLASS_SIZE}
+ * to {@link Message#DEFAULT_MAX_DATA_SIZE}. Each size class retains a bounded number of released
+ * buffers for reuse, any additional released buffers are left to the garbage collector.
+ */
+public class MessageBufferPool
+{
+    // Smallest size class, 4 kiB
+    public static final int MIN_CLASS_SHIFT = 12;
+    public static final int MIN_CLASS_SIZE = 1 << MIN_CLASS_SHIFT;
+
+    // Largest size class, 16 MiB
+    public static final int MAX_CLASS_SHIFT = 24;
+    public static final int MAX_CLASS_SIZE = 1 << MAX_CLASS_SHIFT;
+
+    // Number of bytes that each size class may retain, at least one buffer is retained per size class
+    public static final int DEFAULT_CLASS_RETAIN_SIZE = 0x200000;
+
+    private static final int NO_SIZE_CLASS = -1;
+
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocateDirect(0);
+
+    private final ArrayBlockingQueue<ByteBuffer>[] sizeClasses;
+
+    private final AtomicLong hitCtr = new AtomicLong();
+    private final AtomicLong missCtr = new AtomicLong();
+    private final AtomicLong bytesOutstanding = new AtomicLong();
+    private final AtomicLong bytesPooled = new AtomicLong();
+
+    public MessageBufferPool()
+    {
+        this(DEFAULT_CLASS_RETAIN_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MessageBufferPool(int classRetainSize)
+    {
+        sizeClasses = new ArrayBlockingQueue[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+        for (int classIdx = 0; classIdx < sizeClasses.length; ++classIdx)
+        {
+            int bufferCount = Math.max(1, classRetainSize >>> (classIdx + MIN_CLASS_SHIFT));
+            sizeClasses[classIdx] = new ArrayBlockingQueue<>(bufferCount);
+        }
+    }
+
+    /**
+     * Returns a buffer with a limit of the specified size. The returned buffer has a reference count of 1.
+     */
+    public PooledBuffer acquire(int size)
+    {
+        PooledBuffer pooledBuffer;
+        if (size == 0)
+        {
+            pooledBuffer = new PooledBuffer(EMPTY_BUFFER.duplicate(), NO_SIZE_CLASS);
+        }
+        else
+        {
+            int classIdx = getSizeClass(size);
+            ByteBuffer buffer = null;
+            if (classIdx != NO_SIZE_CLASS)
+            {
+                buffer = sizeClasses[classIdx].poll();
+            }
+            if (buffer != null)
+            {
+                hitCtr.incrementAndGet();
+                bytesPooled.addAndGet(-buffer.capacity());
+                buffer.clear();
+            }
+            else
+            {
+                missCtr.incrementAndGet();
+                buffer = ByteBuffer.allocateDirect(
+                    classIdx != NO_SIZE_CLASS ? 1 << (classIdx + MIN_CLASS_SHIFT) : size
+                );
+            }
+            buffer.limit(size);
+            bytesOutstanding.addAndGet(buffer.capacity());
+            pooledBuffer = new PooledBuffer(buffer, classIdx);
+        }
+        return pooledBuffer;
+    }
+
+    private void recycle(PooledBuffer pooledBuffer)
+    {
+        ByteBuffer buffer = pooledBuffer.buffer;
+        bytesOutstanding.addAndGet(-buffer.capacity());
+        if (pooledBuffer.sizeClass != NO_SIZE_CLASS)
+        {
+            bytesPooled.addAndGet(buffer.capacity());
+            if (!sizeClasses[pooledBuffer.sizeClass].offer(buffer))
+            {
+                // size class is full, the buffer is left to the garbage collector
+                bytesPooled.addAndGet(-buffer.capacity());
+            }
+        }
+    }
+
+    static int getSizeClass(int size)
+    {
+        int classIdx;
+        if (size <= MIN_CLASS_SIZE)
+        {
+            classIdx = 0;
+        }
+        else
+        if (size > MAX_CLASS_SIZE)
+        {
+            classIdx = NO_SIZE_CLASS;
+        }
+        else
+        {
+            // ceil(log2(size))
+            int shift = Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+            classIdx = shift - MIN_CLASS_SHIFT;
+        }
+        return classIdx;
+    }
+
+    /**
+     * Number of buffer requests that were served by a buffer from the pool
+     */
+    public long getHitCount()
+    {
+        return hitCtr.get();
+    }
+
+    /**
+     * Number of buffer requests that required the allocation of a new buffer
+     */
+    public long getMissCount()
+    {
+        return missCtr.get();
+    }
+
+    /**
+     * Number of bytes in buffers that were acquired, but not yet released
+     */
+    public long getBytesOutstanding()
+    {
+        return bytesOutstanding.get();
+    }
+
+    /**
+     * Number of bytes in buffers that are retained by the pool for reuse
+     */
+    public long getBytesPooled()
+    {
+        return bytesPooled.get();
+    }
+
+    /**
+     * Reference counted buffer that is returned to the pool when the last reference is released
+     */
+    public final class PooledBuffer
+    {
+        private final ByteBuffer buffer;
+        private final int sizeClass;
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        private PooledBuffer(ByteBuffer bufferRef, int sizeClassRef)
+        {
+            buffer = bufferRef;
+            sizeClass = sizeClassRef;
+        }
+
+        public ByteBuffer getBuffer()
+        {
+            return buffer;
+        }
+
+        public void retain()
+        {
+            if (refCount.getAndIncrement() <= 0)
+            {
+                throw new ImplementationError("Attempt to retain a buffer that was already returned to the pool");
+            }
+        }
+
+        public void release()
+        {
+            int remaining = refCount.decrementAndGet();
+            if (remaining == 0)
+            {
+                recycle(this);
+            }
+            else
+            if (remaining < 0)
+            {
+                throw new ImplementationError("Buffer was released more often than it was retained");
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.linbit.linstor.netcom;
+
+import javax.annotation.Nullable;
+
+import java.io.DataInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression of the data of messages
+ *
+ * Compressed data consists of the size of the uncompressed data (4 bytes) followed by the deflated data.
+ * Messages with compressed data are marked by {@link Message#COMPRESSED_FLAG} in the type field of the
+ * message header. Peers only send compressed messages if the receiving peer has announced support for
+ * compressed messages.
+ */
+public class MessageCompression
+{
+    // Minimum data size of messages that are compressed
+    // 64 kiB == 0x10000
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 0x10000;
+
+    // Maximum size of the uncompressed data of a compressed message
+    // 256 MiB == 0x10000000
+    public static final int MAX_INFLATED_SIZE = 0x10000000;
+
+    private static final int SIZE_FIELD_SIZE = 4;
+
+    private MessageCompression()
+    {
+    }
+
+    /**
+     * Compresses the data of a message
+     *
+     * @return The compressed data, or null if compression does not reduce the size of the data
+     */
+    public static @Nullable byte[] compress(byte[] data)
+    {
+        byte[] result = null;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(data);
+            deflater.finish();
+
+            // Output that is not smaller than the uncompressed data is discarded
+            byte[] buffer = new byte[data.length];
+            if (buffer.length > SIZE_FIELD_SIZE)
+            {
+                ByteBuffer.wrap(buffer).putInt(0, data.length);
+                int offset = SIZE_FIELD_SIZE;
+                while (!deflater.finished() && offset < buffer.length)
+                {
+                    offset += deflater.deflate(buffer, offset, buffer.length - offset);
+                }
+                if (deflater.finished() && offset < buffer.length)
+                {
+                    result = Arrays.copyOf(buffer, offset);
+                }
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+        return result;
+    }
+
+    /**
+     * Restores the uncompressed data from the compressed data between the buffer's position and limit.
+     * The state of the buffer is not modified.
+     */
+    public static byte[] inflate(ByteBuffer compressedData) throws IllegalMessageStateException
+    {
+        ByteBuffer readBuffer = compressedData.duplicate();
+        if (readBuffer.remaining() < SIZE_FIELD_SIZE)
+        {
+            throw new IllegalMessageStateException(
+                "Compressed message data is too short to contain the uncompressed data size"
+            );
+        }
+        int size = readBuffer.getInt();
+        if (size < 0 || size > MAX_INFLATED_SIZE)
+        {
+            throw new IllegalMessageStateException(
+                "Compressed message data has an invalid uncompressed data size of " + size + " bytes"
+            );
+        }
+        byte[] input = new byte[readBuffer.remaining()];
+        readBuffer.get(input);
+
+        byte[] result = new byte[size];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(input);
+            int offset = 0;
+            boolean progress = true;
+            while (offset < size && progress)
+            {
+                int count = inflater.inflate(result, offset, size - offset);
+                offset += count;
+                progress = count > 0 || !(inflater.finished() || inflater.needsInput() || inflater.needsDictionary());
+            }
+            if (offset != size)
+            {
+                throw new IllegalMessageStateException(
+                    "Compressed message data inflated to " + offset + " bytes instead of the expected " +
+                    size + " bytes"
+                );
+            }
+        }
+        catch (DataFormatException dataFormatExc)
+        {
+            throw new IllegalMessageStateException("Compressed message data is corrupt", dataFormatExc);
+        }
+        finally
+        {
+            inflater.end();
+        }
+        return result;
+    }
+
+    /**
+     * Returns a stream of the uncompressed data of the compressed data that is read from the specified stream.
+     * Used for messages whose data is not buffered completely, such as {@link ChunkedMessage}s.
+     * Closing the returned stream closes the specified stream.
+     */
+    public static InputStream inflatingStream(InputStream compressedData) throws IllegalMessageStateException
+    {
+        final int size;
+        try
+        {
+            size = new DataInputStream(compressedData).readInt();
+        }
+        catch (IOException ioExc)
+        {
+            throw new IllegalMessageStateException(
+                "Compressed message data is too short to contain the uncompressed data size", ioExc
+            );
+        }
+        if (size < 0)
+        {
+            throw new IllegalMessageStateException(
+                "Compressed message data has an invalid uncompressed data size of " + size + " bytes"
+            );
+        }
+        return new InflatedInputStream(new InflaterInputStream(compressedData), size);
+    }
+
+    /**
+     * Limits the inflated data to the announced uncompressed data size and reports the exact number of
+     * remaining bytes, which the message processing relies on
+     */
+    private static class InflatedInputStream extends FilterInputStream
+    {
+        private int remaining;
+
+        InflatedInputStream(InputStream in, int sizeRef)
+        {
+            super(in);
+            remaining = sizeRef;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int value = -1;
+            if (remaining > 0)
+            {
+                value = in.read();
+                if (value == -1)
+                {
+                    throw new IOException("Compressed message data ended " + remaining + " bytes early");
+                }
+                --remaining;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] dst, int offset, int length) throws IOException
+        {
+            int readCount = length > 0 ? -1 : 0;
+            if (remaining > 0 && length > 0)
+            {
+                readCount = in.read(dst, offset, Math.min(length, remaining));
+                if (readCount == -1)
+                {
+                    throw new IOException("Compressed message data ended " + remaining + " bytes early");
+                }
+                remaining -= readCount;
+            }
+            return readCount;
+        }
+
+        @Override
+        public long skip(long count) throws IOException
+        {
+            long skipped = in.skip(Math.min(count, remaining));
+            remaining -= (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available()
+        {
+            return remaining;
+        }
+
+        @Override
+        public boolean markSupported()
+        {
+            return false;
+        }
+    }
+}
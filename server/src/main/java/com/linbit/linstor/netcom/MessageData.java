@@ -1,26 +1,41 @@
 package com.linbit.linstor.netcom;
 
+import javax.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
  * Abstract implementation of a message containing the plain data and header bytes
  * already wrapped in ByteBuffers for easier handling and some error checking.
+ *
+ * If a {@link MessageBufferPool} is specified, the data of inbound messages is received into
+ * a pooled direct buffer, which is returned to the pool when the message is released.
  */
 public class MessageData implements Message
 {
-    // TODO: Use ByteBuffer.allocateDirect(...) instead of ByteBuffer.wrap(...)
     protected final ByteBuffer headerBuffer;
     protected ByteBuffer dataBuffer;
 
     protected final byte[] headerBytes;
     protected byte[] dataBytes;
 
+    private final @Nullable MessageBufferPool bufferPool;
+    private @Nullable MessageBufferPool.PooledBuffer pooledData;
+
     private boolean forSend;
 
     public MessageData(boolean forSendRef)
+    {
+        this(forSendRef, null);
+    }
+
+    public MessageData(boolean forSendRef, @Nullable MessageBufferPool bufferPoolRef)
     {
         forSend = forSendRef;
+        bufferPool = bufferPoolRef;
 
         headerBytes = new byte[HEADER_SIZE];
         headerBuffer = ByteBuffer.wrap(headerBytes);
@@ -32,9 +47,19 @@ public class MessageData implements Message
     {
         if (dataBytes == null)
         {
-            throw new IllegalMessageStateException(
-                "Attempt to fetch content data from a message that is not ready for processing"
-            );
+            if (dataBuffer == null)
+            {
+                throw new IllegalMessageStateException(
+                    "Attempt to fetch content data from a message that is not ready for processing"
+                );
+            }
+            // Copy the data out of the pooled buffer or the slice of an array, the copy remains valid
+            // after the message was released
+            ByteBuffer readBuffer = dataBuffer.duplicate();
+            readBuffer.rewind();
+            byte[] data = new byte[readBuffer.remaining()];
+            readBuffer.get(data);
+            return data;
         }
         return dataBytes;
     }
@@ -42,6 +67,7 @@ public class MessageData implements Message
     @Override
     public void setData(byte[] data) throws IllegalMessageStateException
     {
+        releasePooledData();
         dataBytes = data;
         dataBuffer = ByteBuffer.wrap(data);
         if (forSend)
@@ -50,10 +76,151 @@ public class MessageData implements Message
         }
     }
 
+    /**
+     * Sets a range of the specified array as the message's data. The array is not copied.
+     */
+    public void setData(byte[] data, int offset, int length)
+    {
+        releasePooledData();
+        dataBytes = null;
+        dataBuffer = ByteBuffer.wrap(data, offset, length).slice();
+        if (forSend)
+        {
+            headerBuffer.putInt(LENGTH_FIELD_OFFSET, length);
+        }
+    }
+
+    /**
+     * Marks an outbound message as a chunk of a chunked message, see {@link ChunkedMessage}
+     */
+    public void setChunk(long chunkedSize, boolean lastChunk)
+    {
+        int typeField = headerBuffer.getInt(TYPE_FIELD_OFFSET) | CHUNK_FLAG;
+        if (lastChunk)
+        {
+            typeField |= LAST_CHUNK_FLAG;
+        }
+        headerBuffer.putInt(TYPE_FIELD_OFFSET, typeField);
+        headerBuffer.putLong(CHUNKED_SIZE_FIELD_OFFSET, chunkedSize);
+    }
+
+    @Override
+    public void allocateData(int size) throws IllegalMessageStateException
+    {
+        if (bufferPool != null && !forSend)
+        {
+            releasePooledData();
+            pooledData = bufferPool.acquire(size);
+            dataBytes = null;
+            dataBuffer = pooledData.getBuffer();
+        }
+        else
+        {
+            setData(new byte[size]);
+        }
+    }
+
+    @Override
+    public int getDataSize() throws IllegalMessageStateException
+    {
+        if (dataBuffer == null)
+        {
+            throw new IllegalMessageStateException(
+                "Attempt to fetch the content data size of a message that is not ready for processing"
+            );
+        }
+        return dataBuffer.limit();
+    }
+
+    @Override
+    public InputStream getDataInputStream() throws IllegalMessageStateException
+    {
+        InputStream dataIn;
+        if (isCompressed())
+        {
+            dataIn = new ByteArrayInputStream(MessageCompression.inflate(getRawDataBuffer()));
+        }
+        else
+        if (dataBytes == null)
+        {
+            dataIn = new ByteBufferInputStream(getRawDataBuffer());
+        }
+        else
+        {
+            dataIn = new ByteArrayInputStream(dataBytes);
+        }
+        return dataIn;
+    }
+
+    /**
+     * Returns a buffer for reading the message's data as it was sent, without inflating compressed data.
+     * The buffer shares its content with the message's data buffer, but has its own position and limit.
+     */
+    ByteBuffer getRawDataBuffer() throws IllegalMessageStateException
+    {
+        if (dataBuffer == null)
+        {
+            throw new IllegalMessageStateException(
+                "Attempt to fetch content data from a message that is not ready for processing"
+            );
+        }
+        ByteBuffer readBuffer = dataBuffer.duplicate();
+        readBuffer.rewind();
+        return readBuffer;
+    }
+
     @Override
     public int getType() throws IllegalMessageStateException
     {
-        return headerBuffer.getInt(TYPE_FIELD_OFFSET);
+        return headerBuffer.getInt(TYPE_FIELD_OFFSET) & TYPE_MASK;
+    }
+
+    @Override
+    public boolean isCompressed()
+    {
+        return (headerBuffer.getInt(TYPE_FIELD_OFFSET) & COMPRESSED_FLAG) != 0;
+    }
+
+    @Override
+    public void setCompressed(boolean compressed)
+    {
+        int typeField = headerBuffer.getInt(TYPE_FIELD_OFFSET);
+        if (compressed)
+        {
+            typeField |= COMPRESSED_FLAG;
+        }
+        else
+        {
+            typeField &= ~COMPRESSED_FLAG;
+        }
+        headerBuffer.putInt(TYPE_FIELD_OFFSET, typeField);
+    }
+
+    @Override
+    public void retain()
+    {
+        if (pooledData != null)
+        {
+            pooledData.retain();
+        }
+    }
+
+    @Override
+    public void release()
+    {
+        if (pooledData != null)
+        {
+            pooledData.release();
+        }
+    }
+
+    private void releasePooledData()
+    {
+        if (pooledData != null)
+        {
+            pooledData.release();
+            pooledData = null;
+        }
     }
 
     protected final void reset()
@@ -0,0 +1,71 @@
+package com.linbit.linstor.netcom;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the write operations and the compression of outbound messages of the peers of a connector
+ *
+ * Since peers gather multiple outbound messages into a single write operation,
+ * the ratio of bytes and messages per write call shows the effectiveness of the gathering.
+ */
+public class NetComWriteStats
+{
+    private final LongAdder writeCallCtr = new LongAdder();
+    private final LongAdder writeByteCtr = new LongAdder();
+    private final LongAdder writeMsgCtr = new LongAdder();
+    private final LongAdder compressedMsgCtr = new LongAdder();
+    private final LongAdder compressionSavedByteCtr = new LongAdder();
+
+    void writeCompleted(long byteCount, int msgCount)
+    {
+        writeCallCtr.increment();
+        writeByteCtr.add(byteCount);
+        writeMsgCtr.add(msgCount);
+    }
+
+    void messageCompressed(int uncompressedSize, int compressedSize)
+    {
+        compressedMsgCtr.increment();
+        compressionSavedByteCtr.add(uncompressedSize - compressedSize);
+    }
+
+    /**
+     * Number of write calls on the sockets
+     */
+    public long getWriteCallCount()
+    {
+        return writeCallCtr.sum();
+    }
+
+    /**
+     * Number of bytes written to the sockets
+     */
+    public long getWriteByteCount()
+    {
+        return writeByteCtr.sum();
+    }
+
+    /**
+     * Number of messages that were sent completely
+     */
+    public long getWriteMessageCount()
+    {
+        return writeMsgCtr.sum();
+    }
+
+    /**
+     * Number of messages that were sent compressed
+     */
+    public long getCompressedMessageCount()
+    {
+        return compressedMsgCtr.sum();
+    }
+
+    /**
+     * Number of bytes that were saved by compressing messages
+     */
+    public long getCompressionSavedByteCount()
+    {
+        return compressionSavedByteCtr.sum();
+    }
+}
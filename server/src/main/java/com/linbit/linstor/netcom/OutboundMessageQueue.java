@@ -0,0 +1,96 @@
+package com.linbit.linstor.netcom;
+
+import com.linbit.utils.MpscArrayQueue;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Queue of the outbound messages of a peer
+ *
+ * Messages are added by any thread that sends a message to the peer and taken by the selector thread
+ * that drives the peer's connection. Adding a message is lock-free as long as the bounded ring buffer
+ * has free slots. If the ring buffer is full, messages are added to an overflow queue, so that senders
+ * never block and messages are never dropped. While the overflow queue is in use, all senders add to it,
+ * and the selector thread only takes from it after the ring buffer has been drained, which preserves the
+ * order of the messages of each sending thread.
+ */
+class OutboundMessageQueue
+{
+    // Capacity of the lock-free ring buffer
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final MpscArrayQueue<Message> ringQueue;
+
+    // Protected by its own monitor
+    private final Deque<Message> overflowQueue = new ArrayDeque<>();
+    private volatile boolean overflowActive = false;
+
+    OutboundMessageQueue(int capacity)
+    {
+        ringQueue = new MpscArrayQueue<>(capacity);
+    }
+
+    /**
+     * Adds a message. May be called by any thread.
+     */
+    void add(Message msg)
+    {
+        if (overflowActive || !ringQueue.offer(msg))
+        {
+            synchronized (overflowQueue)
+            {
+                overflowQueue.add(msg);
+                overflowActive = true;
+            }
+        }
+    }
+
+    /**
+     * Takes the next message. Must only be called by the selector thread.
+     *
+     * @return The next message, or null if there is no message or if the next message is not visible yet
+     */
+    @Nullable Message poll()
+    {
+        Message msg = ringQueue.poll();
+        // Messages that were added to the ring buffer earlier must be taken before any overflow messages
+        if (msg == null && overflowActive && ringQueue.isEmpty())
+        {
+            synchronized (overflowQueue)
+            {
+                msg = overflowQueue.poll();
+                if (overflowQueue.isEmpty())
+                {
+                    overflowActive = false;
+                }
+            }
+        }
+        return msg;
+    }
+
+    boolean isEmpty()
+    {
+        return ringQueue.isEmpty() && !overflowActive;
+    }
+
+    int size()
+    {
+        int size = ringQueue.size();
+        if (overflowActive)
+        {
+            synchronized (overflowQueue)
+            {
+                size += overflowQueue.size();
+            }
+        }
+        return size;
+    }
+
+    int capacity()
+    {
+        return ringQueue.capacity();
+    }
+}
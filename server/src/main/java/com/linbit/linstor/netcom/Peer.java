@@ -2,6 +2,7 @@ package com.linbit.linstor.netcom;
 
 import com.linbit.ImplementationError;
 import com.linbit.ServiceName;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.ApiConsts;
 import com.linbit.linstor.api.prop.Property;
 import com.linbit.linstor.api.protobuf.common.Ping;
@@ -134,6 +135,42 @@ public interface Peer
      */
     void processInOrder(long peerSeq, Publisher<?> publisher);
 
+    /**
+     * Get a zero-based sequence number for this peer in the order of the messages of the given priority.
+     * Messages of {@link ApiCallPriority#HIGH high priority} are ordered separately from messages of normal priority.
+     */
+    default long getNextIncomingMessageSeq(ApiCallPriority priority)
+    {
+        return getNextIncomingMessageSeq();
+    }
+
+    /**
+     * Perform processing in a strictly ordered fashion with the other messages of the given priority.
+     *
+     * @param priority The priority whose sequence the peerSeq belongs to
+     * @param peerSeq A sequence number from {@link #getNextIncomingMessageSeq(ApiCallPriority)}
+     * @param publisher A publisher that will be subscribed to in strict order
+     */
+    default void processInOrder(ApiCallPriority priority, long peerSeq, Publisher<?> publisher)
+    {
+        processInOrder(peerSeq, publisher);
+    }
+
+    /**
+     * Same as {@link #processInOrder(ApiCallPriority, long, Publisher)}. If the connection is closed before the
+     * publisher was subscribed to, the publisher is not subscribed to anymore and the discardAction is run instead,
+     * e.g. to release the data of the message the publisher processes.
+     */
+    default void processInOrder(
+        ApiCallPriority priority,
+        long peerSeq,
+        Publisher<?> publisher,
+        Runnable discardAction
+    )
+    {
+        processInOrder(priority, peerSeq, publisher);
+    }
+
     /**
      * Send an API call to this peer.
      *
@@ -398,6 +435,28 @@ public interface Peer
 
     void setDynamicProperties(List<Property> dynamicPropListRef);
 
+    /**
+     * Enables the compression of large outbound messages. Must only be enabled after the peer
+     * has announced that it supports compressed messages.
+     */
+    void setCompressionEnabled(boolean enabled);
+
+    boolean isCompressionEnabled();
+
+    /**
+     * Enables sending oversized outbound messages as a sequence of chunks, see {@link ChunkedMessage}.
+     * Must only be enabled after the peer has announced that it supports chunked messages.
+     */
+    void setChunkedMessagesEnabled(boolean enabled);
+
+    boolean isChunkedMessagesEnabled();
+
+    /**
+     * Stops or resumes reading messages from the peer's connection, e.g. while too many messages
+     * of the peer are waiting for processing. May be called on any thread.
+     */
+    void setReadThrottled(boolean throttled);
+
     /**
      * Returns null if the given key has no registered dynamic property on the satellite.
      * That might be the case for non Satellite-peer but also for Satellites that do not have
@@ -385,4 +385,34 @@ public class PeerOffline implements Peer
     {
         return null;
     }
+
+    @Override
+    public void setCompressionEnabled(boolean enabled)
+    {
+        // no-op
+    }
+
+    @Override
+    public boolean isCompressionEnabled()
+    {
+        return false;
+    }
+
+    @Override
+    public void setChunkedMessagesEnabled(boolean enabled)
+    {
+        // no-op
+    }
+
+    @Override
+    public boolean isChunkedMessagesEnabled()
+    {
+        return false;
+    }
+
+    @Override
+    public void setReadThrottled(boolean throttled)
+    {
+        // no-op
+    }
 }
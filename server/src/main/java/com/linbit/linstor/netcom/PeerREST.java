@@ -383,6 +383,36 @@ public class PeerREST implements Peer
         return null;
     }
 
+    @Override
+    public void setCompressionEnabled(boolean enabled)
+    {
+        // no-op
+    }
+
+    @Override
+    public boolean isCompressionEnabled()
+    {
+        return false;
+    }
+
+    @Override
+    public void setChunkedMessagesEnabled(boolean enabled)
+    {
+        // no-op
+    }
+
+    @Override
+    public boolean isChunkedMessagesEnabled()
+    {
+        return false;
+    }
+
+    @Override
+    public void setReadThrottled(boolean throttled)
+    {
+        // no-op
+    }
+
     @Override
     public String toString()
     {
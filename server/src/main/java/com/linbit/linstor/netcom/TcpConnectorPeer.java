@@ -2,6 +2,7 @@ package com.linbit.linstor.netcom;
 
 import com.linbit.ImplementationError;
 import com.linbit.ServiceName;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.ApiConsts;
 import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
 import com.linbit.linstor.api.prop.Property;
@@ -25,16 +26,21 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -81,6 +87,13 @@ public class TcpConnectorPeer implements Peer
         FINISHED
     }
 
+    // Maximum number of outbound messages that are gathered into a single write operation
+    public static final int MAX_GATHER_MSG_COUNT = 64;
+
+    // Number of bytes after which no further outbound messages are gathered into a write operation
+    // 1 MiB == 0x100000
+    public static final int MAX_GATHER_SIZE = 0x100000;
+
     private final Node node;
 
     private final ErrorReporter errorReporter;
@@ -90,16 +103,33 @@ public class TcpConnectorPeer implements Peer
     private String peerId;
 
     private TcpConnector connector;
+    private final MessageBufferPool bufferPool;
+    private final NetComWriteStats writeStats;
 
     // Current inbound message
     protected Message msgIn;
 
     // Current outbound message; cached for quicker access
+    // Only accessed by the selector thread
     protected Message msgOut;
 
-    // Queue of pending outbound messages
-    // TODO: Put a capacity limit on the maximum number of queued outbound messages
-    protected final Deque<Message> msgOutQueue;
+    // Header buffer of the current outbound message, kept for resuming partially sent headers
+    private ByteBuffer msgOutHeaderBuffer;
+
+    // Header and data buffers of the outbound messages gathered for a write operation
+    protected final ByteBuffer[] gatherBuffers = new ByteBuffer[MAX_GATHER_MSG_COUNT * 2];
+
+    // Queue of pending outbound messages, filled by the sending threads without locking
+    private final OutboundMessageQueue msgOutQueue;
+
+    // Outbound messages that were taken from msgOutQueue by the selector thread, but not sent yet,
+    // including the chunks of oversized messages
+    // Only accessed by the selector thread
+    private final Deque<Message> msgOutPending = new ArrayDeque<>();
+
+    // Set if OP_WRITE was enabled for queued outbound messages. Only the sending thread that arms this flag
+    // enables OP_WRITE, so that a burst of messages does not contend on the selection key.
+    private final AtomicBoolean writeInterestArmed = new AtomicBoolean(false);
 
     protected SelectionKey selKey;
 
@@ -120,7 +150,7 @@ public class TcpConnectorPeer implements Peer
     // therefore requiring atomic read and write
     private volatile long msgSentCtr = 0;
     private volatile long msgRecvCtr = 0;
-    private volatile long msgSentSizePeak = 0;
+    private final AtomicLong msgSentSizePeak = new AtomicLong();
     private volatile long msgRecvSizePeak = 0;
 
     protected long lastPingSent = -1;
@@ -144,6 +174,13 @@ public class TcpConnectorPeer implements Peer
 
     private final AtomicLong nextIncomingMessageSeq = new AtomicLong();
     private final FluxSink<Tuple2<Long, Publisher<?>>> incomingMessageSink;
+    // High priority messages are ordered separately, so that they never wait for messages of normal priority
+    private final AtomicLong nextIncomingPriorityMessageSeq = new AtomicLong();
+    private final FluxSink<Tuple2<Long, Publisher<?>>> incomingPriorityMessageSink;
+    // Messages whose publisher was passed to one of the sinks but not subscribed to yet, guarded by itself.
+    // A sink may never subscribe to its queued publishers, their messages are discarded when the connection closes.
+    private final Set<PendingMessage> pendingMessages = new HashSet<>();
+    private boolean pendingMessagesDiscarded = false;
 
     private AtomicLong nextApiCallId = new AtomicLong(1);
     private Map<Long, FluxSink<ByteArrayInputStream>> openRpcs = Collections.synchronizedMap(new TreeMap<>());
@@ -153,11 +190,28 @@ public class TcpConnectorPeer implements Peer
 
     private final Map<String, Property> dynamicProperties = new HashMap<>();
 
+    // Set if the peer has announced that it supports compressed messages
+    private volatile boolean compressionEnabled = false;
+
+    // Set if the peer has announced that it supports chunked messages
+    private volatile boolean chunkedMessagesEnabled = false;
+
+    // Chunked inbound message that is still receiving chunks
+    private volatile ChunkedMessage msgInChunked = null;
+
+    // Set while the queue of finished inbound messages has reached MAX_INCOMING_QUEUE_SIZE
+    private volatile boolean inQueueFull = false;
+
+    // Set while too many of the peer's messages are waiting for processing, see setReadThrottled()
+    private volatile boolean readThrottled = false;
+
     protected TcpConnectorPeer(
         ErrorReporter errorReporterRef,
         CommonSerializer commonSerializerRef,
         String peerIdRef,
         TcpConnector connectorRef,
+        MessageBufferPool bufferPoolRef,
+        NetComWriteStats writeStatsRef,
         SelectionKey key,
         AccessContext accCtx,
         Node nodeRef
@@ -167,15 +221,17 @@ public class TcpConnectorPeer implements Peer
         commonSerializer = commonSerializerRef;
         peerId = peerIdRef;
         connector = connectorRef;
+        bufferPool = bufferPoolRef;
+        writeStats = writeStatsRef;
         node = nodeRef;
-        msgOutQueue = new LinkedList<>();
+        msgOutQueue = new OutboundMessageQueue(OutboundMessageQueue.DEFAULT_CAPACITY);
 
         // Do not use createMessage() here!
         // The SslTcpConnectorPeer has not initialized SSLEngine instance yet,
         // so a NullPointerException would be thrown in createMessage().
         // After initialization of the sslEngine, msgIn will be overwritten with
         // a reference to a valid instance.
-        msgIn = new MessageData(false);
+        msgIn = new MessageData(false, bufferPool);
 
         selKey = key;
         peerAccCtx = accCtx;
@@ -195,8 +251,13 @@ public class TcpConnectorPeer implements Peer
 
         finishedMsgInQueue = new LinkedList<>();
 
+        incomingMessageSink = createOrderedSink(errorReporterRef);
+        incomingPriorityMessageSink = createOrderedSink(errorReporterRef);
+    }
+
+    private FluxSink<Tuple2<Long, Publisher<?>>> createOrderedSink(ErrorReporter errorReporterRef)
+    {
         UnicastProcessor<Tuple2<Long, Publisher<?>>> processor = UnicastProcessor.create();
-        incomingMessageSink = processor.sink();
         processor
             .transform(OrderingFlux::order)
             .flatMap(Function.identity(), Integer.MAX_VALUE)
@@ -208,6 +269,7 @@ public class TcpConnectorPeer implements Peer
                 exc -> errorReporterRef.reportError(
                     exc, null, null, "Uncaught exception in processor for peer '" + this + "'")
             );
+        return processor.sink();
     }
 
     @Override
@@ -280,7 +342,8 @@ public class TcpConnectorPeer implements Peer
         {
             currentReadPhase = Phase.HEADER;
         }
-        return new MessageData(forSend);
+        // Only the data of inbound messages is received into pooled buffers
+        return new MessageData(forSend, forSend ? null : bufferPool);
     }
 
     @Override
@@ -290,28 +353,23 @@ public class TcpConnectorPeer implements Peer
         boolean connFlag = connected;
         if (connFlag)
         {
-            synchronized (this)
+            long msgSize = msg.getDataSize();
+            if (msgSize > msgSentSizePeak.get())
             {
-                long msgSize = msg.getData().length;
-                if (msgSize > msgSentSizePeak)
-                {
-                    msgSentSizePeak = msgSize;
-                }
+                msgSentSizePeak.accumulateAndGet(msgSize, Math::max);
+            }
 
-                // Queue the message for sending
-                if (msgOut == null)
-                {
-                    msgOut = msg;
-                }
-                else
-                {
-                    msgOutQueue.add(msg);
-                }
+            // Queue the message for sending
+            msgOutQueue.add(msg);
 
+            if (writeInterestArmed.compareAndSet(false, true))
+            {
                 try
                 {
                     enableOpInterest(OP_WRITE);
-                    connector.wakeup();
+                    // wake up the selector that drives this connection, which is not necessarily
+                    // the connector's main selector if the connector is sharded
+                    selKey.selector().wakeup();
                 }
                 catch (IllegalStateException illState)
                 {
@@ -323,24 +381,51 @@ public class TcpConnectorPeer implements Peer
         return connFlag;
     }
 
-    protected void enableOpInterest(int op)
+    /**
+     * Disables OP_WRITE after all outbound messages have been sent. If a message was queued concurrently,
+     * OP_WRITE is enabled again, either by this method or by the sending thread.
+     * Must only be called by the selector thread.
+     */
+    protected void disarmWriteInterest()
+    {
+        try
+        {
+            // OP_WRITE must be disabled before the flag is cleared, otherwise this could
+            // disable OP_WRITE after a sending thread has enabled it
+            disableInterestOp(OP_WRITE);
+            writeInterestArmed.set(false);
+            if (!msgOutQueue.isEmpty() && writeInterestArmed.compareAndSet(false, true))
+            {
+                enableOpInterest(OP_WRITE);
+            }
+        }
+        catch (IllegalStateException illState)
+        {
+            // No-op; Subclasses of illState can be thrown
+            // when the connection has been closed
+        }
+    }
+
+    // The interest operations are modified by the selector thread as well as by the threads that send messages
+    // or that consume the data of chunked messages, see updateReadInterest()
+    protected synchronized void enableOpInterest(int op)
     {
         opInterest |= op;
         selKey.interestOps(opInterest);
     }
 
-    protected boolean isInterestOpEnabled(int op)
+    protected synchronized boolean isInterestOpEnabled(int op)
     {
         return (opInterest & op) == op;
     }
 
-    protected void disableInterestOp(int op)
+    protected synchronized void disableInterestOp(int op)
     {
         opInterest &= ~op;
         selKey.interestOps(opInterest);
     }
 
-    protected void setOpInterest(int op)
+    protected synchronized void setOpInterest(int op)
     {
         opInterest = op;
         selKey.interestOps(op);
@@ -353,7 +438,18 @@ public class TcpConnectorPeer implements Peer
         try
         {
             Message msg = createMessage();
-            msg.setData(data);
+            byte[] compressedData = null;
+            if (compressionEnabled && data.length >= MessageCompression.DEFAULT_COMPRESSION_THRESHOLD)
+            {
+                compressedData = MessageCompression.compress(data);
+            }
+            if (compressedData != null)
+            {
+                writeStats.messageCompressed(data.length, compressedData.length);
+            }
+            msg.setData(compressedData != null ? compressedData : data);
+            msg.setCompressed(compressedData != null);
+            // Oversized messages are split into chunks by the selector thread, see pullQueuedMessage()
             isConnected = sendMessage(msg);
         }
         catch (IllegalMessageStateException exc)
@@ -388,6 +484,84 @@ public class TcpConnectorPeer implements Peer
         incomingMessageSink.next(Tuples.of(peerSeq, publisher));
     }
 
+    @Override
+    public long getNextIncomingMessageSeq(ApiCallPriority priority)
+    {
+        return priority == ApiCallPriority.HIGH ?
+            nextIncomingPriorityMessageSeq.getAndIncrement() :
+            nextIncomingMessageSeq.getAndIncrement();
+    }
+
+    @Override
+    public void processInOrder(ApiCallPriority priority, long peerSeq, Publisher<?> publisher)
+    {
+        if (priority == ApiCallPriority.HIGH)
+        {
+            incomingPriorityMessageSink.next(Tuples.of(peerSeq, publisher));
+        }
+        else
+        {
+            incomingMessageSink.next(Tuples.of(peerSeq, publisher));
+        }
+    }
+
+    @Override
+    public void processInOrder(
+        ApiCallPriority priority,
+        long peerSeq,
+        Publisher<?> publisher,
+        Runnable discardAction
+    )
+    {
+        PendingMessage pendingMsg = new PendingMessage(discardAction);
+        boolean discarded;
+        synchronized (pendingMessages)
+        {
+            discarded = pendingMessagesDiscarded;
+            if (!discarded)
+            {
+                pendingMessages.add(pendingMsg);
+            }
+        }
+        if (discarded)
+        {
+            pendingMsg.discard();
+        }
+        // Emitted even if discarded, so that the sequence of the sink has no gap
+        processInOrder(
+            priority,
+            peerSeq,
+            Flux.defer(() -> pendingMsg.claim() ? Flux.from(publisher) : Flux.empty())
+        );
+    }
+
+    /**
+     * Runs the discard actions of all messages whose publisher was not subscribed to yet, and of all messages
+     * that are passed to processInOrder() afterwards
+     */
+    private void discardPendingMessages()
+    {
+        List<PendingMessage> discardList;
+        synchronized (pendingMessages)
+        {
+            pendingMessagesDiscarded = true;
+            discardList = new ArrayList<>(pendingMessages);
+            pendingMessages.clear();
+        }
+        for (PendingMessage pendingMsg : discardList)
+        {
+            pendingMsg.discard();
+        }
+    }
+
+    int getPendingMessageCount()
+    {
+        synchronized (pendingMessages)
+        {
+            return pendingMessages.size();
+        }
+    }
+
     @Override
     public Flux<ByteArrayInputStream> apiCall(String apiCallName, byte[] data)
     {
@@ -501,9 +675,19 @@ public class TcpConnectorPeer implements Peer
         connected = false;
         authenticated = false;
 
+        // The messages are not processed anymore once the connection is closed
+        discardPendingMessages();
+
         // deactivate all interest in READ or WRITE operations
         setOpInterest(0);
 
+        ChunkedMessage chunkedMsg = msgInChunked;
+        if (chunkedMsg != null)
+        {
+            msgInChunked = null;
+            chunkedMsg.fail(new IOException("The connection was closed while receiving a chunked message"));
+        }
+
         synchronized (openRpcs)
         {
             // preventing ConcurrentModificationException with "#apiCall's fluxSink.onDispose(...openRpcs.remove(...))
@@ -583,26 +767,42 @@ public class TcpConnectorPeer implements Peer
         selKey = selKeyRef;
     }
 
-    protected void nextOutMessage()
+    protected void nextOutMessage() throws IllegalMessageStateException
     {
-        synchronized (this)
+        msgOut = pollOutMessage();
+        ++msgSentCtr;
+    }
+
+    private Message pollOutMessage() throws IllegalMessageStateException
+    {
+        if (msgOutPending.isEmpty())
+        {
+            pullQueuedMessage();
+        }
+        return msgOutPending.poll();
+    }
+
+    /**
+     * Moves the next queued outbound message to the pending messages. Messages that exceed the maximum
+     * chunk size are split into chunks if the peer supports chunked messages.
+     *
+     * @return False if there was no queued message
+     */
+    private boolean pullQueuedMessage() throws IllegalMessageStateException
+    {
+        Message msg = msgOutQueue.poll();
+        if (msg != null)
         {
-            msgOut = msgOutQueue.pollFirst();
-            if (msgOut == null)
+            if (chunkedMessagesEnabled && msg.getDataSize() > ChunkedMessage.MAX_CHUNK_SIZE)
             {
-                try
-                {
-                    // No more outbound messages present, disable OP_WRITE
-                    disableInterestOp(OP_WRITE);
-                }
-                catch (IllegalStateException illState)
-                {
-                    // No-op; Subclasses of illState can be thrown
-                    // when the connection has been closed
-                }
+                ChunkedMessage.splitIntoChunks(msg, msgOutPending);
+            }
+            else
+            {
+                msgOutPending.add(msg);
             }
-            ++msgSentCtr;
         }
+        return msg != null;
     }
 
     @Override
@@ -634,7 +834,7 @@ public class TcpConnectorPeer implements Peer
     @Override
     public int outQueueCapacity()
     {
-        return Integer.MAX_VALUE;
+        return msgOutQueue.capacity();
     }
 
     @Override
@@ -658,7 +858,7 @@ public class TcpConnectorPeer implements Peer
     @Override
     public long msgSentMaxSize()
     {
-        return msgSentSizePeak;
+        return msgSentSizePeak.get();
     }
 
     @Override
@@ -845,9 +1045,10 @@ public class TcpConnectorPeer implements Peer
     public Message nextCurrentMsgIn()
     {
         Message message = finishedMsgInQueue.poll();
-        if (finishedMsgInQueue.size() < MAX_INCOMING_QUEUE_SIZE && !isInterestOpEnabled(OP_READ))
+        if (inQueueFull && finishedMsgInQueue.size() < MAX_INCOMING_QUEUE_SIZE)
         {
-            enableOpInterest(OP_READ);
+            inQueueFull = false;
+            updateReadInterest();
         }
         return message;
     }
@@ -925,7 +1126,7 @@ public class TcpConnectorPeer implements Peer
         {
             dataSize = Message.DEFAULT_MAX_DATA_SIZE;
         }
-        msgIn.setData(new byte[dataSize]);
+        msgIn.allocateData(dataSize);
         currentReadPhase = currentReadPhase.getNextPhase();
     }
 
@@ -953,61 +1154,105 @@ public class TcpConnectorPeer implements Peer
         throws IllegalMessageStateException, IOException
     {
         WriteState state = WriteState.UNFINISHED;
-        switch (currentWritePhase)
+        int msgCount = gatherOutMessages();
+        if (msgCount > 0)
         {
-            case HEADER:
-                {
-                    ByteBuffer headerBuffer = msgOut.getHeaderBuffer();
-                    outChannel.write(headerBuffer);
-                    if (!headerBuffer.hasRemaining())
-                    {
-                        currentWritePhase = currentWritePhase.getNextPhase();
-                        state = writeData(outChannel, state);
-                    }
-                }
-                break;
-            case DATA:
-                state = writeData(outChannel, state);
-                break;
-            default:
-                throw new ImplementationError(
-                    String.format(
-                        "Missing case label for enum member '%s'",
-                        currentWritePhase.name()
-                    ),
-                    null
-                );
+            long writeSize = outChannel.write(gatherBuffers, 0, msgCount * 2);
+            state = finishGatheredMessages(msgCount, writeSize);
         }
-        if (state == WriteState.FINISHED)
+        if (msgOut == null)
         {
-            currentWritePhase = Phase.HEADER;
-            nextOutMessage();
+            // No more outbound messages present, disable OP_WRITE
+            disarmWriteInterest();
         }
         return state;
     }
 
-    private WriteState writeData(SocketChannel outChannel, WriteState stateRef)
-        throws IOException, IllegalMessageStateException
+    /**
+     * Collects the buffers of the current outbound message and of as many queued outbound messages
+     * as fit into a single write operation. The header and data buffers of the n-th gathered
+     * message are stored in gatherBuffers[2n] and gatherBuffers[2n + 1].
+     *
+     * @return Number of gathered messages
+     */
+    protected int gatherOutMessages() throws IllegalMessageStateException
     {
-        WriteState state = stateRef;
-        ByteBuffer dataBuffer = msgOut.getDataBuffer();
-        outChannel.write(dataBuffer);
-        if (!dataBuffer.hasRemaining())
+        int msgCount = 0;
+        if (msgOut == null)
+        {
+            msgOut = pollOutMessage();
+        }
+        if (msgOut != null)
         {
-            // Finished sending the message
+            if (msgOutHeaderBuffer == null)
+            {
+                msgOutHeaderBuffer = msgOut.getHeaderBuffer();
+            }
+            ByteBuffer dataBuffer = msgOut.getDataBuffer();
+            gatherBuffers[0] = msgOutHeaderBuffer;
+            gatherBuffers[1] = dataBuffer;
+            long gatherSize = msgOutHeaderBuffer.remaining() + dataBuffer.remaining();
+            msgCount = 1;
+
+            while (msgOutPending.size() < MAX_GATHER_MSG_COUNT - 1 && pullQueuedMessage())
+            {
+                // pull queued messages until enough messages are pending for gathering
+            }
+            Iterator<Message> msgIter = msgOutPending.iterator();
+            while (msgIter.hasNext() && msgCount < MAX_GATHER_MSG_COUNT && gatherSize < MAX_GATHER_SIZE)
+            {
+                Message queuedMsg = msgIter.next();
+                ByteBuffer queuedHeaderBuffer = queuedMsg.getHeaderBuffer();
+                ByteBuffer queuedDataBuffer = queuedMsg.getDataBuffer();
+                gatherBuffers[msgCount * 2] = queuedHeaderBuffer;
+                gatherBuffers[msgCount * 2 + 1] = queuedDataBuffer;
+                gatherSize += queuedHeaderBuffer.remaining() + queuedDataBuffer.remaining();
+                ++msgCount;
+            }
+        }
+        return msgCount;
+    }
+
+    /**
+     * Advances the outbound queue past all gathered messages that were sent completely
+     * and updates the write statistics
+     *
+     * @return FINISHED if at least the current outbound message was sent completely, UNFINISHED otherwise
+     */
+    protected WriteState finishGatheredMessages(int msgCount, long writeSize) throws IllegalMessageStateException
+    {
+        WriteState state = WriteState.UNFINISHED;
+        int msgIdx = 0;
+        while (msgIdx < msgCount &&
+            !gatherBuffers[msgIdx * 2].hasRemaining() && !gatherBuffers[msgIdx * 2 + 1].hasRemaining())
+        {
+            msgOutHeaderBuffer = null;
+            nextOutMessage();
             state = WriteState.FINISHED;
-            currentWritePhase = currentWritePhase.getNextPhase();
+            ++msgIdx;
+        }
+        if (msgIdx < msgCount)
+        {
+            // The partially sent message is now the current outbound message
+            msgOutHeaderBuffer = gatherBuffers[msgIdx * 2];
+            currentWritePhase = msgOutHeaderBuffer.hasRemaining() ? Phase.HEADER : Phase.DATA;
+        }
+        else
+        {
+            currentWritePhase = Phase.HEADER;
         }
+        Arrays.fill(gatherBuffers, 0, msgCount * 2, null);
+
+        writeStats.writeCompleted(writeSize, msgIdx);
         return state;
     }
 
-
     protected void addToQueue(Message msg)
     {
         try
         {
             // This method is single-threaded, no need to synchronize
-            long msgSize = msg.getData().length;
+            long msgSize = msg.getDataSize();
             if (msgSize > msgRecvSizePeak)
             {
                 msgRecvSizePeak = msgSize;
@@ -1021,6 +1266,25 @@ public class TcpConnectorPeer implements Peer
             );
         }
 
+        if (ChunkedMessage.isChunk(msg))
+        {
+            addChunk(msg);
+        }
+        else
+        {
+            ChunkedMessage chunkedMsg = msgInChunked;
+            if (chunkedMsg != null)
+            {
+                msgInChunked = null;
+                chunkedMsg.fail(new IOException("A chunked message was interrupted by another message"));
+                updateReadInterest();
+            }
+            queueMsgIn(msg);
+        }
+    }
+
+    private void queueMsgIn(Message msg)
+    {
         finishedMsgInQueue.add(msg);
         if (finishedMsgInQueue.size() >= MAX_INCOMING_QUEUE_SIZE)
         {
@@ -1034,7 +1298,111 @@ public class TcpConnectorPeer implements Peer
              * when a message which is ready to process is consumed (i.e.
              * leaves our queue).
              */
-            disableInterestOp(OP_READ);
+            inQueueFull = true;
+            updateReadInterest();
+        }
+    }
+
+    /**
+     * Adds a received chunk to the current chunked message. The first chunk of a chunked message
+     * creates the chunked message and queues it for processing.
+     */
+    private void addChunk(Message chunk)
+    {
+        ChunkedMessage chunkedMsg = msgInChunked;
+        if (chunkedMsg == null)
+        {
+            try
+            {
+                chunkedMsg = new ChunkedMessage(chunk, this::chunkedMessageSpaceAvailable);
+                msgInChunked = chunkedMsg;
+                queueMsgIn(chunkedMsg);
+            }
+            catch (IllegalMessageStateException exc)
+            {
+                errorReporter.logError("Peer %s: Discarding chunk: %s", this, exc.getMessage());
+                chunk.release();
+            }
+        }
+        if (chunkedMsg != null)
+        {
+            chunkedMsg.addChunk(chunk);
+            if (ChunkedMessage.isLastChunk(chunk))
+            {
+                msgInChunked = null;
+            }
+            // Stop reading from the connection until the processing of the chunked message catches up
+            updateReadInterest();
+        }
+    }
+
+    @Override
+    public void setReadThrottled(boolean throttled)
+    {
+        readThrottled = throttled;
+        if (throttled)
+        {
+            updateReadInterest();
+        }
+        else
+        {
+            resumeReading();
+        }
+    }
+
+    /**
+     * Called by the thread that reads the data of a chunked message
+     */
+    private void chunkedMessageSpaceAvailable()
+    {
+        resumeReading();
+    }
+
+    /**
+     * Enables OP_READ if reading is no longer blocked. Called by threads other than the selector thread.
+     */
+    private void resumeReading()
+    {
+        updateReadInterest();
+        try
+        {
+            selKey.selector().wakeup();
+        }
+        catch (IllegalStateException illState)
+        {
+            // No-op; Subclasses of illState can be thrown
+            // when the connection has been closed
+        }
+    }
+
+    /**
+     * Enables OP_READ unless the queue of finished inbound messages is full, the chunked message that
+     * is currently being received buffers the maximum number of chunks or reading is throttled,
+     * and disables it otherwise
+     */
+    protected synchronized void updateReadInterest()
+    {
+        ChunkedMessage chunkedMsg = msgInChunked;
+        boolean readBlocked = inQueueFull || readThrottled || (chunkedMsg != null && chunkedMsg.isFull());
+        try
+        {
+            if (readBlocked)
+            {
+                if (isInterestOpEnabled(OP_READ))
+                {
+                    disableInterestOp(OP_READ);
+                }
+            }
+            else
+            if (connected && !isInterestOpEnabled(OP_READ))
+            {
+                enableOpInterest(OP_READ);
+            }
+        }
+        catch (IllegalStateException illState)
+        {
+            // No-op; Subclasses of illState can be thrown
+            // when the connection has been closed
         }
     }
 
@@ -1077,4 +1445,67 @@ public class TcpConnectorPeer implements Peer
             return dynamicProperties.get(keyRef);
         }
     }
+
+    @Override
+    public void setCompressionEnabled(boolean enabled)
+    {
+        compressionEnabled = enabled;
+    }
+
+    @Override
+    public boolean isCompressionEnabled()
+    {
+        return compressionEnabled;
+    }
+
+    @Override
+    public void setChunkedMessagesEnabled(boolean enabled)
+    {
+        chunkedMessagesEnabled = enabled;
+    }
+
+    @Override
+    public boolean isChunkedMessagesEnabled()
+    {
+        return chunkedMessagesEnabled;
+    }
+
+    /**
+     * A message passed to processInOrder() that is either processed by subscribing to its publisher or
+     * discarded, but never both
+     */
+    private class PendingMessage
+    {
+        private final Runnable discardAction;
+        private final AtomicBoolean handled = new AtomicBoolean(false);
+
+        PendingMessage(Runnable discardActionRef)
+        {
+            discardAction = discardActionRef;
+        }
+
+        /**
+         * Returns true if the publisher of the message may be subscribed to
+         */
+        boolean claim()
+        {
+            boolean claimed = handled.compareAndSet(false, true);
+            if (claimed)
+            {
+                synchronized (pendingMessages)
+                {
+                    pendingMessages.remove(this);
+                }
+            }
+            return claimed;
+        }
+
+        void discard()
+        {
+            if (handled.compareAndSet(false, true))
+            {
+                discardAction.run();
+            }
+        }
+    }
 }
@@ -44,9 +44,12 @@ import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.nio.channels.UnsupportedAddressTypeException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -68,6 +71,9 @@ public class TcpConnectorService implements Runnable, TcpConnector
 
     private static final long REINIT_THROTTLE_TIME = 3000L;
 
+    // Maximum time to wait for a selector worker to end while uninitializing
+    private static final long WORKER_STOP_TIMEOUT = 3000L;
+
     public static final int DEFAULT_PORT_VALUE = 9977;
     public static final TcpPortNumber DEFAULT_PORT;
 
@@ -82,13 +88,25 @@ public class TcpConnectorService implements Runnable, TcpConnector
     // Maximum number of connections to accept in one selector iteration
     public static final int MAX_ACCEPT_LOOP = 100;
 
+    // Number of worker selectors if sharding is enabled without an explicit count
+    public static final int DEFAULT_WORKER_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
     protected final ErrorReporter errorReporter;
     protected final CommonSerializer commonSerializer;
     private MessageProcessor msgProcessor;
 
+    // Pool of direct buffers for the data of inbound messages, shared by all peers of this connector
+    protected final MessageBufferPool bufferPool = new MessageBufferPool();
+
+    // Write operation counters of all peers of this connector
+    protected final NetComWriteStats writeStats = new NetComWriteStats();
+
     // Set by shutdown() to shut down the selector loop
     private AtomicBoolean shutdownFlag;
 
+    // Set by a selector worker to request reinitialization by the selector loop
+    private final AtomicBoolean reinitRequested = new AtomicBoolean(false);
+
     // Selector loop thread
     private Thread selectorLoopThread;
 
@@ -161,9 +179,14 @@ public class TcpConnectorService implements Runnable, TcpConnector
     // Privileged access context for e.g. setting peer to node
     private final AccessContext privilegedAccCtx;
 
-    // Selector for all connections
+    // Selector for all connections, or only for the server socket if sharding is enabled
     Selector serverSelector;
 
+    // Number of worker selectors, 0 == all connections are driven by the serverSelector
+    private int workerThreadCount;
+
+    // Worker selectors for the connections if sharding is enabled
+    private volatile List<SelectorWorker> selectorWorkers;
 
     public TcpConnectorService(
         ErrorReporter errorReporterRef,
@@ -183,6 +206,8 @@ public class TcpConnectorService implements Runnable, TcpConnector
 
         serverSocket    = null;
         serverSelector  = null;
+        workerThreadCount = 0;
+        selectorWorkers = Collections.emptyList();
         errorReporter   = errorReporterRef;
         commonSerializer = commonSerializerRef;
         msgProcessor    = msgProcessorRef;
@@ -211,9 +236,18 @@ public class TcpConnectorService implements Runnable, TcpConnector
                 socketChannel.socket().setTcpNoDelay(true);
                 String peerId = address.getAddress().getHostAddress() + ":" + address.getPort();
                 SelectionKey connKey;
-                synchronized (syncObj)
+
+                Selector connSel = srvSel;
+                Object connSyncObj = syncObj;
+                SelectorWorker worker = selectWorker();
+                if (worker != null)
                 {
-                    srvSel.wakeup();
+                    connSel = worker.selector;
+                    connSyncObj = worker.workerSyncObj;
+                }
+                synchronized (connSyncObj)
+                {
+                    connSel.wakeup();
                     boolean connected = socketChannel.connect(address);
                     if (connected)
                     {
@@ -222,13 +256,13 @@ public class TcpConnectorService implements Runnable, TcpConnector
                         // as the controller does not know about this peer (we didnt return yet)
                         // we will register for no operation.
                         // As soon as the controller tries to send a message, that will trigger the OP_WRITE anyways
-                        connKey = socketChannel.register(srvSel, 0);
+                        connKey = socketChannel.register(connSel, 0);
                     }
                     else
                     {
                         // if connect returns false we will receive OP_CONNECT
                         // and we will need to call the finishConnection()
-                        connKey = socketChannel.register(srvSel, OP_CONNECT);
+                        connKey = socketChannel.register(connSel, OP_CONNECT);
                     }
                     peer = createTcpConnectorPeer(peerId, connKey, true, node);
                     connKey.attach(peer);
@@ -419,6 +453,10 @@ public class TcpConnectorService implements Runnable, TcpConnector
         {
             srvSel.wakeup();
         }
+        for (SelectorWorker worker : selectorWorkers)
+        {
+            worker.selector.wakeup();
+        }
     }
 
     @Override
@@ -445,340 +483,376 @@ public class TcpConnectorService implements Runnable, TcpConnector
         {
             try
             {
-                try
+                selectOrProcessPending(serverSelector, syncObj, peersWithFinishedMessages);
+                processSelectedKeys(serverSelector, peersWithFinishedMessages);
+
+                if (reinitRequested.getAndSet(false))
                 {
-                    if (peersWithFinishedMessages.isEmpty())
-                    {
-                        // Block until I/O operations are ready to be performed
-                        // on at least one of the channels, or until the selection
-                        // operation is interrupted (e.g., using wakeup())
-                        int selectCount = serverSelector.select();
+                    // A selector worker failed, recover the same way as if the server selector failed
+                    reinitialize();
+                }
+            }
+            catch (ClosedSelectorException selectExc)
+            {
+                // Selector became inoperative. Log error and attempt to reinitialize.
+                errorReporter.reportError(selectExc);
+                reinitialize();
+            }
+            catch (IOException ioExc)
+            {
+                // I/O error while selecting (likely), or an uncaught I/O error
+                // while performing I/O on a channel (should not happen)
+                // Log error and attempt to reinitialize.
+                errorReporter.logDebug("IOException: %s", ioExc.getLocalizedMessage());
+                errorReporter.reportError(Level.TRACE, ioExc);
+                reinitialize();
+            }
+            catch (Exception exc)
+            {
+                // Uncaught exception. Log error and shut down.
+                errorReporter.reportError(exc);
+                break;
+            }
+            catch (ImplementationError implErr)
+            {
+                // Uncaught exception. Log error and shut down.
+                errorReporter.reportError(implErr);
+                break;
+            }
+        }
+        uninitialize();
 
-                        synchronized (syncObj)
-                        {
-                            // wait for the syncObj to get released
+        synchronized (this)
+        {
+            selectorLoopThread = null;
+        }
+    }
 
-                            // Ensure making some progress in the case that
-                            // the blocking select() call is repeatedly interrupted
-                            // (e.g., using wakeup()) before having selected any
-                            // channels
-                            if (selectCount <= 0)
-                            {
-                                /*
-                                 * this selectNow has to be inside the synchronized block as otherwise
-                                 * it would be possible that the TcpConnector thread is already past
-                                 * the previous .select(), THEN another thread (i.e. reconnector)
-                                 * calls .wakeup() which is immediately consumed by the .selectNow()
-                                 * BEFORE the thread calling .wakeup() could register some new
-                                 * listeners. We suspect that we ended up in a deadlock occasionally
-                                 * because of this.
-                                 */
-                                serverSelector.selectNow();
-                            }
-                        }
+    /**
+     * Blocks until I/O operations are ready on the selector, or processes one of the finished inbound
+     * messages of each peer that still has pending messages
+     */
+    private void selectOrProcessPending(
+        Selector selector,
+        Object selectorSyncObj,
+        LinkedList<Peer> peersWithFinishedMessages
+    )
+        throws IOException
+    {
+        try
+        {
+            if (peersWithFinishedMessages.isEmpty())
+            {
+                // Block until I/O operations are ready to be performed
+                // on at least one of the channels, or until the selection
+                // operation is interrupted (e.g., using wakeup())
+                int selectCount = selector.select();
 
-                    }
-                    else
+                synchronized (selectorSyncObj)
+                {
+                    // wait for the syncObj to get released
+
+                    // Ensure making some progress in the case that
+                    // the blocking select() call is repeatedly interrupted
+                    // (e.g., using wakeup()) before having selected any
+                    // channels
+                    if (selectCount <= 0)
                     {
+                        /*
+                         * this selectNow has to be inside the synchronized block as otherwise
+                         * it would be possible that the TcpConnector thread is already past
+                         * the previous .select(), THEN another thread (i.e. reconnector)
+                         * calls .wakeup() which is immediately consumed by the .selectNow()
+                         * BEFORE the thread calling .wakeup() could register some new
+                         * listeners. We suspect that we ended up in a deadlock occasionally
+                         * because of this.
+                         */
+                        selector.selectNow();
+                    }
+                }
 
-                        ListIterator<Peer> listIterator = peersWithFinishedMessages.listIterator();
-                        while (listIterator.hasNext())
-                        {
-                            try
-                            {
-                                boolean finished = true;
-                                Peer peer = listIterator.next();
-                                if (peer.hasNextMsgIn())
-                                {
-                                    msgProcessor.processMessage(peer.nextCurrentMsgIn(), this, peer);
-                                    finished = false;
-                                }
+            }
+            else
+            {
 
-                                if (finished)
-                                {
-                                    listIterator.remove();
-                                }
-                            }
-                            catch (CancelledKeyException ignored)
-                            {
-                                // Selection key no longer valid
-                                // Cleaned up by the next select() or selectNow() operation
+                ListIterator<Peer> listIterator = peersWithFinishedMessages.listIterator();
+                while (listIterator.hasNext())
+                {
+                    try
+                    {
+                        boolean finished = true;
+                        Peer peer = listIterator.next();
+                        if (peer.hasNextMsgIn())
+                        {
+                            msgProcessor.processMessage(peer.nextCurrentMsgIn(), this, peer);
+                            finished = false;
+                        }
 
-                            }
+                        if (finished)
+                        {
+                            listIterator.remove();
                         }
+                    }
+                    catch (CancelledKeyException ignored)
+                    {
+                        // Selection key no longer valid
+                        // Cleaned up by the next select() or selectNow() operation
 
-                        // we tried to process one message from each waiting peer.
-                        // now we see if we have new operations (read, write, accept, connect)
-                        // if peers still have more messages, they have to wait until the next
-                        // loop-cycle (fair scheduling).
-                        serverSelector.selectNow();
                     }
                 }
-                catch (CancelledKeyException ignored)
+
+                // we tried to process one message from each waiting peer.
+                // now we see if we have new operations (read, write, accept, connect)
+                // if peers still have more messages, they have to wait until the next
+                // loop-cycle (fair scheduling).
+                selector.selectNow();
+            }
+        }
+        catch (CancelledKeyException ignored)
+        {
+            // Selection key no longer valid
+            // Cleaned up by the next select() or selectNow() operation
+        }
+    }
+
+    /**
+     * Performs the I/O operations for all keys that the last select operation reported as ready
+     */
+    private void processSelectedKeys(Selector selector, LinkedList<Peer> peersWithFinishedMessages)
+    {
+        Iterator<SelectionKey> keysIter = selector.selectedKeys().iterator();
+        while (keysIter.hasNext())
+        {
+            SelectionKey currentKey = null;
+            try
+            {
+                currentKey = keysIter.next();
+                keysIter.remove();
+
+                // Skip all operations if determining ready operations fails
+                int ops = 0;
+                ops = currentKey.readyOps();
+                if ((ops & OP_ACCEPT) == 0 && currentKey.attachment() == null)
                 {
-                    // Selection key no longer valid
-                    // Cleaned up by the next select() or selectNow() operation
+                    // Connections are registered together with their peer, see registerPeer().
+                    // Skip a key without a peer instead of failing the selector loop.
+                    ops = 0;
                 }
 
-
-                Iterator<SelectionKey> keysIter = serverSelector.selectedKeys().iterator();
-                while (keysIter.hasNext())
+                if ((ops & OP_READ) != 0)
                 {
-                    SelectionKey currentKey = null;
+                    TcpConnectorPeer connPeer = null;
                     try
                     {
-                        currentKey = keysIter.next();
-                        keysIter.remove();
-
-                        // Skip all operations if determining ready operations fails
-                        int ops = 0;
-                        ops = currentKey.readyOps();
-
-                        if ((ops & OP_READ) != 0)
+                        connPeer = (TcpConnectorPeer) currentKey.attachment();
+                        ReadState state = connPeer.read((SocketChannel) currentKey.channel());
+                        switch (state)
                         {
-                            TcpConnectorPeer connPeer = null;
-                            try
-                            {
-                                connPeer = (TcpConnectorPeer) currentKey.attachment();
-                                ReadState state = connPeer.read((SocketChannel) currentKey.channel());
-                                switch (state)
+                            case UNFINISHED:
+                                break;
+                            case FINISHED:
+                                // Chunks of chunked messages do not queue a new message
+                                if (connPeer.hasNextMsgIn())
                                 {
-                                    case UNFINISHED:
-                                        break;
-                                    case FINISHED:
-                                        msgProcessor.processMessage(connPeer.nextCurrentMsgIn(), this, connPeer);
-                                        if (connPeer.hasNextMsgIn())
-                                        {
-                                            peersWithFinishedMessages.add(connPeer);
-                                        }
-                                        break;
-                                    case END_OF_STREAM:
-                                        if (connPeer.getNode() != null)
-                                        {
-                                            errorReporter.logInfo(
-                                                "Remote satellite peer %s has closed the connection.",
-                                                connPeer.peerAddress()
-                                            );
-                                        }
-                                        closeConnection(currentKey, true);
-                                        break;
-                                    default:
-                                        throw new ImplementationError(
-                                            String.format(
-                                                "Missing case label for enum member '%s'",
-                                                state.name()
-                                            ),
-                                            null
-                                        );
+                                    msgProcessor.processMessage(connPeer.nextCurrentMsgIn(), this, connPeer);
+                                }
+                                if (connPeer.hasNextMsgIn())
+                                {
+                                    peersWithFinishedMessages.add(connPeer);
                                 }
-                            }
-                            catch (NotYetConnectedException connExc)
-                            {
-                                // This might possibly happen if an outbound connection is
-                                // marked as READ interested before establishing the connection
-                                // is finished; if the Selector would even report it as ready
-                                // in this case.
-                                // Anyway, the reason would be an implementation flaw of some
-                                // kind, therefore, log this error and then treat the connection's
-                                // state as a protocol error and close the connection.
-                                errorReporter.reportError(new ImplementationError(connExc));
-                                closeConnection(currentKey, true);
-                            }
-                            catch (IllegalMessageStateException msgStateExc)
-                            {
-                                errorReporter.reportError(
-                                    new ImplementationError(
-                                        "A message object with an illegal state was registered " +
-                                        "as the target of an I/O read operation",
-                                        msgStateExc
-                                    )
-                                );
-                                closeConnection(currentKey, true);
-                            }
-                            catch (IOException ioExc)
-                            {
-                                // Protocol error - I/O error while reading a message
-                                // Close the connection
-                                errorReporter.reportError(
-                                    Level.TRACE, ioExc, connPeer.getAccessContext(), connPeer,
-                                    "I/O exception while attempting to receive data from the peer"
-                                );
-                                closeConnection(currentKey, true);
-                            }
-                        }
-                        else
-                        if ((ops & OP_ACCEPT) != 0)
-                        {
-                            try
-                            {
-                                acceptConnection(currentKey);
-                            }
-                            catch (ClosedChannelException closeExc)
-                            {
-                                // May be thrown by accept() if the server socket is closed
-                                // Attempt to reinitialize to recover
-                                reinitialize();
-                                // Break out of iterating over keys, because those are all
-                                // invalid after reinitialization, and the set of keys may have
-                                // been modified too
-                                break;
-                            }
-                            catch (NotYetBoundException unboundExc)
-                            {
-                                // Generated if accept() is invoked on an unbound server socket
-                                // This should not happen, unless there is an
-                                // implementation error somewhere.
-                                // Attempt to reinitialize to recover
-                                reinitialize();
-                                // Break out of iterating over keys, because those are all
-                                // invalid after reinitialization, and the set of keys may have
-                                // been modified too
-                                break;
-                            }
-                            catch (ClosedSelectorException closeExc)
-                            {
-                                // Throw by accept() if the selector is closed
-                                // Attempt to reinitialize to recover
-                                reinitialize();
-                                // Break out of iterating over keys, because those are all
-                                // invalid after reinitialization, and the set of keys may have
-                                // been modified too
                                 break;
-                            }
-                            catch (IOException ioExc)
-                            {
-                                errorReporter.reportError(
-                                    Level.TRACE, ioExc, null, null,
-                                    "I/O exception while attempting to accept a peer connection"
-                                );
-                            }
-                        }
-                        else
-                        if ((ops & OP_WRITE) != 0)
-                        {
-                            TcpConnectorPeer connPeer = null;
-                            try
-                            {
-                                connPeer = (TcpConnectorPeer) currentKey.attachment();
-                                connPeer.write((SocketChannel) currentKey.channel());
-                            }
-                            catch (NotYetConnectedException connExc)
-                            {
-                                // This might possibly happen if an outbound connection is
-                                // marked as WRITE interested before establishing the connection
-                                // is finished; if the Selector would even report it as ready
-                                // in this case.
-                                // Anyway, the reason would be an implementation flaw of some
-                                // kind, therefore, log this error and then treat the connection's
-                                // state as a protocol error and close the connection.
-                                errorReporter.reportError(new ImplementationError(connExc));
-                                closeConnection(currentKey, true);
-                            }
-                            catch (IllegalMessageStateException msgStateExc)
-                            {
-                                errorReporter.reportError(
-                                    new ImplementationError(
-                                        "A message object with an illegal state was registered " +
-                                        "as the target of an I/O write operation",
-                                        msgStateExc
-                                    )
-                                );
-                                closeConnection(currentKey, true);
-                            }
-                            catch (IOException ioExc)
-                            {
-                                // Protocol error - I/O error while writing a message
-                                // Close channel / disconnect peer, invalidate SelectionKey
-                                // Close the connection
-                                errorReporter.reportError(
-                                    Level.TRACE, ioExc, connPeer.getAccessContext(), connPeer,
-                                    "I/O exception while attempting to send data to the peer"
-                                );
-                                closeConnection(currentKey, true);
-                            }
-                        }
-                        else
-                        if ((ops & OP_CONNECT) != 0)
-                        {
-                            TcpConnectorPeer connPeer = null;
-                            try
-                            {
-                                connPeer = (TcpConnectorPeer) currentKey.attachment();
-                                establishConnection(currentKey);
-                            }
-                            catch (IOException ioExc)
-                            {
-                                AccessContext peerAccCtx = null;
-                                if (connPeer != null)
+                            case END_OF_STREAM:
+                                if (connPeer.getNode() != null)
                                 {
-                                    peerAccCtx = connPeer.getAccessContext();
+                                    errorReporter.logInfo(
+                                        "Remote satellite peer %s has closed the connection.",
+                                        connPeer.peerAddress()
+                                    );
                                 }
-                                errorReporter.reportError(
-                                    Level.TRACE, ioExc, peerAccCtx, connPeer,
-                                    "I/O exception while attempting to connect to the peer"
+                                closeConnection(currentKey, true);
+                                break;
+                            default:
+                                throw new ImplementationError(
+                                    String.format(
+                                        "Missing case label for enum member '%s'",
+                                        state.name()
+                                    ),
+                                    null
                                 );
-                            }
                         }
                     }
-                    catch (CancelledKeyException keyExc)
+                    catch (NotYetConnectedException connExc)
                     {
-                        if (currentKey != null)
-                        {
-                            closeConnection(currentKey, true);
-                        }
+                        // This might possibly happen if an outbound connection is
+                        // marked as READ interested before establishing the connection
+                        // is finished; if the Selector would even report it as ready
+                        // in this case.
+                        // Anyway, the reason would be an implementation flaw of some
+                        // kind, therefore, log this error and then treat the connection's
+                        // state as a protocol error and close the connection.
+                        errorReporter.reportError(new ImplementationError(connExc));
+                        closeConnection(currentKey, true);
+                    }
+                    catch (IllegalMessageStateException msgStateExc)
+                    {
+                        errorReporter.reportError(
+                            new ImplementationError(
+                                "A message object with an illegal state was registered " +
+                                "as the target of an I/O read operation",
+                                msgStateExc
+                            )
+                        );
+                        closeConnection(currentKey, true);
+                    }
+                    catch (IOException ioExc)
+                    {
+                        // Protocol error - I/O error while reading a message
+                        // Close the connection
+                        errorReporter.reportError(
+                            Level.TRACE, ioExc, connPeer.getAccessContext(), connPeer,
+                            "I/O exception while attempting to receive data from the peer"
+                        );
+                        closeConnection(currentKey, true);
+                    }
+                }
+                else
+                if ((ops & OP_ACCEPT) != 0)
+                {
+                    try
+                    {
+                        acceptConnection(currentKey);
+                    }
+                    catch (ClosedChannelException closeExc)
+                    {
+                        // May be thrown by accept() if the server socket is closed
+                        // Attempt to reinitialize to recover
+                        reinitialize();
+                        // Break out of iterating over keys, because those are all
+                        // invalid after reinitialization, and the set of keys may have
+                        // been modified too
+                        break;
+                    }
+                    catch (NotYetBoundException unboundExc)
+                    {
+                        // Generated if accept() is invoked on an unbound server socket
+                        // This should not happen, unless there is an
+                        // implementation error somewhere.
+                        // Attempt to reinitialize to recover
+                        reinitialize();
+                        // Break out of iterating over keys, because those are all
+                        // invalid after reinitialization, and the set of keys may have
+                        // been modified too
+                        break;
+                    }
+                    catch (ClosedSelectorException closeExc)
+                    {
+                        // Throw by accept() if the selector is closed
+                        // Attempt to reinitialize to recover
+                        reinitialize();
+                        // Break out of iterating over keys, because those are all
+                        // invalid after reinitialization, and the set of keys may have
+                        // been modified too
+                        break;
                     }
-                    catch (IllegalStateException illState)
+                    catch (IOException ioExc)
                     {
-                        if (currentKey != null)
+                        errorReporter.reportError(
+                            Level.TRACE, ioExc, null, null,
+                            "I/O exception while attempting to accept a peer connection"
+                        );
+                    }
+                }
+                else
+                if ((ops & OP_WRITE) != 0)
+                {
+                    TcpConnectorPeer connPeer = null;
+                    try
+                    {
+                        connPeer = (TcpConnectorPeer) currentKey.attachment();
+                        connPeer.write((SocketChannel) currentKey.channel());
+                    }
+                    catch (NotYetConnectedException connExc)
+                    {
+                        // This might possibly happen if an outbound connection is
+                        // marked as WRITE interested before establishing the connection
+                        // is finished; if the Selector would even report it as ready
+                        // in this case.
+                        // Anyway, the reason would be an implementation flaw of some
+                        // kind, therefore, log this error and then treat the connection's
+                        // state as a protocol error and close the connection.
+                        errorReporter.reportError(new ImplementationError(connExc));
+                        closeConnection(currentKey, true);
+                    }
+                    catch (IllegalMessageStateException msgStateExc)
+                    {
+                        errorReporter.reportError(
+                            new ImplementationError(
+                                "A message object with an illegal state was registered " +
+                                "as the target of an I/O write operation",
+                                msgStateExc
+                            )
+                        );
+                        closeConnection(currentKey, true);
+                    }
+                    catch (IOException ioExc)
+                    {
+                        // Protocol error - I/O error while writing a message
+                        // Close channel / disconnect peer, invalidate SelectionKey
+                        // Close the connection
+                        errorReporter.reportError(
+                            Level.TRACE, ioExc, connPeer.getAccessContext(), connPeer,
+                            "I/O exception while attempting to send data to the peer"
+                        );
+                        closeConnection(currentKey, true);
+                    }
+                }
+                else
+                if ((ops & OP_CONNECT) != 0)
+                {
+                    TcpConnectorPeer connPeer = null;
+                    try
+                    {
+                        connPeer = (TcpConnectorPeer) currentKey.attachment();
+                        establishConnection(currentKey);
+                    }
+                    catch (IOException ioExc)
+                    {
+                        AccessContext peerAccCtx = null;
+                        if (connPeer != null)
                         {
-                            errorReporter.reportError(
-                                new ImplementationError(
-                                    "Unhandled IllegalStateException",
-                                    illState
-                                ),
-                                null,
-                                (Peer) currentKey.attachment(),
-                                null
-                            );
-                            closeConnection(currentKey, true);
+                            peerAccCtx = connPeer.getAccessContext();
                         }
+                        errorReporter.reportError(
+                            Level.TRACE, ioExc, peerAccCtx, connPeer,
+                            "I/O exception while attempting to connect to the peer"
+                        );
                     }
                 }
             }
-            catch (ClosedSelectorException selectExc)
+            catch (CancelledKeyException keyExc)
             {
-                // Selector became inoperative. Log error and attempt to reinitialize.
-                errorReporter.reportError(selectExc);
-                reinitialize();
-            }
-            catch (IOException ioExc)
-            {
-                // I/O error while selecting (likely), or an uncaught I/O error
-                // while performing I/O on a channel (should not happen)
-                // Log error and attempt to reinitialize.
-                errorReporter.logDebug("IOException: %s", ioExc.getLocalizedMessage());
-                errorReporter.reportError(Level.TRACE, ioExc);
-                reinitialize();
-            }
-            catch (Exception exc)
-            {
-                // Uncaught exception. Log error and shut down.
-                errorReporter.reportError(exc);
-                break;
+                if (currentKey != null)
+                {
+                    closeConnection(currentKey, true);
+                }
             }
-            catch (ImplementationError implErr)
+            catch (IllegalStateException illState)
             {
-                // Uncaught exception. Log error and shut down.
-                errorReporter.reportError(implErr);
-                break;
+                if (currentKey != null)
+                {
+                    errorReporter.reportError(
+                        new ImplementationError(
+                            "Unhandled IllegalStateException",
+                            illState
+                        ),
+                        null,
+                        (Peer) currentKey.attachment(),
+                        null
+                    );
+                    closeConnection(currentKey, true);
+                }
             }
         }
-        uninitialize();
-
-        synchronized (this)
-        {
-            selectorLoopThread = null;
-        }
     }
 
     private void acceptConnection(SelectionKey currentKey)
@@ -806,11 +880,23 @@ public class TcpConnectorService implements Runnable, TcpConnector
                         {
                             String peerId = inetAddr.getHostAddress() + ":" + inetSockAddr.getPort();
 
+                            // Prepare the peer object before the connection is registered, so that the
+                            // selector loop never sees the connection without its peer
+                            TcpConnectorPeer connPeer = createTcpConnectorPeer(peerId, null, null);
+
                             // Register the accepted connection with the selector loop
                             SelectionKey connKey = null;
                             try
                             {
-                                connKey = newSocket.register(serverSelector, SelectionKey.OP_READ);
+                                SelectorWorker worker = selectWorker();
+                                if (worker != null)
+                                {
+                                    connKey = worker.register(newSocket, SelectionKey.OP_READ, connPeer);
+                                }
+                                else
+                                {
+                                    connKey = registerPeer(serverSelector, newSocket, SelectionKey.OP_READ, connPeer);
+                                }
                             }
                             catch (IllegalSelectorException illSelExc)
                             {
@@ -837,10 +923,6 @@ public class TcpConnectorService implements Runnable, TcpConnector
 
                             if (connKey != null)
                             {
-                                // Prepare the peer object and message
-                                TcpConnectorPeer connPeer = createTcpConnectorPeer(peerId, connKey, null);
-                                connKey.attach(connPeer);
-                                connPeer.connectionEstablished();
                                 connObserver.inboundConnectionEstablished(connPeer);
                                 accepted = true;
                             }
@@ -920,6 +1002,25 @@ public class TcpConnectorService implements Runnable, TcpConnector
         }
     }
 
+    /**
+     * Registers the channel of an accepted connection with the peer as attachment and establishes the connection
+     * of the peer. Must be called by the thread of the selector or while that thread waits, so that the selector
+     * cannot select the connection before the peer is ready.
+     */
+    private static SelectionKey registerPeer(
+        Selector selector,
+        SocketChannel channel,
+        int ops,
+        TcpConnectorPeer peer
+    )
+        throws IOException
+    {
+        SelectionKey connKey = channel.register(selector, ops, peer);
+        peer.setSelectionKey(connKey);
+        peer.connectionEstablished();
+        return connKey;
+    }
+
     protected TcpConnectorPeer createTcpConnectorPeer(String peerId, SelectionKey connKey, Node node)
     {
         return createTcpConnectorPeer(peerId, connKey, false, node);
@@ -933,7 +1034,7 @@ public class TcpConnectorService implements Runnable, TcpConnector
     )
     {
         return new TcpConnectorPeer(
-            errorReporter, commonSerializer, peerId, this, connKey, defaultPeerAccCtx, node
+            errorReporter, commonSerializer, peerId, this, bufferPool, writeStats, connKey, defaultPeerAccCtx, node
         );
     }
 
@@ -941,6 +1042,149 @@ public class TcpConnectorService implements Runnable, TcpConnector
     public void wakeup()
     {
         serverSelector.wakeup();
+        for (SelectorWorker worker : selectorWorkers)
+        {
+            worker.selector.wakeup();
+        }
+    }
+
+    /**
+     * Sets the number of selector worker threads that the connections are distributed across.
+     * A count of 0 disables sharding, all connections are then driven by the single selector loop
+     * that also accepts new connections.
+     *
+     * Must be called before the service is started.
+     */
+    public synchronized void setWorkerThreadCount(int workerThreadCountRef)
+    {
+        if (workerThreadCountRef < 0)
+        {
+            throw new IllegalArgumentException(
+                "Negative number of selector worker threads: " + workerThreadCountRef
+            );
+        }
+        workerThreadCount = workerThreadCountRef;
+    }
+
+    public int getWorkerThreadCount()
+    {
+        return workerThreadCount;
+    }
+
+    public MessageBufferPool getBufferPool()
+    {
+        return bufferPool;
+    }
+
+    public NetComWriteStats getWriteStats()
+    {
+        return writeStats;
+    }
+
+    /**
+     * Returns the number of connections that are driven by each selector thread.
+     * If sharding is disabled, the result contains a single entry for the selector loop.
+     */
+    public int[] getSelectorConnectionCounts()
+    {
+        int[] connCounts;
+        List<SelectorWorker> workers = selectorWorkers;
+        if (workers.isEmpty())
+        {
+            int count = 0;
+            Selector srvSel = serverSelector;
+            if (srvSel != null)
+            {
+                count = getKeyCount(srvSel);
+                if (serverSocket != null && count > 0)
+                {
+                    // do not count the server socket
+                    --count;
+                }
+            }
+            connCounts = new int[] {count};
+        }
+        else
+        {
+            connCounts = new int[workers.size()];
+            for (int idx = 0; idx < connCounts.length; ++idx)
+            {
+                connCounts[idx] = getKeyCount(workers.get(idx).selector);
+            }
+        }
+        return connCounts;
+    }
+
+    private static int getKeyCount(Selector selector)
+    {
+        int count = 0;
+        try
+        {
+            count = selector.keys().size();
+        }
+        catch (ClosedSelectorException ignored)
+        {
+            // Selector was closed concurrently, no connections left
+        }
+        return count;
+    }
+
+    /**
+     * Selects the selector worker with the least connections, or returns null if sharding is disabled
+     */
+    private @Nullable SelectorWorker selectWorker()
+    {
+        SelectorWorker selected = null;
+        List<SelectorWorker> workers = selectorWorkers;
+        if (!workers.isEmpty())
+        {
+            int[] connCounts = new int[workers.size()];
+            for (int idx = 0; idx < connCounts.length; ++idx)
+            {
+                connCounts[idx] = getKeyCount(workers.get(idx).selector);
+            }
+            selected = workers.get(getLeastLoadedIdx(connCounts));
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the index of the smallest connection count, the first one if several counts are equal
+     */
+    static int getLeastLoadedIdx(int[] connCounts)
+    {
+        int selectedIdx = 0;
+        for (int idx = 1; idx < connCounts.length; ++idx)
+        {
+            if (connCounts[idx] < connCounts[selectedIdx])
+            {
+                selectedIdx = idx;
+            }
+        }
+        return selectedIdx;
+    }
+
+    /**
+     * Returns the selectors of the current selector workers, empty if sharding is disabled
+     */
+    List<Selector> getWorkerSelectors()
+    {
+        List<Selector> selectors = new ArrayList<>();
+        for (SelectorWorker worker : selectorWorkers)
+        {
+            selectors.add(worker.selector);
+        }
+        return selectors;
+    }
+
+    /**
+     * Returns the address the server socket is bound to, or null if the service does not accept connections
+     */
+    @Nullable
+    SocketAddress getLocalAddress() throws IOException
+    {
+        ServerSocketChannel srvSocket = serverSocket;
+        return srvSocket != null ? srvSocket.getLocalAddress() : null;
     }
 
     protected void establishConnection(SelectionKey currentKey)
@@ -1023,16 +1267,26 @@ public class TcpConnectorService implements Runnable, TcpConnector
     }
 
     private void closeAllConnections()
+    {
+        for (SelectorWorker worker : selectorWorkers)
+        {
+            worker.stop();
+            closeAllConnections(worker.selector);
+        }
+        closeAllConnections(serverSelector);
+    }
+
+    private void closeAllConnections(@Nullable Selector selector)
     {
         try
         {
-            if (serverSelector != null)
+            if (selector != null)
             {
-                for (SelectionKey currentKey : serverSelector.keys())
+                for (SelectionKey currentKey : selector.keys())
                 {
                     closeConnection(currentKey, false, true);
                 }
-                serverSelector.close();
+                selector.close();
             }
         }
         catch (ClosedSelectorException selectExc)
@@ -1068,6 +1322,7 @@ public class TcpConnectorService implements Runnable, TcpConnector
     public void initialize() throws IOException
     {
         serverSelector = Selector.open();
+        initializeSelectorWorkers();
 
         if (bindAddress != null)
         {
@@ -1279,15 +1534,33 @@ public class TcpConnectorService implements Runnable, TcpConnector
         {
             shutdownFlag.set(false);
         }
+
+        for (SelectorWorker worker : selectorWorkers)
+        {
+            worker.start();
+        }
+    }
+
+    private void initializeSelectorWorkers() throws IOException
+    {
+        List<SelectorWorker> workers = new ArrayList<>(workerThreadCount);
+        // Set the field before opening the selectors, so that uninitialize() closes any
+        // selectors that were opened before a failure
+        selectorWorkers = workers;
+        for (int workerNr = 0; workerNr < workerThreadCount; ++workerNr)
+        {
+            workers.add(new SelectorWorker(workerNr));
+        }
     }
 
-    private void uninitialize()
+    protected void uninitialize()
     {
         closeAllConnections();
         closeServerSocket();
 
         serverSocket    = null;
         serverSelector  = null;
+        selectorWorkers = Collections.emptyList();
     }
 
     private synchronized void reinitialize()
@@ -1354,6 +1627,129 @@ public class TcpConnectorService implements Runnable, TcpConnector
         {
             selectorLoopThread.setName(serviceInstanceName.getDisplayName());
         }
+        for (SelectorWorker worker : selectorWorkers)
+        {
+            worker.workerThread.setName(worker.getThreadName());
+        }
+    }
+
+    /**
+     * Selector loop for a share of the connections if the service is sharded across multiple
+     * selector threads. New connections are accepted by the service's own selector loop and are
+     * then registered with the worker that currently drives the least connections.
+     */
+    private class SelectorWorker implements Runnable
+    {
+        private final int workerNr;
+        private final Selector selector;
+        private final Object workerSyncObj = new Object();
+        private final Thread workerThread;
+
+        private volatile boolean stopFlag = false;
+
+        SelectorWorker(int workerNrRef) throws IOException
+        {
+            workerNr = workerNrRef;
+            selector = Selector.open();
+            workerThread = new Thread(this);
+            workerThread.setName(getThreadName());
+        }
+
+        private String getThreadName()
+        {
+            return serviceInstanceName.getDisplayName() + "-" + workerNr;
+        }
+
+        SelectionKey register(SocketChannel channel, int ops, TcpConnectorPeer peer) throws IOException
+        {
+            SelectionKey connKey;
+            synchronized (workerSyncObj)
+            {
+                // see selectOrProcessPending(): the worker waits for the workerSyncObj after
+                // being woken up, so the registration cannot be delayed by the next select(), and
+                // the worker cannot select the connection before the peer is ready
+                selector.wakeup();
+                connKey = registerPeer(selector, channel, ops, peer);
+            }
+            return connKey;
+        }
+
+        void start()
+        {
+            workerThread.start();
+        }
+
+        /**
+         * Stops the worker thread and waits for it to end. The connections of this worker
+         * are not closed.
+         */
+        void stop()
+        {
+            stopFlag = true;
+            selector.wakeup();
+            if (Thread.currentThread() != workerThread)
+            {
+                try
+                {
+                    workerThread.join(WORKER_STOP_TIMEOUT);
+                }
+                catch (InterruptedException ignored)
+                {
+                    // No-op; proceed with closing the connections
+                }
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            LinkedList<Peer> peersWithFinishedMessages = new LinkedList<>();
+            while (!stopFlag && !shutdownFlag.get())
+            {
+                try
+                {
+                    selectOrProcessPending(selector, workerSyncObj, peersWithFinishedMessages);
+                    processSelectedKeys(selector, peersWithFinishedMessages);
+                }
+                catch (ClosedSelectorException | IOException exc)
+                {
+                    if (!stopFlag)
+                    {
+                        // Selector became inoperative or I/O error while selecting.
+                        // Log error and let the selector loop reinitialize the service.
+                        errorReporter.reportError(Level.TRACE, exc);
+                        reinitRequested.set(true);
+                        wakeupServerSelector();
+                    }
+                    break;
+                }
+                catch (Exception exc)
+                {
+                    // Uncaught exception. Log error and shut down.
+                    errorReporter.reportError(exc);
+                    shutdownFlag.set(true);
+                    wakeupServerSelector();
+                    break;
+                }
+                catch (ImplementationError implErr)
+                {
+                    // Uncaught exception. Log error and shut down.
+                    errorReporter.reportError(implErr);
+                    shutdownFlag.set(true);
+                    wakeupServerSelector();
+                    break;
+                }
+            }
+        }
+
+        private void wakeupServerSelector()
+        {
+            Selector srvSel = serverSelector;
+            if (srvSel != null)
+            {
+                srvSel.wakeup();
+            }
+        }
     }
 
     private static class SafeConnectionObserver implements ConnectionObserver
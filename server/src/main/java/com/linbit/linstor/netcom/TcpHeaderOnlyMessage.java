@@ -1,5 +1,7 @@
 package com.linbit.linstor.netcom;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import com.linbit.ImplementationError;
 
@@ -37,6 +39,18 @@ public class TcpHeaderOnlyMessage implements Message
         return headerBuffer.getInt(TYPE_FIELD_OFFSET);
     }
 
+    @Override
+    public boolean isCompressed()
+    {
+        return false;
+    }
+
+    @Override
+    public void setCompressed(boolean compressed)
+    {
+        throw new ImplementationError("Cannot compress TcpHeaderOnlyMessage", null);
+    }
+
     @Override
     public ByteBuffer getHeaderBuffer()
     {
@@ -51,4 +65,34 @@ public class TcpHeaderOnlyMessage implements Message
     {
         return EMPTY_DATA_BUFFER;
     }
+
+    @Override
+    public void allocateData(int size)
+    {
+        throw new ImplementationError("Cannot allocate Data of TcpHeaderOnlyMessage", null);
+    }
+
+    @Override
+    public int getDataSize()
+    {
+        return 0;
+    }
+
+    @Override
+    public InputStream getDataInputStream()
+    {
+        return new ByteArrayInputStream(DATA);
+    }
+
+    @Override
+    public void retain()
+    {
+        // no data to retain
+    }
+
+    @Override
+    public void release()
+    {
+        // no data to release
+    }
 }
@@ -0,0 +1,94 @@
+package com.linbit.linstor.netcom.ssl;
+
+import com.linbit.utils.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the TLS handshakes of the peers of an SSL connector
+ */
+public class SslHandshakeStats
+{
+    private final LongAdder finishedHandshakeCtr = new LongAdder();
+    private final LongAdder failedHandshakeCtr = new LongAdder();
+    private final LongAdder delegatedTaskCtr = new LongAdder();
+    private final LongAdder rejectedTaskCtr = new LongAdder();
+    private final AtomicInteger runningTaskCtr = new AtomicInteger();
+
+    // Time from the start of a handshake until the handshake has finished successfully
+    private final LatencyHistogram duration = new LatencyHistogram();
+
+    void handshakeFinished(long durationNanos)
+    {
+        finishedHandshakeCtr.increment();
+        duration.record(durationNanos);
+    }
+
+    void handshakeFailed()
+    {
+        failedHandshakeCtr.increment();
+    }
+
+    void delegatedTasksStarted()
+    {
+        runningTaskCtr.incrementAndGet();
+    }
+
+    void delegatedTasksFinished(int taskCount)
+    {
+        runningTaskCtr.decrementAndGet();
+        delegatedTaskCtr.add(taskCount);
+    }
+
+    void delegatedTasksRejected()
+    {
+        rejectedTaskCtr.increment();
+    }
+
+    /**
+     * Number of handshakes that finished successfully
+     */
+    public long getFinishedHandshakeCount()
+    {
+        return finishedHandshakeCtr.sum();
+    }
+
+    /**
+     * Number of handshakes that failed
+     */
+    public long getFailedHandshakeCount()
+    {
+        return failedHandshakeCtr.sum();
+    }
+
+    /**
+     * Number of delegated SSLEngine tasks that were run by the handshake executor
+     */
+    public long getDelegatedTaskCount()
+    {
+        return delegatedTaskCtr.sum();
+    }
+
+    /**
+     * Number of times that the delegated tasks of a handshake were rejected, because too many handshakes
+     * were waiting for the handshake executor. The connection is closed in this case.
+     */
+    public long getRejectedTaskCount()
+    {
+        return rejectedTaskCtr.sum();
+    }
+
+    /**
+     * Number of handshakes whose delegated tasks are waiting for or being run by the handshake executor
+     */
+    public int getRunningTaskCount()
+    {
+        return runningTaskCtr.get();
+    }
+
+    public LatencyHistogram getDuration()
+    {
+        return duration;
+    }
+}
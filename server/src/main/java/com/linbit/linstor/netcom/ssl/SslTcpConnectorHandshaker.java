@@ -1,5 +1,7 @@
 package com.linbit.linstor.netcom.ssl;
 
+import com.linbit.linstor.logging.ErrorReporter;
+
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
 import javax.net.ssl.SSLException;
@@ -10,6 +12,10 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.event.Level;
 
 public class SslTcpConnectorHandshaker
 {
@@ -28,18 +34,27 @@ public class SslTcpConnectorHandshaker
 
     private HandshakeState state = HandshakeState.START;
     private boolean handshaking = true;
+    // Set while the delegated tasks of the SSLEngine are run by the task executor
+    private volatile boolean runningTasks = false;
+    private long handshakeStartNanos;
 
     private ByteBuffer myAppData;
     private ByteBuffer myNetData;
     private ByteBuffer peerNetData;
     private ByteBuffer peerAppData;
 
+    private final ErrorReporter errorReporter;
     private SslTcpConnectorPeer peer;
+    private final Executor taskExecutor;
+    private final SslHandshakeStats handshakeStats;
     private HandshakeFinishedListener[] finishedListeners;
 
     public SslTcpConnectorHandshaker(
+        ErrorReporter errorReporterRef,
         SslTcpConnectorPeer peerRef,
         SSLEngine sslEngine,
+        Executor taskExecutorRef,
+        SslHandshakeStats handshakeStatsRef,
         HandshakeFinishedListener... finishedListenersRef
     )
     {
@@ -50,13 +65,17 @@ public class SslTcpConnectorHandshaker
         peerNetData = ByteBuffer.allocate(session.getPacketBufferSize() * 2);
         session.invalidate();
 
+        errorReporter = errorReporterRef;
         peer = peerRef;
+        taskExecutor = taskExecutorRef;
+        handshakeStats = handshakeStatsRef;
         finishedListeners = finishedListenersRef;
     }
 
     void startHandshaking(SSLEngine sslEngine) throws SSLException
     {
         handshaking = true;
+        handshakeStartNanos = System.nanoTime();
         sslEngine.beginHandshake();
         myAppData.clear();
         myNetData.clear();
@@ -74,235 +93,315 @@ public class SslTcpConnectorHandshaker
      * Performs a step of the handshaking process.
      * Does NOT perform the whole handshake, as the central networking engine is non-blocking,
      * we have to wait until our socketChannel received a ready to read / write event.
+     * While the delegated tasks of the SSLEngine are being run, no step is performed.
      *
      * @param socketChannel
      * @param engine
      * @return true if and only if the handshake is finished.
      * @throws IOException
      */
-    @SuppressWarnings("checkstyle:descendanttoken")
-    // checkstyle complains about multiple defaults inside switch (although there are nested switches)
     boolean doHandshake(
         final SocketChannel socketChannel,
         final SSLEngine engine
     )
         throws IOException
     {
+        if (handshaking && !runningTasks)
+        {
+            try
+            {
+                doHandshakeStep(socketChannel, engine);
+            }
+            catch (IOException | RuntimeException exc)
+            {
+                handshakeStats.handshakeFailed();
+                throw exc;
+            }
+        }
+        else
         if (handshaking)
         {
-            boolean retry;
-            do
+            // Messages queued while the delegated tasks are running may have enabled OP_WRITE. Disable all
+            // operations, unless the tasks have finished in the meantime, see SslTcpConnectorPeer.resumeHandshake()
+            peer.setOpInterest(0);
+            if (!runningTasks)
             {
-                retry = false;
-                HandshakeStatus handshakeStatus = engine.getHandshakeStatus();
+                peer.setOpInterest(SelectionKey.OP_WRITE);
+            }
+        }
+        return !handshaking;
+    }
 
-                if (handshakeStatus == HandshakeStatus.NOT_HANDSHAKING)
-                {
-                    throw new IllegalStateException(
-                        SslTcpConnectorService.class.getName() + " indicates requiring a handshake, " +
-                        "but the " + engine.getClass().getName() + " instance is not in handshake mode"
-                    );
-                }
-                do
-                {
-                    switch (handshakeStatus)
+    @SuppressWarnings("checkstyle:descendanttoken")
+    // checkstyle complains about multiple defaults inside switch (although there are nested switches)
+    private void doHandshakeStep(
+        final SocketChannel socketChannel,
+        final SSLEngine engine
+    )
+        throws IOException
+    {
+        boolean retry;
+        do
+        {
+            retry = false;
+            HandshakeStatus handshakeStatus = engine.getHandshakeStatus();
+
+            if (handshakeStatus == HandshakeStatus.NOT_HANDSHAKING)
+            {
+                throw new IllegalStateException(
+                    SslTcpConnectorService.class.getName() + " indicates requiring a handshake, " +
+                    "but the " + engine.getClass().getName() + " instance is not in handshake mode"
+                );
+            }
+            switch (handshakeStatus)
+            {
+                case NEED_UNWRAP:
                     {
-                        case NEED_UNWRAP:
+                        int read = socketChannel.read(peerNetData);
+                        if (read < 0)
+                        {
+                            if (!engine.isInboundDone() || !engine.isOutboundDone())
                             {
-                                int read = socketChannel.read(peerNetData);
-                                if (read < 0)
-                                {
-                                    if (!engine.isInboundDone() || !engine.isOutboundDone())
-                                    {
-                                        engine.closeInbound();
-                                        engine.closeOutbound();
-                                        handshakeStatus = engine.getHandshakeStatus();
-                                    }
-                                }
-                                else
-                                {
-                                    peerNetData.flip();
-                                    SSLEngineResult result = null;
-
-                                    try
-                                    {
-                                        result = engine.unwrap(peerNetData, peerAppData);
-                                        // after an unwrap the data is flipped again, thus we can immediately
-                                        // read + flip + unwrap again
-                                    }
-                                    catch (SSLException sslExc)
-                                    {
-                                        // FIXME: Error reporting required
-                                        sslExc.printStackTrace();
-                                        engine.closeOutbound();
-                                        handshakeStatus = engine.getHandshakeStatus();
-                                    }
-
-                                    if (result != null)
-                                    {
-                                        peerNetData.compact();
-                                        handshakeStatus = result.getHandshakeStatus();
-
-                                        switch (result.getStatus())
-                                        {
-                                            case OK:
-                                                break;
-                                            case BUFFER_OVERFLOW:
-                                                peerAppData = enlargeApplicationBuffer(engine, peerAppData);
-                                                retry = true;
-                                                break;
-                                            case BUFFER_UNDERFLOW:
-                                                peerNetData = handleBufferUnderflow(engine, peerNetData);
-                                                retry = true;
-                                                break;
-                                            case CLOSED:
-                                                if (engine.isOutboundDone())
-                                                {
-                                                    throw new SSLException("Handshaking failed");
-                                                    // handshakeSuccess = false;
-                                                    // handshakeStatus = HandshakeStatus.NOT_HANDSHAKING;
-                                                }
-                                                else
-                                                {
-                                                    engine.closeOutbound();
-                                                    handshakeStatus = engine.getHandshakeStatus();
-                                                }
-                                                break;
-                                            default:
-                                                throw new IllegalStateException("Unknown SSL state: " +
-                                                    result.getStatus());
-                                        }
-                                        if (result.bytesConsumed() > 0 &&
-                                            peerNetData.position() > 0)
-                                        {
-                                            retry = true;
-                                        }
-                                    }
-                                }
+                                engine.closeInbound();
+                                engine.closeOutbound();
+                                handshakeStatus = engine.getHandshakeStatus();
                             }
-                            break;
-                        case NEED_WRAP:
-                            myNetData.clear();
-                            SSLEngineResult result;
+                        }
+                        else
+                        {
+                            peerNetData.flip();
+                            SSLEngineResult result = null;
+
                             try
                             {
-                                result = engine.wrap(myAppData, myNetData);
-                                handshakeStatus = result.getHandshakeStatus();
-                                state = HandshakeState.WRAPPED;
+                                result = engine.unwrap(peerNetData, peerAppData);
+                                // after an unwrap the data is flipped again, thus we can immediately
+                                // read + flip + unwrap again
                             }
                             catch (SSLException sslExc)
                             {
-                                // FIXME: Error reporting required
-                                sslExc.printStackTrace();
+                                reportHandshakeError(sslExc, "processing data received from the peer");
                                 engine.closeOutbound();
                                 handshakeStatus = engine.getHandshakeStatus();
-                                result = null;
-                                state = HandshakeState.FAILED;
                             }
 
                             if (result != null)
                             {
+                                peerNetData.compact();
+                                handshakeStatus = result.getHandshakeStatus();
+
                                 switch (result.getStatus())
                                 {
                                     case OK:
-                                        if (state == HandshakeState.WRAPPED)
-                                        {
-                                            myNetData.flip();
-                                            state = HandshakeState.SENDING;
-                                        }
-                                        socketChannel.write(myNetData);
-                                        if (!myNetData.hasRemaining())
-                                        {
-                                            state = HandshakeState.SENT;
-                                        }
                                         break;
                                     case BUFFER_OVERFLOW:
-                                        myNetData = enlargePacketBuffer(engine, myNetData);
+                                        peerAppData = enlargeApplicationBuffer(engine, peerAppData);
+                                        retry = true;
                                         break;
                                     case BUFFER_UNDERFLOW:
-                                        throw new SSLException(
-                                            "Buffer underflow while handshaking - this should never occur"
-                                        );
+                                        {
+                                            ByteBuffer adjustedBuffer = handleBufferUnderflow(engine, peerNetData);
+                                            // Unless the buffer was enlarged, more data must be received before
+                                            // retrying, instead of spinning on the selector thread
+                                            retry = adjustedBuffer != peerNetData;
+                                            peerNetData = adjustedBuffer;
+                                        }
+                                        break;
                                     case CLOSED:
-                                        try
+                                        if (engine.isOutboundDone())
                                         {
-                                            if (state == HandshakeState.WRAPPED)
-                                            {
-                                                myNetData.flip();
-                                                state = HandshakeState.SENDING;
-                                            }
-                                            socketChannel.write(myNetData);
-                                            if (!myNetData.hasRemaining())
-                                            {
-                                                state = HandshakeState.SENT;
-                                            }
-                                            peerNetData.clear();
+                                            throw new SSLException("Handshaking failed");
+                                            // handshakeSuccess = false;
+                                            // handshakeStatus = HandshakeStatus.NOT_HANDSHAKING;
                                         }
-                                        catch (Exception exc)
+                                        else
                                         {
-                                            // FIXME: Should probably catch SSLException, IOException, others?
-                                            // Socket failed to send CLOSE message
+                                            engine.closeOutbound();
                                             handshakeStatus = engine.getHandshakeStatus();
                                         }
                                         break;
                                     default:
-                                        throw new IllegalStateException("Unknown SSL state: " + result.getStatus());
+                                        throw new IllegalStateException("Unknown SSL state: " +
+                                            result.getStatus());
+                                }
+                                if (result.bytesConsumed() > 0 &&
+                                    peerNetData.position() > 0)
+                                {
+                                    retry = true;
                                 }
                             }
-                            break;
-                        case NEED_TASK:
-                            Runnable task;
-                            while ((task = engine.getDelegatedTask()) != null)
-                            {
-                                new Thread(task).start();
-                            }
-                            handshakeStatus = engine.getHandshakeStatus();
-                            break;
-                        case FINISHED:
-                            break;
-                        case NOT_HANDSHAKING:
-                            break;
-                        default:
-                            throw new IllegalStateException("Invalid SSL status: " + handshakeStatus);
+                        }
+                    }
+                    break;
+                case NEED_WRAP:
+                    myNetData.clear();
+                    SSLEngineResult result;
+                    try
+                    {
+                        result = engine.wrap(myAppData, myNetData);
+                        handshakeStatus = result.getHandshakeStatus();
+                        state = HandshakeState.WRAPPED;
+                    }
+                    catch (SSLException sslExc)
+                    {
+                        reportHandshakeError(sslExc, "creating data for the peer");
+                        engine.closeOutbound();
+                        handshakeStatus = engine.getHandshakeStatus();
+                        result = null;
+                        state = HandshakeState.FAILED;
                     }
-                }
-                while (handshakeStatus == HandshakeStatus.NEED_TASK); // do not wait if NEED_TASK
 
-                if (state == HandshakeState.FAILED)
-                {
+                    if (result != null)
+                    {
+                        switch (result.getStatus())
+                        {
+                            case OK:
+                                if (state == HandshakeState.WRAPPED)
+                                {
+                                    myNetData.flip();
+                                    state = HandshakeState.SENDING;
+                                }
+                                socketChannel.write(myNetData);
+                                if (!myNetData.hasRemaining())
+                                {
+                                    state = HandshakeState.SENT;
+                                }
+                                break;
+                            case BUFFER_OVERFLOW:
+                                myNetData = enlargePacketBuffer(engine, myNetData);
+                                break;
+                            case BUFFER_UNDERFLOW:
+                                throw new SSLException(
+                                    "Buffer underflow while handshaking - this should never occur"
+                                );
+                            case CLOSED:
+                                try
+                                {
+                                    if (state == HandshakeState.WRAPPED)
+                                    {
+                                        myNetData.flip();
+                                        state = HandshakeState.SENDING;
+                                    }
+                                    socketChannel.write(myNetData);
+                                    if (!myNetData.hasRemaining())
+                                    {
+                                        state = HandshakeState.SENT;
+                                    }
+                                    peerNetData.clear();
+                                }
+                                catch (Exception exc)
+                                {
+                                    // FIXME: Should probably catch SSLException, IOException, others?
+                                    // Socket failed to send CLOSE message
+                                    handshakeStatus = engine.getHandshakeStatus();
+                                }
+                                break;
+                            default:
+                                throw new IllegalStateException("Unknown SSL state: " + result.getStatus());
+                        }
+                    }
+                    break;
+                case NEED_TASK:
+                    // delegated tasks are run below
+                    break;
+                case FINISHED:
+                    break;
+                case NOT_HANDSHAKING:
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid SSL status: " + handshakeStatus);
+            }
+
+            if (state == HandshakeState.FAILED)
+            {
+                peer.closeConnection();
+                throw new SSLException("Handshaking failed");
+            }
+
+            switch (handshakeStatus)
+            {
+                case FINISHED:
+                    handshaking = false;
+                    handshakeStats.handshakeFinished(System.nanoTime() - handshakeStartNanos);
+                    for (HandshakeFinishedListener listener : finishedListeners)
+                    {
+                        listener.handshakeFinished(socketChannel);
+                    }
+                    socketChannel.finishConnect();
+                    break;
+                case NEED_TASK:
+                    // the handshake is resumed once the delegated tasks have finished
+                    runDelegatedTasks(engine);
+                    retry = false;
+                    break;
+                case NEED_UNWRAP:
+                    peer.setOpInterest(SelectionKey.OP_READ);
+                    break;
+                case NEED_WRAP:
+                    peer.setOpInterest(SelectionKey.OP_WRITE);
+                    break;
+                case NOT_HANDSHAKING:
                     peer.closeConnection();
-                    throw new SSLException("Handshaking failed");
-                }
+                    throw new SSLException("Not handshaking");
+                default:
+                    break;
+            }
+        }
+        while (retry);
+    }
 
-                switch (handshakeStatus)
+    /**
+     * Runs the delegated tasks of the SSLEngine on the task executor instead of the selector thread.
+     * The peer does not select any operations until the tasks have finished.
+     */
+    private void runDelegatedTasks(final SSLEngine engine) throws SSLException
+    {
+        runningTasks = true;
+        peer.setOpInterest(0);
+        handshakeStats.delegatedTasksStarted();
+        try
+        {
+            taskExecutor.execute(() ->
+            {
+                int taskCount = 0;
+                try
                 {
-                    case FINISHED:
-                        handshaking = false;
-                        for (HandshakeFinishedListener listener : finishedListeners)
-                        {
-                            listener.handshakeFinished(socketChannel);
-                        }
-                        socketChannel.finishConnect();
-                        break;
-                    case NEED_TASK:
-                        // should never happen - while loop before should cover this case
-                        break;
-                    case NEED_UNWRAP:
-                        peer.setOpInterest(SelectionKey.OP_READ);
-                        break;
-                    case NEED_WRAP:
-                        peer.setOpInterest(SelectionKey.OP_WRITE);
-                        break;
-                    case NOT_HANDSHAKING:
-                        peer.closeConnection();
-                        throw new SSLException("Not handshaking");
-                    default:
-                        break;
+                    Runnable task;
+                    while ((task = engine.getDelegatedTask()) != null)
+                    {
+                        task.run();
+                        ++taskCount;
+                    }
                 }
-            }
-            while (retry);
+                finally
+                {
+                    handshakeStats.delegatedTasksFinished(taskCount);
+                    runningTasks = false;
+                    // Failures of the tasks are reported by the SSLEngine during the next handshake step
+                    peer.resumeHandshake();
+                }
+            });
         }
-        return !handshaking;
+        catch (RejectedExecutionException rejectedExc)
+        {
+            runningTasks = false;
+            handshakeStats.delegatedTasksFinished(0);
+            handshakeStats.delegatedTasksRejected();
+            peer.closeConnection();
+            throw new SSLException("Handshaking failed, too many handshakes are in progress", rejectedExc);
+        }
+    }
+
+    /**
+     * Reports a failure of the SSLEngine. The handshake is closed afterwards, which closes the connection.
+     */
+    private void reportHandshakeError(SSLException sslExc, String step)
+    {
+        errorReporter.logWarning("TLS handshake with peer %s failed: %s", peer.getId(), sslExc.getMessage());
+        errorReporter.reportError(
+            Level.TRACE, sslExc, peer.getAccessContext(), peer,
+            "TLS handshake failed while " + step
+        );
     }
 
     protected ByteBuffer enlargePacketBuffer(SSLEngine engine, ByteBuffer buffer)
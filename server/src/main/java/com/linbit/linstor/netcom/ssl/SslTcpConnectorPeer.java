@@ -5,6 +5,7 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
@@ -15,11 +16,16 @@ import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
 import com.linbit.linstor.core.objects.Node;
 import com.linbit.linstor.logging.ErrorReporter;
 import com.linbit.linstor.netcom.IllegalMessageStateException;
+import com.linbit.linstor.netcom.MessageBufferPool;
+import com.linbit.linstor.netcom.NetComWriteStats;
 import com.linbit.linstor.netcom.TcpConnectorPeer;
 import com.linbit.linstor.security.AccessContext;
 
 public class SslTcpConnectorPeer extends TcpConnectorPeer
 {
+    // Number of TLS records that fit into the encryptedWriteBuffer
+    private static final int WRITE_BUFFER_RECORD_COUNT = 4;
+
     private final boolean clientMode;
 
     private SSLEngine sslEngine;
@@ -36,15 +42,29 @@ public class SslTcpConnectorPeer extends TcpConnectorPeer
         final CommonSerializer commonSerializer,
         final String peerId,
         final SslTcpConnectorService sslConnectorService,
+        final MessageBufferPool bufferPool,
+        final NetComWriteStats writeStats,
         final SelectionKey connKey,
         final AccessContext peerAccCtx,
         final SSLContext sslCtxRef,
+        final Executor handshakeExecutor,
+        final SslHandshakeStats handshakeStats,
         final InetSocketAddress peerAddress,
         final Node node
     )
         throws SSLException
     {
-        super(errorReporter, commonSerializer, peerId, sslConnectorService, connKey, peerAccCtx, node);
+        super(
+            errorReporter,
+            commonSerializer,
+            peerId,
+            sslConnectorService,
+            bufferPool,
+            writeStats,
+            connKey,
+            peerAccCtx,
+            node
+        );
         sslCtx = sslCtxRef;
         address = peerAddress;
 
@@ -67,19 +87,17 @@ public class SslTcpConnectorPeer extends TcpConnectorPeer
         }
 
         handshaker = new SslTcpConnectorHandshaker(
+            errorReporter,
             this,
             sslEngine,
+            handshakeExecutor,
+            handshakeStats,
             socketChannel ->
             {
                 nextInMessage(); // prepare the next messages
-                if (msgOut != null)
-                {
-                    setOpInterest(SelectionKey.OP_WRITE | SelectionKey.OP_READ);
-                }
-                else
-                {
-                    setOpInterest(SelectionKey.OP_READ);
-                }
+                // messages may have been queued during the handshake. If there are none, the next
+                // write operation disables OP_WRITE again
+                setOpInterest(SelectionKey.OP_WRITE | SelectionKey.OP_READ);
                 pongReceived(); // fix the pongReceived-pingSent timestamp-delta
             }
         );
@@ -89,7 +107,10 @@ public class SslTcpConnectorPeer extends TcpConnectorPeer
 
         encryptedReadBuffer = ByteBuffer.allocate(sslEngine.getSession().getPacketBufferSize());
         decryptedReadBuffer = ByteBuffer.allocate(sslEngine.getSession().getApplicationBufferSize());
-        encryptedWriteBuffer = ByteBuffer.allocate(sslEngine.getSession().getPacketBufferSize());
+        // room for multiple TLS records, so that multiple gathered messages can be sent with one write operation
+        encryptedWriteBuffer = ByteBuffer.allocate(
+            sslEngine.getSession().getPacketBufferSize() * WRITE_BUFFER_RECORD_COUNT
+        );
         encryptedReadBuffer.limit(0);
         decryptedReadBuffer.limit(0);
         encryptedWriteBuffer.limit(0);
@@ -294,8 +315,9 @@ public class SslTcpConnectorPeer extends TcpConnectorPeer
     }
 
     /*
-     * Unlike the {@link #read(SocketChannel)} method, this method can encrypt and send only one message
-     * with each invocation. This is possible as the {@link TcpConnectorPeer} will let the
+     * Encrypts the current outbound message and as many queued outbound messages as fit into the
+     * encryptedWriteBuffer and sends them with a single write operation. Messages that could not be encrypted
+     * are sent by subsequent invocations, as the {@link TcpConnectorPeer} will let the
      * {@link SelectionKey#OP_WRITE} enabled as long as it has outgoing messages.
      */
     @Override
@@ -317,67 +339,85 @@ public class SslTcpConnectorPeer extends TcpConnectorPeer
              * if there are no bytes left (pos == limit), .compact() behaves the same as .clear()
              */
             encryptedWriteBuffer.compact();
-            // first try to encrypt the new message
-            switch (currentWritePhase)
+
+            // first try to encrypt the gathered messages
+            int msgCount = gatherOutMessages();
+            int bufferCount = msgCount * 2;
+            int bufferIdx = 0;
+            final int packetSize = sslEngine.getSession().getPacketBufferSize();
+            boolean wrapMore = true;
+            while (wrapMore)
             {
-                case HEADER:
-                    {
-                        ByteBuffer decryptedHeaderBuffer = msgOut.getHeaderBuffer();
-                        sslEngine.wrap(decryptedHeaderBuffer, encryptedWriteBuffer);
-
-                        if (!decryptedHeaderBuffer.hasRemaining())
-                        {
-                            currentWritePhase = currentWritePhase.getNextPhase();
-                            state = wrapData(state);
-                        }
-                    }
-                    break;
-                case DATA:
-                    state = wrapData(state);
-                    break;
-                default:
-                    throw new ImplementationError(
-                        String.format(
-                            "Missing case label for enum member '%s'",
-                            currentWritePhase.name()
-                        ),
-                        null
+                while (bufferIdx < bufferCount && !gatherBuffers[bufferIdx].hasRemaining())
+                {
+                    ++bufferIdx;
+                }
+                wrapMore = bufferIdx < bufferCount && encryptedWriteBuffer.remaining() >= packetSize;
+                if (wrapMore)
+                {
+                    SSLEngineResult result = sslEngine.wrap(
+                        gatherBuffers, bufferIdx, bufferCount - bufferIdx, encryptedWriteBuffer
                     );
+                    wrapMore = result.getStatus() == SSLEngineResult.Status.OK && result.bytesConsumed() > 0;
+                }
             }
+
             // we just (partially?) encrypted data into the encrytpedWriteBuffer
             // try to send it
             encryptedWriteBuffer.flip(); // make ready to send
-            outChannel.write(encryptedWriteBuffer);
+            long writeSize = outChannel.write(encryptedWriteBuffer);
 
-            if (state == WriteState.FINISHED)
+            state = finishGatheredMessages(msgCount, writeSize);
+            try
             {
-                nextOutMessage();
-                currentWritePhase = Phase.HEADER; // prepare for next write
+                if (encryptedWriteBuffer.hasRemaining())
+                {
+                    // keep OP_WRITE enabled until all encrypted data has been sent,
+                    // even if there are no more outbound messages
+                    if (!isInterestOpEnabled(SelectionKey.OP_WRITE))
+                    {
+                        enableOpInterest(SelectionKey.OP_WRITE);
+                    }
+                }
+                else
+                if (msgOut == null)
+                {
+                    disarmWriteInterest();
+                }
+            }
+            catch (IllegalStateException illState)
+            {
+                // No-op; Subclasses of illState can be thrown
+                // when the connection has been closed
             }
         }
         return state;
     }
 
-    private WriteState wrapData(WriteState stateRef)
-        throws SSLException, IllegalMessageStateException
-    {
-        WriteState state = stateRef;
-        ByteBuffer decryptedDataBuffer = msgOut.getDataBuffer();
-
-        sslEngine.wrap(decryptedDataBuffer, encryptedWriteBuffer);
-        if (!decryptedDataBuffer.hasRemaining())
-        {
-            currentWritePhase = currentWritePhase.getNextPhase();
-            state = WriteState.FINISHED;
-        }
-
-        return state;
-    }
-
     // overriding and only calling super so that this method is exposed to the current package
     @Override
     protected void setOpInterest(int op)
     {
         super.setOpInterest(op);
     }
+
+    /**
+     * Continues the handshake on the selector thread after the delegated tasks of the SSLEngine have finished.
+     * May be called on any thread.
+     */
+    void resumeHandshake()
+    {
+        try
+        {
+            // OP_WRITE is selected immediately, and the next handshake step performs whatever the SSLEngine
+            // requires next, including unwrapping data that has already been received
+            setOpInterest(SelectionKey.OP_WRITE);
+            selKey.selector().wakeup();
+        }
+        catch (IllegalStateException illState)
+        {
+            // No-op; Subclasses of illState can be thrown
+            // when the connection has been closed
+        }
+    }
 }
@@ -11,6 +11,10 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
@@ -30,9 +34,19 @@ import com.linbit.linstor.security.AccessContext;
 
 public class SslTcpConnectorService extends TcpConnectorService
 {
+    // Number of threads that run the delegated tasks of TLS handshakes
+    private static final int HANDSHAKE_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    // Number of handshakes that may wait for a handshake thread before further handshakes fail
+    private static final int HANDSHAKE_QUEUE_SIZE = 4096;
+    private static final long HANDSHAKE_THREAD_KEEPALIVE_SECS = 60;
+
     private final ModularCryptoProvider cryptoProvider;
     private final SSLContext sslCtx;
 
+    // Created by initialize() and shut down by uninitialize(), together with the selectors
+    private volatile @Nullable ThreadPoolExecutor handshakeExecutor;
+    private final SslHandshakeStats handshakeStats = new SslHandshakeStats();
+
     public SslTcpConnectorService(
         final ErrorReporter errorReporter,
         final CommonSerializer commonSerializer,
@@ -63,6 +77,7 @@ public class SslTcpConnectorService extends TcpConnectorService
         );
         cryptoProvider = cryptoProviderRef;
         sslCtx = cryptoProviderRef.createSslContext(sslProtocol);
+
         initialize(keyStoreFile, keyStorePasswd, keyPasswd, trustStoreFile, trustStorePasswd);
     }
 
@@ -98,6 +113,50 @@ public class SslTcpConnectorService extends TcpConnectorService
         );
     }
 
+    @Override
+    public void initialize() throws IOException
+    {
+        // Delegated tasks of the SSLEngine, such as certificate validation and key exchange computations,
+        // are run by a bounded pool of threads, so that the selector threads never block on them
+        AtomicInteger threadCtr = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            HANDSHAKE_THREAD_COUNT,
+            HANDSHAKE_THREAD_COUNT,
+            HANDSHAKE_THREAD_KEEPALIVE_SECS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(HANDSHAKE_QUEUE_SIZE),
+            task ->
+            {
+                Thread thread = new Thread(task, "SslHandshake-" + threadCtr.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        handshakeExecutor = executor;
+
+        super.initialize();
+    }
+
+    @Override
+    protected void uninitialize()
+    {
+        super.uninitialize();
+
+        // The connections were closed already, queued handshake tasks still run before the threads terminate
+        ThreadPoolExecutor executor = handshakeExecutor;
+        if (executor != null)
+        {
+            executor.shutdown();
+            handshakeExecutor = null;
+        }
+    }
+
+    public SslHandshakeStats getHandshakeStats()
+    {
+        return handshakeStats;
+    }
+
     @Override
     protected SslTcpConnectorPeer createTcpConnectorPeer(
         final String peerId,
@@ -106,6 +165,15 @@ public class SslTcpConnectorService extends TcpConnectorService
         final Node node
     )
     {
+        ThreadPoolExecutor executor = handshakeExecutor;
+        if (executor == null)
+        {
+            throw new ImplementationError(
+                "Connection of peer " + peerId + " was created while the " + serviceInstanceName.displayValue +
+                    " service is not initialized"
+            );
+        }
+
         SslTcpConnectorPeer newPeer;
         try
         {
@@ -126,9 +194,13 @@ public class SslTcpConnectorService extends TcpConnectorService
                 commonSerializer,
                 peerId,
                 this,
+                bufferPool,
+                writeStats,
                 connKey,
                 defaultPeerAccCtx,
                 sslCtx,
+                executor,
+                handshakeStats,
                 address,
                 node
             );
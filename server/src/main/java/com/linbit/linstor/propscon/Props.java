@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Common interface for Containers that hold linstor property maps
@@ -72,6 +73,23 @@ public interface Props extends TransactionObject, Iterable<Map.Entry<String, Str
      * @return True if all props match.
      */
     default boolean contains(List<String> propFilters)
+    {
+        return matchesFilters(this::getProp, propFilters);
+    }
+
+    /**
+     * Same as {@link #contains(List)}, but for properties that were copied into a map, e.g. by an API object
+     *
+     * @param propsMap Map of full property keys to values
+     * @param propFilters List of filter pairs, e.g.: ['site=a', 'zfsnode']
+     * @return True if all props match.
+     */
+    static boolean contains(Map<String, String> propsMap, List<String> propFilters)
+    {
+        return matchesFilters(propsMap::get, propFilters);
+    }
+
+    static boolean matchesFilters(Function<String, String> propGetter, List<String> propFilters)
     {
         boolean result = true;
         if (!propFilters.isEmpty())
@@ -79,7 +97,7 @@ public interface Props extends TransactionObject, Iterable<Map.Entry<String, Str
             for (final String pFilter : propFilters)
             {
                 String[] split = pFilter.split("=", 2);
-                String value = getProp(split[0]);
+                String value = propGetter.apply(split[0]);
                 if (value == null)
                 {
                     result = false;
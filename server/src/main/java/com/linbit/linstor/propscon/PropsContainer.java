@@ -17,8 +17,10 @@ import com.linbit.linstor.security.AccessDeniedException;
 import com.linbit.linstor.transaction.AbsTransactionObject;
 import com.linbit.linstor.transaction.TransactionObject;
 import com.linbit.linstor.transaction.manager.TransactionMgr;
+import com.linbit.utils.ArraySortedMap;
 import com.linbit.utils.StringUtils;
 
+import javax.annotation.Nullable;
 import javax.inject.Provider;
 
 import java.util.ArrayList;
@@ -74,12 +76,20 @@ public class PropsContainer extends AbsTransactionObject implements Props
 
     public static final int PATH_MAX_LENGTH = 256;
 
+    /**
+     * Generation of props whose modifications are not tracked, see {@link #getGeneration(Props)}
+     */
+    public static final long UNTRACKED_GENERATION = -1;
+
     private PropsContainer rootContainer;
     private PropsContainer parentContainer;
     private String containerKey;
     private int itemCount;
-    private Map<String, String> propMap;
-    private Map<String, PropsContainer> containerMap;
+    // Only used by the root container, increased by every modification of the container hierarchy
+    private long generation;
+    // Most containers only hold a few entries, sorted arrays need much less memory than a TreeMap
+    private final Map<String, String> propMap;
+    private final Map<String, PropsContainer> containerMap;
 
     private static final int PATH_NAMESPACE = 0;
     private static final int PATH_KEY = 1;
@@ -91,7 +101,8 @@ public class PropsContainer extends AbsTransactionObject implements Props
 
     protected final PropsConDatabaseDriver dbDriver;
     protected Provider<TransactionMgr> transMgrProvider;
-    private Map<String, String> cachedPropMap;
+    // Only used by the root container, created when the first property is modified within a transaction
+    private @Nullable Map<String, String> cachedPropMap;
 
     protected String instanceName;
 
@@ -116,7 +127,6 @@ public class PropsContainer extends AbsTransactionObject implements Props
 
             rootContainer = this;
             parentContainer = null;
-            cachedPropMap = new HashMap<>();
         }
         else
         {
@@ -125,14 +135,14 @@ public class PropsContainer extends AbsTransactionObject implements Props
             ErrorCheck.ctorNotNull(PropsContainer.class, String.class, key);
 
             checkKey(key);
-            containerKey = key;
+            containerKey = internKey(key);
 
             rootContainer = parent.getRoot();
             parentContainer = parent;
-            cachedPropMap = null;
         }
-        propMap = new TreeMap<>();
-        containerMap = new TreeMap<>();
+        cachedPropMap = null;
+        propMap = new ArraySortedMap<>();
+        containerMap = new ArraySortedMap<>();
 
         keySetAccessor = null;
         entrySetAccessor = null;
@@ -264,13 +274,14 @@ public class PropsContainer extends AbsTransactionObject implements Props
         String actualKey = pathElements[PATH_KEY];
         checkKey(actualKey);
         PropsContainer con = ensureNamespaceExists(pathElements[PATH_NAMESPACE]);
-        String oldValue = con.propMap.put(actualKey, value);
+        String oldValue = con.propMap.put(internKey(actualKey), value);
         if (oldValue == null)
         {
             con.modifySize(1);
         }
         if (!value.equals(oldValue))
         {
+            incGeneration();
             dbPersist(con.getPath() + actualKey, value, oldValue);
         }
         return oldValue;
@@ -332,6 +343,7 @@ public class PropsContainer extends AbsTransactionObject implements Props
 
                 if (value != null)
                 {
+                    incGeneration();
                     con.modifySize(-1);
                     con.removeCleanup();
                     dbRemove(con.getPath() + actualKey, value);
@@ -433,13 +445,14 @@ public class PropsContainer extends AbsTransactionObject implements Props
                 {
                     targetContainer = ensureNamespaceExists(key.substring(0, idx));
                 }
-                String actualKey = key.substring(idx + 1);
+                String actualKey = internKey(key.substring(idx + 1));
                 String oldValue = targetContainer.getRawPropMap().put(actualKey, value);
                 if (oldValue == null)
                 {
                     targetContainer.modifySize(1);
                 }
             }
+            incGeneration();
         }
         catch (InvalidKeyException invalidKeyExc)
         {
@@ -475,6 +488,7 @@ public class PropsContainer extends AbsTransactionObject implements Props
 
         containerMap.clear();
         propMap.clear();
+        incGeneration();
         if (dbDriver != null)
         {
             try
@@ -762,7 +776,7 @@ public class PropsContainer extends AbsTransactionObject implements Props
                     if (subCon == null)
                     {
                         subCon = createSubContainer(key, con);
-                        con.containerMap.put(key, subCon);
+                        con.containerMap.put(subCon.containerKey, subCon);
                     }
                     con = subCon;
                 }
@@ -822,6 +836,16 @@ public class PropsContainer extends AbsTransactionObject implements Props
         }
     }
 
+    /**
+     * Returns the canonical instance of the given key. The same keys, like "DrbdOptions/Net/..." or the names of
+     * nodes and resources, are used in the containers of many objects, which would otherwise all hold their own copy
+     * of the key. String.intern() is used as its pool does not prevent unused keys from being garbage collected.
+     */
+    private static String internKey(String key)
+    {
+        return key.intern();
+    }
+
     private static void checkKey(String key) throws InvalidKeyException
     {
         if (key.contains(PATH_SEPARATOR))
@@ -897,10 +921,44 @@ public class PropsContainer extends AbsTransactionObject implements Props
         return rootContainer;
     }
 
+    /**
+     * Returns the generation of the container hierarchy. The generation is increased by every modification of any
+     * container of the hierarchy, including loads and rollbacks.
+     */
+    public long getGeneration()
+    {
+        return rootContainer.generation;
+    }
+
+    /**
+     * Returns the generation of the given props if they are a PropsContainer or a read only view of one, or
+     * {@link #UNTRACKED_GENERATION} otherwise
+     */
+    public static long getGeneration(Props props)
+    {
+        long gen = UNTRACKED_GENERATION;
+        if (props instanceof PropsContainer)
+        {
+            gen = ((PropsContainer) props).getGeneration();
+        }
+        else
+        if (props instanceof ReadOnlyProps)
+        {
+            gen = ((ReadOnlyProps) props).getGeneration();
+        }
+        return gen;
+    }
+
+    private void incGeneration()
+    {
+        ++rootContainer.generation;
+    }
+
     @Override
     public boolean isDirty()
     {
-        return !rootContainer.cachedPropMap.isEmpty();
+        Map<String, String> rootCachedPropMap = rootContainer.cachedPropMap;
+        return rootCachedPropMap != null && !rootCachedPropMap.isEmpty();
     }
 
     @Override
@@ -911,23 +969,32 @@ public class PropsContainer extends AbsTransactionObject implements Props
 
     private void cache(String key, String value)
     {
-        if (!rootContainer.cachedPropMap.containsKey(key))
+        Map<String, String> rootCachedPropMap = rootContainer.cachedPropMap;
+        if (rootCachedPropMap == null)
+        {
+            rootCachedPropMap = new HashMap<>();
+            rootContainer.cachedPropMap = rootCachedPropMap;
+        }
+        if (!rootCachedPropMap.containsKey(key))
         {
-            rootContainer.cachedPropMap.put(key, value);
+            rootCachedPropMap.put(key, value);
         }
     }
 
     @Override
     public void commitImpl()
     {
-        rootContainer.cachedPropMap.clear();
+        rootContainer.cachedPropMap = null;
     }
 
     @Override
     public void rollbackImpl()
     {
         PropsContainer root = rootContainer;
-        for (Entry<String, String> entry : root.cachedPropMap.entrySet())
+        Map<String, String> rootCachedPropMap = root.cachedPropMap != null ?
+            root.cachedPropMap :
+            Collections.emptyMap();
+        for (Entry<String, String> entry : rootCachedPropMap.entrySet())
         {
             String key = entry.getKey();
             String value = entry.getValue();
@@ -943,7 +1010,7 @@ public class PropsContainer extends AbsTransactionObject implements Props
                 {
                     targetContainer = root.ensureNamespaceExists(key.substring(0, idx));
                 }
-                String relativeKey = key.substring(idx + 1);
+                String relativeKey = internKey(key.substring(idx + 1));
                 String oldValue;
                 if (value == null)
                 {
@@ -967,7 +1034,8 @@ public class PropsContainer extends AbsTransactionObject implements Props
                 );
             }
         }
-        root.cachedPropMap.clear();
+        root.cachedPropMap = null;
+        incGeneration();
     }
 
     private void dbPersist(String key, String value, String oldValue) throws DatabaseException
@@ -159,6 +159,14 @@ public class ReadOnlyProps implements Props
         return propsMap.getPath();
     }
 
+    /**
+     * Returns the generation of the wrapped props, see {@link PropsContainer#getGeneration(Props)}
+     */
+    public long getGeneration()
+    {
+        return PropsContainer.getGeneration(propsMap);
+    }
+
     @Override
     public Map<String, String> map()
     {
@@ -0,0 +1,123 @@
+package com.linbit.linstor.proto;
+
+import com.linbit.utils.LatencyHistogram;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and throughput statistics of the API calls that are processed by the {@link CommonMessageProcessor}
+ *
+ * The statistics of each API call are created when the message processor is initialized, so that recording
+ * the processing of an API call does not allocate any objects.
+ */
+@Singleton
+public class ApiCallStats
+{
+    private final Map<String, Entry> entries = new ConcurrentSkipListMap<>();
+
+    @Inject
+    public ApiCallStats()
+    {
+    }
+
+    /**
+     * Returns the statistics of the specified API call, creating them if the API call has not been registered yet
+     */
+    public Entry register(String apiCallName)
+    {
+        return entries.computeIfAbsent(apiCallName, Entry::new);
+    }
+
+    /**
+     * Returns the statistics of all registered API calls, ordered by API call name
+     */
+    public Collection<Entry> getEntries()
+    {
+        return entries.values();
+    }
+
+    public static class Entry
+    {
+        private final String apiCallName;
+
+        // Time from receiving the message until the start of the API call's execution
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        // Time from the start of the API call's execution until the API call has produced all answers
+        private final LatencyHistogram execution = new LatencyHistogram();
+        // Time spent serializing and queueing each answer for sending
+        private final LatencyHistogram serialization = new LatencyHistogram();
+
+        private final AtomicInteger inFlightCtr = new AtomicInteger();
+        private final LongAdder errorCtr = new LongAdder();
+
+        Entry(String apiCallNameRef)
+        {
+            apiCallName = apiCallNameRef;
+        }
+
+        void callStarted(long queueWaitNanos)
+        {
+            queueWait.record(queueWaitNanos);
+            inFlightCtr.incrementAndGet();
+        }
+
+        void callFinished(long executionNanos)
+        {
+            inFlightCtr.decrementAndGet();
+            execution.record(executionNanos);
+        }
+
+        void callFailed()
+        {
+            errorCtr.increment();
+        }
+
+        void answerSerialized(long serializationNanos)
+        {
+            serialization.record(serializationNanos);
+        }
+
+        public String getApiCallName()
+        {
+            return apiCallName;
+        }
+
+        public LatencyHistogram getQueueWait()
+        {
+            return queueWait;
+        }
+
+        public LatencyHistogram getExecution()
+        {
+            return execution;
+        }
+
+        public LatencyHistogram getSerialization()
+        {
+            return serialization;
+        }
+
+        /**
+         * Number of calls of the API that are currently being executed
+         */
+        public int getInFlightCount()
+        {
+            return inFlightCtr.get();
+        }
+
+        /**
+         * Number of calls of the API that failed with an error
+         */
+        public long getErrorCount()
+        {
+            return errorCtr.sum();
+        }
+    }
+}
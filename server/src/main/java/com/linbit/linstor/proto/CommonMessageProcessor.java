@@ -3,6 +3,7 @@ package com.linbit.linstor.proto;
 import com.linbit.ImplementationError;
 import com.linbit.linstor.LinStorException;
 import com.linbit.linstor.api.ApiCall;
+import com.linbit.linstor.api.ApiCallPriority;
 import com.linbit.linstor.api.ApiCallRc;
 import com.linbit.linstor.api.ApiCallRcImpl;
 import com.linbit.linstor.api.ApiCallReactive;
@@ -12,7 +13,6 @@ import com.linbit.linstor.api.BaseApiCall;
 import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
 import com.linbit.linstor.api.protobuf.ApiCallDescriptor;
 import com.linbit.linstor.api.protobuf.ProtoDeserializationUtils;
-import com.linbit.linstor.core.LinStor;
 import com.linbit.linstor.core.apicallhandler.ScopeRunner;
 import com.linbit.linstor.core.apicallhandler.response.ApiAccessDeniedException;
 import com.linbit.linstor.core.apicallhandler.response.ApiRcException;
@@ -31,12 +31,13 @@ import com.linbit.linstor.security.Authentication;
 import com.linbit.linstor.security.Identity;
 import com.linbit.linstor.transaction.TransactionException;
 import com.linbit.locks.LockGuard;
-import com.linbit.utils.MathUtils;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Map;
@@ -46,12 +47,8 @@ import java.util.stream.Collectors;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import org.slf4j.event.Level;
-import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxProcessor;
-import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Scheduler;
 import reactor.util.context.Context;
 
 /**
@@ -66,20 +63,28 @@ public class CommonMessageProcessor implements MessageProcessor
     private final ScopeRunner scopeRunner;
     private final CommonSerializer commonSerializer;
 
-    private final FluxSink<Runnable> workerPool;
+    private final PeerMessageScheduler msgScheduler;
+    private final ApiCallStats apiCallStats;
 
     private final Map<String, ApiEntry> apiCallMap;
 
     public static final int MIN_THR_COUNT = 4;
     public static final int MAX_THR_COUNT = 1024;
-    public static final int MIN_QUEUE_SIZE = 4 * MIN_THR_COUNT;
-    public static final int MAX_QUEUE_SIZE = 4 * MAX_THR_COUNT;
-    public static final int THR_QUEUE_FACTOR = 4;
+
+    // Maximum data size of messages whose header is inspected to select the priority lane of the message.
+    // Latency-critical messages are small, and larger messages are not parsed on the connector thread.
+    // 64 kiB == 0x10000
+    private static final int MAX_PRIORITY_MSG_SIZE = 0x10000;
+
+    // Maximum data size of answers. Answers are copied into memory completely, so chunked answers are limited to
+    // the size of a single message instead of the size of a chunked message
+    private static final int MAX_ANSWER_DATA_SIZE = Message.DEFAULT_MAX_DATA_SIZE;
 
     @Inject
     public CommonMessageProcessor(
         ErrorReporter errorLogRef,
-        Scheduler scheduler,
+        PeerMessageScheduler msgSchedulerRef,
+        ApiCallStats apiCallStatsRef,
         ScopeRunner scopeRunnerRef,
         CommonSerializer commonSerializerRef,
         Map<String, BaseApiCall> apiCalls,
@@ -90,35 +95,11 @@ public class CommonMessageProcessor implements MessageProcessor
         scopeRunner = scopeRunnerRef;
         commonSerializer = commonSerializerRef;
 
-        int queueSize = MathUtils.bounds(
-            MIN_QUEUE_SIZE,
-            Math.min(LinStor.CPU_COUNT, MAX_THR_COUNT) * THR_QUEUE_FACTOR,
-            MAX_QUEUE_SIZE
-        );
-        int thrCount = MathUtils.bounds(MIN_THR_COUNT, LinStor.CPU_COUNT, MAX_THR_COUNT);
-
-        // Limit the number of messages that can be submitted for processing
-        // concurrently by setting the processor's buffer size.
-        // In the absence of any backpressure mechanism in the communications
-        // protocol, we resort to blocking when too many messages are received and
-        // letting the TCP buffer fill up.
-        // Many messages from a single peer will still be queued in an unbounded
-        // fashion as part of the message re-ordering.
-        FluxProcessor<Runnable, Runnable> processor = EmitterProcessor.create(queueSize);
-        workerPool = processor.sink();
-        processor
-            // minimal prefetch because we control queueing via queueSize
-            .parallel(thrCount, 1)
-            // minimal prefetch for low latency
-            .runOn(scheduler, 1)
-            .doOnNext(Runnable::run)
-            .subscribe(
-                ignored ->
-                {
-                    // do nothing
-                },
-                exc -> errorLog.reportError(exc, null, null, "Uncaught exception in parallel processor")
-            );
+        // Messages are queued per peer and dispatched to the worker pool in a fair fashion.
+        // Instead of blocking when too many messages are received, reading from the
+        // connection of a peer with too many waiting messages is throttled.
+        msgScheduler = msgSchedulerRef;
+        apiCallStats = apiCallStatsRef;
 
         apiCallMap = new TreeMap<>();
         for (Map.Entry<String, BaseApiCall> entry : apiCalls.entrySet())
@@ -128,8 +109,16 @@ public class CommonMessageProcessor implements MessageProcessor
             ApiCallDescriptor apiDscr = apiCallDescriptors.get(apiName);
             if (apiDscr != null)
             {
-                apiCallMap.put(apiName,
-                    new ApiEntry(apiCall, apiDscr, apiDscr.requiresAuth(), apiDscr.transactional()));
+                apiCallMap.put(
+                    apiName,
+                    new ApiEntry(
+                        apiCall,
+                        apiDscr,
+                        apiDscr.requiresAuth(),
+                        apiDscr.transactional(),
+                        apiCallStats.register(apiName)
+                    )
+                );
             }
             else
             {
@@ -160,16 +149,28 @@ public class CommonMessageProcessor implements MessageProcessor
             switch (msgType)
             {
                 case MessageTypes.DATA:
-                    long peerSeq = peer.getNextIncomingMessageSeq();
-                    workerPool.next(() -> this.doProcessMessage(msg, connector, peer, peerSeq));
+                    long receivedNanos = System.nanoTime();
+                    ApiCallPriority priority = getPriority(msg);
+                    // High priority messages are only ordered with the other high priority messages of the peer,
+                    // so that they neither wait for the per-peer queue nor for the normal messages of the peer
+                    long peerSeq = peer.getNextIncomingMessageSeq(priority);
+                    // The message is released by doProcessMessage once the message was processed
+                    msgScheduler.submit(
+                        peer,
+                        priority,
+                        () -> this.doProcessMessage(msg, connector, peer, priority, peerSeq, receivedNanos)
+                    );
                     break;
                 case MessageTypes.PING:
+                    msg.release();
                     peer.sendPong();
                     break;
                 case MessageTypes.PONG:
                     // pongReceived is called for every case, making this case a no-op.
+                    msg.release();
                     break;
                 default:
+                    msg.release();
                     String peerAddress = null;
                     int port = 0;
                     InetSocketAddress peerSocketAddr = peer.peerAddress();
@@ -200,6 +201,7 @@ public class CommonMessageProcessor implements MessageProcessor
         }
         catch (IllegalMessageStateException exc)
         {
+            msg.release();
             errorLog.reportError(
                 Level.ERROR,
                 exc,
@@ -210,16 +212,62 @@ public class CommonMessageProcessor implements MessageProcessor
         }
     }
 
+    /**
+     * Returns the priority of the API call contained in the message.
+     * Messages that are too large to be inspected on the connector thread, compressed messages, answers and
+     * messages that cannot be parsed are of normal priority.
+     */
+    private ApiCallPriority getPriority(Message msg) throws IllegalMessageStateException
+    {
+        ApiCallPriority priority = ApiCallPriority.NORMAL;
+        // Chunked messages are always larger than MAX_PRIORITY_MSG_SIZE, so their single-use data stream is not
+        // consumed here
+        if (!msg.isCompressed() && msg.getDataSize() <= MAX_PRIORITY_MSG_SIZE)
+        {
+            try
+            {
+                MsgHeaderOuterClass.MsgHeader header =
+                    MsgHeaderOuterClass.MsgHeader.parseDelimitedFrom(msg.getDataInputStream());
+                if (header != null &&
+                    (header.getMsgType() == MsgType.API_CALL || header.getMsgType() == MsgType.ONEWAY))
+                {
+                    ApiEntry apiMapEntry = apiCallMap.get(header.getMsgContent());
+                    if (apiMapEntry != null)
+                    {
+                        priority = apiMapEntry.descriptor.getPriority();
+                    }
+                }
+            }
+            catch (IOException ignored)
+            {
+                // The error is reported when the message is processed
+            }
+        }
+        return priority;
+    }
+
     /**
      * Called on a worker pool thread.
+     * The message's data is released when the processing of the message terminates, or when the message is
+     * discarded because the peer's connection was closed. API calls must therefore deserialize their data before
+     * their flux completes.
      */
-    private void doProcessMessage(Message msg, TcpConnector connector, Peer peer, long peerSeq)
+    private void doProcessMessage(
+        Message msg,
+        TcpConnector connector,
+        Peer peer,
+        ApiCallPriority priority,
+        long peerSeq,
+        long receivedNanos
+    )
     {
-        peer.processInOrder(peerSeq, Flux.defer(() ->
+        Flux<?> msgFlux = Flux.defer(() ->
             peer.isConnected(false) ?
-                this.doProcessInOrderMessage(msg, connector, peer, peerSeq) :
+                this.doProcessInOrderMessage(msg, connector, peer, peerSeq, receivedNanos) :
                 Flux.empty()
-        ));
+        );
+        // If the connection closes before the flux is subscribed to, the discard action releases the message
+        peer.processInOrder(priority, peerSeq, msgFlux.doFinally(ignored -> msg.release()), msg::release);
     }
 
     /**
@@ -227,12 +275,18 @@ public class CommonMessageProcessor implements MessageProcessor
      * The messages from each peer are guaranteed to be delivered in the same order as in the incoming stream.
      * In particular, no two messages from a given peer will be processed at the same time.
      */
-    private Flux<?> doProcessInOrderMessage(Message msg, TcpConnector connector, Peer peer, long peerSeq)
+    private Flux<?> doProcessInOrderMessage(
+        Message msg,
+        TcpConnector connector,
+        Peer peer,
+        long peerSeq,
+        long receivedNanos
+    )
     {
         Flux<?> flux = Flux.empty();
         try
         {
-            flux = handleDataMessage(msg, connector, peer, peerSeq)
+            flux = handleDataMessage(msg, connector, peer, peerSeq, receivedNanos)
                 .doOnError(exc -> errorLog.reportError(
                     Level.ERROR,
                     exc,
@@ -259,14 +313,14 @@ public class CommonMessageProcessor implements MessageProcessor
         final Message msg,
         final TcpConnector connector,
         final Peer peer,
-        long peerSeq
+        long peerSeq,
+        long receivedNanos
     )
         throws IllegalMessageStateException, IOException
     {
         Flux<?> flux = Flux.empty();
 
-        byte[] msgData = msg.getData();
-        ByteArrayInputStream msgDataIn = new ByteArrayInputStream(msgData);
+        InputStream msgDataIn = msg.getDataInputStream();
 
         MsgHeaderOuterClass.MsgHeader header = MsgHeaderOuterClass.MsgHeader.parseDelimitedFrom(msgDataIn);
         if (header != null)
@@ -278,10 +332,18 @@ public class CommonMessageProcessor implements MessageProcessor
                 case ONEWAY:
                     // fall-through
                 case API_CALL:
-                    flux = callApi(connector, peer, header, msgDataIn, msgType == MsgType.API_CALL, peerSeq);
+                    flux = callApi(
+                        connector,
+                        peer,
+                        header,
+                        msgDataIn,
+                        msgType == MsgType.API_CALL,
+                        peerSeq,
+                        receivedNanos
+                    );
                     break;
                 case ANSWER:
-                    handleAnswer(peer, header, msgDataIn, peerSeq);
+                    handleAnswer(peer, header, msgDataIn, msg.getDataSize(), peerSeq);
                     break;
                 case COMPLETE:
                     handleComplete(peer, header, peerSeq);
@@ -315,7 +377,8 @@ public class CommonMessageProcessor implements MessageProcessor
     private void handleAnswer(
         Peer peer,
         MsgHeaderOuterClass.MsgHeader header,
-        ByteArrayInputStream msgDataIn,
+        InputStream msgDataIn,
+        int msgDataSize,
         long peerSeq
     )
         throws IOException
@@ -323,15 +386,54 @@ public class CommonMessageProcessor implements MessageProcessor
         long apiCallId = getApiCallId(header);
         errorLog.logTrace("Peer %s, API call %d answer received (seq %d)", peer, apiCallId, peerSeq);
 
+        if (msgDataSize > MAX_ANSWER_DATA_SIZE)
+        {
+            // Not read, the remaining chunks are discarded when the message is released
+            peer.apiCallError(
+                apiCallId,
+                new ApiRcException(
+                    ApiCallRcImpl.simpleEntry(
+                        ApiConsts.FAIL_UNKNOWN_ERROR,
+                        "(" + peer + ") Answer of " + msgDataSize + " bytes exceeds the maximum answer size of " +
+                            MAX_ANSWER_DATA_SIZE + " bytes"
+                    )
+                )
+            );
+        }
+        else
+        {
+            copyAnswer(peer, header, msgDataIn, apiCallId);
+        }
+    }
+
+    private void copyAnswer(Peer peer, MsgHeaderOuterClass.MsgHeader header, InputStream msgDataIn, long apiCallId)
+        throws IOException
+    {
+        // The answer is passed on to the subscribers of the API call, which may outlive the message's
+        // data, so the answer must be copied out of the message. The copy also allows scanning the answer
+        // for errors, since the stream of a chunked message cannot be reset.
+        byte[] answerData = new byte[msgDataIn.available()];
+        int answerLen = 0;
+        int readCount = 0;
+        while (answerLen < answerData.length && readCount != -1)
+        {
+            readCount = msgDataIn.read(answerData, answerLen, answerData.length - answerLen);
+            if (readCount > 0)
+            {
+                answerLen += readCount;
+            }
+        }
+        ByteArrayInputStream answerIn = new ByteArrayInputStream(answerData, 0, answerLen);
+
         ApiRcException error = null;
         if (header.getMsgContent().equals(ApiConsts.API_REPLY))
         {
             // check for errors
-            msgDataIn.mark(0);
-            while (msgDataIn.available() > 0 && error == null)
+            answerIn.mark(0);
+            while (answerIn.available() > 0 && error == null)
             {
                 ApiCallResponseOuterClass.ApiCallResponse apiCallResponse =
-                    ApiCallResponseOuterClass.ApiCallResponse.parseDelimitedFrom(msgDataIn);
+                    ApiCallResponseOuterClass.ApiCallResponse.parseDelimitedFrom(answerIn);
                 if ((apiCallResponse.getRetCode() & ApiConsts.MASK_ERROR) == ApiConsts.MASK_ERROR)
                 {
                     error = new ApiRcException(ProtoDeserializationUtils.parseApiCallRc(
@@ -339,7 +441,7 @@ public class CommonMessageProcessor implements MessageProcessor
                     ));
                 }
             }
-            msgDataIn.reset();
+            answerIn.reset();
         }
 
         if (!header.getMsgContent().equals(ApiConsts.API_END_OF_IMMEDIATE_ANSWERS))
@@ -350,7 +452,7 @@ public class CommonMessageProcessor implements MessageProcessor
             }
             else
             {
-                peer.apiCallAnswer(apiCallId, msgDataIn);
+                peer.apiCallAnswer(apiCallId, answerIn);
             }
         }
     }
@@ -367,12 +469,15 @@ public class CommonMessageProcessor implements MessageProcessor
         TcpConnector connector,
         Peer peer,
         MsgHeaderOuterClass.MsgHeader header,
-        ByteArrayInputStream msgDataIn,
+        InputStream msgDataIn,
         boolean respond,
-        long peerSeq
+        long peerSeq,
+        long receivedNanos
     )
     {
         Flux<byte[]> messageFlux;
+        // Only set if the API call is executed
+        ApiCallStats.Entry execCallStats = null;
         String apiCallName = header.getMsgContent();
 
         String apiCallDescription = respond ? "API call " + getApiCallId(header) : "oneway call";
@@ -392,7 +497,16 @@ public class CommonMessageProcessor implements MessageProcessor
             {
                 Long apiCallId = respond ? getApiCallId(header) : 0L;
 
-                messageFlux = execute(apiMapEntry, apiCallName, apiCallId, msgDataIn, respond)
+                ApiCallStats.Entry callStats = apiMapEntry.stats;
+                Flux<byte[]> executionFlux = execute(apiMapEntry, apiCallName, apiCallId, msgDataIn, respond);
+                // Called on subscription of the message's flux, so the execution starts now
+                long execStartNanos = System.nanoTime();
+                callStats.callStarted(execStartNanos - receivedNanos);
+                execCallStats = callStats;
+
+                messageFlux = executionFlux
+                    .doOnError(ignored -> callStats.callFailed())
+                    .doFinally(ignored -> callStats.callFinished(System.nanoTime() - execStartNanos))
                     .checkpoint("Fallback error handling wrapper")
                     .onErrorResume(
                         InvalidProtocolBufferException.class,
@@ -461,6 +575,7 @@ public class CommonMessageProcessor implements MessageProcessor
             }
         }
 
+        final ApiCallStats.Entry answerCallStats = execCallStats;
         Flux<byte[]> flux = respond ?
             Flux
                 .merge(
@@ -473,7 +588,7 @@ public class CommonMessageProcessor implements MessageProcessor
                 )
                 .onErrorResume(exc -> errorFallback(exc, peer, header))
                 .concatWith(Flux.just(commonSerializer.completionBuilder(getApiCallId(header)).build()))
-                .doOnNext(peer::sendMessage) :
+                .doOnNext(answer -> sendAnswer(peer, answer, answerCallStats)) :
             messageFlux
                 .doOnNext(ignored ->
                     errorLog.logDebug("Dropping message generated for oneway call '" + apiCallName + "'"));
@@ -482,11 +597,21 @@ public class CommonMessageProcessor implements MessageProcessor
             errorLog.logDebug("Peer %s, %s '%s' end", peer, apiCallDescription, apiCallName));
     }
 
+    private void sendAnswer(Peer peer, byte[] answer, @Nullable ApiCallStats.Entry callStats)
+    {
+        long startNanos = System.nanoTime();
+        peer.sendMessage(answer);
+        if (callStats != null)
+        {
+            callStats.answerSerialized(System.nanoTime() - startNanos);
+        }
+    }
+
     private Flux<byte[]> execute(
         ApiEntry apiMapEntry,
         String apiCallName,
         Long apiCallId,
-        ByteArrayInputStream msgDataIn,
+        InputStream msgDataIn,
         boolean respond
     )
     {
@@ -519,7 +644,7 @@ public class CommonMessageProcessor implements MessageProcessor
         return flux;
     }
 
-    private Flux<byte[]> executeNonReactive(ApiCall apiObj, ByteArrayInputStream msgDataIn)
+    private Flux<byte[]> executeNonReactive(ApiCall apiObj, InputStream msgDataIn)
         throws Exception
     {
         apiObj.execute(msgDataIn);
@@ -736,18 +861,21 @@ public class CommonMessageProcessor implements MessageProcessor
         final ApiCallDescriptor descriptor;
         final boolean reqAuth;
         final boolean transactional;
+        final ApiCallStats.Entry stats;
 
         ApiEntry(
             final BaseApiCall apiCallRef,
             final ApiCallDescriptor descriptorRef,
             final boolean reqAuthFlag,
-            boolean transactionalRef
+            boolean transactionalRef,
+            final ApiCallStats.Entry statsRef
         )
         {
             apiCall = apiCallRef;
             descriptor = descriptorRef;
             reqAuth = reqAuthFlag;
             transactional = transactionalRef;
+            stats = statsRef;
         }
     }
 
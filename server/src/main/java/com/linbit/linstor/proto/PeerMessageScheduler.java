@@ -0,0 +1,465 @@
+package com.linbit.linstor.proto;
+
+import com.linbit.ImplementationError;
+import com.linbit.linstor.LinStorModule;
+import com.linbit.linstor.api.ApiCallPriority;
+import com.linbit.linstor.core.LinStor;
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
+import com.linbit.linstor.core.objects.Node;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.netcom.Peer;
+import com.linbit.utils.MathUtils;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Dispatches the processing of received messages to the worker pool
+ *
+ * Each peer has its own queue of messages waiting for processing. The queues of all peers that have
+ * waiting messages are served round-robin, so that a peer that sends many messages cannot starve the
+ * messages of other peers. The number of messages that are dispatched to the worker pool at the same time
+ * is limited to the number of worker threads, so that waiting messages remain in the fair per-peer queues.
+ * If messages are processed on virtual threads, the limit is {@link #VIRTUAL_MAX_IN_FLIGHT} instead, so that
+ * messages whose processing blocks do not delay other messages.
+ *
+ * If the queue of a peer reaches the peer queue size, the peer stops reading from its connection until
+ * half of the queued messages have been dispatched.
+ *
+ * Messages of {@link ApiCallPriority#HIGH high priority} API calls bypass the per-peer queues and are
+ * dispatched to a separate, small worker pool immediately, so that they are not delayed by heavy work that
+ * is queued in the main worker pool. The message processor orders them separately from the peer's messages of
+ * normal priority, so that they do not wait for those either. The queue latency is recorded separately for
+ * each priority lane.
+ */
+@Singleton
+public class PeerMessageScheduler
+{
+    // Number of waiting messages of a single peer at which reading from the peer's connection is throttled
+    public static final int DEFAULT_PEER_QUEUE_SIZE = 64;
+
+    // Number of messages that are processed at the same time if each message is processed on its own virtual thread
+    public static final int VIRTUAL_MAX_IN_FLIGHT = 256;
+
+    private final ErrorReporter errorLog;
+    private final Scheduler scheduler;
+    private final Scheduler priorityScheduler;
+    private final int maxInFlight;
+    private final int peerQueueSize;
+
+    // Protected by schedLock
+    private final Object schedLock = new Object();
+    private final Map<Peer, PeerQueue> peerQueues = new HashMap<>();
+    private final Deque<PeerQueue> readyQueues = new ArrayDeque<>();
+    private int inFlight = 0;
+
+    private final LongAdder dispatchCtr = new LongAdder();
+    private final LongAdder throttleCtr = new LongAdder();
+
+    private final Map<ApiCallPriority, LaneStats> laneStatsMap = new EnumMap<>(ApiCallPriority.class);
+
+    @Inject
+    public PeerMessageScheduler(
+        ErrorReporter errorLogRef,
+        Scheduler schedulerRef,
+        @Named(LinStorModule.PRIORITY_WORKER_POOL) Scheduler prioritySchedulerRef,
+        WorkerPoolMode workerPoolModeRef
+    )
+    {
+        this(
+            errorLogRef,
+            schedulerRef,
+            prioritySchedulerRef,
+            workerPoolModeRef == WorkerPoolMode.VIRTUAL ?
+                VIRTUAL_MAX_IN_FLIGHT :
+                MathUtils.bounds(
+                    CommonMessageProcessor.MIN_THR_COUNT,
+                    LinStor.CPU_COUNT,
+                    CommonMessageProcessor.MAX_THR_COUNT
+                ),
+            DEFAULT_PEER_QUEUE_SIZE
+        );
+    }
+
+    public PeerMessageScheduler(
+        ErrorReporter errorLogRef,
+        Scheduler schedulerRef,
+        Scheduler prioritySchedulerRef,
+        int maxInFlightRef,
+        int peerQueueSizeRef
+    )
+    {
+        errorLog = errorLogRef;
+        scheduler = schedulerRef;
+        priorityScheduler = prioritySchedulerRef;
+        maxInFlight = maxInFlightRef;
+        peerQueueSize = peerQueueSizeRef;
+
+        for (ApiCallPriority priority : ApiCallPriority.values())
+        {
+            laneStatsMap.put(priority, new LaneStats(priority));
+        }
+    }
+
+    /**
+     * Queues the processing of a message of normal priority received from the specified peer.
+     * May be called on any thread, never blocks.
+     */
+    public void submit(Peer peer, Runnable task)
+    {
+        submit(peer, ApiCallPriority.NORMAL, task);
+    }
+
+    /**
+     * Queues the processing of a message received from the specified peer in the lane of the specified priority.
+     * May be called on any thread, never blocks.
+     */
+    public void submit(Peer peer, ApiCallPriority priority, Runnable task)
+    {
+        LaneStats lane = laneStatsMap.get(priority);
+        QueuedTask queuedTask = new QueuedTask(task, lane);
+        lane.queuedCtr.incrementAndGet();
+        if (priority == ApiCallPriority.HIGH)
+        {
+            try
+            {
+                priorityScheduler.schedule(() -> runQueuedTask(queuedTask));
+            }
+            catch (RejectedExecutionException rejectedExc)
+            {
+                // the worker pool is shutting down
+                lane.queuedCtr.decrementAndGet();
+            }
+        }
+        else
+        {
+            submitNormal(peer, queuedTask);
+        }
+    }
+
+    private void submitNormal(Peer peer, QueuedTask queuedTask)
+    {
+        boolean throttle = false;
+        synchronized (schedLock)
+        {
+            PeerQueue queue = peerQueues.get(peer);
+            if (queue == null)
+            {
+                queue = new PeerQueue(peer);
+                peerQueues.put(peer, queue);
+                readyQueues.add(queue);
+            }
+            queue.tasks.add(queuedTask);
+            if (!queue.throttled && queue.tasks.size() >= peerQueueSize)
+            {
+                queue.throttled = true;
+                throttle = true;
+            }
+        }
+        if (throttle)
+        {
+            throttleCtr.increment();
+            peer.setReadThrottled(true);
+        }
+        dispatch();
+    }
+
+    /**
+     * Dispatches waiting messages round-robin until the maximum number of messages is being processed
+     */
+    private void dispatch()
+    {
+        boolean dispatched = true;
+        while (dispatched)
+        {
+            dispatched = false;
+            QueuedTask task = null;
+            Peer unthrottlePeer = null;
+            synchronized (schedLock)
+            {
+                if (inFlight < maxInFlight)
+                {
+                    PeerQueue queue = readyQueues.poll();
+                    if (queue != null)
+                    {
+                        task = queue.tasks.poll();
+                        if (queue.tasks.isEmpty())
+                        {
+                            peerQueues.remove(queue.peer);
+                        }
+                        else
+                        {
+                            // the peer's next message is dispatched after the messages of all other peers
+                            readyQueues.add(queue);
+                        }
+                        if (queue.throttled && queue.tasks.size() <= peerQueueSize / 2)
+                        {
+                            queue.throttled = false;
+                            unthrottlePeer = queue.peer;
+                        }
+                        ++inFlight;
+                    }
+                }
+            }
+            if (unthrottlePeer != null)
+            {
+                unthrottlePeer.setReadThrottled(false);
+            }
+            if (task != null)
+            {
+                dispatched = true;
+                dispatchCtr.increment();
+                final QueuedTask dispatchedTask = task;
+                try
+                {
+                    scheduler.schedule(() -> runTask(dispatchedTask));
+                }
+                catch (RejectedExecutionException rejectedExc)
+                {
+                    // the worker pool is shutting down
+                    dispatchedTask.lane.queuedCtr.decrementAndGet();
+                    taskFinished();
+                }
+            }
+        }
+    }
+
+    private void runTask(QueuedTask task)
+    {
+        try
+        {
+            runQueuedTask(task);
+        }
+        finally
+        {
+            taskFinished();
+            dispatch();
+        }
+    }
+
+    private void runQueuedTask(QueuedTask task)
+    {
+        task.lane.taskStarted(System.nanoTime() - task.queuedNanos);
+        try
+        {
+            task.task.run();
+        }
+        catch (Exception | ImplementationError exc)
+        {
+            errorLog.reportError(exc, null, null, "Uncaught exception in message processing");
+        }
+        finally
+        {
+            task.lane.inFlightCtr.decrementAndGet();
+        }
+    }
+
+    private void taskFinished()
+    {
+        synchronized (schedLock)
+        {
+            --inFlight;
+        }
+    }
+
+    /**
+     * Number of messages that are currently being processed by the worker pool
+     */
+    public int getInFlightCount()
+    {
+        synchronized (schedLock)
+        {
+            return inFlight;
+        }
+    }
+
+    public int getMaxInFlightCount()
+    {
+        return maxInFlight;
+    }
+
+    /**
+     * Number of messages that were dispatched to the worker pool
+     */
+    public long getDispatchCount()
+    {
+        return dispatchCtr.sum();
+    }
+
+    /**
+     * Number of times that reading from a peer's connection was throttled
+     */
+    public long getThrottleCount()
+    {
+        return throttleCtr.sum();
+    }
+
+    /**
+     * Returns the queue statistics of the lane of the specified priority
+     */
+    public LaneStats getLaneStats(ApiCallPriority priority)
+    {
+        return laneStatsMap.get(priority);
+    }
+
+    /**
+     * Returns the queue depth and wait time of each peer that has messages waiting for processing
+     */
+    public List<PeerQueueStats> getPeerQueueStats()
+    {
+        long now = System.nanoTime();
+        List<PeerQueueStats> statsList = new ArrayList<>();
+        synchronized (schedLock)
+        {
+            for (PeerQueue queue : peerQueues.values())
+            {
+                QueuedTask oldestTask = queue.tasks.peek();
+                long waitNanos = oldestTask == null ? 0 : now - oldestTask.queuedNanos;
+                statsList.add(
+                    new PeerQueueStats(
+                        queue.peerName,
+                        queue.tasks.size(),
+                        TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                        queue.throttled
+                    )
+                );
+            }
+        }
+        return statsList;
+    }
+
+    public static class PeerQueueStats
+    {
+        public final String peerName;
+        public final int queueDepth;
+        // Time that the oldest waiting message of the peer has been waiting
+        public final long waitMillis;
+        public final boolean throttled;
+
+        PeerQueueStats(String peerNameRef, int queueDepthRef, long waitMillisRef, boolean throttledRef)
+        {
+            peerName = peerNameRef;
+            queueDepth = queueDepthRef;
+            waitMillis = waitMillisRef;
+            throttled = throttledRef;
+        }
+    }
+
+    /**
+     * Queue statistics of a priority lane. The queue wait time of a message is the time from the message
+     * being submitted until the start of its processing.
+     */
+    public static class LaneStats
+    {
+        private final ApiCallPriority priority;
+        private final AtomicInteger queuedCtr = new AtomicInteger();
+        private final AtomicInteger inFlightCtr = new AtomicInteger();
+        private final LongAdder startedCtr = new LongAdder();
+        private final LongAdder waitNanosSum = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        LaneStats(ApiCallPriority priorityRef)
+        {
+            priority = priorityRef;
+        }
+
+        private void taskStarted(long waitNanos)
+        {
+            queuedCtr.decrementAndGet();
+            inFlightCtr.incrementAndGet();
+            startedCtr.increment();
+            waitNanosSum.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        public ApiCallPriority getPriority()
+        {
+            return priority;
+        }
+
+        /**
+         * Number of messages that are waiting for processing
+         */
+        public int getQueuedCount()
+        {
+            return queuedCtr.get();
+        }
+
+        /**
+         * Number of messages that are being processed
+         */
+        public int getInFlightCount()
+        {
+            return inFlightCtr.get();
+        }
+
+        /**
+         * Number of messages whose processing was started
+         */
+        public long getStartedCount()
+        {
+            return startedCtr.sum();
+        }
+
+        /**
+         * Sum of the queue wait times of all messages whose processing was started
+         */
+        public long getWaitNanosSum()
+        {
+            return waitNanosSum.sum();
+        }
+
+        /**
+         * Longest queue wait time of any message whose processing was started
+         */
+        public long getMaxWaitNanos()
+        {
+            return maxWaitNanos.get();
+        }
+    }
+
+    private static class PeerQueue
+    {
+        private final Peer peer;
+        private final String peerName;
+        private final Deque<QueuedTask> tasks = new ArrayDeque<>();
+        private boolean throttled = false;
+
+        PeerQueue(Peer peerRef)
+        {
+            peer = peerRef;
+            Node node = peerRef.getNode();
+            peerName = node != null ? node.getName().displayValue : peerRef.getId();
+        }
+    }
+
+    private static class QueuedTask
+    {
+        private final Runnable task;
+        private final LaneStats lane;
+        private final long queuedNanos;
+
+        QueuedTask(Runnable taskRef, LaneStats laneRef)
+        {
+            task = taskRef;
+            lane = laneRef;
+            queuedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.linbit.linstor.transaction;
+
+import static com.ibm.etcd.client.KeyUtils.bs;
+
+import com.linbit.linstor.logging.ErrorReporter;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.ibm.etcd.api.Event;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.ResponseOp;
+import com.ibm.etcd.api.TxnResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import com.ibm.etcd.client.kv.KvClient.Watch;
+import com.ibm.etcd.client.kv.WatchUpdate;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * In-memory copy of the LINSTOR tables stored in ETCD, kept up to date by an ETCD watch
+ *
+ * The tables are loaded concurrently with paged range requests that are all pinned to the same revision. The watch
+ * starts right after that revision, so that every later modification is applied to the index. While the index is
+ * usable, reads of keys within a table are answered from memory instead of sending a range request to ETCD.
+ *
+ * Modifications become visible in the index only when the watch delivers them. Transactions therefore wait after
+ * their commit until the index has applied the revision of the commit, see {@link #awaitRevision(long)}.
+ *
+ * If the watch fails or falls behind, the index is disabled and all reads are sent to ETCD again.
+ */
+public class EtcdKeyIndex implements AutoCloseable
+{
+    private static final int MAX_PARALLEL_TABLE_LOADS = 8;
+    private static final long AWAIT_REVISION_TIMEOUT_MILLIS = 10_000;
+
+    private final ErrorReporter errorReporter;
+    private final String linstorPrefix;
+    private final Set<String> tableNames;
+
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final TreeMap<String, String> index = new TreeMap<>();
+
+    private final Object revisionMonitor = new Object();
+    // guarded by revisionMonitor
+    private long appliedRevision;
+
+    private volatile boolean usable;
+    private volatile @Nullable Watch watch;
+
+    public EtcdKeyIndex(ErrorReporter errorReporterRef, String linstorPrefixRef, Collection<String> tableNamesRef)
+    {
+        errorReporter = errorReporterRef;
+        linstorPrefix = linstorPrefixRef;
+        tableNames = new HashSet<>(tableNamesRef);
+    }
+
+    /**
+     * Loads all tables and starts the watch. Throws a {@link TransactionException} if ETCD cannot be reached.
+     */
+    public void start(KvClient kvClient)
+    {
+        long startMillis = System.currentTimeMillis();
+        long revision = EtcdTransaction.requestWithRetry(kvClient.get(bs(linstorPrefix)).asPrefix().countOnly())
+            .getHeader()
+            .getRevision();
+
+        TreeMap<String, String> loaded = new TreeMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(MAX_PARALLEL_TABLE_LOADS, tableNames.size())
+        );
+        try
+        {
+            List<CompletableFuture<TreeMap<String, String>>> tableFutures = new ArrayList<>();
+            for (String tableName : tableNames)
+            {
+                String tablePrefix = linstorPrefix + tableName + "/";
+                tableFutures.add(
+                    CompletableFuture.supplyAsync(
+                        () -> EtcdTransaction.getPrefixPaged(kvClient, tablePrefix, revision),
+                        executor
+                    )
+                );
+            }
+            for (CompletableFuture<TreeMap<String, String>> tableFuture : tableFutures)
+            {
+                loaded.putAll(join(tableFuture));
+            }
+            load(loaded, revision);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        watch = kvClient.watch(bs(linstorPrefix))
+            .asPrefix()
+            .startRevision(revision + 1)
+            .start(new WatchObserver());
+
+        errorReporter.logInfo(
+            "ETCD key index loaded %d keys at revision %d in %d ms",
+            loaded.size(),
+            revision,
+            System.currentTimeMillis() - startMillis
+        );
+    }
+
+    private static <T> T join(CompletableFuture<T> future)
+    {
+        T ret;
+        try
+        {
+            ret = future.join();
+        }
+        catch (CompletionException exc)
+        {
+            Throwable cause = exc.getCause();
+            if (cause instanceof TransactionException)
+            {
+                throw (TransactionException) cause;
+            }
+            throw new TransactionException("Failed to load the ETCD key index", exc);
+        }
+        return ret;
+    }
+
+    void load(Map<String, String> entries, long revision)
+    {
+        indexLock.writeLock().lock();
+        try
+        {
+            index.clear();
+            for (Entry<String, String> entry : entries.entrySet())
+            {
+                if (isIndexed(entry.getKey()))
+                {
+                    index.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        finally
+        {
+            indexLock.writeLock().unlock();
+        }
+        synchronized (revisionMonitor)
+        {
+            appliedRevision = revision;
+        }
+        usable = true;
+    }
+
+    /**
+     * Applies the events of one watch response. Responses without events are ignored, as the revision in their
+     * header does not guarantee that all events up to that revision were already delivered.
+     */
+    void apply(List<Event> events)
+    {
+        long revision = 0;
+        indexLock.writeLock().lock();
+        try
+        {
+            for (Event event : events)
+            {
+                KeyValue keyValue = event.getKv();
+                String key = keyValue.getKey().toStringUtf8();
+                if (isIndexed(key))
+                {
+                    if (event.getType() == Event.EventType.DELETE)
+                    {
+                        index.remove(key);
+                    }
+                    else
+                    {
+                        index.put(key, keyValue.getValue().toStringUtf8());
+                    }
+                }
+                revision = Math.max(revision, keyValue.getModRevision());
+            }
+        }
+        finally
+        {
+            indexLock.writeLock().unlock();
+        }
+        synchronized (revisionMonitor)
+        {
+            if (revision > appliedRevision)
+            {
+                appliedRevision = revision;
+                revisionMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the entries of the given key, or of all keys starting with the given key if recursive is set.
+     * Returns <code>null</code> if the index cannot answer the request, in which case the caller has to ask ETCD.
+     */
+    @Nullable
+    public TreeMap<String, String> get(String key, boolean recursive)
+    {
+        TreeMap<String, String> ret = null;
+        if (usable && isIndexed(key))
+        {
+            indexLock.readLock().lock();
+            try
+            {
+                // disable() clears the index after resetting the usable flag, so the flag is checked again while
+                // the index can no longer be cleared
+                if (usable)
+                {
+                    ret = new TreeMap<>();
+                    if (recursive)
+                    {
+                        for (Entry<String, String> entry : index.tailMap(key, true).entrySet())
+                        {
+                            if (!entry.getKey().startsWith(key))
+                            {
+                                break;
+                            }
+                            ret.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    else
+                    {
+                        String value = index.get(key);
+                        if (value != null)
+                        {
+                            ret.put(key, value);
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                indexLock.readLock().unlock();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Waits until the watch delivered all modifications up to the given revision. If that takes too long, the index
+     * is disabled, as it could otherwise return outdated data.
+     */
+    public void awaitRevision(long revision)
+    {
+        if (usable)
+        {
+            boolean reached;
+            synchronized (revisionMonitor)
+            {
+                long deadline = System.currentTimeMillis() + AWAIT_REVISION_TIMEOUT_MILLIS;
+                long remaining = AWAIT_REVISION_TIMEOUT_MILLIS;
+                try
+                {
+                    while (usable && appliedRevision < revision && remaining > 0)
+                    {
+                        revisionMonitor.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                }
+                catch (InterruptedException exc)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                reached = appliedRevision >= revision;
+            }
+            if (!reached)
+            {
+                disable("ETCD watch did not deliver revision " + revision + " in time", null);
+            }
+        }
+    }
+
+    /**
+     * Returns the revision of the given transaction if the transaction modified any key, 0 otherwise. Transactions
+     * that did not modify anything do not create a revision, and their response only contains the current
+     * revision of ETCD, which might belong to keys that are not watched.
+     */
+    public static long getModifyingRevision(TxnResponse txnResponse)
+    {
+        boolean modified = false;
+        for (ResponseOp responseOp : txnResponse.getResponsesList())
+        {
+            switch (responseOp.getResponseCase())
+            {
+                case RESPONSE_PUT:
+                    modified = true;
+                    break;
+                case RESPONSE_DELETE_RANGE:
+                    modified |= responseOp.getResponseDeleteRange().getDeleted() > 0;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return modified ? txnResponse.getHeader().getRevision() : 0;
+    }
+
+    public boolean isUsable()
+    {
+        return usable;
+    }
+
+    private boolean isIndexed(String key)
+    {
+        boolean indexed = false;
+        if (key.startsWith(linstorPrefix))
+        {
+            int tableEnd = key.indexOf('/', linstorPrefix.length());
+            indexed = tableEnd != -1 && tableNames.contains(key.substring(linstorPrefix.length(), tableEnd));
+        }
+        return indexed;
+    }
+
+    private void disable(String reason, @Nullable Throwable cause)
+    {
+        if (usable)
+        {
+            usable = false;
+            errorReporter.logWarning("%s. Disabling the ETCD key index, reading from ETCD instead", reason);
+            if (cause != null)
+            {
+                errorReporter.reportError(cause);
+            }
+        }
+        synchronized (revisionMonitor)
+        {
+            revisionMonitor.notifyAll();
+        }
+        indexLock.writeLock().lock();
+        try
+        {
+            index.clear();
+        }
+        finally
+        {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        usable = false;
+        Watch localWatch = watch;
+        if (localWatch != null)
+        {
+            localWatch.close();
+        }
+    }
+
+    private class WatchObserver implements StreamObserver<WatchUpdate>
+    {
+        @Override
+        public void onNext(WatchUpdate update)
+        {
+            apply(update.getEvents());
+        }
+
+        @Override
+        public void onError(Throwable throwable)
+        {
+            disable("ETCD watch failed", throwable);
+        }
+
+        @Override
+        public void onCompleted()
+        {
+            disable("ETCD watch was closed", null);
+        }
+    }
+}
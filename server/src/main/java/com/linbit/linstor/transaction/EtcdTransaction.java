@@ -25,6 +25,13 @@ import com.ibm.etcd.client.kv.KvClient.FluentTxnOps;
 
 public class EtcdTransaction
 {
+    /**
+     * Maximum number of entries per range response. Larger prefixes are read in several pages.
+     */
+    public static final int RANGE_PAGE_SIZE = 1000;
+
+    private static final ByteString ZERO_BYTE = ByteString.copyFrom(new byte[] {0});
+
     private final ControllerETCDDatabase etcdDb;
     private final KvClient kvClient;
 
@@ -78,21 +85,88 @@ public class EtcdTransaction
 
     public TreeMap<String, String> get(String key, boolean recursive)
     {
-        FluentRangeRequest req = kvClient.get(bs(key));
-        if (recursive)
+        EtcdKeyIndex keyIndex = etcdDb.getKeyIndex();
+        TreeMap<String, String> retMap = keyIndex == null ? null : keyIndex.get(key, recursive);
+        if (retMap == null)
         {
-            req = req.asPrefix();
+            if (recursive)
+            {
+                retMap = getPrefixPaged(kvClient, key, 0);
+            }
+            else
+            {
+                RangeResponse rsp = requestWithRetry(kvClient.get(bs(key)));
+
+                retMap = new TreeMap<>();
+                for (KeyValue keyValue : rsp.getKvsList())
+                {
+                    retMap.put(keyValue.getKey().toStringUtf8(), keyValue.getValue().toStringUtf8());
+                }
+            }
         }
-        RangeResponse rsp = requestWithRetry(req);
+        return retMap;
+    }
+
+    /**
+     * Returns the current revision of the whole ETCD cluster, which is increased by every modification of any key,
+     * no matter which client made it
+     *
+     * @param key
+     *     Any key, it is only used for the (count only) request that returns the revision
+     */
+    public long getCurrentRevision(String key)
+    {
+        return requestWithRetry(kvClient.get(bs(key)).countOnly()).getHeader().getRevision();
+    }
+
+    /**
+     * Reads all entries starting with the given prefix in pages of at most {@link #RANGE_PAGE_SIZE} entries, so that
+     * large prefixes do not end up in a single huge response.
+     * All pages are read at the same revision, so that the result is consistent even if the prefix is modified
+     * while it is read.
+     *
+     * @param kvClient
+     * @param prefix
+     * @param revisionRef
+     *     The revision to read, or 0 to read the current revision
+     *
+     * @return
+     */
+    public static TreeMap<String, String> getPrefixPaged(KvClient kvClient, String prefix, long revisionRef)
+    {
+        ByteString fromKey = bs(prefix);
+        ByteString rangeEnd = KeyUtils.plusOne(fromKey);
+        long revision = revisionRef;
 
         TreeMap<String, String> retMap = new TreeMap<>();
-        for (KeyValue keyValue : rsp.getKvsList())
+        boolean more = true;
+        while (more)
         {
-            // final String recKey = keyValue.getKey().toStringUtf8();
-            // final String columnName = recKey.substring(recKey.lastIndexOf("/") + 1);
-            retMap.put(keyValue.getKey().toStringUtf8(), keyValue.getValue().toStringUtf8());
+            FluentRangeRequest req = kvClient.get(fromKey).rangeEnd(rangeEnd).limit(RANGE_PAGE_SIZE);
+            if (revision != 0)
+            {
+                req = req.revision(revision);
+            }
+            RangeResponse rsp = requestWithRetry(req);
+            if (revision == 0)
+            {
+                // the first page was read at the current revision, which is only known after the response
+                revision = rsp.getHeader().getRevision();
+            }
+
+            ByteString lastKey = null;
+            for (KeyValue keyValue : rsp.getKvsList())
+            {
+                lastKey = keyValue.getKey();
+                retMap.put(lastKey.toStringUtf8(), keyValue.getValue().toStringUtf8());
+            }
+            more = rsp.getMore() && lastKey != null;
+            if (more)
+            {
+                // the smallest key that is greater than the last key of this page
+                fromKey = lastKey.concat(ZERO_BYTE);
+            }
         }
-
         return retMap;
     }
 
@@ -18,6 +18,12 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Objects;
 
+/**
+ * List that restores its previous content on rollback
+ *
+ * Like the {@link TransactionMap}, the list does not forward the transaction manager to its values, as values that
+ * are TransactionObjects register themselves when they are modified.
+ */
 public class TransactionList<PARENT, VALUE>
     extends AbsTransactionObject implements List<VALUE>
 {
@@ -43,19 +49,6 @@ public class TransactionList<PARENT, VALUE>
         immutableBackingList = Collections.unmodifiableList(backingList);
     }
 
-    @Override
-    protected void postSetConnection(TransactionMgr transMgrRef)
-    {
-        // forward transaction manager to values
-        for (VALUE val : backingList)
-        {
-            if (val instanceof TransactionObject)
-            {
-                ((TransactionObject) val).setConnection(transMgrRef);
-            }
-        }
-    }
-
     @Override
     public boolean isDirty()
     {
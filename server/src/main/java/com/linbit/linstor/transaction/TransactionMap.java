@@ -6,6 +6,7 @@ import com.linbit.linstor.dbdrivers.interfaces.updater.MapDatabaseDriver;
 import com.linbit.linstor.dbdrivers.noop.NoOpMapDatabaseDriver;
 import com.linbit.linstor.transaction.manager.TransactionMgr;
 
+import javax.annotation.Nullable;
 import javax.inject.Provider;
 
 import java.util.Collection;
@@ -15,12 +16,20 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Map that restores the previous values of all entries modified within a transaction on rollback
+ *
+ * The transaction manager is not forwarded to the keys and values of the map. Keys and values that are
+ * TransactionObjects register themselves when they are modified. Forwarding would additionally register all
+ * unmodified ones, which makes every transaction that modifies a large map O(map size).
+ */
 public class TransactionMap<KEY, VALUE>
     extends AbsTransactionObject implements Map<KEY, VALUE>
 {
     private MapDatabaseDriver<KEY, VALUE> dbDriver;
     private Map<KEY, VALUE> map;
-    private Map<KEY, VALUE> oldValues;
+    // created by the first modification of a transaction
+    private @Nullable Map<KEY, VALUE> oldValues;
 
     public TransactionMap(
         Map<KEY, VALUE> mapRef,
@@ -38,55 +47,42 @@ public class TransactionMap<KEY, VALUE>
         {
             dbDriver = driver;
         }
-
-        oldValues = new HashMap<>();
-    }
-
-    @Override
-    public void postSetConnection(TransactionMgr transMgrRef)
-    {
-        // forward transaction manager on keys
-        map.keySet().stream()
-            .filter(key -> key instanceof TransactionObject)
-            .forEach(to -> ((TransactionObject) to).setConnection(transMgrRef));
-
-        // forward transaction manager on values
-        map.values().stream()
-            .filter(val -> val instanceof TransactionObject)
-            .forEach(to -> ((TransactionObject) to).setConnection(transMgrRef));
     }
 
     @Override
     public void commitImpl()
     {
         assert (TransactionMgr.isCalledFromTransactionMgr("commit"));
-        oldValues.clear();
+        oldValues = null;
     }
 
     @Override
     public void rollbackImpl()
     {
         assert (TransactionMgr.isCalledFromTransactionMgr("rollback"));
-        for (Entry<KEY, VALUE> entry : oldValues.entrySet())
+        if (oldValues != null)
         {
-            KEY key = entry.getKey();
-            VALUE value = entry.getValue();
-            if (value == null)
-            {
-                map.remove(key);
-            }
-            else
+            for (Entry<KEY, VALUE> entry : oldValues.entrySet())
             {
-                map.put(key, value);
+                KEY key = entry.getKey();
+                VALUE value = entry.getValue();
+                if (value == null)
+                {
+                    map.remove(key);
+                }
+                else
+                {
+                    map.put(key, value);
+                }
             }
+            oldValues = null;
         }
-        oldValues.clear();
     }
 
     @Override
     public boolean isDirty()
     {
-        return !oldValues.isEmpty();
+        return oldValues != null && !oldValues.isEmpty();
     }
 
     @Override
@@ -181,6 +177,10 @@ public class TransactionMap<KEY, VALUE>
         }
         if (!Objects.equals(value, oldValue))
         {
+            if (oldValues == null)
+            {
+                oldValues = new HashMap<>();
+            }
             if (!oldValues.containsKey(key))
             {
                 oldValues.put(key, oldValue);
@@ -6,6 +6,7 @@ import com.linbit.linstor.dbdrivers.interfaces.updater.CollectionDatabaseDriver;
 import com.linbit.linstor.dbdrivers.noop.NoOpCollectionDatabaseDriver;
 import com.linbit.linstor.transaction.manager.TransactionMgr;
 
+import javax.annotation.Nullable;
 import javax.inject.Provider;
 
 import java.util.Arrays;
@@ -16,13 +17,20 @@ import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Set that restores its previous content on rollback
+ *
+ * Like the {@link TransactionMap}, the set does not forward the transaction manager to its values, as the values
+ * register themselves when they are modified.
+ */
 public class TransactionSet<PARENT, VALUE extends TransactionObject>
     extends AbsTransactionObject implements Set<VALUE>
 {
     private final PARENT parent;
     private final CollectionDatabaseDriver<PARENT, VALUE> dbDriver;
     private final Set<VALUE> backingSet;
-    private final Set<VALUE> oldValues;
+    // copy of the backing set, created by the first modification of a transaction
+    private @Nullable Set<VALUE> oldValues;
     private boolean isDirty = false;
 
     public TransactionSet(
@@ -35,17 +43,9 @@ public class TransactionSet<PARENT, VALUE extends TransactionObject>
         super(transMgrProviderRef);
         parent = parentRef;
         backingSet = backingSetRef == null ? new HashSet<>() : backingSetRef;
-        oldValues = new LinkedHashSet<>();
         dbDriver = dbDriverRef == null ? new NoOpCollectionDatabaseDriver<>() : dbDriverRef;
     }
 
-    @Override
-    protected void postSetConnection(TransactionMgr transMgrRef)
-    {
-        // forward transaction manager to values
-        backingSet.forEach(to -> to.setConnection(transMgrRef));
-    }
-
     @Override
     public boolean isDirty()
     {
@@ -63,7 +63,7 @@ public class TransactionSet<PARENT, VALUE extends TransactionObject>
     protected void commitImpl()
     {
         assert (TransactionMgr.isCalledFromTransactionMgr("commit"));
-        oldValues.clear();
+        oldValues = null;
         isDirty = false;
     }
 
@@ -71,9 +71,12 @@ public class TransactionSet<PARENT, VALUE extends TransactionObject>
     protected void rollbackImpl()
     {
         assert (TransactionMgr.isCalledFromTransactionMgr("rollback"));
-        backingSet.clear();
-        backingSet.addAll(oldValues);
-        oldValues.clear();
+        if (oldValues != null)
+        {
+            backingSet.clear();
+            backingSet.addAll(oldValues);
+            oldValues = null;
+        }
         isDirty = false;
     }
 
@@ -172,11 +175,11 @@ public class TransactionSet<PARENT, VALUE extends TransactionObject>
     {
         if (!isDirty)
         {
-            synchronized (oldValues)
+            synchronized (this)
             {
                 if (!isDirty)
                 {
-                    oldValues.addAll(backingSet);
+                    oldValues = new LinkedHashSet<>(backingSet);
                     activateTransMgr();
                     isDirty = true;
                 }
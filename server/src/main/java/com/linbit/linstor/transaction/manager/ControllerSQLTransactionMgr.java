@@ -1,24 +1,40 @@
 package com.linbit.linstor.transaction.manager;
 
 import com.linbit.linstor.ControllerSQLDatabase;
+import com.linbit.linstor.LinStorDBRuntimeException;
+import com.linbit.linstor.dbdrivers.DatabaseTable;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.transaction.TransactionException;
 import com.linbit.linstor.transaction.TransactionObject;
 import com.linbit.linstor.transaction.TransactionObjectCollection;
 
+import javax.annotation.Nullable;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 public class ControllerSQLTransactionMgr implements TransactionMgrSQL
 {
+    // Executions after which a batch is sent to the database even if the same statement is requested again
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ControllerSQLDatabase controllerDatabase;
     private final Connection dbCon;
     private final TransactionObjectCollection transactionObjectCollection;
+    private final SQLDatabaseStats stats;
+
+    private @Nullable String batchSql;
+    private @Nullable DatabaseTable batchTable;
+    private @Nullable PreparedStatement batchStmt;
+    private int batchSize;
 
     public ControllerSQLTransactionMgr(ControllerSQLDatabase controllerDatabaseRef) throws SQLException
     {
         controllerDatabase = controllerDatabaseRef;
         dbCon = controllerDatabaseRef.getConnection();
         transactionObjectCollection = new TransactionObjectCollection();
+        stats = controllerDatabaseRef.getStats();
     }
 
     @Override
@@ -32,6 +48,7 @@ public class ControllerSQLTransactionMgr implements TransactionMgrSQL
     {
         try
         {
+            executeBatch();
             dbCon.commit();
         }
         catch (SQLException sqlExc)
@@ -52,6 +69,7 @@ public class ControllerSQLTransactionMgr implements TransactionMgrSQL
 
         try
         {
+            discardBatch();
             dbCon.rollback();
         }
         catch (SQLException sqlExc)
@@ -83,12 +101,87 @@ public class ControllerSQLTransactionMgr implements TransactionMgrSQL
     @Override
     public Connection getConnection()
     {
+        try
+        {
+            executeBatch();
+        }
+        catch (SQLException sqlExc)
+        {
+            throw new LinStorDBRuntimeException("Executing the batched database statements failed.", sqlExc);
+        }
         return dbCon;
     }
 
+    @Override
+    public PreparedStatement getBatchStatement(String sql, DatabaseTable table) throws SQLException
+    {
+        PreparedStatement stmt = batchStmt;
+        if (stmt == null || !sql.equals(batchSql))
+        {
+            executeBatch();
+            stmt = dbCon.prepareStatement(sql);
+            batchStmt = stmt;
+            batchSql = sql;
+            batchTable = table;
+        }
+        else
+        if (batchSize >= MAX_BATCH_SIZE)
+        {
+            batchSize = 0;
+            executeBatch(stmt, table);
+        }
+        ++batchSize;
+        return stmt;
+    }
+
+    private void executeBatch() throws SQLException
+    {
+        PreparedStatement stmt = batchStmt;
+        DatabaseTable table = batchTable;
+        if (stmt != null && table != null)
+        {
+            try
+            {
+                executeBatch(stmt, table);
+            }
+            finally
+            {
+                discardBatch();
+            }
+        }
+    }
+
+    private void executeBatch(PreparedStatement stmt, DatabaseTable table) throws SQLException
+    {
+        long startNanos = System.nanoTime();
+        stmt.executeBatch();
+        stats.recordQuery(table, System.nanoTime() - startNanos);
+    }
+
+    private void discardBatch() throws SQLException
+    {
+        PreparedStatement stmt = batchStmt;
+        batchStmt = null;
+        batchSql = null;
+        batchTable = null;
+        batchSize = 0;
+        if (stmt != null)
+        {
+            stmt.close();
+        }
+    }
+
     @Override
     public void returnConnection()
     {
+        try
+        {
+            discardBatch();
+        }
+        catch (SQLException ignored)
+        {
+            // the pending batch was discarded already, a failed close must not keep the connection from the pool
+        }
         controllerDatabase.returnConnection(dbCon);
 
         clearTransactionObjects();
@@ -1,8 +1,30 @@
 package com.linbit.linstor.transaction.manager;
 
+import com.linbit.linstor.dbdrivers.DatabaseTable;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 public interface TransactionMgrSQL extends TransactionMgr
 {
+    /**
+     * Returns the connection of the transaction. Pending batched statements are executed before the
+     * connection is returned, so that the caller sees all modifications of the transaction.
+     */
     Connection getConnection();
+
+    /**
+     * Returns a statement for the given SQL whose executions are batched.
+     *
+     * The caller sets the parameters and calls {@link PreparedStatement#addBatch()} exactly once, but must neither
+     * execute nor close the statement. The batch is executed when a statement with a different SQL is requested,
+     * when {@link #getConnection()} is called and on commit.
+     *
+     * Only consecutive executions of the same SQL are batched, so the statements are executed in the order they
+     * were added.
+     *
+     * @param table The table the SQL modifies, for the query statistics
+     */
+    PreparedStatement getBatchStatement(String sql, DatabaseTable table) throws SQLException;
 }
@@ -1,5 +1,9 @@
 package com.linbit.locks;
 
+import com.linbit.ImplementationError;
+
+import javax.annotation.Nullable;
+
 import java.util.concurrent.locks.Lock;
 
 public class LockGuard implements AutoCloseable
@@ -10,6 +14,13 @@ public class LockGuard implements AutoCloseable
 
     private final Lock[] lockBundle;
 
+    // Statistics entries for each lock of the lockBundle, or null if the locks are not profiled
+    private final @Nullable LockStats lockStats;
+    private final @Nullable LockStats.Entry[] statsEntries;
+    // Time at which each lock of the lockBundle was acquired
+    private final @Nullable long[] acquiredNanos;
+    private String holder = LockStats.UNKNOWN_HOLDER;
+
     /**
      * Constructs a new LockGuard instance
      *
@@ -27,14 +38,47 @@ public class LockGuard implements AutoCloseable
      * @param locksRef array of locks to be managed by the new LockGuard instance
      */
     LockGuard(final boolean deferred, final Lock... locksRef)
+    {
+        this(deferred, null, null, locksRef);
+    }
+
+    /**
+     * Constructs a new LockGuard instance that records the wait and hold time of each of its locks
+     *
+     * See the description of the LockGuard constructor above for further details.
+     *
+     * @param deferred control flag for the immediate or deferred acquisition of the specified locks
+     * @param lockStatsRef statistics to record the wait and hold times in, or null
+     * @param statsEntriesRef statistics entry for each of the specified locks
+     * @param locksRef array of locks to be managed by the new LockGuard instance
+     */
+    LockGuard(
+        final boolean deferred,
+        final @Nullable LockStats lockStatsRef,
+        final @Nullable LockStats.Entry[] statsEntriesRef,
+        final Lock... locksRef
+    )
     {
         lockBundle = locksRef;
+        lockStats = lockStatsRef;
+        statsEntries = statsEntriesRef;
+        acquiredNanos = lockStatsRef == null ? null : new long[locksRef.length];
         if (!deferred)
         {
             lock();
         }
     }
 
+    /**
+     * Sets the name of the operation that holds the locks, e.g. the name of the API call.
+     * Must be called before the locks are acquired, otherwise the locks are accounted to
+     * {@link LockStats#UNKNOWN_HOLDER}.
+     */
+    public void setHolder(String holderRef)
+    {
+        holder = holderRef;
+    }
+
     /**
      * Acquires the locks managed by the LockGuard instance
      *
@@ -49,11 +93,21 @@ public class LockGuard implements AutoCloseable
         {
             while (idx < lockBundle.length)
             {
-                lockBundle[idx].lock();
+                if (lockStats == null)
+                {
+                    lockBundle[idx].lock();
+                }
+                else
+                {
+                    long requestedNanos = System.nanoTime();
+                    lockBundle[idx].lock();
+                    acquiredNanos[idx] = System.nanoTime();
+                    lockStats.acquired(statsEntries[idx], holder, acquiredNanos[idx] - requestedNanos);
+                }
                 ++idx;
             }
         }
-        catch (RuntimeException exc)
+        catch (RuntimeException | ImplementationError exc)
         {
             // It is not specified by the interface specification of java.util.concurrent.locks.Lock
             // whether a call of Lock.locks() that threw an exception succeeded or failed to acquire
@@ -110,6 +164,10 @@ public class LockGuard implements AutoCloseable
                 try
                 {
                     lockBundle[idx].unlock();
+                    if (lockStats != null)
+                    {
+                        lockStats.released(statsEntries[idx], holder, System.nanoTime() - acquiredNanos[idx]);
+                    }
                 }
                 catch (RuntimeException rtExc)
                 {
@@ -6,6 +6,9 @@ import com.linbit.linstor.core.CoreModule;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.concurrent.locks.Lock;
@@ -13,6 +16,20 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 import com.google.inject.Singleton;
 
+/**
+ * Builds {@link LockGuard}s for the global locks
+ *
+ * The maps of nodes, resource definitions and storage pool definitions are protected by {@link StripedMapLock}s,
+ * which additionally support locking single objects of the map by their name. Locking the map in WRITE mode is
+ * only required for inserting objects into or removing objects from the map. An operation that modifies only
+ * specific objects should lock those objects using {@link LockGuardBuilder#writeObj(LockObj, Object...)}, so that
+ * it does not block operations on other objects.
+ *
+ * All locks of a LockGuard are acquired in a fixed order: first the map locks in the order of their
+ * {@link LockObj#lockIdx}, then the object locks in the order of their map's lockIdx and their stripe index.
+ *
+ * The wait and hold times of all locks of the built LockGuards are recorded in the {@link LockStats}.
+ */
 @Singleton
 public class LockGuardFactory
 {
@@ -26,6 +43,19 @@ public class LockGuardFactory
 
         LockGuardBuilder lock(LockObj lockId, LockType lockType);
 
+        /**
+         * Locks the objects with the specified names (e.g. {@link com.linbit.linstor.core.identifier.ResourceName}s)
+         * for reading. The map is locked in intent read mode, unless it is locked explicitly.
+         */
+        LockGuardBuilder readObj(LockObj lockId, Object... objNames);
+
+        /**
+         * Locks the objects with the specified names for modification. The map is locked in intent write mode,
+         * unless it is locked explicitly. If the map is explicitly locked for reading, it is locked for writing
+         * instead.
+         */
+        LockGuardBuilder writeObj(LockObj lockId, Object... objNames);
+
         LockGuard build();
 
         default LockGuard buildDeferred()
@@ -37,22 +67,25 @@ public class LockGuardFactory
 
     public enum LockObj
     {
-        RECONFIGURATION(0),
-        CTRL_CONFIG(1),
-        NODES_MAP(2),
-        RSC_DFN_MAP(3),
-        STOR_POOL_DFN_MAP(4),
-        KVS_MAP(5),
-        RSC_GRP_MAP(6),
-        EXT_FILE_MAP(7),
-        REMOTE_MAP(8),
-        SCHEDULE_MAP(9);
+        RECONFIGURATION(0, false),
+        CTRL_CONFIG(1, false),
+        NODES_MAP(2, true),
+        RSC_DFN_MAP(3, true),
+        STOR_POOL_DFN_MAP(4, true),
+        KVS_MAP(5, false),
+        RSC_GRP_MAP(6, false),
+        EXT_FILE_MAP(7, false),
+        REMOTE_MAP(8, false),
+        SCHEDULE_MAP(9, false);
 
         public final int lockIdx;
+        // True if single objects of the map can be locked
+        public final boolean objLocks;
 
-        LockObj(final int idx)
+        LockObj(final int idx, final boolean objLocksRef)
         {
             lockIdx = idx;
+            objLocks = objLocksRef;
         }
     }
 
@@ -73,6 +106,8 @@ public class LockGuardFactory
     private final ReadWriteLock remoteMapLock;
     private final ReadWriteLock scheduleMapLock;
 
+    private final LockStats lockStats;
+
     @Inject
     public LockGuardFactory(
         @Named(CoreModule.RECONFIGURATION_LOCK) ReadWriteLock reconfigurationLockRef,
@@ -84,7 +119,8 @@ public class LockGuardFactory
         @Named(CoreModule.RSC_GROUP_MAP_LOCK) ReadWriteLock rscGrpMapLockRef,
         @Named(CoreModule.EXT_FILE_MAP_LOCK) ReadWriteLock extFileMapLockRef,
         @Named(CoreModule.REMOTE_MAP_LOCK) ReadWriteLock remoteMapLockRef,
-        @Named(CoreModule.SCHEDULE_MAP_LOCK) ReadWriteLock scheduleMapLockRef
+        @Named(CoreModule.SCHEDULE_MAP_LOCK) ReadWriteLock scheduleMapLockRef,
+        LockStats lockStatsRef
     )
     {
         reconfigurationLock = reconfigurationLockRef;
@@ -97,6 +133,7 @@ public class LockGuardFactory
         extFileMapLock = extFileMapLockRef;
         remoteMapLock = remoteMapLockRef;
         scheduleMapLock = scheduleMapLockRef;
+        lockStats = lockStatsRef;
     }
 
     public LockGuardBuilder create()
@@ -179,15 +216,47 @@ public class LockGuardFactory
         return lock;
     }
 
+    private StripedMapLock lockObjToStripedLock(LockObj lockId)
+    {
+        ReadWriteLock lock = lockObjToLock(lockId);
+        if (!lockId.objLocks || !(lock instanceof StripedMapLock))
+        {
+            throw new ImplementationError("Lock identifier " + lockId.name() + " does not support object locks");
+        }
+        return (StripedMapLock) lock;
+    }
+
+    /**
+     * Returns the modification count of the specified lock, see {@link StripedMapLock#getModificationCount()}
+     */
+    public long getModificationCount(LockObj lockId)
+    {
+        ReadWriteLock lock = lockObjToLock(lockId);
+        if (!(lock instanceof StripedMapLock))
+        {
+            throw new ImplementationError("Lock identifier " + lockId.name() + " does not count modifications");
+        }
+        return ((StripedMapLock) lock).getModificationCount();
+    }
+
+    private static LockType stronger(LockType type1st, LockType type2nd)
+    {
+        return type1st == LockType.WRITE || type2nd == LockType.WRITE ? LockType.WRITE : LockType.READ;
+    }
+
     private class LockGuardBuilderImpl implements LockGuardBuilder
     {
         private final TreeMap<LockObj, LockType> locks;
+        // Stripe index to lock type, for each map
+        private final TreeMap<LockObj, TreeMap<Integer, LockType>> objLocks;
 
         private boolean defer = false;
 
         private LockGuardBuilderImpl()
         {
-            locks = new TreeMap<>((lock1st, lock2nd) -> Integer.compare(lock1st.lockIdx, lock2nd.lockIdx));
+            Comparator<LockObj> lockOrder = (lock1st, lock2nd) -> Integer.compare(lock1st.lockIdx, lock2nd.lockIdx);
+            locks = new TreeMap<>(lockOrder);
+            objLocks = new TreeMap<>(lockOrder);
         }
 
         private LockGuardBuilderImpl(boolean deferRef)
@@ -230,6 +299,30 @@ public class LockGuardFactory
             return this;
         }
 
+        @Override
+        public LockGuardBuilder readObj(LockObj lockId, Object... objNames)
+        {
+            return objLock(lockId, LockType.READ, objNames);
+        }
+
+        @Override
+        public LockGuardBuilder writeObj(LockObj lockId, Object... objNames)
+        {
+            return objLock(lockId, LockType.WRITE, objNames);
+        }
+
+        private LockGuardBuilder objLock(LockObj lockId, LockType type, Object[] objNames)
+        {
+            StripedMapLock mapLock = lockObjToStripedLock(lockId);
+            TreeMap<Integer, LockType> stripeLocks = objLocks.computeIfAbsent(lockId, ignored -> new TreeMap<>());
+            for (Object objName : objNames)
+            {
+                // Objects whose names map to the same stripe share the lock
+                stripeLocks.merge(mapLock.getStripeIdx(objName), type, LockGuardFactory::stronger);
+            }
+            return this;
+        }
+
         @Override
         public LockGuard buildDeferred()
         {
@@ -240,28 +333,89 @@ public class LockGuardFactory
         @Override
         public LockGuard build()
         {
-            if (!locks.isEmpty() && !locks.containsKey(LockObj.RECONFIGURATION))
+            if ((!locks.isEmpty() || !objLocks.isEmpty()) && !locks.containsKey(LockObj.RECONFIGURATION))
             {
                 locks.put(LockObj.RECONFIGURATION, LockType.READ);
             }
 
-            Lock[] lockArr = new Lock[locks.size()];
-            int lockIdx = 0;
+            // Object locks are only needed if their map is locked in an intent mode. If the map is explicitly
+            // locked, the map lock covers all of its objects
+            TreeMap<LockObj, Lock> mapLocks = new TreeMap<>(locks.comparator());
+            TreeMap<LockObj, LockStats.Mode> mapLockModes = new TreeMap<>(locks.comparator());
+            TreeMap<LockObj, TreeMap<Integer, LockType>> requiredObjLocks = new TreeMap<>(locks.comparator());
             for (Entry<LockObj, LockType> entry : locks.entrySet())
             {
+                LockType type = entry.getValue();
+                TreeMap<Integer, LockType> stripeLocks = objLocks.get(entry.getKey());
+                if (stripeLocks != null && stripeLocks.containsValue(LockType.WRITE))
+                {
+                    type = LockType.WRITE;
+                }
+
                 Lock lock;
-                if (entry.getValue() == LockType.READ)
+                if (type == LockType.READ)
                 {
                     lock = lockObjToLock(entry.getKey()).readLock();
+                    mapLockModes.put(entry.getKey(), LockStats.Mode.READ);
                 }
                 else
                 {
                     lock = lockObjToLock(entry.getKey()).writeLock();
+                    mapLockModes.put(entry.getKey(), LockStats.Mode.WRITE);
+                }
+                mapLocks.put(entry.getKey(), lock);
+            }
+            for (Entry<LockObj, TreeMap<Integer, LockType>> entry : objLocks.entrySet())
+            {
+                LockObj lockId = entry.getKey();
+                TreeMap<Integer, LockType> stripeLocks = entry.getValue();
+                if (!mapLocks.containsKey(lockId) && !stripeLocks.isEmpty())
+                {
+                    StripedMapLock mapLock = lockObjToStripedLock(lockId);
+                    if (stripeLocks.containsValue(LockType.WRITE))
+                    {
+                        mapLocks.put(lockId, mapLock.intentWriteLock());
+                        mapLockModes.put(lockId, LockStats.Mode.INTENT_WRITE);
+                    }
+                    else
+                    {
+                        mapLocks.put(lockId, mapLock.intentReadLock());
+                        mapLockModes.put(lockId, LockStats.Mode.INTENT_READ);
+                    }
+                    requiredObjLocks.put(lockId, stripeLocks);
+                }
+            }
+
+            List<Lock> lockList = new ArrayList<>(mapLocks.values());
+            List<LockStats.Entry> statsEntries = new ArrayList<>();
+            for (Entry<LockObj, LockStats.Mode> entry : mapLockModes.entrySet())
+            {
+                statsEntries.add(lockStats.getEntry(entry.getKey(), entry.getValue()));
+            }
+            for (Entry<LockObj, TreeMap<Integer, LockType>> entry : requiredObjLocks.entrySet())
+            {
+                StripedMapLock mapLock = lockObjToStripedLock(entry.getKey());
+                for (Entry<Integer, LockType> stripeEntry : entry.getValue().entrySet())
+                {
+                    ReadWriteLock stripe = mapLock.getStripe(stripeEntry.getKey());
+                    if (stripeEntry.getValue() == LockType.READ)
+                    {
+                        lockList.add(stripe.readLock());
+                        statsEntries.add(lockStats.getEntry(entry.getKey(), LockStats.Mode.OBJ_READ));
+                    }
+                    else
+                    {
+                        lockList.add(stripe.writeLock());
+                        statsEntries.add(lockStats.getEntry(entry.getKey(), LockStats.Mode.OBJ_WRITE));
+                    }
                 }
-                lockArr[lockIdx] = lock;
-                ++lockIdx;
             }
-            return new LockGuard(defer, lockArr);
+            return new LockGuard(
+                defer,
+                lockStats,
+                statsEntries.toArray(new LockStats.Entry[statsEntries.size()]),
+                lockList.toArray(new Lock[lockList.size()])
+            );
         }
     }
 }
@@ -0,0 +1,221 @@
+package com.linbit.locks;
+
+import com.linbit.locks.LockGuardFactory.LockObj;
+import com.linbit.utils.LatencyHistogram;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention statistics of the locks that are acquired by the {@link LockGuard}s of the {@link LockGuardFactory}
+ *
+ * For each lock and mode, the time spent waiting for the lock and the time the lock was held are recorded.
+ * Additionally, the acquisitions, wait times and hold times of the map locks are accumulated for each holder,
+ * which is the API call that acquired the lock (see {@link LockGuard#setHolder(String)}).
+ *
+ * Recording does not allocate any objects, except when a holder acquires a lock for the first time.
+ */
+@Singleton
+public class LockStats
+{
+    // Holder of LockGuards that are not created for an API call
+    public static final String UNKNOWN_HOLDER = "other";
+
+    public enum Mode
+    {
+        READ,
+        WRITE,
+        INTENT_READ,
+        INTENT_WRITE,
+        OBJ_READ,
+        OBJ_WRITE;
+
+        /**
+         * Returns true for the modes of the map lock itself, as opposed to the locks of single objects of the map
+         */
+        public boolean isMapMode()
+        {
+            return this != OBJ_READ && this != OBJ_WRITE;
+        }
+    }
+
+    private static final LockObj[] LOCK_OBJS = LockObj.values();
+    private static final Mode[] MODES = Mode.values();
+
+    private final Entry[][] entries;
+    private final Map<String, Holder> holders = new ConcurrentHashMap<>();
+
+    @Inject
+    public LockStats()
+    {
+        entries = new Entry[LOCK_OBJS.length][MODES.length];
+        for (LockObj lockObj : LOCK_OBJS)
+        {
+            for (Mode mode : MODES)
+            {
+                entries[lockObj.ordinal()][mode.ordinal()] = new Entry(lockObj, mode);
+            }
+        }
+    }
+
+    public Entry getEntry(LockObj lockObj, Mode mode)
+    {
+        return entries[lockObj.ordinal()][mode.ordinal()];
+    }
+
+    /**
+     * Returns the statistics of all locks and modes that were acquired at least once
+     */
+    public List<Entry> getUsedEntries()
+    {
+        List<Entry> usedEntries = new ArrayList<>();
+        for (Entry[] lockObjEntries : entries)
+        {
+            for (Entry entry : lockObjEntries)
+            {
+                if (entry.getWait().getCount() > 0)
+                {
+                    usedEntries.add(entry);
+                }
+            }
+        }
+        return usedEntries;
+    }
+
+    public Collection<Holder> getHolders()
+    {
+        return holders.values();
+    }
+
+    void acquired(Entry entry, String holderName, long waitNanos)
+    {
+        entry.wait.record(waitNanos);
+        if (entry.mode.isMapMode())
+        {
+            Holder holder = holders.computeIfAbsent(holderName, Holder::new);
+            int idx = entry.lockObj.ordinal();
+            holder.acquisitionCtrs[idx].increment();
+            holder.waitNanos[idx].add(waitNanos);
+        }
+    }
+
+    void released(Entry entry, String holderName, long holdNanos)
+    {
+        entry.hold.record(holdNanos);
+        if (entry.mode.isMapMode())
+        {
+            // The holder was registered when the lock was acquired
+            Holder holder = holders.get(holderName);
+            if (holder != null)
+            {
+                holder.holdNanos[entry.lockObj.ordinal()].add(holdNanos);
+            }
+        }
+    }
+
+    public static class Entry
+    {
+        private final LockObj lockObj;
+        private final Mode mode;
+
+        // Time from requesting the lock until the lock was acquired
+        private final LatencyHistogram wait = new LatencyHistogram();
+        // Time from acquiring the lock until the lock was released
+        private final LatencyHistogram hold = new LatencyHistogram();
+
+        Entry(LockObj lockObjRef, Mode modeRef)
+        {
+            lockObj = lockObjRef;
+            mode = modeRef;
+        }
+
+        public LockObj getLockObj()
+        {
+            return lockObj;
+        }
+
+        public Mode getMode()
+        {
+            return mode;
+        }
+
+        public LatencyHistogram getWait()
+        {
+            return wait;
+        }
+
+        public LatencyHistogram getHold()
+        {
+            return hold;
+        }
+    }
+
+    public static class Holder
+    {
+        private final String name;
+
+        // Indexed by LockObj ordinal
+        private final LongAdder[] acquisitionCtrs = newAdders();
+        private final LongAdder[] waitNanos = newAdders();
+        private final LongAdder[] holdNanos = newAdders();
+
+        Holder(String nameRef)
+        {
+            name = nameRef;
+        }
+
+        private static LongAdder[] newAdders()
+        {
+            LongAdder[] adders = new LongAdder[LOCK_OBJS.length];
+            for (int idx = 0; idx < adders.length; ++idx)
+            {
+                adders[idx] = new LongAdder();
+            }
+            return adders;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public long getAcquisitionCount(LockObj lockObj)
+        {
+            return acquisitionCtrs[lockObj.ordinal()].sum();
+        }
+
+        public long getWaitNanos(LockObj lockObj)
+        {
+            return waitNanos[lockObj.ordinal()].sum();
+        }
+
+        public long getHoldNanos(LockObj lockObj)
+        {
+            return holdNanos[lockObj.ordinal()].sum();
+        }
+
+        /**
+         * Returns the time that this holder held any map lock except for the reconfiguration lock,
+         * which is held in READ mode by every holder
+         */
+        public long getTotalHoldNanos()
+        {
+            long total = 0;
+            for (LockObj lockObj : LOCK_OBJS)
+            {
+                if (lockObj != LockObj.RECONFIGURATION)
+                {
+                    total += holdNanos[lockObj.ordinal()].sum();
+                }
+            }
+            return total;
+        }
+    }
+}
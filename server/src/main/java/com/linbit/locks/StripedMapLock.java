@@ -0,0 +1,472 @@
+package com.linbit.locks;
+
+import com.linbit.ImplementationError;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock for a map of objects (e.g. the resource definition map) and for the objects in that map
+ *
+ * The map itself can be locked in four modes:
+ * <ul>
+ *     <li>{@link #readLock()} (shared): read the map and all objects in the map</li>
+ *     <li>{@link #writeLock()} (exclusive): insert objects into or remove objects from the map,
+ *         or modify any object in the map</li>
+ *     <li>{@link #intentReadLock()}: read specific objects, which must be locked by their object lock</li>
+ *     <li>{@link #intentWriteLock()}: modify specific objects, which must be locked by their object lock</li>
+ * </ul>
+ * The intent modes are compatible with each other, so that operations on different objects do not block
+ * each other. An intent write lock is not compatible with the read lock, therefore code that only takes the
+ * read lock of the map can still rely on no object being modified concurrently.
+ *
+ * Object locks are striped: each object name is mapped to one of a fixed number of read-write locks.
+ * Object locks must only be acquired while the map is locked in an intent mode, and after all map locks
+ * have been acquired. Stripes are acquired in the order of their index, see {@link LockGuardFactory}.
+ *
+ * All modes are reentrant. A thread that holds the write lock may acquire any other mode. A thread must not
+ * request a mode that conflicts with a mode it already holds (e.g. the write lock while holding the read lock),
+ * because such an upgrade would deadlock; an {@link ImplementationError} is thrown instead.
+ *
+ * Waiting threads are granted their modes in FIFO order, unless they already hold a mode on this lock.
+ *
+ * The lock counts the releases of the write and intent write modes (see {@link #getModificationCount()}), which
+ * allows readers to detect whether the map or any of its objects may have been modified since they last read it.
+ */
+public class StripedMapLock implements ReadWriteLock
+{
+    public static final int DEFAULT_STRIPE_COUNT = 64;
+
+    enum Mode
+    {
+        INTENT_READ,
+        INTENT_WRITE,
+        READ,
+        WRITE;
+
+        boolean isCompatible(Mode other)
+        {
+            boolean compatible;
+            switch (this)
+            {
+                case INTENT_READ:
+                    compatible = other != WRITE;
+                    break;
+                case INTENT_WRITE:
+                    compatible = other == INTENT_READ || other == INTENT_WRITE;
+                    break;
+                case READ:
+                    compatible = other == INTENT_READ || other == READ;
+                    break;
+                case WRITE:
+                    compatible = false;
+                    break;
+                default:
+                    throw new ImplementationError("Unknown lock mode " + this);
+            }
+            return compatible;
+        }
+    }
+
+    private static final Mode[] MODES = Mode.values();
+
+    private final ReentrantLock sync = new ReentrantLock();
+    private final Condition changed = sync.newCondition();
+
+    // Protected by sync
+    private final int[] holdCounts = new int[MODES.length];
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    // Modified only while holding sync
+    private volatile long modCount = 0;
+
+    private final ThreadLocal<int[]> ownHoldCounts = ThreadLocal.withInitial(() -> new int[MODES.length]);
+
+    private final ModeLock intentReadLock = new ModeLock(Mode.INTENT_READ);
+    private final ModeLock intentWriteLock = new ModeLock(Mode.INTENT_WRITE);
+    private final ModeLock readLock = new ModeLock(Mode.READ);
+    private final ModeLock writeLock = new ModeLock(Mode.WRITE);
+
+    private final ReentrantReadWriteLock[] stripes;
+
+    public StripedMapLock()
+    {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    public StripedMapLock(int stripeCount)
+    {
+        stripes = new ReentrantReadWriteLock[stripeCount];
+        for (int idx = 0; idx < stripeCount; ++idx)
+        {
+            stripes[idx] = new ReentrantReadWriteLock(true);
+        }
+    }
+
+    @Override
+    public Lock readLock()
+    {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock()
+    {
+        return writeLock;
+    }
+
+    public Lock intentReadLock()
+    {
+        return intentReadLock;
+    }
+
+    public Lock intentWriteLock()
+    {
+        return intentWriteLock;
+    }
+
+    public int getStripeCount()
+    {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the index of the stripe that protects the object with the specified name
+     */
+    public int getStripeIdx(Object objName)
+    {
+        int hash = objName.hashCode();
+        // spread the higher bits, as in HashMap
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % stripes.length;
+    }
+
+    public ReadWriteLock getStripe(int stripeIdx)
+    {
+        return stripes[stripeIdx];
+    }
+
+    /**
+     * Returns the number of holds of the specified mode by all threads
+     */
+    int getHoldCount(Mode mode)
+    {
+        sync.lock();
+        try
+        {
+            return holdCounts[mode.ordinal()];
+        }
+        finally
+        {
+            sync.unlock();
+        }
+    }
+
+    public int getIntentReadHoldCount()
+    {
+        return getHoldCount(Mode.INTENT_READ);
+    }
+
+    public int getIntentWriteHoldCount()
+    {
+        return getHoldCount(Mode.INTENT_WRITE);
+    }
+
+    public int getReadHoldCount()
+    {
+        return getHoldCount(Mode.READ);
+    }
+
+    public boolean isWriteLocked()
+    {
+        return getHoldCount(Mode.WRITE) > 0;
+    }
+
+    /**
+     * Returns the number of releases of the write and intent write modes.
+     *
+     * The count is incremented before the released mode becomes available to other threads, therefore
+     * it does not change while any thread holds the read lock.
+     */
+    public long getModificationCount()
+    {
+        return modCount;
+    }
+
+    public int getQueueLength()
+    {
+        sync.lock();
+        try
+        {
+            return waiters.size();
+        }
+        finally
+        {
+            sync.unlock();
+        }
+    }
+
+    private boolean acquire(Mode mode, boolean wait, long timeoutNanos, boolean interruptible)
+        throws InterruptedException
+    {
+        int[] own = ownHoldCounts.get();
+        boolean reentrant = checkUpgrade(mode, own);
+
+        boolean acquired;
+        sync.lock();
+        try
+        {
+            if (reentrant)
+            {
+                // Threads that already hold a mode bypass the waiting threads, otherwise a waiting thread
+                // that conflicts with the held mode would deadlock with this thread
+                acquired = isGrantable(mode, own);
+                long remainingNanos = timeoutNanos;
+                while (!acquired && wait && (timeoutNanos < 0 || remainingNanos > 0))
+                {
+                    remainingNanos = await(timeoutNanos, remainingNanos, interruptible);
+                    acquired = isGrantable(mode, own);
+                }
+            }
+            else
+            {
+                acquired = !hasConflictingWaiter(mode, null) && isGrantable(mode, own);
+                if (!acquired && wait)
+                {
+                    Waiter waiter = new Waiter(mode);
+                    waiters.addLast(waiter);
+                    try
+                    {
+                        long remainingNanos = timeoutNanos;
+                        while (!acquired && (timeoutNanos < 0 || remainingNanos > 0))
+                        {
+                            remainingNanos = await(timeoutNanos, remainingNanos, interruptible);
+                            acquired = !hasConflictingWaiter(mode, waiter) && isGrantable(mode, own);
+                        }
+                    }
+                    finally
+                    {
+                        waiters.remove(waiter);
+                        // Waiters behind this one may have been blocked only by this waiter
+                        changed.signalAll();
+                    }
+                }
+            }
+            if (acquired)
+            {
+                ++holdCounts[mode.ordinal()];
+            }
+        }
+        finally
+        {
+            sync.unlock();
+        }
+        if (acquired)
+        {
+            ++own[mode.ordinal()];
+        }
+        return acquired;
+    }
+
+    private void release(Mode mode)
+    {
+        int[] own = ownHoldCounts.get();
+        if (own[mode.ordinal()] == 0)
+        {
+            throw new IllegalMonitorStateException("The current thread does not hold the " + mode + " lock");
+        }
+        --own[mode.ordinal()];
+
+        sync.lock();
+        try
+        {
+            --holdCounts[mode.ordinal()];
+            if (mode == Mode.WRITE || mode == Mode.INTENT_WRITE)
+            {
+                ++modCount;
+            }
+            changed.signalAll();
+        }
+        finally
+        {
+            sync.unlock();
+        }
+    }
+
+    /**
+     * Returns true if the current thread already holds a mode of this lock
+     *
+     * @throws ImplementationError if the requested mode conflicts with a held mode
+     */
+    private boolean checkUpgrade(Mode mode, int[] own)
+    {
+        boolean holding = false;
+        if (own[Mode.WRITE.ordinal()] > 0)
+        {
+            holding = true;
+        }
+        else
+        {
+            for (Mode heldMode : MODES)
+            {
+                if (own[heldMode.ordinal()] > 0)
+                {
+                    if (!mode.isCompatible(heldMode))
+                    {
+                        throw new ImplementationError(
+                            "Attempt to acquire the " + mode + " lock while holding the " + heldMode + " lock"
+                        );
+                    }
+                    holding = true;
+                }
+            }
+        }
+        return holding;
+    }
+
+    /**
+     * Returns true if no other thread holds a mode that conflicts with the requested mode.
+     * Must be called while holding sync.
+     */
+    private boolean isGrantable(Mode mode, int[] own)
+    {
+        boolean grantable = true;
+        if (own[Mode.WRITE.ordinal()] == 0)
+        {
+            for (Mode heldMode : MODES)
+            {
+                int otherHolds = holdCounts[heldMode.ordinal()] - own[heldMode.ordinal()];
+                if (otherHolds > 0 && !mode.isCompatible(heldMode))
+                {
+                    grantable = false;
+                    break;
+                }
+            }
+        }
+        return grantable;
+    }
+
+    /**
+     * Returns true if a thread that waits for a mode that conflicts with the requested mode is queued
+     * before the specified waiter, or anywhere in the queue if the waiter is null.
+     * Must be called while holding sync.
+     */
+    private boolean hasConflictingWaiter(Mode mode, Waiter stopAt)
+    {
+        boolean conflict = false;
+        Iterator<Waiter> waiterIter = waiters.iterator();
+        while (!conflict && waiterIter.hasNext())
+        {
+            Waiter waiter = waiterIter.next();
+            if (waiter == stopAt)
+            {
+                break;
+            }
+            conflict = !mode.isCompatible(waiter.mode);
+        }
+        return conflict;
+    }
+
+    private long await(long timeoutNanos, long remainingNanos, boolean interruptible)
+        throws InterruptedException
+    {
+        long remaining = remainingNanos;
+        if (timeoutNanos >= 0)
+        {
+            remaining = changed.awaitNanos(remainingNanos);
+        }
+        else
+        if (interruptible)
+        {
+            changed.await();
+        }
+        else
+        {
+            changed.awaitUninterruptibly();
+        }
+        return remaining;
+    }
+
+    private static class Waiter
+    {
+        private final Mode mode;
+
+        Waiter(Mode modeRef)
+        {
+            mode = modeRef;
+        }
+    }
+
+    private class ModeLock implements Lock
+    {
+        private final Mode mode;
+
+        ModeLock(Mode modeRef)
+        {
+            mode = modeRef;
+        }
+
+        @Override
+        public void lock()
+        {
+            try
+            {
+                acquire(mode, true, -1, false);
+            }
+            catch (InterruptedException interruptExc)
+            {
+                throw new ImplementationError("Uninterruptible lock operation was interrupted", interruptExc);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException
+        {
+            if (Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+            acquire(mode, true, -1, true);
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            try
+            {
+                return acquire(mode, false, 0, false);
+            }
+            catch (InterruptedException interruptExc)
+            {
+                throw new ImplementationError("Non-waiting lock operation was interrupted", interruptExc);
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException
+        {
+            if (Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+            return acquire(mode, true, Math.max(unit.toNanos(time), 0), true);
+        }
+
+        @Override
+        public void unlock()
+        {
+            release(mode);
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.linbit.utils;
+
+import javax.annotation.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map that keeps its entries in two arrays sorted by the natural order of the keys
+ *
+ * Lookups use a binary search, insertions and removals move the following entries. This is slower than a
+ * {@link java.util.TreeMap} for large maps with random insertions, but needs only two references per entry instead
+ * of one entry object with five references per entry. Empty maps share one empty array.
+ *
+ * Iterates in ascending key order. Like the {@link java.util.TreeMap}, this map is not thread-safe and does not
+ * allow <code>null</code> keys.
+ */
+public class ArraySortedMap<K extends Comparable<? super K>, V> extends AbstractMap<K, V>
+{
+    private static final Object[] EMPTY = new Object[0];
+    private static final int MIN_CAPACITY = 4;
+
+    private Object[] keys = EMPTY;
+    private Object[] values = EMPTY;
+    private int size;
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @Nullable
+    public V get(Object key)
+    {
+        int idx = indexOf(key);
+        return idx >= 0 ? valueAt(idx) : null;
+    }
+
+    @Override
+    @Nullable
+    public V put(K key, V value)
+    {
+        V oldValue = null;
+        int idx = indexOf(key);
+        if (idx >= 0)
+        {
+            oldValue = valueAt(idx);
+            values[idx] = value;
+        }
+        else
+        {
+            int insertIdx = -(idx + 1);
+            if (size == keys.length)
+            {
+                int capacity = Math.max(MIN_CAPACITY, size + (size >> 1));
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            System.arraycopy(keys, insertIdx, keys, insertIdx + 1, size - insertIdx);
+            System.arraycopy(values, insertIdx, values, insertIdx + 1, size - insertIdx);
+            keys[insertIdx] = key;
+            values[insertIdx] = value;
+            ++size;
+        }
+        return oldValue;
+    }
+
+    @Override
+    @Nullable
+    public V remove(Object key)
+    {
+        V oldValue = null;
+        int idx = indexOf(key);
+        if (idx >= 0)
+        {
+            oldValue = valueAt(idx);
+            removeAt(idx);
+        }
+        return oldValue;
+    }
+
+    @Override
+    public void clear()
+    {
+        keys = EMPTY;
+        values = EMPTY;
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        return new EntrySet();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int indexOf(Object key)
+    {
+        if (key == null)
+        {
+            throw new NullPointerException();
+        }
+        Comparable<? super K> cmpKey = (Comparable<? super K>) key;
+        int low = 0;
+        int high = size - 1;
+        int idx = -1;
+        while (low <= high && idx < 0)
+        {
+            int mid = (low + high) >>> 1;
+            int cmp = cmpKey.compareTo(keyAt(mid));
+            if (cmp > 0)
+            {
+                low = mid + 1;
+            }
+            else
+            if (cmp < 0)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                idx = mid;
+            }
+        }
+        return idx >= 0 ? idx : -(low + 1);
+    }
+
+    private void removeAt(int idx)
+    {
+        int moved = size - idx - 1;
+        System.arraycopy(keys, idx + 1, keys, idx, moved);
+        System.arraycopy(values, idx + 1, values, idx, moved);
+        --size;
+        keys[size] = null;
+        values[size] = null;
+
+        if (size == 0)
+        {
+            clear();
+        }
+        else
+        if (keys.length > MIN_CAPACITY && size < keys.length / 4)
+        {
+            int capacity = Math.max(MIN_CAPACITY, keys.length / 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int idx)
+    {
+        return (K) keys[idx];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int idx)
+    {
+        return (V) values[idx];
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public void clear()
+        {
+            ArraySortedMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<K, V>>
+    {
+        private int nextIdx;
+        private int lastIdx = -1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return nextIdx < size;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if (nextIdx >= size)
+            {
+                throw new NoSuchElementException();
+            }
+            lastIdx = nextIdx++;
+            return new Entry(keyAt(lastIdx), valueAt(lastIdx));
+        }
+
+        @Override
+        public void remove()
+        {
+            if (lastIdx < 0)
+            {
+                throw new IllegalStateException();
+            }
+            removeAt(lastIdx);
+            nextIdx = lastIdx;
+            lastIdx = -1;
+        }
+    }
+
+    /**
+     * Entry that writes {@link #setValue(Object)} through to the map
+     */
+    private class Entry extends AbstractMap.SimpleEntry<K, V>
+    {
+        private static final long serialVersionUID = 1L;
+
+        Entry(K key, V value)
+        {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
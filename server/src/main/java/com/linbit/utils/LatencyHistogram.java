@@ -0,0 +1,127 @@
+package com.linbit.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with fixed, exponentially growing buckets
+ *
+ * Recording a latency does not allocate any objects and does not block, so the histogram can be updated
+ * on hot paths. Readers may observe a latency in the bucket counts before it is reflected in the sum.
+ */
+public class LatencyHistogram
+{
+    // Upper bounds of the buckets, the last bucket counts all latencies above the last bound
+    private static final long[] BUCKET_BOUNDS_NANOS =
+    {
+        TimeUnit.MICROSECONDS.toNanos(100),
+        TimeUnit.MICROSECONDS.toNanos(250),
+        TimeUnit.MICROSECONDS.toNanos(500),
+        TimeUnit.MILLISECONDS.toNanos(1),
+        TimeUnit.MICROSECONDS.toNanos(2500),
+        TimeUnit.MILLISECONDS.toNanos(5),
+        TimeUnit.MILLISECONDS.toNanos(10),
+        TimeUnit.MILLISECONDS.toNanos(25),
+        TimeUnit.MILLISECONDS.toNanos(50),
+        TimeUnit.MILLISECONDS.toNanos(100),
+        TimeUnit.MILLISECONDS.toNanos(250),
+        TimeUnit.MILLISECONDS.toNanos(500),
+        TimeUnit.SECONDS.toNanos(1),
+        TimeUnit.MILLISECONDS.toNanos(2500),
+        TimeUnit.SECONDS.toNanos(5),
+        TimeUnit.SECONDS.toNanos(10),
+        TimeUnit.SECONDS.toNanos(30),
+        TimeUnit.SECONDS.toNanos(60)
+    };
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_BOUNDS_NANOS.length + 1);
+    private final AtomicLong sumNanos = new AtomicLong();
+
+    /**
+     * Records a latency. Negative latencies, which may be caused by clock adjustments, are recorded as zero.
+     */
+    public void record(long latencyNanos)
+    {
+        long latency = Math.max(latencyNanos, 0);
+        int idx = 0;
+        while (idx < BUCKET_BOUNDS_NANOS.length && latency > BUCKET_BOUNDS_NANOS[idx])
+        {
+            ++idx;
+        }
+        bucketCounts.incrementAndGet(idx);
+        sumNanos.addAndGet(latency);
+    }
+
+    /**
+     * Returns the number of buckets, including the last bucket that has no upper bound
+     */
+    public static int getBucketCount()
+    {
+        return BUCKET_BOUNDS_NANOS.length + 1;
+    }
+
+    /**
+     * Returns the inclusive upper bound of the bucket with the specified index, or Long.MAX_VALUE for the last bucket
+     */
+    public static long getBucketBoundNanos(int idx)
+    {
+        return idx < BUCKET_BOUNDS_NANOS.length ? BUCKET_BOUNDS_NANOS[idx] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number of latencies recorded in each bucket (not cumulative)
+     */
+    public long[] getBucketCounts()
+    {
+        long[] counts = new long[bucketCounts.length()];
+        for (int idx = 0; idx < counts.length; ++idx)
+        {
+            counts[idx] = bucketCounts.get(idx);
+        }
+        return counts;
+    }
+
+    public long getCount()
+    {
+        long count = 0;
+        for (int idx = 0; idx < bucketCounts.length(); ++idx)
+        {
+            count += bucketCounts.get(idx);
+        }
+        return count;
+    }
+
+    public long getSumNanos()
+    {
+        return sumNanos.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the specified quantile (e.g. 0.99) of the recorded
+     * latencies, or 0 if no latencies were recorded
+     */
+    public long getQuantileBoundNanos(double quantile)
+    {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long count : counts)
+        {
+            total += count;
+        }
+        long bound = 0;
+        if (total > 0)
+        {
+            long rank = (long) Math.ceil(quantile * total);
+            long cumulativeCount = 0;
+            int idx = 0;
+            while (cumulativeCount < rank && idx < counts.length)
+            {
+                cumulativeCount += counts[idx];
+                ++idx;
+            }
+            bound = getBucketBoundNanos(Math.max(idx - 1, 0));
+        }
+        return bound;
+    }
+}
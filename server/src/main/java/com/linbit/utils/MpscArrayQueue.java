@@ -0,0 +1,118 @@
+package com.linbit.utils;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for multiple producer threads and a single consumer thread
+ *
+ * Producers claim a slot of the ring buffer by advancing the producer index and then store the element
+ * in the claimed slot. The consumer takes elements in the order of the claimed slots. Elements offered by
+ * the same producer thread are therefore taken in the order in which they were offered.
+ *
+ * {@link #poll()} and {@link #peek()} must only be called by the consumer thread.
+ */
+public class MpscArrayQueue<E>
+{
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * @param requestedCapacity Rounded up to the next power of two
+     */
+    public MpscArrayQueue(int requestedCapacity)
+    {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid queue capacity " + requestedCapacity);
+        }
+        capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        mask = capacity - 1;
+        buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Adds the element to the queue. May be called by any thread.
+     *
+     * @return False if the queue is full
+     */
+    public boolean offer(E element)
+    {
+        if (element == null)
+        {
+            throw new NullPointerException();
+        }
+        boolean added = false;
+        boolean full = false;
+        while (!added && !full)
+        {
+            long index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity)
+            {
+                full = true;
+            }
+            else
+            if (producerIndex.compareAndSet(index, index + 1))
+            {
+                // the consumer waits for the store if it already sees the claimed slot
+                buffer.lazySet((int) index & mask, element);
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes the next element from the queue
+     *
+     * @return The next element, or null if the queue is empty or if the producer that claimed the next slot
+     *         has not stored its element yet
+     */
+    public @Nullable E poll()
+    {
+        E element = peek();
+        if (element != null)
+        {
+            long index = consumerIndex.get();
+            buffer.lazySet((int) index & mask, null);
+            consumerIndex.lazySet(index + 1);
+        }
+        return element;
+    }
+
+    /**
+     * Returns the next element without removing it from the queue
+     */
+    public @Nullable E peek()
+    {
+        return buffer.get((int) consumerIndex.get() & mask);
+    }
+
+    /**
+     * Returns true if no slot is claimed, even if the element of a claimed slot is not visible yet
+     */
+    public boolean isEmpty()
+    {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    /**
+     * Number of claimed slots. The result is only an estimate if producers are adding elements concurrently.
+     */
+    public int size()
+    {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity()
+    {
+        return capacity;
+    }
+}
@@ -0,0 +1,91 @@
+package com.linbit.utils;
+
+import com.linbit.ImplementationError;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of the runtime JDK (Java 21 or newer)
+ *
+ * LINSTOR is built for Java 8, therefore the virtual thread API is looked up by reflection. If the runtime JDK
+ * does not support virtual threads, or only as a preview feature that is not enabled, {@link #isSupported()}
+ * returns false.
+ */
+public class VirtualThreads
+{
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static
+    {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try
+        {
+            // The methods must be looked up on the public interface, the builder's implementation class
+            // is not accessible
+            Class<?> builderCls = Class.forName("java.lang.Thread$Builder");
+            Method ofVirtualLookup = Thread.class.getMethod("ofVirtual");
+            builderName = builderCls.getMethod("name", String.class, long.class);
+            builderFactory = builderCls.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+            // Fails if virtual threads are a preview feature of the runtime JDK that is not enabled
+            ofVirtualLookup.invoke(null);
+            ofVirtual = ofVirtualLookup;
+        }
+        catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException |
+            InvocationTargetException ignored)
+        {
+            // virtual threads are not supported by the runtime JDK
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads()
+    {
+    }
+
+    public static boolean isSupported()
+    {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread. The threads are named
+     * <code>&lt;namePrefix&gt;-&lt;number&gt;</code>.
+     *
+     * @throws UnsupportedOperationException if the runtime JDK does not support virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix)
+    {
+        if (!isSupported())
+        {
+            throw new UnsupportedOperationException(
+                "Virtual threads are not supported by the Java runtime " + System.getProperty("java.version")
+            );
+        }
+        try
+        {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, namePrefix + "-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        }
+        catch (IllegalAccessException | InvocationTargetException exc)
+        {
+            throw new ImplementationError("Failed to create a virtual thread executor", exc);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.linbit.linstor.core.apicallhandler.controller.helpers;
+
+import com.linbit.linstor.security.TestAccessContextProvider;
+import com.linbit.locks.LockGuard;
+import com.linbit.locks.LockGuardFactory;
+import com.linbit.locks.LockGuardFactory.LockObj;
+import com.linbit.locks.LockGuardFactory.LockType;
+import com.linbit.locks.LockStats;
+import com.linbit.locks.StripedMapLock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApiSnapshotCacheTest
+{
+    private LockGuardFactory lockGuardFactory;
+    private ApiSnapshotCache<String> cache;
+    private AtomicInteger buildCtr;
+
+    @Before
+    public void setUp()
+    {
+        lockGuardFactory = new LockGuardFactory(
+            new ReentrantReadWriteLock(true),
+            new StripedMapLock(8),
+            new StripedMapLock(8),
+            new StripedMapLock(8),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new StripedMapLock(8),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new LockStats()
+        );
+        cache = new ApiSnapshotCache<>(lockGuardFactory, LockObj.RSC_DFN_MAP, LockObj.RSC_GRP_MAP);
+        buildCtr = new AtomicInteger();
+    }
+
+    @Test
+    public void snapshotReused()
+    {
+        List<String> first = get();
+        List<String> second = get();
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, buildCtr.get());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void invalidatedByModification()
+    {
+        List<String> first = get();
+        // read locks do not invalidate the snapshot
+        lockGuardFactory.build(LockType.READ, LockObj.RSC_DFN_MAP, LockObj.RSC_GRP_MAP).close();
+        Assert.assertSame(first, get());
+
+        lockGuardFactory.create().writeObj(LockObj.RSC_DFN_MAP, "rsc0").build().close();
+        List<String> second = get();
+        Assert.assertNotSame(first, second);
+
+        lockGuardFactory.build(LockType.WRITE, LockObj.RSC_GRP_MAP).close();
+        Assert.assertNotSame(second, get());
+        Assert.assertEquals(3, buildCtr.get());
+    }
+
+    @Test
+    public void snapshotPerAccessContext()
+    {
+        List<String> aliceList = cache.get(TestAccessContextProvider.ALICE_ACC_CTX, this::build);
+        List<String> bobList = cache.get(TestAccessContextProvider.BOB_ACC_CTX, this::build);
+
+        Assert.assertNotSame(aliceList, bobList);
+        Assert.assertSame(aliceList, cache.get(TestAccessContextProvider.ALICE_ACC_CTX, this::build));
+        Assert.assertEquals(2, buildCtr.get());
+    }
+
+    /**
+     * While a writer holds the map lock, readers receive the last committed snapshot instead of waiting
+     */
+    @Test
+    public void readerNotBlockedByWriter() throws Exception
+    {
+        List<String> committed = get();
+
+        CountDownLatch writeLocked = new CountDownLatch(1);
+        CountDownLatch readDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<?> writer = executor.submit(
+                () ->
+                {
+                    try (LockGuard ignored = lockGuardFactory.build(LockType.WRITE, LockObj.RSC_DFN_MAP))
+                    {
+                        writeLocked.countDown();
+                        readDone.await(10, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }
+            );
+            Assert.assertTrue(writeLocked.await(10, TimeUnit.SECONDS));
+
+            long startNanos = System.nanoTime();
+            Assert.assertSame(committed, get());
+            long readMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            readDone.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+
+            Assert.assertTrue("Reader waited " + readMillis + "ms for the writer", readMillis < 1000);
+            // the writer released the lock, so the next reader rebuilds the snapshot
+            Assert.assertNotSame(committed, get());
+        }
+        finally
+        {
+            readDone.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> get()
+    {
+        return cache.get(TestAccessContextProvider.PUBLIC_CTX, this::build);
+    }
+
+    private List<String> build()
+    {
+        return Collections.singletonList("snapshot" + buildCtr.incrementAndGet());
+    }
+}
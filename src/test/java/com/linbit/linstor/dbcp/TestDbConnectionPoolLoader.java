@@ -1,6 +1,7 @@
 package com.linbit.linstor.dbcp;
 
 import com.linbit.linstor.core.cfg.CtrlConfig;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.testutils.DefaultErrorStreamErrorReporter;
 import com.linbit.linstor.logging.ErrorReporter;
 
@@ -22,7 +23,7 @@ public class TestDbConnectionPoolLoader
         DB_PROPS.setProperty("password", DB_PASSWORD);
 
         ErrorReporter errorLog = new DefaultErrorStreamErrorReporter();
-        DbConnectionPool dbConnPool = new DbConnectionPool(new CtrlConfig(null), errorLog);
+        DbConnectionPool dbConnPool = new DbConnectionPool(new CtrlConfig(null), errorLog, new SQLDatabaseStats());
         dbConnPool.initializeDataSource(DB_URL);
 
         return dbConnPool;
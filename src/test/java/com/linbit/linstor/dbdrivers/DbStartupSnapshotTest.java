@@ -0,0 +1,219 @@
+package com.linbit.linstor.dbdrivers;
+
+import com.linbit.linstor.core.cfg.CtrlConfig;
+import com.linbit.linstor.dbdrivers.AbsDatabaseDriver.RawParameters;
+import com.linbit.linstor.dbdrivers.DatabaseDriverInfo.DatabaseType;
+import com.linbit.linstor.dbdrivers.DatabaseTable.Column;
+import com.linbit.linstor.dbdrivers.DbEngine.DataLoader;
+import com.linbit.linstor.logging.StderrErrorReporter;
+import com.linbit.utils.Pair;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+public class DbStartupSnapshotTest
+{
+    private static final String TABLE_NAME = "NODES";
+    private static final String COLUMN_NAME = "NODE_NAME";
+    private static final String NODE_NAME = "node1";
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private Path snapshotPath;
+    private CtrlConfig ctrlCfg;
+    private DbEngine dbEngine;
+    private DatabaseTable table;
+
+    // restores the node name of a row
+    private final DataLoader<String, Object, Object> loader = (raw, ignored) ->
+        new Pair<>(raw.<String>get(table.values()[0]), null);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        snapshotPath = tmpFolder.getRoot().toPath().resolve("startup-snapshot.bin");
+        ctrlCfg = Mockito.mock(CtrlConfig.class);
+        Mockito.when(ctrlCfg.getDbStartupSnapshotPath()).thenReturn(snapshotPath.toString());
+
+        table = createTable(COLUMN_NAME);
+
+        dbEngine = Mockito.mock(DbEngine.class);
+        Mockito.when(dbEngine.getType()).thenReturn(DatabaseType.ETCD);
+        Mockito.when(dbEngine.getChangeMarker()).thenReturn("10");
+        Mockito.when(dbEngine.loadAll(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(
+            invocation ->
+            {
+                DataLoader<Object, Object, Object> dataLoader = invocation.getArgument(2);
+                dataLoader.loadImpl(
+                    new RawParameters(table, Collections.singletonMap(COLUMN_NAME, NODE_NAME)),
+                    null
+                );
+                return null;
+            }
+        );
+    }
+
+    @Test
+    public void snapshotUsedWithSameChangeMarker() throws Exception
+    {
+        writeSnapshot();
+
+        DbStartupSnapshot restarted = new DbStartupSnapshot(new StderrErrorReporter("Test"), ctrlCfg);
+        restarted.prepareLoad(dbEngine);
+        Map<String, Object> restored = restarted.loadAll(table, null, loader);
+        Assert.assertEquals(Collections.singleton(NODE_NAME), restored.keySet());
+
+        restarted.finishLoad();
+        Assert.assertNull(restarted.loadAll(table, null, loader));
+    }
+
+    @Test
+    public void snapshotNotUsedAfterModification() throws Exception
+    {
+        writeSnapshot();
+
+        // e.g. modified by another controller or by an older LINSTOR version that does not know the snapshot
+        Mockito.when(dbEngine.getChangeMarker()).thenReturn("11");
+        DbStartupSnapshot restarted = new DbStartupSnapshot(new StderrErrorReporter("Test"), ctrlCfg);
+        restarted.prepareLoad(dbEngine);
+        Assert.assertNull(restarted.loadAll(table, null, loader));
+    }
+
+    @Test
+    public void tableWithChangedColumnsNotRestored() throws Exception
+    {
+        writeSnapshot();
+
+        DbStartupSnapshot restarted = new DbStartupSnapshot(new StderrErrorReporter("Test"), ctrlCfg);
+        restarted.prepareLoad(dbEngine);
+        Assert.assertNull(restarted.loadAll(createTable(COLUMN_NAME, "UUID"), null, loader));
+    }
+
+    @Test
+    public void snapshotNotWrittenIfModifiedWhileWriting() throws Exception
+    {
+        Mockito.when(dbEngine.getChangeMarker()).thenReturn("10", "11");
+        writeSnapshot();
+
+        Assert.assertFalse(Files.exists(snapshotPath));
+    }
+
+    @Test
+    public void snapshotNotWrittenWithoutChangeMarker() throws Exception
+    {
+        Mockito.when(dbEngine.getChangeMarker()).thenReturn(null);
+        writeSnapshot();
+
+        Assert.assertFalse(Files.exists(snapshotPath));
+    }
+
+    /**
+     * Loads the table once from the "database", as the startup does, and writes the snapshot
+     */
+    private void writeSnapshot() throws Exception
+    {
+        DbStartupSnapshot snapshot = new DbStartupSnapshot(new StderrErrorReporter("Test"), ctrlCfg);
+        Assert.assertNull(snapshot.loadAll(table, null, loader));
+
+        snapshot.write(dbEngine);
+    }
+
+    private static DatabaseTable createTable(String... columnNames)
+    {
+        DatabaseTable dbTable = Mockito.mock(DatabaseTable.class);
+        Column[] columns = new Column[columnNames.length];
+        for (int idx = 0; idx < columnNames.length; ++idx)
+        {
+            columns[idx] = Mockito.mock(Column.class);
+            Mockito.when(columns[idx].getName()).thenReturn(columnNames[idx]);
+            Mockito.when(columns[idx].isPk()).thenReturn(idx == 0);
+        }
+        Mockito.when(dbTable.getName()).thenReturn(TABLE_NAME);
+        Mockito.when(dbTable.values()).thenReturn(columns);
+        return dbTable;
+    }
+    @Test
+    public void valuesKeepTheirType() throws IOException
+    {
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(1_700_000_000_123L);
+        timestamp.setNanos(123_456_789);
+        StringBuilder longString = new StringBuilder();
+        for (int idx = 0; idx < 100_000; ++idx)
+        {
+            longString.append('ä');
+        }
+        List<Object> values = Arrays.asList(
+            null,
+            "",
+            longString.toString(),
+            new byte[] {1, 2, 3},
+            true,
+            (short) 7,
+            42,
+            Long.MAX_VALUE,
+            1.5,
+            new BigDecimal("12345678901234567890.5"),
+            timestamp,
+            new java.sql.Date(1_700_000_000_000L),
+            new Date(1_700_000_000_000L)
+        );
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes))
+        {
+            for (Object value : values)
+            {
+                DbStartupSnapshot.writeValue(out, value);
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            for (Object expected : values)
+            {
+                Object actual = DbStartupSnapshot.readValue(in);
+                if (expected == null)
+                {
+                    Assert.assertNull(actual);
+                }
+                else
+                {
+                    Assert.assertEquals(expected.getClass(), actual.getClass());
+                    if (expected instanceof byte[])
+                    {
+                        Assert.assertArrayEquals((byte[]) expected, (byte[]) actual);
+                    }
+                    else
+                    {
+                        Assert.assertEquals(expected, actual);
+                    }
+                }
+            }
+            Assert.assertEquals(-1, in.read());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void unsupportedTypeRejected() throws IOException
+    {
+        DbStartupSnapshot.writeValue(new DataOutputStream(new ByteArrayOutputStream()), new Object());
+    }
+}
@@ -0,0 +1,165 @@
+package com.linbit.linstor.dbdrivers.k8s;
+
+import com.linbit.linstor.logging.StderrErrorReporter;
+
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.ConfigMapListBuilder;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.WatcherException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class K8sCachingClientTest
+{
+    private MixedOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> client;
+    private K8sCachingClient<ConfigMap, ConfigMapList, Resource<ConfigMap>> cachingClient;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp()
+    {
+        client = Mockito.mock(MixedOperation.class);
+        ConfigMapList firstPage = new ConfigMapListBuilder()
+            .withNewMetadata().withContinue("page2").withResourceVersion("10").endMetadata()
+            .withItems(configMap("a", "5"), configMap("b", "6"))
+            .build();
+        ConfigMapList secondPage = new ConfigMapListBuilder()
+            .withNewMetadata().withResourceVersion("10").endMetadata()
+            .withItems(configMap("c", "7"))
+            .build();
+        Mockito.when(client.list(Mockito.any(ListOptions.class))).thenReturn(firstPage, secondPage);
+
+        cachingClient = new K8sCachingClient<>(client);
+    }
+
+    @Test
+    public void listedInPages()
+    {
+        ArgumentCaptor<ListOptions> listOptions = ArgumentCaptor.forClass(ListOptions.class);
+        Mockito.verify(client, Mockito.times(2)).list(listOptions.capture());
+
+        List<ListOptions> requests = listOptions.getAllValues();
+        Assert.assertNull(requests.get(0).getContinue());
+        Assert.assertEquals("page2", requests.get(1).getContinue());
+        Assert.assertEquals(3, cachingClient.list().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void watchUpdatesCache()
+    {
+        ArgumentCaptor<Watcher<ConfigMap>> watcherCaptor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.when(client.watch(Mockito.any(ListOptions.class), watcherCaptor.capture()))
+            .thenReturn(Mockito.mock(Watch.class));
+        cachingClient.startWatch(new StderrErrorReporter("Test"), "ConfigMap");
+        Watcher<ConfigMap> watcher = watcherCaptor.getValue();
+
+        watcher.eventReceived(Action.MODIFIED, configMap("a", "11"));
+        // outdated events do not overwrite newer entries
+        watcher.eventReceived(Action.MODIFIED, configMap("a", "9"));
+        Assert.assertEquals("11", cachingClient.get("a").getMetadata().getResourceVersion());
+
+        watcher.eventReceived(Action.DELETED, configMap("c", "12"));
+        Assert.assertNull(cachingClient.get("c"));
+        watcher.eventReceived(Action.ADDED, configMap("d", "13"));
+        Assert.assertNotNull(cachingClient.get("d"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ownDeleteNotUndoneByWatch()
+    {
+        ArgumentCaptor<Watcher<ConfigMap>> watcherCaptor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.when(client.watch(Mockito.any(ListOptions.class), watcherCaptor.capture()))
+            .thenReturn(Mockito.mock(Watch.class));
+        Resource<ConfigMap> resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.delete()).thenReturn(true);
+        Mockito.when(client.withName("b")).thenReturn(resource);
+        cachingClient.startWatch(new StderrErrorReporter("Test"), "ConfigMap");
+        Watcher<ConfigMap> watcher = watcherCaptor.getValue();
+
+        cachingClient.delete("b");
+        // event from before the deletion
+        watcher.eventReceived(Action.MODIFIED, configMap("b", "11"));
+        Assert.assertNull(cachingClient.get("b"));
+
+        watcher.eventReceived(Action.DELETED, configMap("b", "12"));
+        watcher.eventReceived(Action.ADDED, configMap("b", "13"));
+        Assert.assertNotNull(cachingClient.get("b"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ownCreateEndsPendingDelete()
+    {
+        ArgumentCaptor<Watcher<ConfigMap>> watcherCaptor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.when(client.watch(Mockito.any(ListOptions.class), watcherCaptor.capture()))
+            .thenReturn(Mockito.mock(Watch.class));
+        Resource<ConfigMap> resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.delete()).thenReturn(true);
+        Mockito.when(client.withName("b")).thenReturn(resource);
+        Mockito.when(client.create(Mockito.any(ConfigMap.class))).thenReturn(configMap("b", "12"));
+        cachingClient.startWatch(new StderrErrorReporter("Test"), "ConfigMap");
+        Watcher<ConfigMap> watcher = watcherCaptor.getValue();
+
+        cachingClient.delete("b");
+        cachingClient.create(configMap("b", null));
+        // the deletion was never reported by the watch, the name is still updated by newer events
+        watcher.eventReceived(Action.MODIFIED, configMap("b", "13"));
+        Assert.assertEquals("13", cachingClient.get("b").getMetadata().getResourceVersion());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void closedWatchRestartedAfterList()
+    {
+        ArgumentCaptor<ListOptions> watchOptions = ArgumentCaptor.forClass(ListOptions.class);
+        ArgumentCaptor<Watcher<ConfigMap>> watcherCaptor = ArgumentCaptor.forClass(Watcher.class);
+        Mockito.when(client.watch(watchOptions.capture(), watcherCaptor.capture()))
+            .thenReturn(Mockito.mock(Watch.class));
+        Mockito.when(client.create(Mockito.any(ConfigMap.class))).thenReturn(configMap("e", "21"));
+        cachingClient.startWatch(new StderrErrorReporter("Test"), "ConfigMap");
+        Watcher<ConfigMap> watcher = watcherCaptor.getValue();
+
+        // "a" was modified, "b" and "c" were deleted and "d" was added while the watch was not running
+        Mockito.when(client.list(Mockito.any(ListOptions.class))).thenReturn(
+            new ConfigMapListBuilder()
+                .withNewMetadata().withResourceVersion("20").endMetadata()
+                .withItems(configMap("a", "15"), configMap("d", "16"))
+                .build()
+        );
+        // created after the new list
+        cachingClient.create(configMap("e", null));
+        watcher.onClose(new WatcherException("too old resource version"));
+
+        Assert.assertEquals("15", cachingClient.get("a").getMetadata().getResourceVersion());
+        Assert.assertNull(cachingClient.get("b"));
+        Assert.assertNull(cachingClient.get("c"));
+        Assert.assertNotNull(cachingClient.get("d"));
+        Assert.assertNotNull(cachingClient.get("e"));
+
+        List<ListOptions> watchRequests = watchOptions.getAllValues();
+        Assert.assertEquals(2, watchRequests.size());
+        Assert.assertEquals("10", watchRequests.get(0).getResourceVersion());
+        Assert.assertEquals("20", watchRequests.get(1).getResourceVersion());
+    }
+
+    private static ConfigMap configMap(String name, String resourceVersion)
+    {
+        return new ConfigMapBuilder()
+            .withNewMetadata().withName(name).withResourceVersion(resourceVersion).endMetadata()
+            .build();
+    }
+}
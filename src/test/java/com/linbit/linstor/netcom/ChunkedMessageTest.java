@@ -0,0 +1,133 @@
+package com.linbit.linstor.netcom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedMessageTest
+{
+    @Test
+    public void streamChunks() throws Exception
+    {
+        byte[] data = new byte[ChunkedMessage.MAX_CHUNK_SIZE * 2 + 100];
+        for (int idx = 0; idx < data.length; ++idx)
+        {
+            data[idx] = (byte) (idx % 251);
+        }
+        List<Message> chunks = createChunks(data, false);
+        assertEquals(3, chunks.size());
+        assertFalse(ChunkedMessage.isLastChunk(chunks.get(1)));
+        assertTrue(ChunkedMessage.isLastChunk(chunks.get(2)));
+
+        AtomicInteger callbackCount = new AtomicInteger();
+        ChunkedMessage msg = new ChunkedMessage(chunks.get(0), callbackCount::incrementAndGet);
+        assertEquals(MessageTypes.DATA, msg.getType());
+        assertEquals(data.length, msg.getTotalSize());
+        for (Message chunk : chunks)
+        {
+            msg.addChunk(chunk);
+        }
+
+        InputStream dataIn = msg.getDataInputStream();
+        assertEquals(data.length, dataIn.available());
+        assertArrayEquals(data, readFully(dataIn, data.length));
+        assertEquals(-1, dataIn.read());
+        msg.release();
+        assertEquals(1, callbackCount.get());
+    }
+
+    @Test
+    public void streamCompressedChunks() throws Exception
+    {
+        byte[] data = new byte[ChunkedMessage.MAX_CHUNK_SIZE * 8];
+        Random random = new Random(42);
+        for (int idx = 0; idx < data.length; ++idx)
+        {
+            data[idx] = (byte) random.nextInt(4);
+        }
+        byte[] compressed = MessageCompression.compress(data);
+
+        List<Message> chunks = createChunks(compressed, true);
+        assertTrue(chunks.size() > 1);
+        ChunkedMessage msg = new ChunkedMessage(chunks.get(0), () -> { });
+        assertTrue(msg.isCompressed());
+        for (Message chunk : chunks)
+        {
+            msg.addChunk(chunk);
+        }
+
+        InputStream dataIn = msg.getDataInputStream();
+        assertEquals(data.length, dataIn.available());
+        assertArrayEquals(data, readFully(dataIn, data.length));
+        msg.release();
+    }
+
+    @Test
+    public void fullStream() throws Exception
+    {
+        byte[] data = new byte[ChunkedMessage.MAX_CHUNK_SIZE * (ChunkedMessage.CHUNK_BUFFER_COUNT + 1)];
+        List<Message> chunks = createChunks(data, false);
+        ChunkedMessage msg = new ChunkedMessage(chunks.get(0), () -> { });
+        for (int idx = 0; idx < ChunkedMessage.CHUNK_BUFFER_COUNT; ++idx)
+        {
+            assertFalse(msg.isFull());
+            msg.addChunk(chunks.get(idx));
+        }
+        assertTrue(msg.isFull());
+        msg.release();
+        assertFalse(msg.isFull());
+    }
+
+    @Test(expected = IOException.class)
+    public void failedStream() throws Exception
+    {
+        byte[] data = new byte[ChunkedMessage.MAX_CHUNK_SIZE * 2];
+        List<Message> chunks = createChunks(data, false);
+        ChunkedMessage msg = new ChunkedMessage(chunks.get(0), () -> { });
+        msg.addChunk(chunks.get(0));
+        msg.fail(new IOException("Connection closed"));
+
+        InputStream dataIn = msg.getDataInputStream();
+        readFully(dataIn, data.length);
+    }
+
+    private static List<Message> createChunks(byte[] data, boolean compressed) throws Exception
+    {
+        MessageData msg = new MessageData(true);
+        msg.setData(data);
+        msg.setCompressed(compressed);
+        List<Message> chunks = new ArrayList<>();
+        ChunkedMessage.splitIntoChunks(msg, chunks);
+        for (Message chunk : chunks)
+        {
+            assertTrue(ChunkedMessage.isChunk(chunk));
+        }
+        return chunks;
+    }
+
+    private static byte[] readFully(InputStream dataIn, int size) throws IOException
+    {
+        byte[] result = new byte[size];
+        int offset = 0;
+        while (offset < size)
+        {
+            int readCount = dataIn.read(result, offset, size - offset);
+            if (readCount == -1)
+            {
+                throw new IOException("Unexpected end of stream");
+            }
+            offset += readCount;
+        }
+        return result;
+    }
+}
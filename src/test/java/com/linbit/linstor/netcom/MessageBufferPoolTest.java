@@ -0,0 +1,89 @@
+package com.linbit.linstor.netcom;
+
+import com.linbit.ImplementationError;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MessageBufferPoolTest
+{
+    @Test
+    public void sizeClasses()
+    {
+        assertEquals(0, MessageBufferPool.getSizeClass(1));
+        assertEquals(0, MessageBufferPool.getSizeClass(MessageBufferPool.MIN_CLASS_SIZE));
+        assertEquals(1, MessageBufferPool.getSizeClass(MessageBufferPool.MIN_CLASS_SIZE + 1));
+        assertEquals(
+            MessageBufferPool.MAX_CLASS_SHIFT - MessageBufferPool.MIN_CLASS_SHIFT,
+            MessageBufferPool.getSizeClass(Message.DEFAULT_MAX_DATA_SIZE)
+        );
+        assertEquals(-1, MessageBufferPool.getSizeClass(MessageBufferPool.MAX_CLASS_SIZE + 1));
+    }
+
+    @Test
+    public void reuseReleasedBuffer()
+    {
+        MessageBufferPool pool = new MessageBufferPool();
+
+        MessageBufferPool.PooledBuffer first = pool.acquire(5000);
+        ByteBuffer firstBuffer = first.getBuffer();
+        assertTrue(firstBuffer.isDirect());
+        assertEquals(5000, firstBuffer.limit());
+        assertEquals(8192, firstBuffer.capacity());
+        assertEquals(0, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+        assertEquals(8192, pool.getBytesOutstanding());
+
+        first.retain();
+        first.release();
+        assertEquals(8192, pool.getBytesOutstanding());
+        first.release();
+        assertEquals(0, pool.getBytesOutstanding());
+        assertEquals(8192, pool.getBytesPooled());
+
+        MessageBufferPool.PooledBuffer second = pool.acquire(6000);
+        assertSame(firstBuffer, second.getBuffer());
+        assertEquals(6000, second.getBuffer().limit());
+        assertEquals(0, second.getBuffer().position());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(0, pool.getBytesPooled());
+        second.release();
+    }
+
+    @Test(expected = ImplementationError.class)
+    public void releaseTwice()
+    {
+        MessageBufferPool.PooledBuffer buffer = new MessageBufferPool().acquire(100);
+        buffer.release();
+        buffer.release();
+    }
+
+    @Test
+    public void pooledMessageData() throws Exception
+    {
+        MessageBufferPool pool = new MessageBufferPool();
+        MessageData msg = new MessageData(false, pool);
+        msg.allocateData(3);
+        msg.getDataBuffer().put(new byte[] {1, 2, 3});
+        assertEquals(3, msg.getDataSize());
+
+        InputStream dataIn = msg.getDataInputStream();
+        assertEquals(3, dataIn.available());
+        dataIn.mark(0);
+        assertEquals(1, dataIn.read());
+        dataIn.reset();
+        byte[] data = new byte[5];
+        assertEquals(3, dataIn.read(data));
+        assertEquals(3, data[2]);
+        assertEquals(-1, dataIn.read());
+
+        msg.release();
+        assertEquals(0, pool.getBytesOutstanding());
+    }
+}
@@ -0,0 +1,78 @@
+package com.linbit.linstor.netcom;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MessageCompressionTest
+{
+    @Test
+    public void compressAndInflate() throws Exception
+    {
+        byte[] data = new byte[MessageCompression.DEFAULT_COMPRESSION_THRESHOLD];
+        for (int idx = 0; idx < data.length; ++idx)
+        {
+            data[idx] = (byte) (idx % 7);
+        }
+        byte[] compressed = MessageCompression.compress(data);
+        assertNotNull(compressed);
+        assertTrue(compressed.length < data.length);
+        assertArrayEquals(data, MessageCompression.inflate(ByteBuffer.wrap(compressed)));
+    }
+
+    @Test
+    public void incompressibleData()
+    {
+        byte[] data = new byte[4096];
+        new Random(42).nextBytes(data);
+        assertNull(MessageCompression.compress(data));
+    }
+
+    @Test(expected = IllegalMessageStateException.class)
+    public void truncatedData() throws Exception
+    {
+        byte[] data = new byte[8192];
+        byte[] compressed = MessageCompression.compress(data);
+        MessageCompression.inflate(ByteBuffer.wrap(Arrays.copyOf(compressed, compressed.length / 2)));
+    }
+
+    @Test
+    public void compressedMessageData() throws Exception
+    {
+        byte[] data = new byte[8192];
+        Arrays.fill(data, (byte) 'x');
+
+        MessageData outMsg = new MessageData(true);
+        outMsg.setData(MessageCompression.compress(data));
+        outMsg.setCompressed(true);
+        assertEquals(MessageTypes.DATA, outMsg.getType());
+        assertTrue(outMsg.isCompressed());
+
+        MessageBufferPool pool = new MessageBufferPool();
+        MessageData inMsg = new MessageData(false, pool);
+        inMsg.getHeaderBuffer().put(outMsg.getHeaderBuffer());
+        inMsg.allocateData(outMsg.getDataSize());
+        inMsg.getDataBuffer().put(outMsg.getDataBuffer());
+        assertEquals(MessageTypes.DATA, inMsg.getType());
+
+        InputStream dataIn = inMsg.getDataInputStream();
+        byte[] received = new byte[data.length];
+        assertEquals(data.length, dataIn.available());
+        assertEquals(data.length, dataIn.read(received));
+        assertArrayEquals(data, received);
+        inMsg.release();
+
+        outMsg.setCompressed(false);
+        assertFalse(outMsg.isCompressed());
+    }
+}
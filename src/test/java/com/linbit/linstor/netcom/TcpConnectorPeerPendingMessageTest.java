@@ -0,0 +1,107 @@
+package com.linbit.linstor.netcom;
+
+import com.linbit.linstor.api.ApiCallPriority;
+import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.security.TestAccessContextProvider;
+
+import java.nio.channels.SelectionKey;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the buffers of messages that are queued for in-order processing are released exactly once,
+ * even if the connection closes before the messages are processed
+ */
+public class TcpConnectorPeerPendingMessageTest
+{
+    private static final int MSG_SIZE = 5000;
+
+    private MessageBufferPool bufferPool;
+    private TcpConnectorPeer peer;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        bufferPool = new MessageBufferPool();
+        peer = new TcpConnectorPeer(
+            Mockito.mock(ErrorReporter.class),
+            Mockito.mock(CommonSerializer.class),
+            "127.0.0.1:9977",
+            Mockito.mock(TcpConnector.class),
+            bufferPool,
+            new NetComWriteStats(),
+            Mockito.mock(SelectionKey.class),
+            TestAccessContextProvider.PUBLIC_CTX,
+            null
+        );
+        peer.connectionEstablished();
+    }
+
+    @Test
+    public void processedMessagesReleased()
+    {
+        AtomicInteger processedCount = new AtomicInteger();
+        for (ApiCallPriority priority : ApiCallPriority.values())
+        {
+            queueMessage(priority, 0, processedCount);
+        }
+
+        assertEquals(ApiCallPriority.values().length, processedCount.get());
+        assertEquals(0, bufferPool.getBytesOutstanding());
+        assertEquals(0, peer.getPendingMessageCount());
+
+        // nothing left to discard
+        peer.connectionClosing();
+        assertEquals(0, bufferPool.getBytesOutstanding());
+    }
+
+    @Test
+    public void waitingMessagesDiscardedOnClose()
+    {
+        AtomicInteger processedCount = new AtomicInteger();
+        // sequence number 0 is missing, so that the messages of both sinks wait for it
+        for (ApiCallPriority priority : ApiCallPriority.values())
+        {
+            queueMessage(priority, 1, processedCount);
+            queueMessage(priority, 2, processedCount);
+        }
+        assertEquals(0, processedCount.get());
+        assertEquals(2 * ApiCallPriority.values().length, peer.getPendingMessageCount());
+        assertEquals(2L * ApiCallPriority.values().length * 8192, bufferPool.getBytesOutstanding());
+
+        peer.connectionClosing();
+        assertEquals(0, peer.getPendingMessageCount());
+        assertEquals(0, bufferPool.getBytesOutstanding());
+
+        // the missing message completes the sequences, the discarded messages are not processed anymore
+        for (ApiCallPriority priority : ApiCallPriority.values())
+        {
+            queueMessage(priority, 0, processedCount);
+        }
+        assertEquals(0, processedCount.get());
+        assertEquals(0, peer.getPendingMessageCount());
+        assertEquals(0, bufferPool.getBytesOutstanding());
+    }
+
+    /**
+     * Queues a message the same way as the message processor, whose buffer is released either after it was
+     * processed, or by the discard action
+     */
+    private void queueMessage(ApiCallPriority priority, long peerSeq, AtomicInteger processedCount)
+    {
+        MessageBufferPool.PooledBuffer buffer = bufferPool.acquire(MSG_SIZE);
+        Flux<?> msgFlux = Flux.defer(() ->
+        {
+            processedCount.incrementAndGet();
+            return Flux.empty();
+        });
+        peer.processInOrder(priority, peerSeq, msgFlux.doFinally(ignored -> buffer.release()), buffer::release);
+    }
+}
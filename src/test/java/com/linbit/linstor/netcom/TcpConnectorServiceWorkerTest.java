@@ -0,0 +1,224 @@
+package com.linbit.linstor.netcom;
+
+import com.linbit.ServiceName;
+import com.linbit.linstor.api.interfaces.serializer.CommonSerializer;
+import com.linbit.linstor.core.identifier.NodeName;
+import com.linbit.linstor.core.objects.Node;
+import com.linbit.linstor.logging.ErrorReporter;
+import com.linbit.linstor.security.TestAccessContextProvider;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Connects peers over the loopback interface to a service whose connections are sharded across selector workers
+ */
+public class TcpConnectorServiceWorkerTest
+{
+    private static final String INSTANCE_NAME = "WorkerTest";
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private ConnectionObserver connObserver;
+    private ServerSocketChannel targetSocket;
+    private TcpConnectorService service;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        connObserver = Mockito.mock(ConnectionObserver.class);
+
+        // target of outbound connections if the service itself does not accept connections
+        targetSocket = ServerSocketChannel.open();
+        targetSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if (service != null)
+        {
+            service.shutdown();
+            service.awaitShutdown(TIMEOUT_MILLIS);
+            service.uninitialize();
+        }
+        targetSocket.close();
+    }
+
+    @Test
+    public void leastLoadedWorker()
+    {
+        assertEquals(0, TcpConnectorService.getLeastLoadedIdx(new int[] {0}));
+        assertEquals(1, TcpConnectorService.getLeastLoadedIdx(new int[] {3, 1, 2}));
+        assertEquals(2, TcpConnectorService.getLeastLoadedIdx(new int[] {3, 2, 0}));
+        // the first of several equally loaded workers
+        assertEquals(0, TcpConnectorService.getLeastLoadedIdx(new int[] {2, 2, 2}));
+        assertEquals(1, TcpConnectorService.getLeastLoadedIdx(new int[] {4, 1, 1}));
+    }
+
+    @Test
+    public void shardingDisabled() throws Exception
+    {
+        service = createService(null, 0);
+        service.initialize();
+        assertTrue(service.getWorkerSelectors().isEmpty());
+        assertArrayEquals(new int[] {0}, service.getSelectorConnectionCounts());
+
+        TcpConnectorPeer peer = (TcpConnectorPeer) service.connect(getTargetAddress(), mockNode());
+        assertSame(service.serverSelector, peer.getSelectionKey().selector());
+        assertArrayEquals(new int[] {1}, service.getSelectorConnectionCounts());
+    }
+
+    @Test
+    public void acceptedAndOutboundPeersOnWorkers() throws Exception
+    {
+        service = createService(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        service.start();
+        List<Selector> workerSelectors = service.getWorkerSelectors();
+        assertEquals(2, workerSelectors.size());
+        assertArrayEquals(new int[] {0, 0}, service.getSelectorConnectionCounts());
+
+        // the service connects to itself, so every connection is driven by an outbound and an accepted peer
+        InetSocketAddress localAddress = (InetSocketAddress) service.getLocalAddress();
+        List<Peer> outboundPeers = new ArrayList<>();
+        for (int connIdx = 1; connIdx <= 4; ++connIdx)
+        {
+            outboundPeers.add(service.connect(localAddress, mockNode()));
+            Mockito.verify(connObserver, Mockito.timeout(TIMEOUT_MILLIS).times(connIdx))
+                .inboundConnectionEstablished(Mockito.any());
+        }
+        ArgumentCaptor<Peer> inboundCaptor = ArgumentCaptor.forClass(Peer.class);
+        Mockito.verify(connObserver, Mockito.times(4)).inboundConnectionEstablished(inboundCaptor.capture());
+
+        List<Peer> peers = new ArrayList<>(outboundPeers);
+        peers.addAll(inboundCaptor.getAllValues());
+        for (Peer peer : peers)
+        {
+            Selector peerSelector = ((TcpConnectorPeer) peer).getSelectionKey().selector();
+            assertNotSame(service.serverSelector, peerSelector);
+            assertTrue(workerSelectors.contains(peerSelector));
+        }
+        for (Peer peer : outboundPeers)
+        {
+            // the OP_CONNECT is processed by the worker thread
+            waitFor(() -> peer.isConnected(false));
+        }
+
+        int[] connCounts = service.getSelectorConnectionCounts();
+        assertEquals(8, connCounts[0] + connCounts[1]);
+        // the outbound and the accepted peer of a connection may select their worker concurrently,
+        // so that both are registered with the same worker
+        assertTrue(Arrays.toString(connCounts), Math.abs(connCounts[0] - connCounts[1]) <= 2);
+    }
+
+    @Test
+    public void workersRecreatedOnReinitialize() throws Exception
+    {
+        service = createService(null, 2);
+        service.initialize();
+        List<Selector> oldSelectors = service.getWorkerSelectors();
+        assertEquals(2, oldSelectors.size());
+        waitFor(() -> countWorkerThreads() == 2);
+
+        Peer firstPeer = service.connect(getTargetAddress(), mockNode());
+        Peer secondPeer = service.connect(getTargetAddress(), mockNode());
+        assertArrayEquals(new int[] {1, 1}, service.getSelectorConnectionCounts());
+        waitFor(() -> firstPeer.isConnected(false) && secondPeer.isConnected(false));
+
+        service.uninitialize();
+        for (Selector selector : oldSelectors)
+        {
+            assertFalse(selector.isOpen());
+        }
+        assertFalse(firstPeer.isConnected(false));
+        assertFalse(secondPeer.isConnected(false));
+        assertTrue(service.getWorkerSelectors().isEmpty());
+        assertArrayEquals(new int[] {0}, service.getSelectorConnectionCounts());
+        waitFor(() -> countWorkerThreads() == 0);
+
+        service.initialize();
+        List<Selector> newSelectors = service.getWorkerSelectors();
+        assertEquals(2, newSelectors.size());
+        for (Selector selector : newSelectors)
+        {
+            assertTrue(selector.isOpen());
+            assertFalse(oldSelectors.contains(selector));
+        }
+        waitFor(() -> countWorkerThreads() == 2);
+
+        Peer newPeer = service.connect(getTargetAddress(), mockNode());
+        assertTrue(newSelectors.contains(((TcpConnectorPeer) newPeer).getSelectionKey().selector()));
+        assertArrayEquals(new int[] {1, 0}, service.getSelectorConnectionCounts());
+        waitFor(() -> newPeer.isConnected(false));
+    }
+
+    private TcpConnectorService createService(SocketAddress bindAddress, int workerThreadCount) throws Exception
+    {
+        TcpConnectorService tcpService = new TcpConnectorService(
+            Mockito.mock(ErrorReporter.class),
+            Mockito.mock(CommonSerializer.class),
+            Mockito.mock(MessageProcessor.class),
+            bindAddress,
+            TestAccessContextProvider.PUBLIC_CTX,
+            TestAccessContextProvider.SYS_CTX,
+            connObserver
+        );
+        tcpService.setServiceInstanceName(new ServiceName(INSTANCE_NAME));
+        tcpService.setWorkerThreadCount(workerThreadCount);
+        return tcpService;
+    }
+
+    private static Node mockNode() throws Exception
+    {
+        Node node = Mockito.mock(Node.class);
+        Mockito.when(node.getName()).thenReturn(new NodeName("node"));
+        return node;
+    }
+
+    private InetSocketAddress getTargetAddress() throws Exception
+    {
+        return (InetSocketAddress) targetSocket.getLocalAddress();
+    }
+
+    private static int countWorkerThreads()
+    {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+        {
+            if (thread.isAlive() && thread.getName().startsWith(INSTANCE_NAME + "-"))
+            {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
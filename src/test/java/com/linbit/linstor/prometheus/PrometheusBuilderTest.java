@@ -1,5 +1,6 @@
 package com.linbit.linstor.prometheus;
 
+import com.linbit.linstor.PriorityPropsCache;
 import com.linbit.linstor.api.ApiConsts;
 import com.linbit.linstor.api.pojo.NodePojo;
 import com.linbit.linstor.api.pojo.RscDfnPojo;
@@ -7,7 +8,13 @@ import com.linbit.linstor.api.pojo.RscGrpPojo;
 import com.linbit.linstor.core.apicallhandler.controller.helpers.ResourceList;
 import com.linbit.linstor.core.apis.NodeApi;
 import com.linbit.linstor.core.apis.ResourceDefinitionApi;
+import com.linbit.linstor.core.cfg.LinstorConfig.WorkerPoolMode;
+import com.linbit.linstor.dbdrivers.SQLDatabaseStats;
 import com.linbit.linstor.logging.StderrErrorReporter;
+import com.linbit.linstor.proto.ApiCallStats;
+import com.linbit.linstor.proto.PeerMessageScheduler;
+import com.linbit.linstor.transaction.EtcdGroupCommitStats;
+import com.linbit.locks.LockStats;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -16,6 +23,7 @@ import java.util.UUID;
 
 import org.junit.Assert;
 import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
 
 public class PrometheusBuilderTest
 {
@@ -24,7 +32,21 @@ public class PrometheusBuilderTest
     public void testNullMetrics() throws IOException {
         long start = System.currentTimeMillis();
         StderrErrorReporter errReporter = new StderrErrorReporter("Test");
-        PrometheusBuilder pmb = new PrometheusBuilder(errReporter);
+        PrometheusBuilder pmb = new PrometheusBuilder(
+            errReporter,
+            Collections.emptyMap(),
+            new PeerMessageScheduler(
+                errReporter,
+                Schedulers.immediate(),
+                Schedulers.immediate(),
+                WorkerPoolMode.PLATFORM
+            ),
+            new ApiCallStats(),
+            new LockStats(),
+            new EtcdGroupCommitStats(),
+            new SQLDatabaseStats(),
+            new PriorityPropsCache()
+        );
 
         final String promText = pmb.build(
                 null,
@@ -42,7 +64,21 @@ public class PrometheusBuilderTest
     public void testSampleMetrics() throws IOException {
         long start = System.currentTimeMillis();
         StderrErrorReporter errReporter = new StderrErrorReporter("Test");
-        PrometheusBuilder pmb = new PrometheusBuilder(errReporter);
+        PrometheusBuilder pmb = new PrometheusBuilder(
+            errReporter,
+            Collections.emptyMap(),
+            new PeerMessageScheduler(
+                errReporter,
+                Schedulers.immediate(),
+                Schedulers.immediate(),
+                WorkerPoolMode.PLATFORM
+            ),
+            new ApiCallStats(),
+            new LockStats(),
+            new EtcdGroupCommitStats(),
+            new SQLDatabaseStats(),
+            new PriorityPropsCache()
+        );
 
         ArrayList<NodeApi> nodeList = new ArrayList<>();
         nodeList.add(
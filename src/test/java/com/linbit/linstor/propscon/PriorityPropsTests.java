@@ -1,6 +1,7 @@
 package com.linbit.linstor.propscon;
 
 import com.linbit.linstor.PriorityProps;
+import com.linbit.linstor.PriorityPropsCache;
 import com.linbit.linstor.security.GenericDbBase;
 
 import java.util.Map;
@@ -14,6 +15,10 @@ import static org.junit.Assert.assertTrue;
 
 public class PriorityPropsTests extends GenericDbBase
 {
+    private static final int CHAIN_LENGTH = 7;
+    private static final int PROPS_PER_CONTAINER = 40;
+    private static final int ROUNDS = 10;
+
     private PropsContainer prop1;
     private PropsContainer prop2;
     private PropsContainer prop3;
@@ -95,4 +100,70 @@ public class PriorityPropsTests extends GenericDbBase
 
         assertTrue(prioProps.anyPropsHasNamespace("fb"));
     }
+
+    @Test
+    public void cacheInvalidatedByModification() throws Exception
+    {
+        PriorityPropsCache cache = new PriorityPropsCache();
+        assertEquals("4", new PriorityProps(prop2, prop3).withCache(cache).getProp("/a/1"));
+        assertEquals("4", new PriorityProps(prop2, prop3).withCache(cache).getProp("/a/1"));
+        assertEquals(1, cache.getHitCount());
+
+        // modifications of any props of the chain invalidate the cached value
+        prop3.setProp("/a/1", "13");
+        assertEquals("4", new PriorityProps(prop2, prop3).withCache(cache).getProp("/a/1"));
+        prop2.removeProp("/a/1");
+        assertEquals("13", new PriorityProps(prop2, prop3).withCache(cache).getProp("/a/1"));
+        prop2.getNamespace("a").get().setProp("1", "14");
+        assertEquals("14", new PriorityProps(prop2, prop3).withCache(cache).getProp("/a/1"));
+
+        Map<String, String> map = new PriorityProps(prop2, prop3).withCache(cache).renderRelativeMap("a");
+        assertEquals("14", map.get("1"));
+        prop3.setProp("/a/3", "15");
+        map = new PriorityProps(prop2, prop3).withCache(cache).renderRelativeMap("a");
+        assertEquals("15", map.get("3"));
+
+        // the fallback map belongs to the instance and is applied after the cache
+        PriorityProps withFallback = new PriorityProps(prop2, prop3).withCache(cache);
+        withFallback.setFallbackProp("/a/4", "16");
+        assertEquals("16", withFallback.getProp("/a/4"));
+        assertNull(new PriorityProps(prop2, prop3).withCache(cache).getProp("/a/4"));
+    }
+
+    /**
+     * Compares lookups through a new PriorityProps for every round, as the callers do, to querying every props of
+     * the chain directly
+     */
+    @Test
+    public void cachedLookupsMatchChain() throws Exception
+    {
+        PropsContainer[] chain = new PropsContainer[CHAIN_LENGTH];
+        for (int conIdx = 0; conIdx < chain.length; ++conIdx)
+        {
+            chain[conIdx] = propsContainerFactory.getInstance("chain" + conIdx);
+            // every container defines some of the keys, the most specific ones only few
+            for (int keyIdx = conIdx; keyIdx < PROPS_PER_CONTAINER; keyIdx += CHAIN_LENGTH - conIdx)
+            {
+                chain[conIdx].setProp("DrbdOptions/Net/key" + keyIdx, "value" + conIdx);
+            }
+        }
+
+        PriorityPropsCache cache = new PriorityPropsCache();
+        for (int round = 0; round < ROUNDS; ++round)
+        {
+            PriorityProps roundProps = new PriorityProps(chain).withCache(cache);
+            for (int keyIdx = 0; keyIdx < PROPS_PER_CONTAINER; ++keyIdx)
+            {
+                String expected = null;
+                for (int conIdx = 0; conIdx < chain.length && expected == null; ++conIdx)
+                {
+                    expected = chain[conIdx].getProp("key" + keyIdx, "DrbdOptions/Net");
+                }
+                assertEquals(expected, roundProps.getProp("key" + keyIdx, "DrbdOptions/Net"));
+            }
+        }
+        assertEquals(PROPS_PER_CONTAINER, cache.getMissCount());
+        assertEquals((ROUNDS - 1) * PROPS_PER_CONTAINER, cache.getHitCount());
+        assertEquals(PROPS_PER_CONTAINER, cache.getEntryCount());
+    }
 }
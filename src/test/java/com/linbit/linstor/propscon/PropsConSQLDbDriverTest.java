@@ -114,6 +114,46 @@ public class PropsConSQLDbDriverTest extends PropsConSQLDbDriverBase
         checkIfPresent(map2, expectedInstanceName2);
     }
 
+    @Test
+    public void testPersistReAddInSameTransaction() throws Throwable
+    {
+        PropsContainer container = propsContainerFactory.getInstance(DEFAULT_INSTANCE_NAME);
+
+        Map<String, String> map = new HashMap<>();
+        map.put("a", "b");
+        container.setProp("a", "b");
+        commit();
+
+        // insert, update and delete of the same entry must be executed in order, even if they are batched
+        container.removeProp("a");
+        container.setProp("a", "c");
+        container.setProp("a", "d");
+        container.setProp("e", "f");
+        container.removeProp("e");
+        map.put("a", "d");
+        commit();
+
+        checkIfPresent(map, DEFAULT_INSTANCE_NAME);
+    }
+
+    @SuppressWarnings({"checkstyle:magicnumber"})
+    @Test
+    public void testPersistLargeBatch() throws Throwable
+    {
+        PropsContainer container = propsContainerFactory.getInstance(DEFAULT_INSTANCE_NAME);
+
+        // exceeds the maximum batch size of the transaction manager
+        Map<String, String> map = new HashMap<>();
+        for (int idx = 0; idx < 2500; ++idx)
+        {
+            map.put("key" + idx, "value" + idx);
+        }
+        container.setAllProps(map, null);
+        commit();
+
+        checkIfPresent(map, DEFAULT_INSTANCE_NAME);
+    }
+
     @Test
     public void testLoadSimple() throws Throwable
     {
@@ -205,4 +245,29 @@ public class PropsConSQLDbDriverTest extends PropsConSQLDbDriverBase
         checkExpectedMap(map1, props1);
         checkExpectedMap(map2, props2);
     }
+
+    @Test
+    public void testPreloadAll() throws Throwable
+    {
+        insert("INSTANCE_1", "a", "b");
+        insert("INSTANCE_2", "c", "d");
+
+        dbDriver.preloadAll();
+        try
+        {
+            assertEquals("b", dbDriver.loadAll("INSTANCE_1").get("a"));
+            assertEquals("d", dbDriver.loadAll("instance_2").get("c"));
+            assertTrue(dbDriver.loadAll("UNKNOWN_INSTANCE").isEmpty());
+
+            // entries added after preloading are not lost for modified instances
+            dbDriver.persist("INSTANCE_1", "e", "f", true);
+            Map<String, String> props = dbDriver.loadAll("INSTANCE_1");
+            assertEquals("b", props.get("a"));
+            assertEquals("f", props.get("e"));
+        }
+        finally
+        {
+            dbDriver.clearPreloaded();
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package com.linbit.linstor.propscon;
+
+import com.linbit.linstor.dbdrivers.interfaces.PropsConDatabaseDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Loads the same typical volume properties into several containers, as the database drivers do for many objects,
+ * and checks the compact representation of the loaded properties
+ */
+public class PropsContainerLoadTest
+{
+    private static final String INSTANCE_NAME = "/volumes/node/rsc/0";
+
+    private static final String[][] VOLUME_PROPS = {
+        {"DrbdOptions/Disk/on-io-error", "detach"},
+        {"DrbdOptions/Disk/rs-discard-granularity", "65536"},
+        {"DrbdOptions/Net/protocol", "C"},
+        {"DrbdOptions/Net/allow-two-primaries", "no"},
+        {"DrbdOptions/Net/max-buffers", "10000"},
+        {"DrbdOptions/Resource/quorum", "majority"},
+        {"DrbdOptions/Resource/on-no-quorum", "io-error"},
+        {"DrbdOptions/auto-quorum", "io-error"},
+        {"DrbdCurrentGen", "0x8F0C2B1E3A4D5C6B"},
+        {"StorPoolName", "thinpool"},
+        {"Satellite/Device/Symlinks/0", "/dev/drbd/by-res/pvc-3fe6/0"},
+        {"Aux/csi-volume-annotations", "{}"},
+    };
+
+    private PropsContainerFactory factory;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        PropsConDatabaseDriver dbDriver = Mockito.mock(PropsConDatabaseDriver.class);
+        Mockito.when(dbDriver.loadAll(Mockito.anyString())).thenAnswer(ignored -> loadedProps());
+        factory = new PropsContainerFactory(dbDriver, () -> null);
+    }
+
+    @Test
+    public void loadedPropsSorted() throws Exception
+    {
+        PropsContainer props = factory.getInstance(INSTANCE_NAME);
+
+        assertEquals(loadedProps(), new TreeMap<>(props.map()));
+        assertEquals("C", props.getProp("DrbdOptions/Net/protocol"));
+        assertEquals("io-error", props.getProp("auto-quorum", "DrbdOptions"));
+
+        PropsContainer net = (PropsContainer) props.getNamespace("DrbdOptions/Net").get();
+        assertEquals(
+            Arrays.asList("allow-two-primaries", "max-buffers", "protocol"),
+            new ArrayList<>(net.getRawPropMap().keySet())
+        );
+        List<String> namespaces = new ArrayList<>();
+        props.getNamespace("DrbdOptions").get().iterateNamespaces().forEachRemaining(namespaces::add);
+        assertEquals(Arrays.asList("Disk", "Net", "Resource"), namespaces);
+    }
+
+    @Test
+    public void loadedKeysShared() throws Exception
+    {
+        List<PropsContainer> containers = new ArrayList<>();
+        containers.add(factory.getInstance(INSTANCE_NAME));
+        containers.add(factory.getInstance(INSTANCE_NAME));
+        assertNotSame(containers.get(0), containers.get(1));
+
+        PropsContainer firstNet = (PropsContainer) containers.get(0).getNamespace("DrbdOptions/Net").get();
+        PropsContainer secondNet = (PropsContainer) containers.get(1).getNamespace("DrbdOptions/Net").get();
+        Iterator<String> secondKeys = secondNet.getRawPropMap().keySet().iterator();
+        for (String key : firstNet.getRawPropMap().keySet())
+        {
+            assertSame(key, secondKeys.next());
+        }
+        assertFalse(secondKeys.hasNext());
+
+        Iterator<String> secondNamespaces = containers.get(1).getNamespace("DrbdOptions").get().iterateNamespaces();
+        Iterator<String> firstNamespaces = containers.get(0).getNamespace("DrbdOptions").get().iterateNamespaces();
+        while (firstNamespaces.hasNext())
+        {
+            assertSame(firstNamespaces.next(), secondNamespaces.next());
+        }
+        assertFalse(secondNamespaces.hasNext());
+    }
+
+    /**
+     * Returns new key and value strings for every call, as a database driver would
+     */
+    private static Map<String, String> loadedProps()
+    {
+        Map<String, String> props = new TreeMap<>();
+        for (String[] prop : VOLUME_PROPS)
+        {
+            props.put(new String(prop[0]), new String(prop[1]));
+        }
+        return props;
+    }
+}
@@ -0,0 +1,141 @@
+package com.linbit.linstor.proto;
+
+import com.linbit.linstor.api.ApiCallPriority;
+import com.linbit.linstor.logging.StderrErrorReporter;
+import com.linbit.linstor.netcom.PeerOffline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PeerMessageSchedulerTest
+{
+    private static final int PEER_QUEUE_SIZE = 4;
+
+    private Deque<Runnable> workerQueue;
+    private Deque<Runnable> priorityWorkerQueue;
+    private PeerMessageScheduler msgScheduler;
+    private List<String> processed;
+
+    @Before
+    public void setUp()
+    {
+        workerQueue = new ArrayDeque<>();
+        priorityWorkerQueue = new ArrayDeque<>();
+        processed = new ArrayList<>();
+        msgScheduler = new PeerMessageScheduler(
+            new StderrErrorReporter("Test"),
+            Schedulers.fromExecutor(workerQueue::add),
+            Schedulers.fromExecutor(priorityWorkerQueue::add),
+            1,
+            PEER_QUEUE_SIZE
+        );
+    }
+
+    @Test
+    public void roundRobin()
+    {
+        TestPeer floodingPeer = new TestPeer("flooding");
+        TestPeer otherPeer = new TestPeer("other");
+        submit(floodingPeer, "f1");
+        submit(floodingPeer, "f2");
+        submit(floodingPeer, "f3");
+        submit(otherPeer, "o1");
+        submit(otherPeer, "o2");
+
+        runWorkers();
+        assertEquals(Arrays.asList("f1", "f2", "o1", "f3", "o2"), processed);
+        assertEquals(0, msgScheduler.getInFlightCount());
+        assertTrue(msgScheduler.getPeerQueueStats().isEmpty());
+    }
+
+    @Test
+    public void throttleReads()
+    {
+        TestPeer peer = new TestPeer("peer");
+        // the first message is dispatched immediately, the others wait
+        for (int idx = 0; idx <= PEER_QUEUE_SIZE; ++idx)
+        {
+            submit(peer, "m" + idx);
+        }
+        assertTrue(peer.throttled);
+        assertEquals(1, msgScheduler.getThrottleCount());
+        assertEquals(PEER_QUEUE_SIZE, msgScheduler.getPeerQueueStats().get(0).queueDepth);
+
+        runWorkers();
+        assertFalse(peer.throttled);
+        assertEquals(PEER_QUEUE_SIZE + 1, processed.size());
+    }
+
+    @Test
+    public void priorityLane()
+    {
+        TestPeer peer = new TestPeer("peer");
+        for (int idx = 0; idx <= PEER_QUEUE_SIZE; ++idx)
+        {
+            submit(peer, "m" + idx);
+        }
+        msgScheduler.submit(peer, ApiCallPriority.HIGH, () -> processed.add("high"));
+
+        // the high priority message neither waits in the peer's queue nor counts towards throttling
+        assertEquals(1, msgScheduler.getLaneStats(ApiCallPriority.HIGH).getQueuedCount());
+        assertEquals(PEER_QUEUE_SIZE + 1, msgScheduler.getLaneStats(ApiCallPriority.NORMAL).getQueuedCount());
+        assertEquals(PEER_QUEUE_SIZE, msgScheduler.getPeerQueueStats().get(0).queueDepth);
+
+        runWorkers(priorityWorkerQueue);
+        assertEquals(Arrays.asList("high"), processed);
+        assertEquals(1, msgScheduler.getLaneStats(ApiCallPriority.HIGH).getStartedCount());
+        assertEquals(0, msgScheduler.getLaneStats(ApiCallPriority.HIGH).getQueuedCount());
+
+        runWorkers();
+        assertEquals(PEER_QUEUE_SIZE + 2, processed.size());
+        assertEquals(PEER_QUEUE_SIZE + 1, msgScheduler.getLaneStats(ApiCallPriority.NORMAL).getStartedCount());
+        assertEquals(0, msgScheduler.getLaneStats(ApiCallPriority.NORMAL).getInFlightCount());
+    }
+
+    private void submit(TestPeer peer, String name)
+    {
+        msgScheduler.submit(peer, () -> processed.add(name));
+    }
+
+    private void runWorkers()
+    {
+        runWorkers(workerQueue);
+    }
+
+    private void runWorkers(Deque<Runnable> queue)
+    {
+        Runnable task = queue.poll();
+        while (task != null)
+        {
+            task.run();
+            task = queue.poll();
+        }
+    }
+
+    private static class TestPeer extends PeerOffline
+    {
+        private boolean throttled = false;
+
+        TestPeer(String peerId)
+        {
+            super(peerId, null);
+        }
+
+        @Override
+        public void setReadThrottled(boolean throttledRef)
+        {
+            throttled = throttledRef;
+        }
+    }
+}
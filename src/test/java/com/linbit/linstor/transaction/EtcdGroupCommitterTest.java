@@ -0,0 +1,383 @@
+package com.linbit.linstor.transaction;
+
+import static com.ibm.etcd.client.KeyUtils.bs;
+
+import com.linbit.linstor.transaction.EtcdGroupCommitter.KeyRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.DeleteRangeRequest;
+import com.ibm.etcd.api.PutRequest;
+import com.ibm.etcd.api.RequestOp;
+import com.ibm.etcd.api.TxnResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EtcdGroupCommitterTest
+{
+    // long enough that groups are only sent by the tests or by a commit that does not fit into the group
+    private static final long WINDOW_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private static final TxnResponse SUCCESS = TxnResponse.newBuilder().setSucceeded(true).build();
+
+    // every transaction received by the sender, as the keys of its operations
+    private final List<List<String>> sentTxs = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService callers;
+    private EtcdGroupCommitStats stats;
+    private EtcdGroupCommitter committer;
+
+    @Before
+    public void setUp()
+    {
+        callers = Executors.newCachedThreadPool();
+        stats = new EtcdGroupCommitStats();
+    }
+
+    @After
+    public void tearDown()
+    {
+        if (committer != null)
+        {
+            committer.shutdown();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void compareKeysUnsigned()
+    {
+        Assert.assertEquals(0, EtcdGroupCommitter.compareKeys(bs("a/b"), bs("a/b")));
+        Assert.assertTrue(EtcdGroupCommitter.compareKeys(bs("a/b"), bs("a/c")) < 0);
+        Assert.assertTrue(EtcdGroupCommitter.compareKeys(bs("a/c"), bs("a/b")) > 0);
+        // a prefix is smaller than the keys starting with it
+        Assert.assertTrue(EtcdGroupCommitter.compareKeys(bs("a"), bs("a/b")) < 0);
+        Assert.assertTrue(EtcdGroupCommitter.compareKeys(ByteString.EMPTY, bs("a")) < 0);
+        // bytes >= 0x80 are larger than ASCII, as in ETCD, although they are negative as java bytes
+        ByteString highByte = ByteString.copyFrom(new byte[] {(byte) 0x80});
+        ByteString asciiByte = ByteString.copyFrom(new byte[] {0x7F});
+        Assert.assertTrue(EtcdGroupCommitter.compareKeys(asciiByte, highByte) < 0);
+        Assert.assertTrue(EtcdGroupCommitter.compareKeys(highByte, asciiByte) > 0);
+    }
+
+    @Test
+    public void singleKeyRanges()
+    {
+        KeyRange key = new KeyRange(bs("a/b"), ByteString.EMPTY);
+        Assert.assertTrue(key.overlaps(new KeyRange(bs("a/b"), ByteString.EMPTY)));
+        Assert.assertFalse(key.overlaps(new KeyRange(bs("a/c"), ByteString.EMPTY)));
+        // the range of a single key ends right after the key, before any longer key
+        Assert.assertFalse(key.overlaps(new KeyRange(bs("a/b/"), ByteString.EMPTY)));
+        Assert.assertFalse(key.overlaps(new KeyRange(bs("a"), ByteString.EMPTY)));
+    }
+
+    @Test
+    public void prefixRanges()
+    {
+        // all keys starting with "a/", as requested by ETCD prefix operations
+        KeyRange prefix = new KeyRange(bs("a/"), bs("a0"));
+        Assert.assertTrue(prefix.overlaps(new KeyRange(bs("a/b"), ByteString.EMPTY)));
+        Assert.assertTrue(new KeyRange(bs("a/b"), ByteString.EMPTY).overlaps(prefix));
+        Assert.assertTrue(prefix.overlaps(new KeyRange(bs("a/"), ByteString.EMPTY)));
+        Assert.assertTrue(prefix.overlaps(new KeyRange(bs("a/x/"), bs("a/x0"))));
+        Assert.assertTrue(prefix.overlaps(new KeyRange(bs("0"), bs("a/\0"))));
+
+        // the end of a range is exclusive
+        Assert.assertFalse(prefix.overlaps(new KeyRange(bs("a0"), ByteString.EMPTY)));
+        Assert.assertFalse(prefix.overlaps(new KeyRange(bs("a"), ByteString.EMPTY)));
+        Assert.assertFalse(prefix.overlaps(new KeyRange(bs("0"), bs("a/"))));
+        Assert.assertFalse(prefix.overlaps(new KeyRange(bs("b/"), bs("b0"))));
+    }
+
+    @Test
+    public void unboundedRanges()
+    {
+        KeyRange fromB = new KeyRange(bs("b"), bs("\0"));
+        Assert.assertTrue(fromB.overlaps(new KeyRange(bs("zzz"), ByteString.EMPTY)));
+        Assert.assertTrue(fromB.overlaps(new KeyRange(bs("b"), ByteString.EMPTY)));
+        Assert.assertTrue(fromB.overlaps(new KeyRange(bs("a"), bs("c"))));
+        Assert.assertTrue(fromB.overlaps(new KeyRange(bs("c"), bs("\0"))));
+        Assert.assertFalse(fromB.overlaps(new KeyRange(bs("a"), ByteString.EMPTY)));
+        Assert.assertFalse(fromB.overlaps(new KeyRange(bs("a"), bs("b"))));
+    }
+
+    @Test
+    public void disjointCommitsJoinGroup() throws Exception
+    {
+        createCommitter(10);
+        Future<TxnResponse> commit1 = commitAsync(put("a/1"), put("a/2"));
+        awaitPendingCommits(1);
+        Future<TxnResponse> commit2 = commitAsync(put("b/1"), delete("c/1"));
+        awaitPendingCommits(2);
+
+        committer.sendPending();
+
+        Assert.assertSame(SUCCESS, get(commit1));
+        Assert.assertSame(SUCCESS, get(commit2));
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("a/1", "a/2", "b/1", "c/1")), sentTxs);
+        Assert.assertEquals(2, stats.getBatchSizeSum());
+        Assert.assertEquals(0, stats.getSplitBatchCount());
+    }
+
+    @Test
+    public void overlappingCommitKeptOutOfGroup() throws Exception
+    {
+        createCommitter(10);
+        Future<TxnResponse> commit1 = commitAsync(put("a/1"), put("a/2"));
+        awaitPendingCommits(1);
+        // the second commit sends the first group and waits in a new one
+        Future<TxnResponse> commit2 = commitAsync(put("b/1"), put("a/2"));
+
+        Assert.assertSame(SUCCESS, get(commit1));
+        awaitPendingCommits(1);
+        Assert.assertFalse(commit2.isDone());
+
+        committer.sendPending();
+
+        Assert.assertSame(SUCCESS, get(commit2));
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a/1", "a/2"), Arrays.asList("b/1", "a/2")), sentTxs);
+    }
+
+    @Test
+    public void commitWithinDeletedRangeKeptOutOfGroup() throws Exception
+    {
+        createCommitter(10);
+        Future<TxnResponse> commit1 = commitAsync(deletePrefix("a/"));
+        awaitPendingCommits(1);
+        Future<TxnResponse> commit2 = commitAsync(put("a/x/1"));
+
+        Assert.assertSame(SUCCESS, get(commit1));
+        awaitPendingCommits(1);
+        committer.sendPending();
+
+        Assert.assertSame(SUCCESS, get(commit2));
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a/"), Arrays.asList("a/x/1")), sentTxs);
+    }
+
+    @Test
+    public void commitExceedingOpLimitKeptOutOfGroup() throws Exception
+    {
+        createCommitter(3);
+        Future<TxnResponse> commit1 = commitAsync(put("a/1"), put("a/2"));
+        awaitPendingCommits(1);
+        Future<TxnResponse> commit2 = commitAsync(put("b/1"), put("b/2"));
+
+        Assert.assertSame(SUCCESS, get(commit1));
+        awaitPendingCommits(1);
+        // still fits into the group of the second commit
+        Future<TxnResponse> commit3 = commitAsync(put("c/1"));
+        awaitPendingCommits(2);
+        committer.sendPending();
+
+        Assert.assertSame(SUCCESS, get(commit2));
+        Assert.assertSame(SUCCESS, get(commit3));
+        Assert.assertEquals(
+            Arrays.asList(Arrays.asList("a/1", "a/2"), Arrays.asList("b/1", "b/2", "c/1")),
+            sentTxs
+        );
+    }
+
+    @Test
+    public void failedGroupResentOneByOne() throws Exception
+    {
+        createCommitter(10);
+        Future<TxnResponse> goodCommit = commitAsync(put("a/1"));
+        awaitPendingCommits(1);
+        Future<TxnResponse> badCommit = commitAsync(put("bad/1"));
+        awaitPendingCommits(2);
+        Future<TxnResponse> otherGoodCommit = commitAsync(put("c/1"));
+        awaitPendingCommits(3);
+
+        committer.sendPending();
+
+        Assert.assertSame(SUCCESS, get(goodCommit));
+        Assert.assertSame(SUCCESS, get(otherGoodCommit));
+        assertFailed(badCommit, "bad/1");
+        Assert.assertEquals(
+            Arrays.asList(
+                Arrays.asList("a/1", "bad/1", "c/1"),
+                Arrays.asList("a/1"),
+                Arrays.asList("bad/1"),
+                Arrays.asList("c/1")
+            ),
+            sentTxs
+        );
+        Assert.assertEquals(1, stats.getSplitBatchCount());
+    }
+
+    @Test
+    public void unsucceededGroupResentOneByOne() throws Exception
+    {
+        List<List<String>> unsucceededTxs = Collections.synchronizedList(new ArrayList<>());
+        committer = new EtcdGroupCommitter(
+            ops ->
+            {
+                List<String> keys = keys(ops);
+                unsucceededTxs.add(keys);
+                // the merged transaction is answered, but not applied
+                return TxnResponse.newBuilder().setSucceeded(keys.size() == 1).build();
+            },
+            WINDOW_MICROS,
+            10,
+            stats
+        );
+        Future<TxnResponse> commit1 = commitAsync(put("a/1"));
+        awaitPendingCommits(1);
+        Future<TxnResponse> commit2 = commitAsync(put("b/1"));
+        awaitPendingCommits(2);
+
+        committer.sendPending();
+
+        Assert.assertTrue(get(commit1).getSucceeded());
+        Assert.assertTrue(get(commit2).getSucceeded());
+        Assert.assertEquals(
+            Arrays.asList(Arrays.asList("a/1", "b/1"), Arrays.asList("a/1"), Arrays.asList("b/1")),
+            unsucceededTxs
+        );
+        Assert.assertEquals(1, stats.getSplitBatchCount());
+    }
+
+    @Test
+    public void eachCallerGetsOwnException() throws Exception
+    {
+        createCommitter(10);
+        Future<TxnResponse> badCommit1 = commitAsync(put("bad/1"));
+        awaitPendingCommits(1);
+        Future<TxnResponse> badCommit2 = commitAsync(put("bad/2"));
+        awaitPendingCommits(2);
+
+        committer.sendPending();
+
+        assertFailed(badCommit1, "bad/1");
+        assertFailed(badCommit2, "bad/2");
+    }
+
+    @Test
+    public void shutdownSendsPendingGroup() throws Exception
+    {
+        createCommitter(10);
+        Future<TxnResponse> commit = commitAsync(put("a/1"));
+        awaitPendingCommits(1);
+
+        committer.shutdown();
+        committer.awaitShutdown(TIMEOUT_MILLIS);
+
+        Assert.assertSame(SUCCESS, get(commit));
+
+        // a commit after the shutdown starts a new sender
+        Future<TxnResponse> laterCommit = commitAsync(put("a/1"));
+        awaitPendingCommits(1);
+        committer.shutdown();
+
+        Assert.assertSame(SUCCESS, get(laterCommit));
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a/1"), Arrays.asList("a/1")), sentTxs);
+    }
+
+    /**
+     * Creates a committer whose sender fails every transaction that contains a key starting with "bad/"
+     */
+    private void createCommitter(int maxOpsPerTx)
+    {
+        committer = new EtcdGroupCommitter(
+            ops ->
+            {
+                List<String> keys = keys(ops);
+                sentTxs.add(keys);
+                for (String key : keys)
+                {
+                    if (key.startsWith("bad/"))
+                    {
+                        throw new TransactionException("Failed to write " + key, null);
+                    }
+                }
+                return SUCCESS;
+            },
+            WINDOW_MICROS,
+            maxOpsPerTx,
+            stats
+        );
+    }
+
+    private Future<TxnResponse> commitAsync(RequestOp... ops)
+    {
+        return callers.submit(() -> committer.commit(Arrays.asList(ops)));
+    }
+
+    private void awaitPendingCommits(int count) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (committer.getPendingCommitCount() != count && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(1);
+        }
+        Assert.assertEquals(count, committer.getPendingCommitCount());
+    }
+
+    private static TxnResponse get(Future<TxnResponse> commit) throws Exception
+    {
+        return commit.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void assertFailed(Future<TxnResponse> commit, String key) throws Exception
+    {
+        try
+        {
+            get(commit);
+            Assert.fail("Commit of " + key + " succeeded");
+        }
+        catch (ExecutionException exc)
+        {
+            Assert.assertTrue(exc.getCause() instanceof TransactionException);
+            Assert.assertEquals("Failed to write " + key, exc.getCause().getMessage());
+        }
+    }
+
+    private static List<String> keys(List<RequestOp> ops)
+    {
+        List<String> keys = new ArrayList<>();
+        for (RequestOp op : ops)
+        {
+            keys.add(
+                op.hasRequestPut() ?
+                    op.getRequestPut().getKey().toStringUtf8() :
+                    op.getRequestDeleteRange().getKey().toStringUtf8()
+            );
+        }
+        return keys;
+    }
+
+    private static RequestOp put(String key)
+    {
+        return RequestOp.newBuilder()
+            .setRequestPut(PutRequest.newBuilder().setKey(bs(key)).setValue(bs("value")))
+            .build();
+    }
+
+    private static RequestOp delete(String key)
+    {
+        return RequestOp.newBuilder()
+            .setRequestDeleteRange(DeleteRangeRequest.newBuilder().setKey(bs(key)))
+            .build();
+    }
+
+    private static RequestOp deletePrefix(String prefix)
+    {
+        ByteString start = bs(prefix);
+        byte[] end = start.toByteArray();
+        ++end[end.length - 1];
+        return RequestOp.newBuilder()
+            .setRequestDeleteRange(DeleteRangeRequest.newBuilder().setKey(start).setRangeEnd(ByteString.copyFrom(end)))
+            .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.linbit.linstor.transaction;
+
+import static com.ibm.etcd.client.KeyUtils.bs;
+
+import com.linbit.linstor.logging.StderrErrorReporter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeMap;
+
+import com.ibm.etcd.api.Event;
+import com.ibm.etcd.api.KeyValue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EtcdKeyIndexTest
+{
+    private static final String PREFIX = "/LINSTOR/";
+
+    private EtcdKeyIndex keyIndex;
+
+    @Before
+    public void setUp()
+    {
+        keyIndex = new EtcdKeyIndex(new StderrErrorReporter("Test"), PREFIX, Arrays.asList("NODES", "NODES_NET"));
+
+        TreeMap<String, String> entries = new TreeMap<>();
+        entries.put(PREFIX + "NODES/N1/NODE_NAME", "N1");
+        entries.put(PREFIX + "NODES/N1/UUID", "uuid1");
+        entries.put(PREFIX + "NODES/N2/NODE_NAME", "N2");
+        entries.put(PREFIX + "NODES_NET/N1:eth0/NODE_NAME", "N1");
+        entries.put(PREFIX + "DBHISTORY/version", "42");
+        keyIndex.load(entries, 10);
+    }
+
+    @Test
+    public void prefixGet()
+    {
+        TreeMap<String, String> node1 = keyIndex.get(PREFIX + "NODES/N1/", true);
+        Assert.assertEquals(2, node1.size());
+        Assert.assertEquals("uuid1", node1.get(PREFIX + "NODES/N1/UUID"));
+
+        // NODES_NET must not be part of the NODES table
+        Assert.assertEquals(3, keyIndex.get(PREFIX + "NODES/", true).size());
+        Assert.assertEquals(
+            Collections.singletonMap(PREFIX + "NODES/N2/NODE_NAME", "N2"),
+            keyIndex.get(PREFIX + "NODES/N2/NODE_NAME", false)
+        );
+        Assert.assertTrue(keyIndex.get(PREFIX + "NODES/N3/", true).isEmpty());
+    }
+
+    @Test
+    public void keysOutsideOfTablesNotAnswered()
+    {
+        Assert.assertNull(keyIndex.get(PREFIX + "DBHISTORY/version", false));
+        Assert.assertNull(keyIndex.get(PREFIX, true));
+    }
+
+    @Test
+    public void eventsApplied()
+    {
+        keyIndex.apply(
+            Arrays.asList(
+                event(Event.EventType.PUT, "NODES/N3/NODE_NAME", "N3", 11),
+                event(Event.EventType.DELETE, "NODES/N1/UUID", "", 11),
+                event(Event.EventType.PUT, "NODES/N2/NODE_NAME", "N2b", 12)
+            )
+        );
+        // already applied, must not wait
+        keyIndex.awaitRevision(12);
+
+        Assert.assertTrue(keyIndex.isUsable());
+        Assert.assertEquals(1, keyIndex.get(PREFIX + "NODES/N1/", true).size());
+        Assert.assertEquals("N2b", get("NODES/N2/NODE_NAME"));
+        Assert.assertEquals("N3", get("NODES/N3/NODE_NAME"));
+    }
+
+    @Test
+    public void awaitRevisionWaitsForWatch() throws Exception
+    {
+        Thread watchThread = new Thread(
+            () ->
+            {
+                try
+                {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException ignored)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                keyIndex.apply(Collections.singletonList(event(Event.EventType.PUT, "NODES/N3/NODE_NAME", "N3", 11)));
+            }
+        );
+        watchThread.start();
+
+        keyIndex.awaitRevision(11);
+        watchThread.join();
+
+        Assert.assertTrue(keyIndex.isUsable());
+        Assert.assertEquals(1, keyIndex.get(PREFIX + "NODES/N3/", true).size());
+    }
+
+    private String get(String key)
+    {
+        return keyIndex.get(PREFIX + key, false).get(PREFIX + key);
+    }
+
+    private static Event event(Event.EventType type, String key, String value, long revision)
+    {
+        return Event.newBuilder()
+            .setType(type)
+            .setKv(KeyValue.newBuilder().setKey(bs(PREFIX + key)).setValue(bs(value)).setModRevision(revision))
+            .build();
+    }
+}
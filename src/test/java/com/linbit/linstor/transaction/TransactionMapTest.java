@@ -14,6 +14,8 @@ import static org.junit.Assert.assertTrue;
 
 public class TransactionMapTest
 {
+    private static final int LARGE_MAP_SIZE = 10_000;
+
     private DummyTxMgr dummyTxMgr;
     private NoOpMapDatabaseDriver<String, DummyTxObj> dummyMapDbDriver = new NoOpMapDatabaseDriver<>();
 
@@ -139,4 +141,31 @@ public class TransactionMapTest
         assertTrue(backingMap.isEmpty());
         assertTrue(txMap.isEmpty());
     }
+
+    /**
+     * A small change to a large map, like creating a resource on a node with many resources, must only register the
+     * modified objects with the transaction manager
+     */
+    @Test
+    public void smallChangeOnLargeMap() throws Exception
+    {
+        TreeMap<String, TransactionSimpleObject<Object, String>> largeBackingMap = new TreeMap<>();
+        TransactionMap<String, TransactionSimpleObject<Object, String>> largeTxMap = new TransactionMap<>(
+            largeBackingMap,
+            null,
+            () -> dummyTxMgr
+        );
+        for (int idx = 0; idx < LARGE_MAP_SIZE; ++idx)
+        {
+            largeBackingMap.put("key" + idx, new TransactionSimpleObject<>(null, "value", null, () -> dummyTxMgr));
+        }
+
+        largeTxMap.put("newKey", new TransactionSimpleObject<>(null, "value", null, () -> dummyTxMgr));
+        largeTxMap.get("key42").set("newValue");
+        assertEquals(2, dummyTxMgr.sizeObjects());
+        dummyTxMgr.commit();
+
+        assertEquals("newValue", largeTxMap.get("key42").get());
+        assertFalse(largeTxMap.isDirty());
+    }
 }
@@ -0,0 +1,457 @@
+package com.linbit.locks;
+
+import com.linbit.ImplementationError;
+import com.linbit.InvalidNameException;
+import com.linbit.linstor.core.CoreModule;
+import com.linbit.linstor.core.apicallhandler.controller.CtrlRscDfnLockHelper;
+import com.linbit.linstor.core.identifier.NodeName;
+import com.linbit.linstor.core.identifier.ResourceName;
+import com.linbit.linstor.security.AccessContext;
+import com.linbit.locks.LockGuardFactory.LockObj;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class LockGuardFactoryTest
+{
+    private static final int THREAD_COUNT = 16;
+    private static final int ITERATIONS = 2000;
+    private static final int OBJ_COUNT = 32;
+
+    private LockStats lockStats;
+    private LockGuardFactory lockGuardFactory;
+    private CtrlRscDfnLockHelper rscDfnLockHelper;
+    private ResourceName[] rscNames;
+    private NodeName[] nodeNames;
+
+    // Number of threads that currently modify an object, or -1 while a thread inserts or removes objects
+    private AtomicIntegerArray rscDfnWriters;
+    private AtomicIntegerArray nodeWriters;
+    // Modified only while holding the lock of the object
+    private int[] rscDfnCounters;
+    private AtomicInteger violations;
+
+    @Before
+    public void setUp()
+    {
+        lockStats = new LockStats();
+        lockGuardFactory = new LockGuardFactory(
+            new ReentrantReadWriteLock(true),
+            new StripedMapLock(8),
+            new StripedMapLock(8),
+            new StripedMapLock(8),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            new ReentrantReadWriteLock(true),
+            lockStats
+        );
+        rscDfnLockHelper = new CtrlRscDfnLockHelper(
+            Mockito.mock(AccessContext.class),
+            Mockito.mock(CoreModule.ResourceDefinitionMap.class),
+            lockGuardFactory
+        );
+        rscNames = new ResourceName[OBJ_COUNT];
+        nodeNames = new NodeName[OBJ_COUNT];
+        for (int idx = 0; idx < OBJ_COUNT; ++idx)
+        {
+            rscNames[idx] = rscName(idx);
+            nodeNames[idx] = nodeName(idx);
+        }
+        rscDfnWriters = new AtomicIntegerArray(OBJ_COUNT);
+        nodeWriters = new AtomicIntegerArray(OBJ_COUNT);
+        rscDfnCounters = new int[OBJ_COUNT];
+        violations = new AtomicInteger();
+    }
+
+    /**
+     * Concurrent handlers that modify single objects, modify the whole map, read the whole map and
+     * lock objects of several maps in random order must neither deadlock nor observe concurrent modifications.
+     * The handlers include the lock sets of the volume definition create, toggle disk and resource create / delete
+     * API calls, see {@link CtrlRscDfnLockHelper}.
+     */
+    @Test
+    public void concurrentHandlers() throws Exception
+    {
+        AtomicInteger objWrites = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try
+        {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thrIdx = 0; thrIdx < THREAD_COUNT; ++thrIdx)
+            {
+                final long seed = thrIdx;
+                results.add(
+                    executor.submit(
+                        () ->
+                        {
+                            Random random = new Random(seed);
+                            for (int iteration = 0; iteration < ITERATIONS; ++iteration)
+                            {
+                                int op = random.nextInt(14);
+                                int rscIdx = random.nextInt(OBJ_COUNT);
+                                int nodeIdx = random.nextInt(OBJ_COUNT);
+                                if (op < 5)
+                                {
+                                    modifyRscDfn(rscIdx);
+                                    objWrites.incrementAndGet();
+                                }
+                                else
+                                if (op < 7)
+                                {
+                                    modifyNodeAndRscDfns(nodeIdx, rscIdx, random.nextInt(OBJ_COUNT));
+                                    objWrites.addAndGet(2);
+                                }
+                                else
+                                if (op < 9)
+                                {
+                                    createVlmDfns(rscIdx, nodeIdx, random.nextInt(OBJ_COUNT));
+                                    objWrites.incrementAndGet();
+                                }
+                                else
+                                if (op < 10)
+                                {
+                                    toggleDisk(rscIdx, nodeIdx);
+                                    objWrites.incrementAndGet();
+                                }
+                                else
+                                if (op < 11)
+                                {
+                                    createOrDeleteRsc(rscIdx);
+                                    objWrites.incrementAndGet();
+                                }
+                                else
+                                if (op < 12)
+                                {
+                                    readAllRscDfns();
+                                }
+                                else
+                                if (op < 13)
+                                {
+                                    readAllNodes();
+                                }
+                                else
+                                {
+                                    modifyRscDfnMap();
+                                }
+                            }
+                        }
+                    )
+                );
+            }
+            for (Future<?> result : results)
+            {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(0, violations.get());
+        int counterSum = 0;
+        for (int counter : rscDfnCounters)
+        {
+            counterSum += counter;
+        }
+        Assert.assertEquals(objWrites.get(), counterSum);
+    }
+
+    @Test
+    public void differentObjectsDoNotBlock() throws Exception
+    {
+        CountDownLatch otherLocked = new CountDownLatch(1);
+        try (LockGuard ignored = lockGuardFactory.create().writeObj(LockObj.RSC_DFN_MAP, "rsc0").build())
+        {
+            Thread other = new Thread(
+                () ->
+                {
+                    try (
+                        LockGuard ignored2 = lockGuardFactory.create()
+                            .writeObj(LockObj.RSC_DFN_MAP, findOtherStripe("rsc0"))
+                            .build()
+                    )
+                    {
+                        otherLocked.countDown();
+                    }
+                }
+            );
+            other.start();
+            Assert.assertTrue(otherLocked.await(10, TimeUnit.SECONDS));
+            other.join();
+        }
+    }
+
+    @Test(expected = ImplementationError.class)
+    public void upgradeFails()
+    {
+        try (LockGuard ignored = lockGuardFactory.build(LockGuardFactory.LockType.READ, LockObj.RSC_DFN_MAP))
+        {
+            lockGuardFactory.create().writeObj(LockObj.RSC_DFN_MAP, "rsc0").build();
+        }
+    }
+
+    @Test(expected = ImplementationError.class)
+    public void objLocksNotSupported()
+    {
+        lockGuardFactory.create().writeObj(LockObj.KVS_MAP, "kvs0");
+    }
+
+    @Test
+    public void lockStatsRecorded()
+    {
+        try (LockGuard lockGuard = lockGuardFactory.create().writeObj(LockObj.RSC_DFN_MAP, "rsc0").buildDeferred())
+        {
+            lockGuard.setHolder("TestApiCall");
+            lockGuard.lock();
+        }
+
+        Assert.assertEquals(1, rscDfnStats(LockStats.Mode.INTENT_WRITE).getHold().getCount());
+        Assert.assertEquals(1, rscDfnStats(LockStats.Mode.OBJ_WRITE).getHold().getCount());
+        Assert.assertEquals(0, rscDfnStats(LockStats.Mode.WRITE).getWait().getCount());
+
+        LockStats.Holder holder = lockStats.getHolders().iterator().next();
+        Assert.assertEquals(1, lockStats.getHolders().size());
+        Assert.assertEquals("TestApiCall", holder.getName());
+        Assert.assertEquals(1, holder.getAcquisitionCount(LockObj.RSC_DFN_MAP));
+        Assert.assertEquals(1, holder.getAcquisitionCount(LockObj.RECONFIGURATION));
+        Assert.assertEquals(0, holder.getAcquisitionCount(LockObj.NODES_MAP));
+    }
+
+    private LockStats.Entry rscDfnStats(LockStats.Mode mode)
+    {
+        return lockStats.getEntry(LockObj.RSC_DFN_MAP, mode);
+    }
+
+    private String findOtherStripe(String objName)
+    {
+        StripedMapLock mapLock = new StripedMapLock(8);
+        int stripeIdx = mapLock.getStripeIdx(objName);
+        String otherName;
+        int nameIdx = 1;
+        do
+        {
+            otherName = "rsc" + nameIdx;
+            ++nameIdx;
+        }
+        while (mapLock.getStripeIdx(otherName) == stripeIdx);
+        return otherName;
+    }
+
+    private void modifyRscDfn(int rscIdx)
+    {
+        try (LockGuard ignored = lockGuardFactory.create().writeObj(LockObj.RSC_DFN_MAP, rscNames[rscIdx]).build())
+        {
+            enter(rscDfnWriters, rscIdx);
+            ++rscDfnCounters[rscIdx];
+            // widen the window for conflicting lock holders
+            Thread.yield();
+            exit(rscDfnWriters, rscIdx);
+        }
+    }
+
+    private void modifyNodeAndRscDfns(int nodeIdx, int rscIdx1st, int rscIdx2nd)
+    {
+        // Objects are requested in random order, the LockGuard must acquire them in a fixed order
+        try (
+            LockGuard ignored = lockGuardFactory.create()
+                .writeObj(LockObj.RSC_DFN_MAP, rscNames[rscIdx1st])
+                .writeObj(LockObj.NODES_MAP, nodeNames[nodeIdx])
+                .writeObj(LockObj.RSC_DFN_MAP, rscNames[rscIdx2nd])
+                .build()
+        )
+        {
+            enter(nodeWriters, nodeIdx);
+            enter(rscDfnWriters, rscIdx1st);
+            ++rscDfnCounters[rscIdx1st];
+            exit(rscDfnWriters, rscIdx1st);
+            enter(rscDfnWriters, rscIdx2nd);
+            ++rscDfnCounters[rscIdx2nd];
+            exit(rscDfnWriters, rscIdx2nd);
+            exit(nodeWriters, nodeIdx);
+        }
+    }
+
+    /**
+     * Collects the nodes of the resource definition, then creates the volumes of its resources on those nodes
+     */
+    private void createVlmDfns(int rscIdx, int nodeIdx1st, int nodeIdx2nd)
+    {
+        try (LockGuard ignored = rscDfnLockHelper.rscDfnReadLocks(rscNames[rscIdx].displayValue).build())
+        {
+            if (rscDfnWriters.get(rscIdx) != 0)
+            {
+                violations.incrementAndGet();
+            }
+        }
+        try (
+            LockGuard ignored = rscDfnLockHelper.rscDfnLocks(
+                rscNames[rscIdx].displayValue,
+                Arrays.asList(nodeNames[nodeIdx1st].displayValue, nodeNames[nodeIdx2nd].displayValue)
+            ).build()
+        )
+        {
+            enter(rscDfnWriters, rscIdx);
+            enter(nodeWriters, nodeIdx1st);
+            if (nodeIdx2nd != nodeIdx1st)
+            {
+                enter(nodeWriters, nodeIdx2nd);
+            }
+            ++rscDfnCounters[rscIdx];
+            Thread.yield();
+            exit(nodeWriters, nodeIdx2nd);
+            exit(nodeWriters, nodeIdx1st);
+            exit(rscDfnWriters, rscIdx);
+        }
+    }
+
+    private void toggleDisk(int rscIdx, int nodeIdx)
+    {
+        try (
+            LockGuard ignored = rscDfnLockHelper
+                .rscDfnLocks(rscNames[rscIdx], Collections.singleton(nodeNames[nodeIdx]))
+                .build()
+        )
+        {
+            enter(rscDfnWriters, rscIdx);
+            enter(nodeWriters, nodeIdx);
+            ++rscDfnCounters[rscIdx];
+            exit(nodeWriters, nodeIdx);
+            exit(rscDfnWriters, rscIdx);
+        }
+    }
+
+    /**
+     * Resource create and delete run the auto helpers, which may modify any node
+     */
+    private void createOrDeleteRsc(int rscIdx)
+    {
+        try (
+            LockGuard ignored = rscDfnLockHelper.rscDfnNodesMapLocks(rscNames[rscIdx])
+                .write(LockObj.STOR_POOL_DFN_MAP)
+                .build()
+        )
+        {
+            enter(rscDfnWriters, rscIdx);
+            for (int nodeIdx = 0; nodeIdx < OBJ_COUNT; ++nodeIdx)
+            {
+                if (!nodeWriters.compareAndSet(nodeIdx, 0, -1))
+                {
+                    violations.incrementAndGet();
+                }
+            }
+            ++rscDfnCounters[rscIdx];
+            for (int nodeIdx = 0; nodeIdx < OBJ_COUNT; ++nodeIdx)
+            {
+                nodeWriters.set(nodeIdx, 0);
+            }
+            exit(rscDfnWriters, rscIdx);
+        }
+    }
+
+    private void readAllNodes()
+    {
+        try (LockGuard ignored = lockGuardFactory.build(LockGuardFactory.LockType.READ, LockObj.NODES_MAP))
+        {
+            for (int nodeIdx = 0; nodeIdx < OBJ_COUNT; ++nodeIdx)
+            {
+                if (nodeWriters.get(nodeIdx) != 0)
+                {
+                    violations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void readAllRscDfns()
+    {
+        try (LockGuard ignored = lockGuardFactory.build(LockGuardFactory.LockType.READ, LockObj.RSC_DFN_MAP))
+        {
+            for (int pass = 0; pass < 2; ++pass)
+            {
+                for (int rscIdx = 0; rscIdx < OBJ_COUNT; ++rscIdx)
+                {
+                    if (rscDfnWriters.get(rscIdx) != 0)
+                    {
+                        violations.incrementAndGet();
+                    }
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    private void modifyRscDfnMap()
+    {
+        try (LockGuard ignored = lockGuardFactory.build(LockGuardFactory.LockType.WRITE, LockObj.RSC_DFN_MAP))
+        {
+            for (int rscIdx = 0; rscIdx < OBJ_COUNT; ++rscIdx)
+            {
+                if (!rscDfnWriters.compareAndSet(rscIdx, 0, -1))
+                {
+                    violations.incrementAndGet();
+                }
+            }
+            for (int rscIdx = 0; rscIdx < OBJ_COUNT; ++rscIdx)
+            {
+                rscDfnWriters.set(rscIdx, 0);
+            }
+        }
+    }
+
+    private static ResourceName rscName(int idx)
+    {
+        try
+        {
+            return new ResourceName("rsc" + idx);
+        }
+        catch (InvalidNameException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+    }
+
+    private static NodeName nodeName(int idx)
+    {
+        try
+        {
+            return new NodeName("node" + idx);
+        }
+        catch (InvalidNameException exc)
+        {
+            throw new ImplementationError(exc);
+        }
+    }
+
+    private void enter(AtomicIntegerArray writers, int idx)
+    {
+        if (!writers.compareAndSet(idx, 0, 1))
+        {
+            violations.incrementAndGet();
+        }
+    }
+
+    private void exit(AtomicIntegerArray writers, int idx)
+    {
+        writers.set(idx, 0);
+    }
+}
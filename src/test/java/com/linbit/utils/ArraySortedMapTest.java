@@ -0,0 +1,92 @@
+package com.linbit.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ArraySortedMapTest
+{
+    private static final int KEY_COUNT = 64;
+    private static final int OPERATION_COUNT = 20_000;
+
+    @Test
+    public void sortedIteration()
+    {
+        ArraySortedMap<String, String> map = new ArraySortedMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put("b", "2"));
+        assertNull(map.put("c", "3"));
+        assertNull(map.put("a", "1"));
+        assertEquals("3", map.put("c", "4"));
+
+        assertEquals(3, map.size());
+        assertEquals("[a, b, c]", new ArrayList<>(map.keySet()).toString());
+        assertEquals("[1, 2, 4]", new ArrayList<>(map.values()).toString());
+        assertTrue(map.containsKey("b"));
+        assertTrue(map.containsValue("4"));
+        assertFalse(map.containsKey("d"));
+
+        assertEquals("2", map.remove("b"));
+        assertNull(map.remove("b"));
+        assertEquals("{a=1, c=4}", map.toString());
+    }
+
+    @Test
+    public void sameAsTreeMap()
+    {
+        Random random = new Random(42);
+        ArraySortedMap<Integer, Integer> map = new ArraySortedMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int opIdx = 0; opIdx < OPERATION_COUNT; ++opIdx)
+        {
+            Integer key = random.nextInt(KEY_COUNT);
+            switch (random.nextInt(4))
+            {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, opIdx), map.put(key, opIdx));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    // remove every third entry while iterating
+                    Iterator<Map.Entry<Integer, Integer>> iter = map.entrySet().iterator();
+                    Iterator<Map.Entry<Integer, Integer>> expectedIter = expected.entrySet().iterator();
+                    while (iter.hasNext())
+                    {
+                        Map.Entry<Integer, Integer> entry = iter.next();
+                        assertEquals(expectedIter.next(), entry);
+                        if (entry.getValue() % 3 == 0)
+                        {
+                            iter.remove();
+                            expectedIter.remove();
+                        }
+                    }
+                    assertFalse(expectedIter.hasNext());
+                    break;
+            }
+            assertEquals(expected, map);
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void entrySetValueWritesThrough()
+    {
+        ArraySortedMap<String, String> map = new ArraySortedMap<>();
+        map.put("a", "1");
+        map.entrySet().iterator().next().setValue("2");
+        assertEquals("2", map.get("a"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.linbit.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void buckets()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getQuantileBoundNanos(0.99));
+
+        histogram.record(-1);
+        histogram.record(LatencyHistogram.getBucketBoundNanos(0));
+        histogram.record(LatencyHistogram.getBucketBoundNanos(0) + 1);
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+
+        long[] counts = histogram.getBucketCounts();
+        assertEquals(LatencyHistogram.getBucketCount(), counts.length);
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(4, histogram.getCount());
+        assertEquals(
+            2 * LatencyHistogram.getBucketBoundNanos(0) + 1 + TimeUnit.HOURS.toNanos(1),
+            histogram.getSumNanos()
+        );
+
+        assertEquals(LatencyHistogram.getBucketBoundNanos(0), histogram.getQuantileBoundNanos(0.5));
+        assertEquals(LatencyHistogram.getBucketBoundNanos(1), histogram.getQuantileBoundNanos(0.75));
+        assertEquals(Long.MAX_VALUE, histogram.getQuantileBoundNanos(0.99));
+    }
+}
@@ -0,0 +1,97 @@
+package com.linbit.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MpscArrayQueueTest
+{
+    private static final int PRODUCER_COUNT = 8;
+    private static final int ELEMENTS_PER_PRODUCER = 100_000;
+
+    @Test
+    public void bounded()
+    {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3);
+        assertEquals(4, queue.capacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        for (int idx = 0; idx < 4; ++idx)
+        {
+            assertTrue(queue.offer(idx));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+
+        assertEquals(Integer.valueOf(0), queue.poll());
+        assertTrue(queue.offer(4));
+        for (int idx = 1; idx <= 4; ++idx)
+        {
+            assertEquals(Integer.valueOf(idx), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void concurrentProducers() throws Exception
+    {
+        MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(64);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int producerIdx = 0; producerIdx < PRODUCER_COUNT; ++producerIdx)
+        {
+            final long producerId = producerIdx;
+            Thread producer = new Thread(() ->
+            {
+                try
+                {
+                    startLatch.await();
+                    for (long seq = 0; seq < ELEMENTS_PER_PRODUCER; ++seq)
+                    {
+                        long[] element = new long[] {producerId, seq};
+                        while (!queue.offer(element))
+                        {
+                            Thread.yield();
+                        }
+                    }
+                }
+                catch (InterruptedException ignored)
+                {
+                    // test fails due to missing elements
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        startLatch.countDown();
+
+        // the elements of each producer must be taken in the order in which they were offered
+        long[] nextSeq = new long[PRODUCER_COUNT];
+        long remaining = (long) PRODUCER_COUNT * ELEMENTS_PER_PRODUCER;
+        while (remaining > 0)
+        {
+            long[] element = queue.poll();
+            if (element != null)
+            {
+                int producerId = (int) element[0];
+                assertEquals(nextSeq[producerId], element[1]);
+                ++nextSeq[producerId];
+                --remaining;
+            }
+        }
+        for (Thread producer : producers)
+        {
+            producer.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
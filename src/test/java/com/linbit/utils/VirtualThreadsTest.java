@@ -0,0 +1,87 @@
+package com.linbit.utils;
+
+import com.linbit.linstor.api.LinStorScope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class VirtualThreadsTest
+{
+    // Many more tasks than the platform worker pool has threads
+    private static final int TASK_COUNT = 1000;
+
+    @Test
+    public void unsupportedRuntime()
+    {
+        Assume.assumeFalse(VirtualThreads.isSupported());
+        try
+        {
+            VirtualThreads.newVirtualThreadPerTaskExecutor("Test");
+            Assert.fail("Virtual thread executor created on an unsupported runtime");
+        }
+        catch (UnsupportedOperationException expected)
+        {
+        }
+    }
+
+    /**
+     * All tasks block until every task has started, which only finishes if blocked tasks do not occupy
+     * a thread of a bounded pool. Each task must see only the values of its own {@link LinStorScope}.
+     */
+    @Test
+    public void blockingTasksInScope() throws Exception
+    {
+        Assume.assumeTrue(VirtualThreads.isSupported());
+
+        LinStorScope scope = new LinStorScope();
+        Key<Integer> key = Key.get(Integer.class, Names.named("taskNr"));
+        CountDownLatch allStarted = new CountDownLatch(TASK_COUNT);
+
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("Test");
+        try
+        {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int taskNr = 0; taskNr < TASK_COUNT; ++taskNr)
+            {
+                final Integer seed = taskNr;
+                results.add(
+                    executor.submit(
+                        () ->
+                        {
+                            scope.enter();
+                            try
+                            {
+                                scope.seed(key, seed);
+                                allStarted.countDown();
+                                Assert.assertTrue(allStarted.await(30, TimeUnit.SECONDS));
+                                return scope.scope(key, LinStorScope.seededKeyProvider()).get();
+                            }
+                            finally
+                            {
+                                scope.exit();
+                            }
+                        }
+                    )
+                );
+            }
+            for (int taskNr = 0; taskNr < TASK_COUNT; ++taskNr)
+            {
+                Assert.assertEquals(Integer.valueOf(taskNr), results.get(taskNr).get(30, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}